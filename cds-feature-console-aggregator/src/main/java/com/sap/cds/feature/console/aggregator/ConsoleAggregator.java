@@ -0,0 +1,262 @@
+package com.sap.cds.feature.console.aggregator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.cds.feature.console.aggregator.InstanceConnection.Instance;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregates the console streams of many application instances. The aggregator connects to the
+ * console server of each instance, tags the events with the id of the instance, merges them into
+ * one stream ordered by event time and serves the stream to the CAP console on
+ * {@value #PATH_LOGS}. Commands of the console, e.g. {@code logging/update}, are sent to all
+ * instances.
+ *
+ * <p>Can be started with: `$ java -jar cds-feature-console-aggregator-all.jar --port=54960
+ * app-0=ws://10.0.0.1:54953 app-1=ws://10.0.0.2:54953`
+ */
+public class ConsoleAggregator extends WebSocketServer {
+
+  public static final String PATH_LOGS = "/cap-console/logs";
+  public static final int DEFAULT_PORT = 54960;
+  public static final int DEFAULT_CAPACITY = 10_000;
+  public static final long DEFAULT_MAX_DELAY_MILLIS = 2_000;
+  // the field, which tags an event with the id of its instance
+  public static final String INSTANCE = "instance";
+
+  private static final Logger logger = LoggerFactory.getLogger(ConsoleAggregator.class);
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final long DRAIN_INTERVAL_MILLIS = 50;
+
+  private final List<InstanceConnection> connections = new ArrayList<>();
+  private final ReorderBuffer<String> buffer;
+  private final ScheduledExecutorService scheduler;
+  private final HttpClient httpClient;
+  private final CountDownLatch startupLatch = new CountDownLatch(1);
+
+  public ConsoleAggregator(int port, List<String> instances) {
+    this(port, instances, DEFAULT_CAPACITY, DEFAULT_MAX_DELAY_MILLIS);
+  }
+
+  /**
+   * @param port the port of the aggregated stream, 0 for a random port
+   * @param instances the instances as {@code [id=]ws://host:port}
+   * @param capacity the maximum number of events held back to be ordered
+   * @param maxDelayMillis the maximum time an event is held back to be ordered
+   */
+  public ConsoleAggregator(int port, List<String> instances, int capacity, long maxDelayMillis) {
+    super(new InetSocketAddress(port));
+    this.buffer = new ReorderBuffer<>(capacity, maxDelayMillis, this::publish);
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "console-aggregator");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.httpClient = HttpClient.newBuilder().executor(scheduler).build();
+    InstanceListener listener = new InstanceListener();
+    for (String spec : instances) {
+      connections.add(new InstanceConnection(Instance.parse(spec), httpClient, scheduler, listener));
+    }
+    setReuseAddr(true);
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int port = DEFAULT_PORT;
+    int capacity = DEFAULT_CAPACITY;
+    long maxDelay = DEFAULT_MAX_DELAY_MILLIS;
+    List<String> instances = new ArrayList<>();
+    for (String arg : args) {
+      if (arg.startsWith("--port=")) {
+        port = Integer.parseInt(arg.substring("--port=".length()));
+      } else if (arg.startsWith("--capacity=")) {
+        capacity = Integer.parseInt(arg.substring("--capacity=".length()));
+      } else if (arg.startsWith("--max-delay-ms=")) {
+        maxDelay = Long.parseLong(arg.substring("--max-delay-ms=".length()));
+      } else {
+        instances.add(arg);
+      }
+    }
+    if (instances.isEmpty()) {
+      System.err.println("Usage: ConsoleAggregator [--port=" + DEFAULT_PORT + "] [--capacity=" + DEFAULT_CAPACITY
+          + "] [--max-delay-ms=" + DEFAULT_MAX_DELAY_MILLIS + "] [id=]ws://host:port...");
+      System.exit(1);
+    }
+    ConsoleAggregator aggregator = new ConsoleAggregator(port, instances, capacity, maxDelay);
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        aggregator.stop();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }));
+    aggregator.start();
+    aggregator.awaitStart(10, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Waits until the server accepts connections.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit the unit of the timeout
+   * @return {@code false}, if the server didn't start in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean awaitStart(long timeout, TimeUnit unit) throws InterruptedException {
+    return startupLatch.await(timeout, unit);
+  }
+
+  @Override
+  public void stop(int timeout, String closeMessage) throws InterruptedException {
+    connections.forEach(InstanceConnection::close);
+    scheduler.shutdownNow();
+    super.stop(timeout, closeMessage);
+  }
+
+  /**
+   * @return the number of connected instances
+   */
+  public int getConnectedInstances() {
+    return (int) connections.stream().filter(InstanceConnection::isConnected).count();
+  }
+
+  /**
+   * @return the state of the connection to each instance and of the reorder buffer
+   */
+  public List<Map<String, Object>> getStatistics() {
+    List<Map<String, Object>> result = new ArrayList<>();
+    connections.forEach(c -> result.add(c.toMap()));
+    result.add(Map.of(
+        "buffered", buffer.size(),
+        "late", buffer.getLate(),
+        "forced", buffer.getForced()));
+    return result;
+  }
+
+  /**
+   * Tags an event with its instance and reads its time.
+   *
+   * @param instance the id of the instance
+   * @param message the event
+   * @param now the arrival time, the time of events without a {@code data.ts} timestamp
+   * @return the tagged event and its time, or {@code null}, if the message isn't an event
+   */
+  static TaggedEvent tag(String instance, String message, long now) {
+    try {
+      JsonNode node = objectMapper.readTree(message);
+      if (!(node instanceof ObjectNode event)) {
+        return null;
+      }
+      event.put(INSTANCE, instance);
+      JsonNode ts = event.path("data").path("ts");
+      return new TaggedEvent(ts.isNumber() ? ts.asLong() : now, objectMapper.writeValueAsString(event));
+    } catch (Exception e) {
+      logger.debug("Dropped invalid event of instance {}: {}", instance, e.getMessage());
+      return null;
+    }
+  }
+
+  record TaggedEvent(long timestamp, String json) {
+  }
+
+  private void publish(String event) {
+    List<WebSocket> clients = new ArrayList<>(getConnections());
+    if (!clients.isEmpty()) {
+      broadcast(event, clients);
+    }
+  }
+
+  private void drain() {
+    try {
+      buffer.drain(System.currentTimeMillis());
+    } catch (RuntimeException e) {
+      logger.warn("Failed to publish aggregated events", e);
+    }
+  }
+
+  @Override
+  public void onOpen(WebSocket conn, ClientHandshake handshake) {
+    logger.debug("New console connection from {}", conn.getRemoteSocketAddress());
+    if (!handshake.getResourceDescriptor().startsWith(PATH_LOGS)) {
+      conn.close(1008, "Only " + PATH_LOGS + " is aggregated");
+    }
+  }
+
+  @Override
+  public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+    logger.debug("Closed console connection from {} with {} {}", conn.getRemoteSocketAddress(), code, reason);
+  }
+
+  /**
+   * Sends a command of the console to all instances.
+   */
+  @Override
+  public void onMessage(WebSocket conn, String message) {
+    int sent = 0;
+    for (InstanceConnection connection : connections) {
+      if (connection.send(message)) {
+        sent++;
+      }
+    }
+    logger.debug("Sent command from {} to {} of {} instances", conn.getRemoteSocketAddress(), sent, connections.size());
+  }
+
+  @Override
+  public void onMessage(WebSocket conn, ByteBuffer message) {
+    logger.debug("received ByteBuffer from {}", conn.getRemoteSocketAddress());
+  }
+
+  @Override
+  public void onError(WebSocket conn, Exception ex) {
+    if (conn != null) {
+      logger.error("an error occurred on connection {}:", conn, ex);
+    } else {
+      logger.error("an error occurred on server: ", ex);
+      startupLatch.countDown();
+    }
+  }
+
+  @Override
+  public void onStart() {
+    logger.info("Started CAP console aggregator for {} instances on port {}", connections.size(), getPort());
+    scheduler.scheduleWithFixedDelay(this::drain, DRAIN_INTERVAL_MILLIS, DRAIN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    connections.forEach(InstanceConnection::connect);
+    startupLatch.countDown();
+  }
+
+  private final class InstanceListener implements InstanceConnection.Listener {
+
+    @Override
+    public void onConnected(InstanceConnection connection) {
+      buffer.addSource(connection.getInstance().id());
+    }
+
+    @Override
+    public void onEvent(InstanceConnection connection, String message) {
+      long now = System.currentTimeMillis();
+      TaggedEvent event = tag(connection.getInstance().id(), message, now);
+      if (event != null) {
+        buffer.add(connection.getInstance().id(), event.timestamp(), event.json(), now);
+      }
+    }
+
+    @Override
+    public void onDisconnected(InstanceConnection connection) {
+      buffer.removeSource(connection.getInstance().id());
+    }
+  }
+}
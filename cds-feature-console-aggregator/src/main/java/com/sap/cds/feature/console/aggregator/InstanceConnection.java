@@ -0,0 +1,209 @@
+package com.sap.cds.feature.console.aggregator;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking connection to the console server of one application instance. Received events are
+ * passed to the listener, commands are sent in order. A lost connection is reopened with an
+ * exponential backoff between {@value #MIN_BACKOFF_MILLIS} and {@value #MAX_BACKOFF_MILLIS} ms.
+ */
+final class InstanceConnection {
+
+  interface Listener {
+
+    void onConnected(InstanceConnection connection);
+
+    void onEvent(InstanceConnection connection, String message);
+
+    void onDisconnected(InstanceConnection connection);
+  }
+
+  static final long MIN_BACKOFF_MILLIS = 500;
+  static final long MAX_BACKOFF_MILLIS = 30_000;
+  private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+  private static final Logger logger = LoggerFactory.getLogger(InstanceConnection.class);
+
+  private final Instance instance;
+  private final HttpClient client;
+  private final ScheduledExecutorService scheduler;
+  private final Listener listener;
+  private final LongAdder events = new LongAdder();
+  private final LongAdder reconnects = new LongAdder();
+  // only accessed by the listener callbacks, which are called one at a time
+  private final StringBuilder partial = new StringBuilder();
+
+  private volatile WebSocket webSocket;
+  private volatile boolean closed;
+  // guarded by this, the previous send must complete before the next one starts
+  private CompletableFuture<WebSocket> sending = CompletableFuture.completedFuture(null);
+  private long backoffMillis = MIN_BACKOFF_MILLIS;
+
+  InstanceConnection(Instance instance, HttpClient client, ScheduledExecutorService scheduler, Listener listener) {
+    this.instance = instance;
+    this.client = client;
+    this.scheduler = scheduler;
+    this.listener = listener;
+  }
+
+  Instance getInstance() {
+    return instance;
+  }
+
+  boolean isConnected() {
+    return webSocket != null;
+  }
+
+  void connect() {
+    if (closed) {
+      return;
+    }
+    client.newWebSocketBuilder()
+        .connectTimeout(CONNECT_TIMEOUT)
+        .buildAsync(instance.uri(), new WebSocketListener())
+        .whenComplete((ws, e) -> {
+          if (e != null) {
+            logger.debug("Failed to connect to instance {}: {}", instance.id(), e.getMessage());
+            reconnect();
+          }
+        });
+  }
+
+  private synchronized void reconnect() {
+    if (closed) {
+      return;
+    }
+    long delay = backoffMillis;
+    backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+    reconnects.increment();
+    scheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sends a command to the instance.
+   *
+   * @param message the command
+   * @return {@code false}, if the instance isn't connected
+   */
+  synchronized boolean send(String message) {
+    WebSocket ws = webSocket;
+    if (ws == null) {
+      return false;
+    }
+    sending = sending.handle((r, e) -> null).thenCompose(r -> ws.sendText(message, true));
+    return true;
+  }
+
+  void close() {
+    closed = true;
+    WebSocket ws = webSocket;
+    if (ws != null) {
+      ws.sendClose(WebSocket.NORMAL_CLOSURE, "").whenComplete((r, e) -> ws.abort());
+    }
+  }
+
+  Map<String, Object> toMap() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("instance", instance.id());
+    result.put("uri", instance.uri().toString());
+    result.put("connected", isConnected());
+    result.put("events", events.sum());
+    result.put("reconnects", reconnects.sum());
+    return result;
+  }
+
+  private void disconnected() {
+    if (webSocket != null) {
+      webSocket = null;
+      listener.onDisconnected(this);
+    }
+    reconnect();
+  }
+
+  private final class WebSocketListener implements WebSocket.Listener {
+
+    @Override
+    public void onOpen(WebSocket ws) {
+      logger.debug("Connected to instance {} at {}", instance.id(), instance.uri());
+      synchronized (InstanceConnection.this) {
+        backoffMillis = MIN_BACKOFF_MILLIS;
+      }
+      webSocket = ws;
+      listener.onConnected(InstanceConnection.this);
+      ws.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+      partial.append(data);
+      if (last) {
+        String message = partial.toString();
+        partial.setLength(0);
+        events.increment();
+        listener.onEvent(InstanceConnection.this, message);
+      }
+      ws.request(1);
+      return null;
+    }
+
+    @Override
+    public CompletionStage<?> onBinary(WebSocket ws, ByteBuffer data, boolean last) {
+      ws.request(1);
+      return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+      logger.debug("Instance {} closed the connection with {} {}", instance.id(), statusCode, reason);
+      partial.setLength(0);
+      disconnected();
+      return null;
+    }
+
+    @Override
+    public void onError(WebSocket ws, Throwable error) {
+      logger.debug("Connection to instance {} failed: {}", instance.id(), error.getMessage());
+      partial.setLength(0);
+      disconnected();
+    }
+  }
+
+  /**
+   * An application instance.
+   *
+   * @param id the id, which tags the events of the instance
+   * @param uri the URI of the console server of the instance, e.g. {@code ws://host:54953/cap-console/logs}
+   */
+  record Instance(String id, URI uri) {
+
+    /**
+     * @param spec {@code [id=]ws://host:port[/path]}, the id defaults to host and port, the path to the log stream
+     * @return the instance
+     */
+    static Instance parse(String spec) {
+      int separator = spec.indexOf('=');
+      int scheme = spec.indexOf("://");
+      String id = separator > 0 && (scheme < 0 || separator < scheme) ? spec.substring(0, separator) : null;
+      URI uri = URI.create(id != null ? spec.substring(separator + 1) : spec);
+      if (uri.getHost() == null || uri.getPort() < 0) {
+        throw new IllegalArgumentException("Instance '" + spec + "' is not of the form [id=]ws://host:port");
+      }
+      if (uri.getPath() == null || uri.getPath().isEmpty() || "/".equals(uri.getPath())) {
+        uri = uri.resolve(ConsoleAggregator.PATH_LOGS);
+      }
+      return new Instance(id != null ? id : uri.getHost() + ":" + uri.getPort(), uri);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package com.sap.cds.feature.console.aggregator;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Merges the events of several sources into one stream ordered by event time. The events of each
+ * source are expected in order; an event is released, once every source has sent a later event,
+ * i.e. once it's older than the watermark, the minimum of the latest event times of the sources.
+ * As a silent source stops the watermark, events are released at the latest {@code maxDelayMillis}
+ * after their arrival, and the oldest events are released early, if more than {@code capacity}
+ * events are buffered. Events older than the last released event are late and are released
+ * immediately, so the stream is ordered unless an event was delayed beyond these bounds.
+ *
+ * @param <T> the type of the events
+ */
+public final class ReorderBuffer<T> {
+
+  private final int capacity;
+  private final long maxDelayMillis;
+  private final Consumer<T> sink;
+  private final PriorityQueue<Entry<T>> queue = new PriorityQueue<>(
+      Comparator.comparingLong((Entry<T> e) -> e.timestamp).thenComparingLong(e -> e.sequence));
+  // the buffered events in the order of their arrival, released events are removed lazily
+  private final ArrayDeque<Entry<T>> arrivals = new ArrayDeque<>();
+  // the latest event time per source
+  private final Map<String, Long> sources = new HashMap<>();
+  private long sequence;
+  private long lastReleased = Long.MIN_VALUE;
+  private long late;
+  private long forced;
+
+  /**
+   * @param capacity the maximum number of buffered events
+   * @param maxDelayMillis the maximum time an event is buffered
+   * @param sink the consumer of the released events, called while the buffer is locked
+   */
+  public ReorderBuffer(int capacity, long maxDelayMillis, Consumer<T> sink) {
+    this.capacity = Math.max(capacity, 1);
+    this.maxDelayMillis = Math.max(maxDelayMillis, 0);
+    this.sink = sink;
+  }
+
+  /**
+   * Adds a source, which holds back the watermark until it sends its first event.
+   *
+   * @param source the source
+   */
+  public synchronized void addSource(String source) {
+    sources.putIfAbsent(source, Long.MIN_VALUE);
+  }
+
+  /**
+   * Removes a source, so it no longer holds back the watermark.
+   *
+   * @param source the source
+   */
+  public synchronized void removeSource(String source) {
+    sources.remove(source);
+  }
+
+  /**
+   * Adds an event of a source.
+   *
+   * @param source the source
+   * @param timestamp the event time in milliseconds
+   * @param event the event
+   * @param now the current time in milliseconds
+   */
+  public synchronized void add(String source, long timestamp, T event, long now) {
+    sources.merge(source, timestamp, Math::max);
+    if (timestamp < lastReleased) {
+      late++;
+      sink.accept(event);
+      return;
+    }
+    Entry<T> entry = new Entry<>(timestamp, sequence++, now, event);
+    queue.add(entry);
+    arrivals.add(entry);
+    while (queue.size() > capacity) {
+      forced++;
+      release(queue.poll());
+    }
+  }
+
+  /**
+   * Releases the events older than the watermark and the events buffered for the maximum delay.
+   *
+   * @param now the current time in milliseconds
+   * @return the number of released events
+   */
+  public synchronized int drain(long now) {
+    long watermark = getWatermark();
+    int released = 0;
+    Entry<T> head;
+    while ((head = queue.peek()) != null) {
+      if (head.timestamp <= watermark) {
+        release(queue.poll());
+      } else if (isExpired(now)) {
+        // the expired event and all events before it are released
+        forced++;
+        release(queue.poll());
+      } else {
+        break;
+      }
+      released++;
+    }
+    if (queue.isEmpty()) {
+      arrivals.clear();
+    }
+    return released;
+  }
+
+  private boolean isExpired(long now) {
+    Entry<T> oldest;
+    while ((oldest = arrivals.peek()) != null && oldest.released) {
+      arrivals.poll();
+    }
+    return oldest != null && now - oldest.arrival >= maxDelayMillis;
+  }
+
+  private void release(Entry<T> entry) {
+    entry.released = true;
+    lastReleased = Math.max(lastReleased, entry.timestamp);
+    sink.accept(entry.event);
+  }
+
+  /**
+   * @return the minimum of the latest event times of the sources, {@link Long#MIN_VALUE}, if a
+   *     source hasn't sent an event yet, or {@link Long#MAX_VALUE} without sources
+   */
+  public synchronized long getWatermark() {
+    if (sources.isEmpty()) {
+      return Long.MAX_VALUE;
+    }
+    long watermark = Long.MAX_VALUE;
+    for (long latest : sources.values()) {
+      watermark = Math.min(watermark, latest);
+    }
+    return watermark;
+  }
+
+  public synchronized int size() {
+    return queue.size();
+  }
+
+  /**
+   * @return the number of events released out of order, because they arrived after later events
+   *     were released
+   */
+  public synchronized long getLate() {
+    return late;
+  }
+
+  /**
+   * @return the number of events released before the watermark passed them
+   */
+  public synchronized long getForced() {
+    return forced;
+  }
+
+  private static final class Entry<T> {
+    private final long timestamp;
+    private final long sequence;
+    private final long arrival;
+    private final T event;
+    private boolean released;
+
+    private Entry(long timestamp, long sequence, long arrival, T event) {
+      this.timestamp = timestamp;
+      this.sequence = sequence;
+      this.arrival = arrival;
+      this.event = event;
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package com.sap.cds.feature.console.aggregator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.cds.feature.console.aggregator.InstanceConnection.Instance;
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.info.PipelineMetrics;
+import com.sap.cds.feature.console.service.CommandEvent;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConsoleAggregatorTest {
+
+  private static final int INSTANCES = 3;
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final List<RemoteMonitoringService> services = new ArrayList<>();
+  private final List<RemoteMonitoringServer> servers = new ArrayList<>();
+  private ConsoleAggregator aggregator;
+  private ConsoleClient console;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    List<String> instances = new ArrayList<>();
+    for (int i = 0; i < INSTANCES; i++) {
+      RemoteMonitoringService service = mock(RemoteMonitoringService.class);
+      when(service.getPipelineMetrics()).thenReturn(new PipelineMetrics());
+      CountDownLatch started = new CountDownLatch(1);
+      RemoteMonitoringServer server = new RemoteMonitoringServer(0, service, started, new AtomicReference<>());
+      server.start();
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      services.add(service);
+      servers.add(server);
+      instances.add("app-" + i + "=ws://localhost:" + server.getPort());
+    }
+
+    aggregator = new ConsoleAggregator(0, instances, 1_000, 1_000);
+    aggregator.start();
+    assertTrue(aggregator.awaitStart(5, TimeUnit.SECONDS));
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (!allInstancesConnected() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertTrue(allInstancesConnected());
+
+    console = new ConsoleClient(new URI("ws://localhost:" + aggregator.getPort() + ConsoleAggregator.PATH_LOGS));
+    assertTrue(console.connectBlocking(5, TimeUnit.SECONDS));
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (console != null) {
+      console.closeBlocking();
+    }
+    if (aggregator != null) {
+      aggregator.stop();
+    }
+    for (RemoteMonitoringServer server : servers) {
+      server.stop();
+    }
+  }
+
+  @Test
+  void testEventsOfAllInstancesAreMergedInTimeOrder() throws Exception {
+    // later than the welcome events of the instances
+    long base = System.currentTimeMillis() + 60_000;
+    servers.get(0).broadcastToPath(logEvent(base + 1), RemoteMonitoringServer.PATH_LOGS);
+    servers.get(0).broadcastToPath(logEvent(base + 30), RemoteMonitoringServer.PATH_LOGS);
+    servers.get(1).broadcastToPath(logEvent(base + 20), RemoteMonitoringServer.PATH_LOGS);
+    servers.get(1).broadcastToPath(logEvent(base + 40), RemoteMonitoringServer.PATH_LOGS);
+    servers.get(2).broadcastToPath(logEvent(base + 10), RemoteMonitoringServer.PATH_LOGS);
+    servers.get(2).broadcastToPath(logEvent(base + 50), RemoteMonitoringServer.PATH_LOGS);
+
+    List<Long> timestamps = new ArrayList<>();
+    List<String> instances = new ArrayList<>();
+    while (timestamps.size() < 6) {
+      String message = console.messages.poll(5, TimeUnit.SECONDS);
+      assertNotNull(message, "Expected 6 aggregated events");
+      JsonNode event = mapper.readTree(message);
+      if ("welcome".equals(event.path("data").path("type").asText())) {
+        continue;
+      }
+      timestamps.add(event.path("data").path("ts").asLong() - base);
+      instances.add(event.path(ConsoleAggregator.INSTANCE).asText());
+    }
+    assertEquals(List.of(1L, 10L, 20L, 30L, 40L, 50L), timestamps);
+    assertEquals(List.of("app-0", "app-2", "app-1", "app-0", "app-1", "app-2"), instances);
+  }
+
+  @Test
+  void testCommandsAreSentToAllInstances() {
+    console.send("{\"command\":\"logging/update\",\"data\":{\"loggers\":[{\"logger\":\"root\",\"level\":\"DEBUG\"}]}}");
+
+    for (RemoteMonitoringService service : services) {
+      verify(service, timeout(5_000)).emit(any(CommandEvent.class));
+    }
+  }
+
+  @Test
+  void testTag() throws Exception {
+    ConsoleAggregator.TaggedEvent log = ConsoleAggregator.tag("app-0", logEvent(42), 1);
+    assertEquals(42, log.timestamp());
+    assertEquals("app-0", mapper.readTree(log.json()).path(ConsoleAggregator.INSTANCE).asText());
+
+    ConsoleAggregator.TaggedEvent metrics = ConsoleAggregator.tag("app-0", "{\"path\":\"system.pools\",\"data\":{}}", 7);
+    assertEquals(7, metrics.timestamp());
+
+    assertNull(ConsoleAggregator.tag("app-0", "not json", 1));
+    assertNull(ConsoleAggregator.tag("app-0", "[]", 1));
+  }
+
+  @Test
+  void testInstanceParse() {
+    Instance named = Instance.parse("app-0=ws://10.0.0.1:54953");
+    assertEquals("app-0", named.id());
+    assertEquals(URI.create("ws://10.0.0.1:54953/cap-console/logs"), named.uri());
+
+    Instance unnamed = Instance.parse("ws://10.0.0.2:54953/cap-console/logs?tenant=t1");
+    assertEquals("10.0.0.2:54953", unnamed.id());
+    assertEquals(URI.create("ws://10.0.0.2:54953/cap-console/logs?tenant=t1"), unnamed.uri());
+  }
+
+  private boolean allInstancesConnected() {
+    return aggregator.getConnectedInstances() == INSTANCES
+        && servers.stream().allMatch(s -> s.hasClients(RemoteMonitoringServer.PATH_LOGS));
+  }
+
+  private String logEvent(long ts) throws Exception {
+    return mapper.writeValueAsString(Map.of(
+        "path", "test.path",
+        "data", Map.of("level", "INFO", "logger", "test.logger", "message", "message " + ts, "ts", ts)));
+  }
+
+  private static final class ConsoleClient extends WebSocketClient {
+
+    private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+
+    ConsoleClient(URI uri) {
+      super(uri);
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshake) {
+    }
+
+    @Override
+    public void onMessage(String message) {
+      messages.add(message);
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+    }
+
+    @Override
+    public void onError(Exception ex) {
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.sap.cds.feature.console.aggregator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ReorderBufferTest {
+
+  private final List<String> released = new ArrayList<>();
+
+  @Test
+  void testEventsAreReleasedInTimeOrderBehindTheWatermark() {
+    ReorderBuffer<String> buffer = new ReorderBuffer<>(100, 1_000, released::add);
+    buffer.addSource("a");
+    buffer.addSource("b");
+
+    buffer.add("a", 10, "a10", 0);
+    buffer.add("a", 30, "a30", 0);
+    buffer.drain(0);
+    // b hasn't sent an event yet
+    assertTrue(released.isEmpty());
+
+    buffer.add("b", 20, "b20", 0);
+    buffer.drain(0);
+    assertEquals(List.of("a10", "b20"), released);
+
+    buffer.add("b", 40, "b40", 0);
+    buffer.drain(0);
+    assertEquals(List.of("a10", "b20", "a30"), released);
+    assertEquals(1, buffer.size());
+    assertEquals(0, buffer.getForced());
+  }
+
+  @Test
+  void testSilentSourceHoldsEventsAtMostTheMaximumDelay() {
+    ReorderBuffer<String> buffer = new ReorderBuffer<>(100, 1_000, released::add);
+    buffer.addSource("a");
+    buffer.addSource("silent");
+
+    buffer.add("a", 20, "a20", 0);
+    buffer.add("a", 10, "a10", 500);
+    buffer.drain(999);
+    assertTrue(released.isEmpty());
+
+    // the oldest arrival expired, the events up to it are released in order
+    buffer.drain(1_000);
+    assertEquals(List.of("a10", "a20"), released);
+    assertEquals(2, buffer.getForced());
+  }
+
+  @Test
+  void testRemovedSourceNoLongerHoldsBackTheWatermark() {
+    ReorderBuffer<String> buffer = new ReorderBuffer<>(100, 1_000, released::add);
+    buffer.addSource("a");
+    buffer.addSource("gone");
+    buffer.add("a", 10, "a10", 0);
+    buffer.drain(0);
+    assertTrue(released.isEmpty());
+
+    buffer.removeSource("gone");
+    buffer.drain(0);
+    assertEquals(List.of("a10"), released);
+  }
+
+  @Test
+  void testCapacityReleasesTheOldestEvents() {
+    ReorderBuffer<String> buffer = new ReorderBuffer<>(2, 1_000, released::add);
+    buffer.addSource("a");
+    buffer.addSource("silent");
+
+    buffer.add("a", 30, "a30", 0);
+    buffer.add("a", 10, "a10", 0);
+    buffer.add("a", 20, "a20", 0);
+
+    assertEquals(List.of("a10"), released);
+    assertEquals(2, buffer.size());
+    assertEquals(1, buffer.getForced());
+  }
+
+  @Test
+  void testLateEventsAreReleasedImmediately() {
+    ReorderBuffer<String> buffer = new ReorderBuffer<>(100, 1_000, released::add);
+    buffer.addSource("a");
+    buffer.add("a", 20, "a20", 0);
+    buffer.drain(0);
+
+    buffer.addSource("b");
+    buffer.add("b", 10, "b10", 0);
+
+    assertEquals(List.of("a20", "b10"), released);
+    assertEquals(1, buffer.getLate());
+    assertEquals(0, buffer.size());
+  }
+
+  @Test
+  void testEqualTimestampsKeepTheArrivalOrder() {
+    ReorderBuffer<String> buffer = new ReorderBuffer<>(100, 1_000, released::add);
+    buffer.add("a", 10, "first", 0);
+    buffer.add("b", 10, "second", 0);
+    buffer.add("a", 10, "third", 0);
+    buffer.drain(0);
+
+    assertEquals(List.of("first", "second", "third"), released);
+  }
+}
@@ -0,0 +1,67 @@
+package com.sap.cds.feature.console.benchmarks;
+
+import com.sap.cds.feature.console.info.collectors.LogCollector;
+import com.sap.cds.feature.console.service.CommandEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a {@code logging/update} command, which activates a large set of loggers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActivateLoggersBenchmark {
+
+  @Param({"10", "1000", "10000"})
+  int loggers;
+
+  private ConsoleFixture fixture;
+  private CommandEvent update;
+
+  @Setup(Level.Trial)
+  public void setup() throws InterruptedException {
+    fixture = new ConsoleFixture(1);
+    List<Map<String, Object>> loggerList = new ArrayList<>(loggers);
+    for (int i = 0; i < loggers; i++) {
+      Map<String, Object> logger = new HashMap<>();
+      logger.put("logger", "benchmark.loggers.package" + (i % 100) + ".Logger" + i);
+      logger.put("level", "DEBUG");
+      logger.put("group", Boolean.FALSE);
+      loggerList.add(logger);
+    }
+    Map<String, Object> data = new HashMap<>();
+    data.put("loggers", loggerList);
+    update = new CommandEvent(LogCollector.COMMAND_UPDATE, data);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    fixture.close();
+  }
+
+  @Benchmark
+  public void activateLoggers() {
+    fixture.getRemoteMonitoringService().emit(update);
+  }
+
+}
@@ -0,0 +1,34 @@
+package com.sap.cds.feature.console.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so that the allocation rate and the bytes allocated per
+ * operation are reported as well. Accepts the regular JMH command line options, e.g. {@code java
+ * -jar target/benchmarks.jar LogAppenderBenchmark}. The results are written to {@code
+ * jmh-result.json} unless specified otherwise.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    ChainedOptionsBuilder options = new OptionsBuilder()
+        .parent(commandLine)
+        .addProfiler(GCProfiler.class)
+        .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+        .result(commandLine.getResult().orElse("jmh-result.json"));
+    if (commandLine.getIncludes().isEmpty()) {
+      options.include(BenchmarkRunner.class.getPackageName() + ".*");
+    }
+    new Runner(options.build()).run();
+  }
+
+}
@@ -0,0 +1,62 @@
+package com.sap.cds.feature.console.benchmarks;
+
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteLogData;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fan-out cost of {@link RemoteMonitoringServer#broadcastToPath(String, String)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastBenchmark {
+
+  @Param({"1", "8", "32"})
+  int clients;
+
+  private ConsoleFixture fixture;
+  private RemoteMonitoringServer server;
+  private String message;
+
+  @Setup(Level.Trial)
+  public void setup() throws InterruptedException {
+    fixture = new ConsoleFixture(clients);
+    server = fixture.getServer();
+    RemoteLogData logData = new RemoteLogData.Builder()
+        .level("INFO")
+        .logger("benchmark.broadcast")
+        .message("Broadcast benchmark message")
+        .build();
+    message = InfoEvent.createRemoteLog(Path.TRACES_OUTPUT, logData).toJson();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    fixture.close();
+  }
+
+  @Benchmark
+  public void broadcastToPath() {
+    server.broadcastToPath(message, RemoteMonitoringServer.PATH_LOGS);
+  }
+
+}
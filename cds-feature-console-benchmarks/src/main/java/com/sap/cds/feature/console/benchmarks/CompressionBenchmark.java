@@ -0,0 +1,90 @@
+package com.sap.cds.feature.console.benchmarks;
+
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteLogData;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.TextFrame;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CPU time and bytes saved by the permessage-deflate compression of log events. The secondary
+ * results {@code bytesIn} and {@code bytesOut} are the payload sizes before and after compression.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+  private static final int MESSAGES = 64;
+
+  @Param({"1", "6", "9"})
+  int level;
+
+  @Param({"true", "false"})
+  boolean contextTakeover;
+
+  private PerMessageDeflateExtension deflate;
+  private byte[][] messages;
+  private int next;
+
+  /**
+   * Payload sizes of the compressed messages.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Bytes {
+    public long bytesIn;
+    public long bytesOut;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    deflate = new PerMessageDeflateExtension(level);
+    deflate.setThreshold(0);
+    deflate.setServerNoContextTakeover(!contextTakeover);
+    messages = new byte[MESSAGES][];
+    for (int i = 0; i < MESSAGES; i++) {
+      RemoteLogData logData = new RemoteLogData.Builder()
+          .level(i % 8 == 0 ? "WARN" : "INFO")
+          .logger("com.sap.cds.services.impl.odata.ODataRequestHandler")
+          .thread("http-nio-8080-exec-" + (i % 10))
+          .type("log")
+          .message("Processed request GET /odata/v4/CatalogService/Books(" + (4711 + i) + ") in " + (i * 7 % 100) + " ms")
+          .ts(1_700_000_000_000L + i * 13L)
+          .build();
+      messages[i] = InfoEvent.createRemoteLog(Path.TRACES_OUTPUT, logData).toJson().getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  @Benchmark
+  public TextFrame compress(Bytes bytes) {
+    byte[] message = messages[next];
+    next = (next + 1) % MESSAGES;
+    TextFrame frame = new TextFrame();
+    frame.setPayload(ByteBuffer.wrap(message));
+    deflate.encodeFrame(frame);
+    bytes.bytesIn += message.length;
+    bytes.bytesOut += frame.getPayloadData().remaining();
+    return frame;
+  }
+
+}
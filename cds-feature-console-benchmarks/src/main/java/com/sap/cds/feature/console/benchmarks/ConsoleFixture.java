@@ -0,0 +1,100 @@
+package com.sap.cds.feature.console.benchmarks;
+
+import static com.sap.cds.feature.console.service.RemoteMonitoringConfiguration.COMMAND_ATTACHED;
+
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.runtime.CdsRuntime;
+import com.sap.cds.services.runtime.CdsRuntimeConfigurer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+
+/**
+ * CAP runtime with the remote monitoring plugin and a number of attached local WebSocket clients,
+ * which discard everything they receive.
+ */
+final class ConsoleFixture implements AutoCloseable {
+
+  private final CdsRuntime runtime;
+  private final RemoteMonitoringService remoteMonitoringService;
+  private final List<DiscardingClient> clients = new ArrayList<>();
+
+  ConsoleFixture(int clientCount) throws InterruptedException {
+    this.runtime = CdsRuntimeConfigurer.create()
+        .serviceConfigurations()
+        .eventHandlerConfigurations()
+        .complete();
+    this.remoteMonitoringService = runtime
+        .getServiceCatalog()
+        .getService(RemoteMonitoringService.class, RemoteMonitoringService.DEFAULT_NAME);
+    // attaches the log appender also without any client
+    remoteMonitoringService.emit(CommandEventContext.create(COMMAND_ATTACHED));
+
+    String uri = "ws://localhost:" + getServer().getPort() + RemoteMonitoringServer.PATH_LOGS;
+    for (int i = 0; i < clientCount; i++) {
+      DiscardingClient client = new DiscardingClient(URI.create(uri));
+      if (!client.connectBlocking()) {
+        throw new IllegalStateException("Could not connect benchmark client to " + uri);
+      }
+      clients.add(client);
+    }
+  }
+
+  CdsRuntime getRuntime() {
+    return runtime;
+  }
+
+  RemoteMonitoringService getRemoteMonitoringService() {
+    return remoteMonitoringService;
+  }
+
+  RemoteMonitoringServer getServer() {
+    return remoteMonitoringService.getRemoteMonitoringServer();
+  }
+
+  long getReceivedMessages() {
+    return clients.stream().mapToLong(c -> c.received.sum()).sum();
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    for (DiscardingClient client : clients) {
+      client.closeBlocking();
+    }
+    getServer().stop();
+  }
+
+  private static class DiscardingClient extends WebSocketClient {
+
+    private final LongAdder received = new LongAdder();
+
+    DiscardingClient(URI uri) {
+      super(uri);
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshake) {
+      // nothing to do
+    }
+
+    @Override
+    public void onMessage(String message) {
+      received.increment();
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+      // nothing to do
+    }
+
+    @Override
+    public void onError(Exception ex) {
+      // nothing to do
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.sap.cds.feature.console.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of the print stream, which the log collector installs as {@code System.out}, compared
+ * with a plain print stream. Both write to a null output stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterPrintStreamBenchmark {
+
+  private static final String MESSAGE = "Output written to stdout by the benchmark";
+
+  private PrintStream originalOut;
+  private PrintStream originalErr;
+  private PrintStream plain;
+  private PrintStream filtered;
+  private ConsoleFixture fixture;
+
+  @Setup(Level.Trial)
+  public void setup() throws InterruptedException {
+    originalOut = System.out;
+    originalErr = System.err;
+    plain = new PrintStream(OutputStream.nullOutputStream());
+    // the log collector wraps the current System.out
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    fixture = new ConsoleFixture(1);
+    filtered = System.out;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    fixture.close();
+    System.setOut(originalOut);
+    System.setErr(originalErr);
+  }
+
+  @Benchmark
+  public void plainPrintStream() {
+    plain.print(MESSAGE);
+  }
+
+  @Benchmark
+  public void filterPrintStream() {
+    filtered.print(MESSAGE);
+  }
+
+}
@@ -0,0 +1,68 @@
+package com.sap.cds.feature.console.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteLogData;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link InfoEvent#toJson()} with alternative encoders for a typical log event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InfoEventEncodingBenchmark {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private InfoEvent event;
+
+  @Setup
+  public void setup() {
+    RemoteLogData logData = new RemoteLogData.Builder()
+        .level("INFO")
+        .logger("com.sap.cds.services.impl.ServiceImpl")
+        .thread("http-nio-8080-exec-1")
+        .type("log")
+        .message("Processed READ of entity 'CatalogService.Books' with 20 rows in 12 ms")
+        .ts(System.currentTimeMillis())
+        .build();
+    event = InfoEvent.createRemoteLog(Path.TRACES_OUTPUT, logData);
+  }
+
+  @Benchmark
+  public String cdsDataToJson() {
+    return event.toJson();
+  }
+
+  @Benchmark
+  public String jacksonString() throws JsonProcessingException {
+    return objectMapper.writeValueAsString(event);
+  }
+
+  @Benchmark
+  public byte[] jacksonBytes() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(event);
+  }
+
+  @Benchmark
+  public String handWritten() {
+    return SimpleJsonEncoder.encode(event);
+  }
+
+}
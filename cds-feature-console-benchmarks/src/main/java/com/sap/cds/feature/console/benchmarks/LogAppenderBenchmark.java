@@ -0,0 +1,60 @@
+package com.sap.cds.feature.console.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Throughput of application logging through the remote monitoring appender with a varying number
+ * of attached console clients.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogAppenderBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger("benchmark.appender");
+  private static final Integer ARGUMENT = 4711;
+
+  @Param({"0", "1", "16"})
+  int clients;
+
+  private ConsoleFixture fixture;
+
+  @Setup(Level.Trial)
+  public void setup() throws InterruptedException {
+    fixture = new ConsoleFixture(clients);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    fixture.close();
+  }
+
+  @Benchmark
+  public void append() {
+    logger.info("Processed request {} in the benchmark", ARGUMENT);
+  }
+
+  @Benchmark
+  public void appendException() {
+    logger.warn("Request failed in the benchmark", new IllegalStateException("benchmark"));
+  }
+
+}
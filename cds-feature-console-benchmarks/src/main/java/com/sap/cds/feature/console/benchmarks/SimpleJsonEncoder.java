@@ -0,0 +1,75 @@
+package com.sap.cds.feature.console.benchmarks;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Minimal hand-written JSON encoder as a baseline for the generic encoders.
+ */
+final class SimpleJsonEncoder {
+
+  private SimpleJsonEncoder() {
+  }
+
+  static String encode(Object value) {
+    StringBuilder sb = new StringBuilder(256);
+    write(sb, value);
+    return sb.toString();
+  }
+
+  private static void write(StringBuilder sb, Object value) {
+    if (value == null) {
+      sb.append("null");
+    } else if (value instanceof Map<?, ?> map) {
+      sb.append('{');
+      boolean first = true;
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        if (!first) {
+          sb.append(',');
+        }
+        first = false;
+        writeString(sb, String.valueOf(entry.getKey()));
+        sb.append(':');
+        write(sb, entry.getValue());
+      }
+      sb.append('}');
+    } else if (value instanceof Collection<?> collection) {
+      sb.append('[');
+      boolean first = true;
+      for (Object element : collection) {
+        if (!first) {
+          sb.append(',');
+        }
+        first = false;
+        write(sb, element);
+      }
+      sb.append(']');
+    } else if (value instanceof Number || value instanceof Boolean) {
+      sb.append(value);
+    } else {
+      writeString(sb, value.toString());
+    }
+  }
+
+  private static void writeString(StringBuilder sb, String value) {
+    sb.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> sb.append("\\\"");
+        case '\\' -> sb.append("\\\\");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        case '\t' -> sb.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+        }
+      }
+    }
+    sb.append('"');
+  }
+}
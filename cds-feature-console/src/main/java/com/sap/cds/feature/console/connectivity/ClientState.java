@@ -0,0 +1,101 @@
+package com.sap.cds.feature.console.connectivity;
+
+import com.sap.cds.feature.console.service.InfoEvent;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * State of a client connection, attached to its {@link org.java_websocket.WebSocket}.
+ */
+final class ClientState {
+
+  private final String path;
+  private final String remoteAddress;
+  private final String tenant;
+  private final LongAdder framesSent = new LongAdder();
+  private final LongAdder bytesSent = new LongAdder();
+  private volatile boolean templates;
+  // only accessed while sending to the client, which is serialized for compressed connections
+  private int compressionLevel = -1;
+
+  ClientState(String path, String remoteAddress, String tenant) {
+    this.path = path;
+    this.remoteAddress = remoteAddress;
+    this.tenant = tenant;
+  }
+
+  String getPath() {
+    return path;
+  }
+
+  /**
+   * @return the tenant the client subscribed to, or {@code null} for the events of all tenants
+   */
+  String getTenant() {
+    return tenant;
+  }
+
+  /**
+   * @param eventTenant the tenant of an event, or {@code null} if the event is not tenant-specific
+   * @return {@code true}, if the event is sent to the client
+   */
+  boolean accepts(String eventTenant) {
+    return tenant == null || eventTenant == null || tenant.equals(eventTenant);
+  }
+
+  /**
+   * @param eventTenant the tenant of an event, or {@code null} if the event is not tenant-specific
+   * @param eventForm the form of an event, or {@code null} if the event is sent in all forms
+   * @return {@code true}, if the event is sent to the client
+   */
+  boolean accepts(String eventTenant, String eventForm) {
+    return accepts(eventTenant) && (eventForm == null || eventForm.equals(getForm()));
+  }
+
+  /**
+   * @return the form of the log messages the client receives
+   */
+  String getForm() {
+    return templates ? InfoEvent.FORM_TEMPLATE : InfoEvent.FORM_TEXT;
+  }
+
+  /**
+   * @param templates {@code true}, if the client receives log messages as templates
+   */
+  void setTemplates(boolean templates) {
+    this.templates = templates;
+  }
+
+  /**
+   * @return the current compression level, or -1 if the connection isn't compressed
+   */
+  int getCompressionLevel() {
+    return compressionLevel;
+  }
+
+  void setCompressionLevel(int compressionLevel) {
+    this.compressionLevel = compressionLevel;
+  }
+
+  void recordSent(long bytes) {
+    framesSent.increment();
+    bytesSent.add(bytes);
+  }
+
+  Map<String, Object> toMap() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("path", path);
+    result.put("remote", remoteAddress);
+    if (tenant != null) {
+      result.put("tenant", tenant);
+    }
+    result.put("form", getForm());
+    result.put("frames_sent", framesSent.sum());
+    result.put("bytes_sent", bytesSent.sum());
+    if (compressionLevel >= 0) {
+      result.put("compression_level", compressionLevel);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,194 @@
+package com.sap.cds.feature.console.connectivity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.collectors.LogCollector;
+import com.sap.cds.feature.console.service.CommandEvent;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.CommandRegistry;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatches the commands received on a connection. All commands are emitted on the service, so
+ * that the handlers of the plugin and of the application see them. Commands with a request id,
+ * which the {@link CommandRegistry} knows to be unknown, are rejected without being emitted. The
+ * others, also the custom commands of the application, are answered on the requesting connection with a reply on {@link Path#CONSOLE_REPLY}, which echoes
+ * the id and carries the status, {@code success} or {@code error}, and the result. List
+ * results with more than {@value #CHUNK_SIZE} items are streamed as ordered chunks, which are only
+ * sent while the connection has less than {@value #MAX_QUEUED_FRAMES} queued frames, so a large
+ * result neither blocks the connection nor is encoded into one frame.
+ */
+public class CommandDispatcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(CommandDispatcher.class);
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  static final int CHUNK_SIZE = 100;
+  static final int MAX_QUEUED_FRAMES = 16;
+  private static final long RETRY_MILLIS = 10;
+
+  private final RemoteMonitoringService remoteMonitoringService;
+  // created with the first chunked reply, guarded by this
+  private ScheduledExecutorService scheduler;
+  private boolean closed;
+
+  public CommandDispatcher(RemoteMonitoringService remoteMonitoringService) {
+    this.remoteMonitoringService = remoteMonitoringService;
+  }
+
+  /**
+   * Dispatches a command.
+   *
+   * @param conn the connection, which received the command and receives the replies
+   * @param message the encoded {@link CommandEvent}
+   * @throws JsonProcessingException if the message isn't a command
+   */
+  public void dispatch(WebSocket conn, String message) throws JsonProcessingException {
+    CommandEvent commandEvent = objectMapper.readValue(message, CommandEvent.class);
+    applyClientSettings(conn, commandEvent);
+    if (commandEvent.getId() == null) {
+      remoteMonitoringService.emit(commandEvent);
+      logger.debug("Emitted CommandEvent from websocket: {}", commandEvent.getCommand());
+      return;
+    }
+
+    CommandRegistry registry = remoteMonitoringService.getCommandRegistry();
+    if (registry != null && registry.isUnknown(commandEvent.getCommand())) {
+      sendError(conn, commandEvent, "Unknown command '" + commandEvent.getCommand() + "'");
+      return;
+    }
+    CommandEventContext context = CommandEventContext.create(commandEvent.getCommand());
+    context.setData(commandEvent.getData() != null ? commandEvent.getData() : new HashMap<>());
+    context.setRequestId(commandEvent.getId());
+    try {
+      remoteMonitoringService.emit(context);
+    } catch (Exception e) {
+      logger.debug("Request {} of command {} failed", commandEvent.getId(), commandEvent.getCommand(), e);
+      sendError(conn, commandEvent, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+      return;
+    }
+    Object result = context.getResult();
+    if (result instanceof List<?> items && items.size() > CHUNK_SIZE) {
+      getScheduler().execute(new ChunkedReply(conn, commandEvent, items));
+    } else {
+      Map<String, Object> reply = reply(commandEvent, "success", 0, true);
+      reply.put("result", result);
+      send(conn, reply);
+    }
+  }
+
+  /**
+   * Applies the commands, which change a setting of the requesting connection, before they're
+   * emitted. The template mode is such a setting, so clients with and without templates can be
+   * connected at the same time.
+   */
+  private static void applyClientSettings(WebSocket conn, CommandEvent commandEvent) {
+    if (LogCollector.COMMAND_TEMPLATES.equals(commandEvent.getCommand()) && conn.getAttachment() instanceof ClientState state) {
+      state.setTemplates(commandEvent.getData() != null && Boolean.TRUE.equals(commandEvent.getData().get("enabled")));
+    }
+  }
+
+  private static Map<String, Object> reply(CommandEvent commandEvent, String status, int chunk, boolean last) {
+    Map<String, Object> reply = new LinkedHashMap<>();
+    reply.put("id", commandEvent.getId());
+    reply.put("command", commandEvent.getCommand());
+    reply.put("status", status);
+    reply.put("chunk", chunk);
+    reply.put("last", last);
+    return reply;
+  }
+
+  private static void sendError(WebSocket conn, CommandEvent commandEvent, String error) throws JsonProcessingException {
+    Map<String, Object> reply = reply(commandEvent, "error", 0, true);
+    reply.put("error", error);
+    send(conn, reply);
+  }
+
+  private static void send(WebSocket conn, Map<String, Object> reply) throws JsonProcessingException {
+    Map<String, Object> event = new LinkedHashMap<>();
+    event.put("path", Path.CONSOLE_REPLY);
+    event.put("data", reply);
+    RemoteMonitoringServer.send(conn, objectMapper.writeValueAsString(event));
+  }
+
+  private static int queuedFrames(WebSocket conn) {
+    WebSocket connection = conn instanceof WebSocketClient client ? client.getConnection() : conn;
+    return connection instanceof WebSocketImpl impl ? impl.outQueue.size() : 0;
+  }
+
+  private synchronized ScheduledExecutorService getScheduler() {
+    if (closed) {
+      throw new RejectedExecutionException("The command dispatcher is closed");
+    }
+    if (scheduler == null) {
+      scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cds-console-replies");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return scheduler;
+  }
+
+  /**
+   * Stops the chunked replies, which are still sent.
+   */
+  public synchronized void close() {
+    closed = true;
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Sends the chunks of a list result, as many as the connection takes without backlog, and
+   * reschedules itself for the rest.
+   */
+  private final class ChunkedReply implements Runnable {
+
+    private final WebSocket conn;
+    private final CommandEvent commandEvent;
+    private final List<?> items;
+    private int next;
+    private int chunk;
+
+    ChunkedReply(WebSocket conn, CommandEvent commandEvent, List<?> items) {
+      this.conn = conn;
+      this.commandEvent = commandEvent;
+      this.items = items;
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (next < items.size() && conn.isOpen() && queuedFrames(conn) < MAX_QUEUED_FRAMES) {
+          int end = Math.min(next + CHUNK_SIZE, items.size());
+          Map<String, Object> reply = reply(commandEvent, "success", chunk++, end == items.size());
+          reply.put("result", items.subList(next, end));
+          send(conn, reply);
+          next = end;
+        }
+        if (next < items.size() && conn.isOpen()) {
+          getScheduler().schedule(this, RETRY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+      } catch (JsonProcessingException | WebsocketNotConnectedException | RejectedExecutionException e) {
+        logger.debug("Reply {} of command {} aborted: {}", commandEvent.getId(), commandEvent.getCommand(), e.getMessage());
+      }
+    }
+  }
+
+}
@@ -0,0 +1,55 @@
+package com.sap.cds.feature.console.connectivity;
+
+import com.sap.cds.services.environment.CdsEnvironment;
+import java.util.zip.Deflater;
+
+/**
+ * Settings of the permessage-deflate compression of the console connections, read from the
+ * {@code cds.console.compression} properties.
+ *
+ * @param enabled whether the server offers permessage-deflate
+ * @param level the compression level of connections without send backlog, from 1 to 9
+ * @param contextTakeover whether the compression context is kept between messages, which compresses
+ *     better at the cost of a window per connection
+ * @param threshold the message size in bytes, below which messages are sent uncompressed
+ */
+public record CompressionSettings(boolean enabled, int level, boolean contextTakeover, int threshold) {
+
+  public static final String PREFIX = "cds.console.compression.";
+  public static final CompressionSettings DEFAULT = new CompressionSettings(true, Deflater.BEST_SPEED, true, 256);
+
+  // the zlib default, a good trade-off for connections with some backlog
+  private static final int BACKLOG_LEVEL = 6;
+
+  public CompressionSettings {
+    level = Math.min(Math.max(level, Deflater.BEST_SPEED), Deflater.BEST_COMPRESSION);
+    threshold = Math.max(threshold, 0);
+  }
+
+  public static CompressionSettings fromEnvironment(CdsEnvironment environment) {
+    return new CompressionSettings(
+        environment.getProperty(PREFIX + "enabled", Boolean.class, DEFAULT.enabled()),
+        environment.getProperty(PREFIX + "level", Integer.class, DEFAULT.level()),
+        environment.getProperty(PREFIX + "context-takeover", Boolean.class, DEFAULT.contextTakeover()),
+        environment.getProperty(PREFIX + "threshold", Integer.class, DEFAULT.threshold()));
+  }
+
+  /**
+   * Raises the compression level with the send backlog of a connection: a connection, which can't
+   * keep up, is bandwidth-bound, so CPU is spent on fewer bytes.
+   *
+   * @param queuedFrames the number of frames queued for the connection
+   * @param congestedQueueSize the number of queued frames of a congested connection
+   * @return the compression level
+   */
+  int levelFor(int queuedFrames, int congestedQueueSize) {
+    if (queuedFrames >= congestedQueueSize) {
+      return Deflater.BEST_COMPRESSION;
+    }
+    if (queuedFrames >= congestedQueueSize / 8) {
+      return Math.max(level, BACKLOG_LEVEL);
+    }
+    return level;
+  }
+
+}
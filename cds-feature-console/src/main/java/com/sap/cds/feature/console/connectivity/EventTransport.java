@@ -0,0 +1,45 @@
+package com.sap.cds.feature.console.connectivity;
+
+import java.util.Map;
+
+/**
+ * Transport of encoded events to local readers besides the WebSocket clients of the
+ * {@link RemoteMonitoringServer}, which passes all broadcast messages to its transports.
+ */
+public interface EventTransport extends AutoCloseable {
+
+  /**
+   * @param path the server path of the events
+   * @return {@code true}, if a reader currently receives the events of the path
+   */
+  boolean hasClients(String path);
+
+  /**
+   * @param path the server path of an event
+   * @param tenant the tenant of the event, or {@code null}
+   * @return {@code true}, if the transport forwards the events of the path and tenant, all events by
+   *     default
+   */
+  default boolean accepts(String path, String tenant) {
+    return true;
+  }
+
+  /**
+   * Sends an encoded event. Must not block.
+   *
+   * @param message the encoded event
+   * @param path the server path of the event
+   * @param tenant the tenant of the event, or {@code null}
+   * @return {@code true}, if the event was sent
+   */
+  boolean send(String message, String path, String tenant);
+
+  /**
+   * @return the statistics of the transport, part of the client statistics of the server
+   */
+  Map<String, Object> getStatistics();
+
+  @Override
+  void close();
+
+}
@@ -0,0 +1,66 @@
+package com.sap.cds.feature.console.connectivity;
+
+import com.sap.cds.services.environment.CdsEnvironment;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+
+/**
+ * Settings of the outbound connection, read from the {@code cds.console.outbound} properties. If
+ * enabled, the plugin connects to the console or a relay at the URL instead of serving the events
+ * on a WebSocket port.
+ *
+ * @param enabled whether the outbound connection replaces the WebSocket server
+ * @param url the WebSocket URL of the console or relay, e.g. {@code wss://relay.example.com/cap-console/logs},
+ *     optionally with a {@code tenant} query parameter like the URL of a console
+ * @param instance the id of the application instance, sent in the {@value #INSTANCE_HEADER} header
+ * @param queueCapacity the number of events buffered while disconnected, older events are dropped
+ * @param minBackoff the delay of the first reconnect
+ * @param maxBackoff the maximum delay between reconnects
+ * @param resumeRate the number of buffered events per second sent after a reconnect
+ */
+public record OutboundSettings(boolean enabled, URI url, String instance, int queueCapacity, Duration minBackoff,
+    Duration maxBackoff, int resumeRate) {
+
+  public static final String PREFIX = "cds.console.outbound.";
+  public static final String INSTANCE_HEADER = "X-CAP-Console-Instance";
+
+  public OutboundSettings {
+    queueCapacity = Math.max(queueCapacity, 1);
+    minBackoff = minBackoff.isNegative() || minBackoff.isZero() ? Duration.ofMillis(1) : minBackoff;
+    maxBackoff = maxBackoff.compareTo(minBackoff) < 0 ? minBackoff : maxBackoff;
+    resumeRate = Math.max(resumeRate, 1);
+  }
+
+  public static OutboundSettings fromEnvironment(CdsEnvironment environment) {
+    String url = environment.getProperty(PREFIX + "url", String.class, null);
+    String instance = environment.getProperty(PREFIX + "instance", String.class, null);
+    return new OutboundSettings(
+        environment.getProperty(PREFIX + "enabled", Boolean.class, false),
+        url != null ? URI.create(url) : null,
+        instance != null ? instance : hostName(),
+        environment.getProperty(PREFIX + "queue-capacity", Integer.class, 10_000),
+        Duration.ofMillis(environment.getProperty(PREFIX + "min-backoff-ms", Integer.class, 500)),
+        Duration.ofMillis(environment.getProperty(PREFIX + "max-backoff-ms", Integer.class, 60_000)),
+        environment.getProperty(PREFIX + "resume-rate", Integer.class, 1_000));
+  }
+
+  /**
+   * @return the tenant of the {@code tenant} query parameter of the URL, to which the events are
+   *     restricted, or {@code null} for the events of all tenants
+   */
+  public String tenant() {
+    String query = url != null ? url.getRawQuery() : null;
+    return query != null ? RemoteMonitoringServer.getQueryParameter(query, "tenant") : null;
+  }
+
+  private static String hostName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      return null;
+    }
+  }
+
+}
@@ -1,6 +1,10 @@
 package com.sap.cds.feature.console.connectivity;
 
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.PipelineMetrics;
+import com.sap.cds.feature.console.info.PressureGovernor.PressureLevel;
 import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.InfoEvent;
 import com.sap.cds.feature.console.service.InfoEventContext;
 import com.sap.cds.feature.console.service.RemoteMonitoringService;
 import com.sap.cds.services.handler.EventHandler;
@@ -24,8 +28,31 @@ public class RemoteMonitoringHandler implements EventHandler {
   @On
   private void handleInfoEvent(InfoEventContext context) {
     logger.debug("Handling info '{}'", context.getEvent());
-    this.remoteMonitoringServer.broadcastToPath(
-        context.getInfoEvent().toJson(), RemoteMonitoringServer.PATH_LOGS);
+    InfoEvent event = context.getInfoEvent();
+    String topic = Path.SELF.equals(event.getPath()) ? RemoteMonitoringServer.PATH_SELF : RemoteMonitoringServer.PATH_LOGS;
+    PipelineMetrics metrics = this.remoteMonitoringServer.getPipelineMetrics();
+    // the stream is paused under heap pressure, only the notifications are sent
+    if (this.remoteMonitoringServer.getPressureGovernor().isAtLeast(PressureLevel.PAUSED)
+        && !Path.CONSOLE_NOTIFICATION.equals(event.getPath())) {
+      metrics.recordDropped();
+      context.setCompleted();
+      return;
+    }
+    // don't encode events nobody is listening to or recording
+    String form = event.getForm();
+    if (this.remoteMonitoringServer.hasClients(topic, form)
+        || !InfoEvent.FORM_TEMPLATE.equals(form) && this.remoteMonitoringServer.isRecording()) {
+      if (this.remoteMonitoringServer.acquireQuota(event.getTenant())) {
+        long start = System.nanoTime();
+        String json = event.toJson();
+        metrics.recordEncodeTime(System.nanoTime() - start);
+        this.remoteMonitoringServer.broadcastToPath(json, topic, event.getTenant(), form);
+      } else {
+        metrics.recordDropped();
+      }
+    } else {
+      metrics.recordFiltered();
+    }
 
     context.setCompleted();
   }
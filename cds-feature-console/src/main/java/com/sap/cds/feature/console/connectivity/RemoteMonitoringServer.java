@@ -2,21 +2,36 @@ package com.sap.cds.feature.console.connectivity;
 
 import static com.sap.cds.feature.console.service.RemoteMonitoringConfiguration.COMMAND_ATTACHED;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sap.cds.feature.console.service.CommandEvent;
+import com.sap.cds.feature.console.info.PipelineMetrics;
+import com.sap.cds.feature.console.info.PressureGovernor;
+import com.sap.cds.feature.console.recording.RecordingWriter;
 import com.sap.cds.feature.console.service.CommandEventContext;
 import com.sap.cds.feature.console.service.InfoEvent;
 import com.sap.cds.feature.console.service.RemoteLogData;
 import com.sap.cds.feature.console.service.RemoteMonitoringService;
 import java.net.InetSocketAddress;
+import java.net.URLDecoder;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
 import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
 import org.slf4j.Logger;
@@ -32,39 +47,391 @@ public class RemoteMonitoringServer extends WebSocketServer {
   private static final Logger logger = LoggerFactory.getLogger(RemoteMonitoringServer.class);
   public static final String PATH_CAP_CONSOLE = "/cap-console";
   public static final String PATH_LOGS = PATH_CAP_CONSOLE + "/logs";
+  public static final String PATH_SELF = PATH_CAP_CONSOLE + "/self";
 
   private final Map<String, Set<WebSocket>> clientsByPaths = new ConcurrentHashMap<>();
-  private static final ObjectMapper objectMapper = new ObjectMapper();
+  // number of queued frames, from which on a client connection counts as congested
+  private static final int CONGESTED_QUEUE_SIZE = 64;
+  // number of messages waiting for their compression, further messages to compressed connections are dropped
+  static final int COMPRESSION_QUEUE_SIZE = 4096;
   private final RemoteMonitoringService remoteMonitoringService;
+  private final PipelineMetrics metrics;
+  private final TenantQuotas tenantQuotas = new TenantQuotas(TenantQuotas.DEFAULT_EVENTS_PER_SECOND, System.nanoTime());
 
   private final CountDownLatch startupLatch;
   private final AtomicReference<Exception> error;
 
+  private final CompressionSettings compression;
+  // deflates and sends the messages to compressed connections, so that the logging threads don't compress
+  private final ThreadPoolExecutor compressionWriter;
+  private final CommandDispatcher commandDispatcher;
+  private volatile RecordingWriter recording;
+  private final List<EventTransport> transports = new CopyOnWriteArrayList<>();
+  private volatile boolean transportsAttached;
+
   public RemoteMonitoringServer(
       int port,
       RemoteMonitoringService remoteMonitoringService,
       CountDownLatch startupLatch,
       AtomicReference<Exception> error) {
-    super(new InetSocketAddress(port));
+    this(port, remoteMonitoringService, startupLatch, error, CompressionSettings.DEFAULT);
+  }
+
+  public RemoteMonitoringServer(
+      int port,
+      RemoteMonitoringService remoteMonitoringService,
+      CountDownLatch startupLatch,
+      AtomicReference<Exception> error,
+      CompressionSettings compression) {
+    super(new InetSocketAddress(port), drafts(compression));
+    this.compression = compression;
     this.remoteMonitoringService = remoteMonitoringService;
+    this.commandDispatcher = new CommandDispatcher(remoteMonitoringService);
+    this.metrics = remoteMonitoringService.getPipelineMetrics();
     this.startupLatch = startupLatch;
     this.error = error;
+    this.metrics.registerQueue("outbound_frames", this::getOutboundQueueSize);
+    if (compression.enabled()) {
+      this.compressionWriter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(COMPRESSION_QUEUE_SIZE), r -> {
+        Thread thread = new Thread(r, "cds-console-compression");
+        thread.setDaemon(true);
+        return thread;
+      });
+      this.metrics.registerQueue("compression", () -> compressionWriter.getQueue().size());
+    } else {
+      this.compressionWriter = null;
+    }
+  }
+
+  private static List<Draft> drafts(CompressionSettings compression) {
+    if (!compression.enabled()) {
+      return List.of(new Draft_6455());
+    }
+    // the draft and its extension are copied for each connection
+    PerMessageDeflateExtension deflate = new PerMessageDeflateExtension(compression.level());
+    deflate.setThreshold(compression.threshold());
+    deflate.setServerNoContextTakeover(!compression.contextTakeover());
+    return List.of(new Draft_6455(deflate));
   }
 
   public void broadcastToPath(String message, String path) {
+    broadcastToPath(message, path, null);
+  }
+
+  /**
+   * Sends a message to all clients of the path, which subscribed to the tenant or to all tenants.
+   *
+   * @param message the message
+   * @param path the path
+   * @param tenant the tenant of the message, or {@code null} to send it to all clients
+   */
+  public void broadcastToPath(String message, String path, String tenant) {
+    broadcastToPath(message, path, tenant, null);
+  }
+
+  /**
+   * Sends a message to all clients of the path, which subscribed to the tenant or to all tenants
+   * and receive log messages in the form of the message. Recordings and transports receive the
+   * text form.
+   *
+   * @param message the message
+   * @param path the path
+   * @param tenant the tenant of the message, or {@code null} to send it to all clients
+   * @param form the form of the message, {@link InfoEvent#FORM_TEXT} or
+   *     {@link InfoEvent#FORM_TEMPLATE}, or {@code null} to send it to all clients
+   */
+  public void broadcastToPath(String message, String path, String tenant, String form) {
+    if (!InfoEvent.FORM_TEMPLATE.equals(form)) {
+      RecordingWriter recorder = recording;
+      if (recorder != null) {
+        recorder.record(path, tenant, message);
+      }
+      for (EventTransport transport : transports) {
+        if (!transport.accepts(path, tenant)) {
+          continue;
+        }
+        if (transport.send(message, path, tenant)) {
+          metrics.recordSent(PipelineMetrics.utf8Length(message));
+        } else {
+          metrics.recordDropped();
+        }
+      }
+    }
     Set<WebSocket> clients = clientsByPaths.getOrDefault(path, Collections.emptySet());
+    if (clients.isEmpty()) {
+      return;
+    }
+    long bytes = PipelineMetrics.utf8Length(message);
     for (WebSocket client : clients) {
+      ClientState state = client.getAttachment();
+      if (state != null ? !state.accepts(tenant, form) : InfoEvent.FORM_TEMPLATE.equals(form)) {
+        continue;
+      }
+      PerMessageDeflateExtension deflate = getDeflate(client);
+      if (deflate != null && compressionWriter != null) {
+        sendCompressed(client, deflate, state, message, bytes);
+      } else {
+        sendTo(client, state, message, bytes);
+      }
+    }
+  }
+
+  /**
+   * Queues a message to a compressed connection for the compression writer, which preserves the
+   * order of the messages. The frames are deflated on the sending thread by the one deflater of the
+   * connection, so the sends to the connection are serialized.
+   */
+  private void sendCompressed(WebSocket client, PerMessageDeflateExtension deflate, ClientState state, String message, long bytes) {
+    try {
+      compressionWriter.execute(() -> {
+        synchronized (client) {
+          adaptCompression((WebSocketImpl) client, deflate, state);
+          sendTo(client, state, message, bytes);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      metrics.recordDropped();
+    }
+  }
+
+  private void sendTo(WebSocket client, ClientState state, String message, long bytes) {
+    try {
       client.send(message);
+      metrics.recordSent(bytes);
+      if (state != null) {
+        state.recordSent(bytes);
+      }
+    } catch (WebsocketNotConnectedException e) {
+      metrics.recordDropped();
+    }
+  }
+
+  private void adaptCompression(WebSocketImpl client, PerMessageDeflateExtension deflate, ClientState state) {
+    if (state != null) {
+      int level = compression.levelFor(client.outQueue.size(), CONGESTED_QUEUE_SIZE);
+      if (level != state.getCompressionLevel()) {
+        deflate.getDeflater().setLevel(level);
+        state.setCompressionLevel(level);
+      }
+    }
+  }
+
+  private static PerMessageDeflateExtension getDeflate(WebSocket client) {
+    return client instanceof WebSocketImpl impl && impl.getDraft() instanceof Draft_6455 draft
+        && draft.getExtension() instanceof PerMessageDeflateExtension deflate ? deflate : null;
+  }
+
+  /**
+   * Sends a message to one client. Sends to a compressed connection are serialized with the
+   * broadcasts, as its frames are deflated on the sending thread by the one deflater of the
+   * connection.
+   *
+   * @param conn the connection
+   * @param message the message
+   */
+  static void send(WebSocket conn, String message) {
+    if (getDeflate(conn) != null) {
+      synchronized (conn) {
+        conn.send(message);
+      }
+    } else {
+      conn.send(message);
     }
   }
 
+  /**
+   * Takes an event from the quota of its tenant. Events, which are not tenant-specific, have no quota.
+   *
+   * @param tenant the tenant of the event, or {@code null}
+   * @return {@code true}, if the event may be sent
+   */
+  public boolean acquireQuota(String tenant) {
+    return tenant == null || tenantQuotas.tryAcquire(tenant, System.nanoTime());
+  }
+
+  /**
+   * @return the accepted and dropped events per tenant
+   */
+  public List<Map<String, Object>> getTenantStatistics() {
+    return tenantQuotas.getStatistics();
+  }
+
+  /**
+   * @param path the path
+   * @return {@code true}, if at least one client is connected to the path
+   */
+  public boolean hasClients(String path) {
+    Set<WebSocket> clients = clientsByPaths.get(path);
+    if (clients != null && !clients.isEmpty()) {
+      return true;
+    }
+    for (EventTransport transport : transports) {
+      if (transport.hasClients(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param path the path
+   * @param form the form of the log messages, {@link InfoEvent#FORM_TEXT} or
+   *     {@link InfoEvent#FORM_TEMPLATE}, or {@code null} for any form
+   * @return {@code true}, if at least one client, which receives log messages in the form, is
+   *     connected to the path
+   */
+  public boolean hasClients(String path, String form) {
+    if (form == null) {
+      return hasClients(path);
+    }
+    for (WebSocket client : clientsByPaths.getOrDefault(path, Collections.emptySet())) {
+      ClientState state = client.getAttachment();
+      if (state != null && form.equals(state.getForm())) {
+        return true;
+      }
+    }
+    if (InfoEvent.FORM_TEXT.equals(form)) {
+      for (EventTransport transport : transports) {
+        if (transport.hasClients(path)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the active recording of the broadcast messages, or {@code null}
+   */
+  public RecordingWriter getRecording() {
+    return recording;
+  }
+
+  /**
+   * @param recording the recording, which receives all broadcast messages, or {@code null} to end
+   *     the recording
+   */
+  public void setRecording(RecordingWriter recording) {
+    this.recording = recording;
+  }
+
+  public boolean isRecording() {
+    RecordingWriter recorder = recording;
+    return recorder != null && recorder.isActive();
+  }
+
+  /**
+   * Adds a transport, which receives all broadcast messages in addition to the WebSocket clients.
+   * The server doesn't need to be started for its transports.
+   *
+   * @param transport the transport
+   */
+  public void addTransport(EventTransport transport) {
+    transports.add(transport);
+  }
+
+  /**
+   * Announces the first reader of the transports to the collectors, like the first WebSocket client
+   * of the logs path. Called periodically, as readers of the transports don't connect.
+   */
+  public void checkTransports() {
+    boolean attached = transports.stream().anyMatch(t -> t.hasClients(PATH_LOGS));
+    if (attached && !transportsAttached && !hasWebSocketClients(PATH_LOGS)) {
+      logger.debug("First reader attached to a transport. Enabling log streaming.");
+      this.remoteMonitoringService.emit(CommandEventContext.create(COMMAND_ATTACHED));
+    }
+    transportsAttached = attached;
+  }
+
+  @Override
+  public void stop(int timeout, String closeMessage) throws InterruptedException {
+    commandDispatcher.close();
+    if (compressionWriter != null) {
+      compressionWriter.shutdownNow();
+    }
+    super.stop(timeout, closeMessage);
+  }
+
+  public void closeTransports() {
+    transports.forEach(EventTransport::close);
+    transports.clear();
+  }
+
+  private boolean hasWebSocketClients(String path) {
+    Set<WebSocket> clients = clientsByPaths.get(path);
+    return clients != null && !clients.isEmpty();
+  }
+
+  public PipelineMetrics getPipelineMetrics() {
+    return metrics;
+  }
+
+  public PressureGovernor getPressureGovernor() {
+    return remoteMonitoringService.getPressureGovernor();
+  }
+
+  /**
+   * @return the number of frames queued for sending over all client connections
+   */
+  public long getOutboundQueueSize() {
+    long size = 0;
+    for (Set<WebSocket> clients : clientsByPaths.values()) {
+      for (WebSocket client : clients) {
+        if (client instanceof WebSocketImpl impl) {
+          size += impl.outQueue.size();
+        }
+      }
+    }
+    return size;
+  }
+
+  /**
+   * @return the statistics of all client connections
+   */
+  public List<Map<String, Object>> getClientStatistics() {
+    List<Map<String, Object>> statistics = new ArrayList<>();
+    for (Set<WebSocket> clients : clientsByPaths.values()) {
+      for (WebSocket client : clients) {
+        ClientState state = client.getAttachment();
+        if (state != null) {
+          Map<String, Object> clientStatistics = state.toMap();
+          if (client instanceof WebSocketImpl impl) {
+            clientStatistics.put("queued_frames", impl.outQueue.size());
+          }
+          statistics.add(clientStatistics);
+        }
+      }
+    }
+    transports.forEach(transport -> statistics.add(transport.getStatistics()));
+    return statistics;
+  }
+
+  /**
+   * @return {@code true}, if at least one client connection has a send backlog
+   */
+  public boolean isCongested() {
+    for (Set<WebSocket> clients : clientsByPaths.values()) {
+      for (WebSocket client : clients) {
+        if (client instanceof WebSocketImpl impl && impl.outQueue.size() >= CONGESTED_QUEUE_SIZE) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   @Override
   public void onOpen(WebSocket conn, ClientHandshake handshake) {
-    String path = handshake.getResourceDescriptor(); // e.g., "/logs"
+    // e.g., "/cap-console/logs" or "/cap-console/logs?tenant=t1"
+    String descriptor = handshake.getResourceDescriptor();
+    int query = descriptor.indexOf('?');
+    String path = query >= 0 ? descriptor.substring(0, query) : descriptor;
+    String tenant = query >= 0 ? getQueryParameter(descriptor.substring(query + 1), "tenant") : null;
     if (PATH_LOGS.equals(path) && !clientsByPaths.containsKey(path)) {
       logger.debug("First client connected to {}. Enabling log streaming.", path);
       this.remoteMonitoringService.emit(CommandEventContext.create(COMMAND_ATTACHED));
     }
+    conn.setAttachment(new ClientState(path, String.valueOf(conn.getRemoteSocketAddress()), tenant));
     clientsByPaths.computeIfAbsent(path, k -> ConcurrentHashMap.newKeySet()).add(conn);
     logger.debug("New connection to {} on path {}", conn.getRemoteSocketAddress(), path);
 
@@ -94,12 +461,13 @@ public class RemoteMonitoringServer extends WebSocketServer {
   @Override
   public void onMessage(WebSocket conn, String message) {
     logger.debug("received message from {}: {}", conn.getRemoteSocketAddress(), message);
+    long start = System.nanoTime();
     try {
-      CommandEvent commandEvent = objectMapper.readValue(message, CommandEvent.class);
-      remoteMonitoringService.emit(commandEvent);
-      logger.debug("Emitted CommandEvent from websocket: {}", commandEvent.getCommand());
+      commandDispatcher.dispatch(conn, message);
     } catch (Exception e) {
       logger.warn("Failed to parse or emit CommandEvent: {}", e.getMessage(), e);
+    } finally {
+      metrics.recordCommandTime(System.nanoTime() - start);
     }
   }
 
@@ -131,6 +499,17 @@ public class RemoteMonitoringServer extends WebSocketServer {
     }
   }
 
+  static String getQueryParameter(String query, String name) {
+    for (String parameter : query.split("&")) {
+      int separator = parameter.indexOf('=');
+      if (separator > 0 && name.equals(parameter.substring(0, separator))) {
+        String value = URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8);
+        return value.isEmpty() ? null : value;
+      }
+    }
+    return null;
+  }
+
   private void welcomeClient(WebSocket conn, String path) {
     RemoteLogData welcomeMsg = new RemoteLogData.Builder()
         .level("INFO")
@@ -141,6 +520,6 @@ public class RemoteMonitoringServer extends WebSocketServer {
         .build();
 
     InfoEvent infoEvent = InfoEvent.createRemoteLog(path, welcomeMsg);
-    conn.send(infoEvent.toJson());
+    send(conn, infoEvent.toJson());
   }
 }
@@ -0,0 +1,46 @@
+package com.sap.cds.feature.console.connectivity;
+
+import com.sap.cds.feature.console.sharedmemory.SharedMemoryTransport;
+import com.sap.cds.services.environment.CdsEnvironment;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Settings of the shared memory transport, read from the {@code cds.console.shared-memory}
+ * properties. If enabled, the events are written to the ring buffer file instead of being served on
+ * a WebSocket port.
+ *
+ * @param enabled whether the shared memory transport replaces the WebSocket server
+ * @param file the ring buffer file
+ * @param capacityMegabytes the capacity of the ring buffer in megabytes
+ */
+public record SharedMemorySettings(boolean enabled, Path file, int capacityMegabytes) {
+
+  public static final String PREFIX = "cds.console.shared-memory.";
+  private static final Path SHM = Path.of("/dev/shm");
+
+  public SharedMemorySettings {
+    capacityMegabytes = Math.min(Math.max(capacityMegabytes, 1), 1024);
+  }
+
+  public static SharedMemorySettings fromEnvironment(CdsEnvironment environment) {
+    String file = environment.getProperty(PREFIX + "file", String.class, null);
+    return new SharedMemorySettings(
+        environment.getProperty(PREFIX + "enabled", Boolean.class, false),
+        file != null ? Path.of(file) : defaultFile(),
+        environment.getProperty(PREFIX + "capacity-mb", Integer.class, SharedMemoryTransport.DEFAULT_CAPACITY >> 20));
+  }
+
+  /**
+   * @return the capacity of the ring buffer in bytes
+   */
+  public int capacity() {
+    return capacityMegabytes << 20;
+  }
+
+  private static Path defaultFile() {
+    // a memory file system avoids writing the ring buffer back to disk
+    return Files.isDirectory(SHM) ? SHM.resolve("cap-console") : Path.of(System.getProperty("java.io.tmpdir"), "cap-console.ring");
+  }
+
+}
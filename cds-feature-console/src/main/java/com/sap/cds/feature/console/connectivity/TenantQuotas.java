@@ -0,0 +1,117 @@
+package com.sap.cds.feature.console.connectivity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-tenant event quotas of the broadcast path. The event budget per second is shared fairly by
+ * all tenants, which produced events within the last second: each of them has a token bucket
+ * refilled with its share of the budget. A single tenant can use the whole budget, but a noisy
+ * tenant can't crowd out the events of the others. The number of tenants is bounded, further
+ * tenants share the quota of {@value #OTHER_TENANTS}.
+ */
+final class TenantQuotas {
+
+  static final int DEFAULT_EVENTS_PER_SECOND = 5000;
+  static final int MAX_TENANTS = 1024;
+  static final String OTHER_TENANTS = "*";
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final double eventsPerSecond;
+  private final Map<String, Quota> quotas = new ConcurrentHashMap<>();
+  private final AtomicLong nextRecount;
+  private volatile int activeTenants = 1;
+
+  TenantQuotas(double eventsPerSecond, long now) {
+    this.eventsPerSecond = eventsPerSecond;
+    this.nextRecount = new AtomicLong(now + SECOND);
+  }
+
+  /**
+   * Takes one event from the quota of the tenant.
+   *
+   * @param tenant the tenant of the event
+   * @param now the current {@link System#nanoTime()}
+   * @return {@code true}, if the event is within the quota
+   */
+  boolean tryAcquire(String tenant, long now) {
+    Quota quota = quotas.get(tenant);
+    if (quota == null) {
+      quota = quotas.computeIfAbsent(quotas.size() < MAX_TENANTS ? tenant : OTHER_TENANTS, t -> new Quota(now));
+    }
+    long recount = nextRecount.get();
+    if (now - recount >= 0 && nextRecount.compareAndSet(recount, now + SECOND)) {
+      recountActiveTenants(now);
+    }
+    return quota.tryAcquire(now, eventsPerSecond / activeTenants);
+  }
+
+  private void recountActiveTenants(long now) {
+    int active = 0;
+    for (Quota quota : quotas.values()) {
+      if (now - quota.lastEvent <= SECOND) {
+        active++;
+      }
+    }
+    activeTenants = Math.max(active, 1);
+  }
+
+  int getActiveTenants() {
+    return activeTenants;
+  }
+
+  /**
+   * @return the accepted and dropped events per tenant
+   */
+  List<Map<String, Object>> getStatistics() {
+    List<Map<String, Object>> statistics = new ArrayList<>();
+    quotas.forEach((tenant, quota) -> {
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("tenant", tenant);
+      data.put("accepted", quota.accepted.sum());
+      data.put("dropped", quota.dropped.sum());
+      statistics.add(data);
+    });
+    return statistics;
+  }
+
+  /**
+   * Token bucket of a tenant, holding at most one second of its share.
+   */
+  private static final class Quota {
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private double tokens;
+    private long lastRefill;
+    private volatile long lastEvent;
+
+    private Quota(long now) {
+      this.lastRefill = now;
+      this.lastEvent = now;
+      this.tokens = Double.MAX_VALUE;
+    }
+
+    private boolean tryAcquire(long now, double rate) {
+      lastEvent = now;
+      boolean acquired;
+      synchronized (this) {
+        tokens = Math.min(rate, tokens + (now - lastRefill) * rate / SECOND);
+        lastRefill = now;
+        acquired = tokens >= 1;
+        if (acquired) {
+          tokens--;
+        }
+      }
+      (acquired ? accepted : dropped).increment();
+      return acquired;
+    }
+  }
+
+}
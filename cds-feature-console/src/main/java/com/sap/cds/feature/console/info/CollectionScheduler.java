@@ -0,0 +1,216 @@
+package com.sap.cds.feature.console.info;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared scheduler for periodic tasks of {@link InfoCollector}s. All tasks run on one daemon thread
+ * instead of a timer thread per collector. Every task starts with a random phase offset within its
+ * interval, so tasks with the same interval don't fire at once. While the outbound connections are
+ * congested or the CPU is saturated the intervals are stretched, and they shrink back once the system
+ * is idle again.
+ */
+public class CollectionScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(CollectionScheduler.class);
+
+  static final int MAX_STRETCH = 8;
+  static final double CPU_SATURATED = 0.85;
+  static final double CPU_IDLE = 0.5;
+
+  private static final long PRESSURE_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long MISSED_DEADLINE_TOLERANCE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final OperatingSystemMXBean OS = ManagementFactory.getOperatingSystemMXBean();
+
+  private final ScheduledExecutorService executor;
+  private final BooleanSupplier congestion;
+  private final DoubleSupplier cpuLoad;
+  private final Set<ScheduledCollection> tasks = ConcurrentHashMap.newKeySet();
+
+  private volatile int stretch = 1;
+  // only accessed by the scheduler thread
+  private long lastPressureCheck = System.nanoTime();
+
+  private final LongAdder runs = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder missedDeadlines = new LongAdder();
+  private final LongAdder latenessNanos = new LongAdder();
+  private final LongAdder taskNanos = new LongAdder();
+  private final LongAdder overheadNanos = new LongAdder();
+
+  /**
+   * Creates a scheduler measuring the CPU load of the JVM host.
+   *
+   * @param congestion reports whether the outbound connections are currently congested
+   */
+  public CollectionScheduler(BooleanSupplier congestion) {
+    this(congestion, CollectionScheduler::systemCpuLoad);
+  }
+
+  CollectionScheduler(BooleanSupplier congestion, DoubleSupplier cpuLoad) {
+    this.congestion = congestion;
+    this.cpuLoad = cpuLoad;
+    this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "cap-console-collector");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Registers a periodic task. The first execution happens after a random delay within the interval.
+   *
+   * @param name the name of the task, used for logging
+   * @param interval the nominal interval between two executions
+   * @param task the task to run
+   * @return the handle to cancel the task
+   */
+  public ScheduledCollection schedule(String name, Duration interval, Runnable task) {
+    long intervalNanos = Math.max(interval.toNanos(), 1);
+    ScheduledCollection collection = new ScheduledCollection(name, intervalNanos, task);
+    tasks.add(collection);
+    long phase = ThreadLocalRandom.current().nextLong(intervalNanos);
+    synchronized (collection) {
+      collection.deadline = System.nanoTime() + phase;
+      collection.future = executor.schedule(() -> run(collection), phase, TimeUnit.NANOSECONDS);
+    }
+    return collection;
+  }
+
+  /**
+   * @return the current factor, by which all intervals are stretched
+   */
+  public int getStretch() {
+    return stretch;
+  }
+
+  /**
+   * @return the self-metrics of the scheduler
+   */
+  public Map<String, Object> getStatistics() {
+    Map<String, Object> statistics = new LinkedHashMap<>();
+    statistics.put("tasks", tasks.size());
+    statistics.put("stretch", stretch);
+    statistics.put("runs", runs.sum());
+    statistics.put("failures", failures.sum());
+    statistics.put("missed_deadlines", missedDeadlines.sum());
+    statistics.put("lateness_nanos", latenessNanos.sum());
+    statistics.put("task_nanos", taskNanos.sum());
+    statistics.put("overhead_nanos", overheadNanos.sum());
+    return statistics;
+  }
+
+  public void shutdown() {
+    tasks.forEach(ScheduledCollection::cancel);
+    executor.shutdownNow();
+  }
+
+  private void run(ScheduledCollection collection) {
+    if (collection.cancelled) {
+      return;
+    }
+    long start = System.nanoTime();
+    long lateness = start - collection.deadline;
+    if (lateness > MISSED_DEADLINE_TOLERANCE_NANOS) {
+      missedDeadlines.increment();
+    }
+    latenessNanos.add(Math.max(lateness, 0));
+    updatePressure(start);
+
+    long taskStart = System.nanoTime();
+    try {
+      collection.task.run();
+    } catch (Exception e) {
+      failures.increment();
+      logger.warn("Periodic collection '{}' failed: {}", collection.name, e.getMessage(), e);
+    }
+    long taskEnd = System.nanoTime();
+    runs.increment();
+    taskNanos.add(taskEnd - taskStart);
+
+    synchronized (collection) {
+      if (!collection.cancelled) {
+        long delay = collection.intervalNanos * stretch;
+        collection.deadline = taskEnd + delay;
+        collection.future = executor.schedule(() -> run(collection), delay, TimeUnit.NANOSECONDS);
+      }
+    }
+    overheadNanos.add(System.nanoTime() - start - (taskEnd - taskStart));
+  }
+
+  /**
+   * Doubles the stretch factor while the system is under pressure and halves it again once it is
+   * idle. Evaluated at most once per second.
+   */
+  void updatePressure(long now) {
+    if (now - lastPressureCheck < PRESSURE_CHECK_INTERVAL_NANOS) {
+      return;
+    }
+    lastPressureCheck = now;
+    double load = cpuLoad.getAsDouble();
+    if (congestion.getAsBoolean() || load >= CPU_SATURATED) {
+      stretch = Math.min(stretch * 2, MAX_STRETCH);
+    } else if (load < CPU_IDLE && stretch > 1) {
+      stretch = stretch / 2;
+    }
+  }
+
+  static double systemCpuLoad() {
+    if (OS instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+      return Math.max(sunOs.getCpuLoad(), 0);
+    }
+    double average = OS.getSystemLoadAverage();
+    return average < 0 ? 0 : average / OS.getAvailableProcessors();
+  }
+
+  /**
+   * Handle of a periodic task registered with the {@link CollectionScheduler}.
+   */
+  public final class ScheduledCollection {
+
+    private final String name;
+    private final long intervalNanos;
+    private final Runnable task;
+
+    private volatile boolean cancelled;
+    private volatile long deadline;
+    private ScheduledFuture<?> future;
+
+    private ScheduledCollection(String name, long intervalNanos, Runnable task) {
+      this.name = name;
+      this.intervalNanos = intervalNanos;
+      this.task = task;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public synchronized void cancel() {
+      cancelled = true;
+      tasks.remove(this);
+      if (future != null) {
+        future.cancel(false);
+      }
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+  }
+}
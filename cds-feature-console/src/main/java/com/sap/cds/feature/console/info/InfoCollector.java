@@ -1,10 +1,13 @@
 package com.sap.cds.feature.console.info;
 
+import com.sap.cds.feature.console.info.CollectionScheduler.ScheduledCollection;
 import com.sap.cds.feature.console.service.InfoEvent;
 import com.sap.cds.feature.console.service.RemoteLogData;
 import com.sap.cds.feature.console.service.RemoteMonitoringService;
 import com.sap.cds.services.runtime.CdsRuntime;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +21,7 @@ public abstract class InfoCollector {
 
   private final CdsRuntime runtime;
   private final RemoteMonitoringService remoteMonitoringService;
+  private final LongAdder produced;
 
   public enum NotificationType {
     info,
@@ -30,6 +34,7 @@ public abstract class InfoCollector {
     super();
     this.remoteMonitoringService = remoteMonitoringService;
     this.runtime = runtime;
+    this.produced = remoteMonitoringService.getPipelineMetrics().producedCounter(getClass().getSimpleName());
   }
 
   public RemoteMonitoringService getRemoteMonitoringService() {
@@ -40,7 +45,35 @@ public abstract class InfoCollector {
     return runtime;
   }
 
+  /**
+   * Registers a periodic task with the shared {@link CollectionScheduler} of the remote monitoring
+   * service.
+   *
+   * @param name the name of the task
+   * @param interval the nominal interval, which might be stretched under load
+   * @param task the task to run
+   * @return the handle to cancel the task
+   */
+  protected ScheduledCollection schedule(String name, Duration interval, Runnable task) {
+    return getRemoteMonitoringService().getCollectionScheduler().schedule(name, interval, task);
+  }
+
   protected void emitInfoEvent(Supplier<InfoEvent> infoProducer) {
+    emitInfoEvent(infoProducer, true);
+  }
+
+  /**
+   * Emits an info event, which isn't specific to the tenant of the current request, like the
+   * definitions shared by the events of all tenants. It is sent to the clients of all tenants and
+   * isn't charged to the quota of a tenant.
+   *
+   * @param infoProducer the producer of the event
+   */
+  protected void emitSharedInfoEvent(Supplier<InfoEvent> infoProducer) {
+    emitInfoEvent(infoProducer, false);
+  }
+
+  private void emitInfoEvent(Supplier<InfoEvent> infoProducer, boolean tenantSpecific) {
     try {
       var event = infoProducer.get();
 
@@ -50,8 +83,13 @@ public abstract class InfoCollector {
       if (isEventMessageNullOrEmpty(event.getData())) {
         event.getData().put("message", "-");
       }
+      if (tenantSpecific && event.getTenant() == null) {
+        event.setTenant(RequestTenant.get());
+      }
+      produced.increment();
       getRemoteMonitoringService().emit(event);
     } catch (Exception e) {
+      getRemoteMonitoringService().getPipelineMetrics().recordDropped();
       sendErrorNotification("Data Access Error", e.getMessage());
       logger.error("Could not emit remote-monitoring info event!", e);
     }
@@ -86,6 +124,10 @@ public abstract class InfoCollector {
   }
 
   public void sendNotification(NotificationType type, String notification, Object... args) {
+    getRemoteMonitoringService().emit(createNotification(type, notification, args));
+  }
+
+  protected InfoEvent createNotification(NotificationType type, String notification, Object... args) {
     RemoteLogData logData = new RemoteLogData.Builder()
         .type(type.name())
         .logger("system")
@@ -95,8 +137,7 @@ public abstract class InfoCollector {
         .ts(System.currentTimeMillis())
         .build();
 
-    InfoEvent event = InfoEvent.createRemoteLog(Path.CONSOLE_NOTIFICATION, logData);
-    getRemoteMonitoringService().emit(event);
+    return InfoEvent.createRemoteLog(Path.CONSOLE_NOTIFICATION, logData);
   }
 
   public static boolean isInRemoteMonitoringContext() {
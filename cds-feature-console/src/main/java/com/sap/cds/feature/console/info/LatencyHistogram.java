@@ -0,0 +1,113 @@
+package com.sap.cds.feature.console.info;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with power-of-two buckets. Recording is
+ * allocation-free and percentiles are approximated by the upper bound of the bucket they fall into.
+ * As all histograms share the same buckets, they are merged by adding their bucket counts.
+ */
+public class LatencyHistogram {
+
+  static final int BUCKETS = 64;
+
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  public void record(long nanos) {
+    long value = Math.max(nanos, 0);
+    buckets[bucket(value)].increment();
+    count.increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  /**
+   * Adds the recorded durations of another histogram to this histogram.
+   *
+   * @param other the histogram to merge, which is not modified
+   */
+  public void merge(LatencyHistogram other) {
+    long[] counts = other.getBucketCounts();
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i].add(counts[i]);
+    }
+    count.add(other.getCount());
+    sum.add(other.getSum());
+    max.accumulate(other.getMax());
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getSum() {
+    return sum.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * @param percentile the percentile between 0 and 100
+   * @return the upper bound of the bucket containing the percentile, or 0 if nothing was recorded
+   */
+  public long getPercentile(double percentile) {
+    long[] counts = getBucketCounts();
+    long total = 0;
+    for (long c : counts) {
+      total += c;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * percentile / 100);
+    long cumulative = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      cumulative += counts[i];
+      if (cumulative >= rank) {
+        return Math.min(upperBound(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  public long[] getBucketCounts() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+    }
+    return counts;
+  }
+
+  public Map<String, Object> toMap() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("count", getCount());
+    result.put("sum", getSum());
+    result.put("max", getMax());
+    result.put("p50", getPercentile(50));
+    result.put("p90", getPercentile(90));
+    result.put("p99", getPercentile(99));
+    return result;
+  }
+
+  static int bucket(long value) {
+    return value == 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value) - 1;
+  }
+
+  static long upperBound(int bucket) {
+    return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+  }
+}
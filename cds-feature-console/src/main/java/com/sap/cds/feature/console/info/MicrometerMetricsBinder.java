@@ -0,0 +1,93 @@
+package com.sap.cds.feature.console.info;
+
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes the {@link PipelineMetrics} of a remote monitoring service through the Micrometer
+ * registry of the application. The meters are tagged with the {@value #TAG_RUNTIME} id of the
+ * binding, so that the meters of several runtimes in one registry don't overwrite each other, and
+ * are removed again on {@link #close()}. Must only be loaded, if Micrometer is on the classpath.
+ * Spring Boot applications are bound by the {@link MicrometerMetricsConfiguration}.
+ */
+public final class MicrometerMetricsBinder implements AutoCloseable {
+
+  static final String PREFIX = "cap.console.";
+  static final String TAG_RUNTIME = "runtime";
+  private static final AtomicInteger bindings = new AtomicInteger();
+
+  private final MeterRegistry registry;
+  private final Tags tags;
+  private final List<Meter> meters = new CopyOnWriteArrayList<>();
+  private volatile boolean closed;
+
+  private MicrometerMetricsBinder(MeterRegistry registry) {
+    this.registry = registry;
+    this.tags = Tags.of(TAG_RUNTIME, String.valueOf(bindings.incrementAndGet()));
+  }
+
+  /**
+   * Binds the metrics of the service to the registry.
+   *
+   * @param registry the registry of the application
+   * @param remoteMonitoringService the remote monitoring service of the runtime
+   * @return the binding, which removes the meters when closed
+   */
+  public static MicrometerMetricsBinder bind(MeterRegistry registry, RemoteMonitoringService remoteMonitoringService) {
+    MicrometerMetricsBinder binder = new MicrometerMetricsBinder(registry);
+    binder.bind(remoteMonitoringService.getPipelineMetrics(), remoteMonitoringService.getCollectionScheduler());
+    return binder;
+  }
+
+  private void bind(PipelineMetrics metrics, CollectionScheduler collectionScheduler) {
+    add(FunctionCounter.builder(PREFIX + "events.filtered", metrics, PipelineMetrics::getFiltered).tags(tags).register(registry));
+    add(FunctionCounter.builder(PREFIX + "events.dropped", metrics, PipelineMetrics::getDropped).tags(tags).register(registry));
+    add(FunctionCounter.builder(PREFIX + "events.sent", metrics, PipelineMetrics::getSent).tags(tags).register(registry));
+    add(FunctionCounter.builder(PREFIX + "bytes.sent", metrics, PipelineMetrics::getBytesSent).tags(tags).register(registry));
+    add(FunctionTimer.builder(PREFIX + "encode", metrics.getEncodeTime(),
+        LatencyHistogram::getCount, LatencyHistogram::getSum, TimeUnit.NANOSECONDS).tags(tags).register(registry));
+    add(FunctionTimer.builder(PREFIX + "commands", metrics.getCommandTime(),
+        LatencyHistogram::getCount, LatencyHistogram::getSum, TimeUnit.NANOSECONDS).tags(tags).register(registry));
+    metrics.getQueues().forEach((queue, depth) ->
+        add(Gauge.builder(PREFIX + "queue.depth", depth, d -> d.getAsLong()).tags(tags).tag("queue", queue).register(registry)));
+    add(Gauge.builder(PREFIX + "scheduler.stretch", collectionScheduler, CollectionScheduler::getStretch).tags(tags).register(registry));
+    metrics.onProducedCounter((collector, counter) -> {
+      if (!closed) {
+        add(FunctionCounter.builder(PREFIX + "events.produced", counter, LongAdder::sum).tags(tags).tag("collector", collector)
+            .register(registry));
+      }
+    });
+  }
+
+  private void add(Meter meter) {
+    meters.add(meter);
+  }
+
+  /**
+   * @return the meters of the binding
+   */
+  public List<Meter> getMeters() {
+    return List.copyOf(meters);
+  }
+
+  /**
+   * Removes the meters from the registry, so that the registry doesn't keep the metrics of a stopped
+   * runtime.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    meters.forEach(registry::remove);
+    meters.clear();
+  }
+}
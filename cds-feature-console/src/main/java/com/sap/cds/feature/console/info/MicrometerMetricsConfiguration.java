@@ -0,0 +1,62 @@
+package com.sap.cds.feature.console.info;
+
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.runtime.CdsRuntime;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Publishes the self-metrics of the remote monitoring pipeline through the {@link MeterRegistry}
+ * of a Spring Boot application, once the application is ready. The meters are removed, when the
+ * application context is closed.
+ */
+@AutoConfiguration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class MicrometerMetricsConfiguration {
+
+  @Bean
+  public MicrometerMetricsBinding capConsoleMicrometerMetrics() {
+    return new MicrometerMetricsBinding();
+  }
+
+  /**
+   * Binds the metrics of the runtime of the application context to its unique meter registry.
+   */
+  public static final class MicrometerMetricsBinding implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+
+    private MicrometerMetricsBinder binder;
+
+    @Override
+    public synchronized void onApplicationEvent(ApplicationReadyEvent event) {
+      if (binder == null) {
+        binder = bind(event.getApplicationContext());
+      }
+    }
+
+    static MicrometerMetricsBinder bind(ApplicationContext context) {
+      MeterRegistry registry = context.getBeanProvider(MeterRegistry.class).getIfUnique();
+      CdsRuntime runtime = context.getBeanProvider(CdsRuntime.class).getIfUnique();
+      if (registry == null || runtime == null) {
+        return null;
+      }
+      RemoteMonitoringService service = runtime.getServiceCatalog()
+          .getService(RemoteMonitoringService.class, RemoteMonitoringService.DEFAULT_NAME);
+      return service != null ? MicrometerMetricsBinder.bind(registry, service) : null;
+    }
+
+    @Override
+    public synchronized void destroy() {
+      if (binder != null) {
+        binder.close();
+        binder = null;
+      }
+    }
+  }
+
+}
@@ -10,11 +10,20 @@ public final class Path {
   public static final String REMOTE_MONITORING = "remote-monitoring";
   public static final String CONSOLE_NOTIFICATION =
       CONSOLE + "." + REMOTE_MONITORING + ".notification";
+  public static final String SELF = CONSOLE + "." + REMOTE_MONITORING + ".self";
+  public static final String CONSOLE_REPLY = CONSOLE + "." + REMOTE_MONITORING + ".reply";
 
   public static final String SYSTEM = "system";
+  public static final String SYSTEM_POOLS = SYSTEM + ".pools";
 
   public static final String CDS = "cds";
   public static final String CDS_ENTITY = CDS + ".entity";
+  public static final String CDS_STATEMENTS = CDS + ".statements";
+  public static final String CDS_RESOURCES = CDS + ".resources";
+
+  public static final String HTTP = "http";
+  public static final String HTTP_INBOUND = HTTP + ".inbound";
+  public static final String HTTP_OUTBOUND = HTTP + ".outbound";
 
   public static final String TRACES = "traces";
   public static final String TRACES_OUTPUT = TRACES + ".output";
@@ -0,0 +1,163 @@
+package com.sap.cds.feature.console.info;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Self-metrics of the remote monitoring pipeline. All counters are {@link LongAdder}s, so that
+ * recording on the hot path neither locks nor allocates.
+ */
+public class PipelineMetrics {
+
+  private final Map<String, LongAdder> produced = new ConcurrentHashMap<>();
+  private final LongAdder filtered = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder bytesSent = new LongAdder();
+  private final LatencyHistogram encodeTime = new LatencyHistogram();
+  private final LatencyHistogram commandTime = new LatencyHistogram();
+  private final Map<String, LongSupplier> queueDepths = new ConcurrentHashMap<>();
+
+  private volatile BiConsumer<String, LongAdder> producerListener;
+
+  /**
+   * @param collector the name of the collector
+   * @return the counter of the events produced by the collector
+   */
+  public LongAdder producedCounter(String collector) {
+    LongAdder counter = produced.get(collector);
+    if (counter == null) {
+      LongAdder created = new LongAdder();
+      counter = produced.putIfAbsent(collector, created);
+      if (counter == null) {
+        counter = created;
+        BiConsumer<String, LongAdder> listener = producerListener;
+        if (listener != null) {
+          listener.accept(collector, created);
+        }
+      }
+    }
+    return counter;
+  }
+
+  /**
+   * Calls the listener for all existing and future per-collector counters.
+   *
+   * @param listener the listener
+   */
+  public void onProducedCounter(BiConsumer<String, LongAdder> listener) {
+    this.producerListener = listener;
+    produced.forEach(listener);
+  }
+
+  /**
+   * Registers a queue, whose depth is reported with the metrics.
+   *
+   * @param name the name of the queue
+   * @param depth supplies the current number of queued elements
+   */
+  public void registerQueue(String name, LongSupplier depth) {
+    queueDepths.put(name, depth);
+  }
+
+  public Map<String, LongSupplier> getQueues() {
+    return queueDepths;
+  }
+
+  /**
+   * Records an event, that was not sent because no client is interested in it.
+   */
+  public void recordFiltered() {
+    filtered.increment();
+  }
+
+  /**
+   * Records an event, that was lost on its way to the clients.
+   */
+  public void recordDropped() {
+    dropped.increment();
+  }
+
+  public void recordSent(long bytes) {
+    sent.increment();
+    bytesSent.add(bytes);
+  }
+
+  public void recordEncodeTime(long nanos) {
+    encodeTime.record(nanos);
+  }
+
+  public void recordCommandTime(long nanos) {
+    commandTime.record(nanos);
+  }
+
+  public long getFiltered() {
+    return filtered.sum();
+  }
+
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  public long getSent() {
+    return sent.sum();
+  }
+
+  public long getBytesSent() {
+    return bytesSent.sum();
+  }
+
+  public LatencyHistogram getEncodeTime() {
+    return encodeTime;
+  }
+
+  public LatencyHistogram getCommandTime() {
+    return commandTime;
+  }
+
+  public Map<String, Object> toMap() {
+    Map<String, Object> producedByCollector = new LinkedHashMap<>();
+    produced.forEach((collector, counter) -> producedByCollector.put(collector, counter.sum()));
+    Map<String, Object> queues = new LinkedHashMap<>();
+    queueDepths.forEach((queue, depth) -> queues.put(queue, depth.getAsLong()));
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("produced", producedByCollector);
+    result.put("filtered", getFiltered());
+    result.put("dropped", getDropped());
+    result.put("sent", getSent());
+    result.put("bytes_sent", getBytesSent());
+    result.put("encode_nanos", encodeTime.toMap());
+    result.put("command_nanos", commandTime.toMap());
+    result.put("queues", queues);
+    return result;
+  }
+
+  /**
+   * Computes the length of the UTF-8 encoding of a string without encoding it.
+   *
+   * @param value the string
+   * @return the number of bytes
+   */
+  public static long utf8Length(CharSequence value) {
+    long length = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+}
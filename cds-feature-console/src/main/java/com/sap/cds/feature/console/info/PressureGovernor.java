@@ -0,0 +1,209 @@
+package com.sap.cds.feature.console.info;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleSupplier;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Degrades the monitoring pipeline step by step while the heap is close to exhaustion, so that the
+ * plugin doesn't add to the memory pressure of the application. The pressure is the heap usage
+ * after the last garbage collection. It is evaluated on the usage and collection threshold
+ * notifications of the heap memory pools and periodically, to recover once the pressure has
+ * cleared. The pressure rises to the level of its threshold immediately, but falls only one level
+ * per check and only below the threshold minus {@link #HYSTERESIS}.
+ */
+public class PressureGovernor {
+
+  private static final Logger logger = LoggerFactory.getLogger(PressureGovernor.class);
+
+  static final double HYSTERESIS = 0.05;
+  static final Duration CHECK_INTERVAL = Duration.ofSeconds(1);
+
+  /**
+   * Degradation levels with the heap usage from which on they apply.
+   */
+  public enum PressureLevel {
+    /** The pipeline runs unrestricted. */
+    NORMAL(0),
+    /** DEBUG and TRACE events are no longer captured. */
+    NO_DEBUG(0.75),
+    /** Retention buffers are shrunk. */
+    REDUCED_BUFFERS(0.85),
+    /** Only summaries are sent, no individual events. */
+    SUMMARIES_ONLY(0.90),
+    /** The stream is paused, only notifications are sent. */
+    PAUSED(0.95);
+
+    private final double threshold;
+
+    PressureLevel(double threshold) {
+      this.threshold = threshold;
+    }
+
+    public double getThreshold() {
+      return threshold;
+    }
+  }
+
+  private final DoubleSupplier pressure;
+  private final List<BiConsumer<PressureLevel, PressureLevel>> listeners = new CopyOnWriteArrayList<>();
+  private final NotificationListener notificationListener = this::handleNotification;
+  private volatile PressureLevel level = PressureLevel.NORMAL;
+  private volatile double lastPressure;
+  private boolean started;
+
+  public PressureGovernor() {
+    this(PressureGovernor::getHeapPressure);
+  }
+
+  PressureGovernor(DoubleSupplier pressure) {
+    this.pressure = pressure;
+  }
+
+  /**
+   * Registers the memory threshold notifications and the periodic check.
+   *
+   * @param collectionScheduler the scheduler of the periodic check
+   */
+  public synchronized void start(CollectionScheduler collectionScheduler) {
+    if (started) {
+      return;
+    }
+    started = true;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      long max = pool.getUsage().getMax();
+      if (pool.getType() != MemoryType.HEAP || max <= 0) {
+        continue;
+      }
+      long threshold = (long) (max * PressureLevel.NO_DEBUG.getThreshold());
+      // thresholds are global, don't override the ones of the application
+      if (pool.isUsageThresholdSupported() && pool.getUsageThreshold() == 0) {
+        pool.setUsageThreshold(threshold);
+      }
+      if (pool.isCollectionUsageThresholdSupported() && pool.getCollectionUsageThreshold() == 0) {
+        pool.setCollectionUsageThreshold(threshold);
+      }
+    }
+    if (ManagementFactory.getMemoryMXBean() instanceof NotificationEmitter emitter) {
+      emitter.addNotificationListener(notificationListener, null, null);
+    }
+    collectionScheduler.schedule("heap-pressure", CHECK_INTERVAL, this::update);
+  }
+
+  public synchronized void stop() {
+    if (started && ManagementFactory.getMemoryMXBean() instanceof NotificationEmitter emitter) {
+      try {
+        emitter.removeNotificationListener(notificationListener);
+      } catch (ListenerNotFoundException e) {
+        logger.debug("Memory notification listener was not registered", e);
+      }
+    }
+    started = false;
+  }
+
+  /**
+   * @param listener called with the previous and the new level on every transition
+   */
+  public void addListener(BiConsumer<PressureLevel, PressureLevel> listener) {
+    listeners.add(listener);
+  }
+
+  public PressureLevel getLevel() {
+    return level;
+  }
+
+  /**
+   * @return the heap usage after the last garbage collection, as fraction of the maximum heap
+   */
+  public double getPressure() {
+    return lastPressure;
+  }
+
+  /**
+   * @param threshold the level
+   * @return {@code true}, if the current level is the given level or a higher one
+   */
+  public boolean isAtLeast(PressureLevel threshold) {
+    return level.compareTo(threshold) >= 0;
+  }
+
+  private void handleNotification(Notification notification, Object handback) {
+    String type = notification.getType();
+    if (MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+        || MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+      update();
+    }
+  }
+
+  void update() {
+    PressureLevel previous;
+    PressureLevel next;
+    synchronized (this) {
+      double current = pressure.getAsDouble();
+      lastPressure = current;
+      previous = level;
+      next = nextLevel(previous, current);
+      level = next;
+    }
+    if (next != previous) {
+      logger.info("Heap usage after GC at {}%: monitoring pipeline changed from {} to {}", Math.round(lastPressure * 100), previous, next);
+      listeners.forEach(l -> l.accept(previous, next));
+    }
+  }
+
+  static PressureLevel nextLevel(PressureLevel current, double pressure) {
+    PressureLevel[] levels = PressureLevel.values();
+    PressureLevel target = PressureLevel.NORMAL;
+    for (PressureLevel l : levels) {
+      if (pressure >= l.getThreshold()) {
+        target = l;
+      }
+    }
+    if (target.compareTo(current) >= 0) {
+      return target;
+    }
+    if (pressure < current.getThreshold() - HYSTERESIS) {
+      return levels[current.ordinal() - 1];
+    }
+    return current;
+  }
+
+  private static double getHeapPressure() {
+    return getHeapPressure(ManagementFactory.getMemoryPoolMXBeans());
+  }
+
+  /**
+   * Only the tenured pools, which support usage thresholds, are considered. The young pools,
+   * especially the survivor spaces, are often nearly full right after a young collection.
+   *
+   * @param pools the memory pools
+   * @return the highest usage after the last collection of the tenured heap pools
+   */
+  static double getHeapPressure(List<MemoryPoolMXBean> pools) {
+    double result = 0;
+    for (MemoryPoolMXBean pool : pools) {
+      if (pool.getType() != MemoryType.HEAP || !pool.isUsageThresholdSupported()) {
+        continue;
+      }
+      MemoryUsage usage = pool.getCollectionUsage();
+      if (usage != null && usage.getMax() > 0) {
+        result = Math.max(result, (double) usage.getUsed() / usage.getMax());
+      }
+    }
+    return result;
+  }
+
+}
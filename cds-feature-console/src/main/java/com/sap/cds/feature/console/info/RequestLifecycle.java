@@ -0,0 +1,81 @@
+package com.sap.cds.feature.console.info;
+
+import com.sap.cds.services.changeset.ChangeSetContext;
+import com.sap.cds.services.changeset.ChangeSetListener;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * End of the request handled by the current thread. The {@link RequestTenant} and the state, which
+ * the collectors keep per thread for a request, are reset, once the request ends, so that they are
+ * neither applied to the next request handled by the same pooled thread nor kept for the lifetime
+ * of the thread. The end is signaled by the {@code InboundRequestFilter} for HTTP requests and, for
+ * all CAP events, including the ones of messaging handlers and asynchronous executors, once the
+ * outermost change set of the event is closed.
+ */
+public final class RequestLifecycle {
+
+  private static final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+  // the outermost change set of the current thread, whose close ends the request
+  private static final ThreadLocal<ChangeSetContext> changeSet = new ThreadLocal<>();
+
+  private RequestLifecycle() {
+  }
+
+  /**
+   * @param listener called on the thread of a request, once it ended
+   */
+  public static void addListener(Runnable listener) {
+    listeners.add(listener);
+  }
+
+  public static void removeListener(Runnable listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Begins the request handled by the current thread with a CAP event, or continues it with a
+   * nested event, and remembers the tenant of the event until the request ends.
+   *
+   * @param context the change set of the CAP event, or {@code null}
+   * @param tenant the tenant of the CAP event, or {@code null} for the provider
+   */
+  public static void begin(ChangeSetContext context, String tenant) {
+    endWith(context);
+    // the tenant is only remembered, if the end of the request clears it
+    if (changeSet.get() != null) {
+      RequestTenant.remember(tenant);
+    }
+  }
+
+  /**
+   * Ends the request handled by the current thread, once the change set of a CAP event is closed.
+   * Change sets nested into the one of a former event on the thread don't end the request.
+   *
+   * @param context the change set of the CAP event, or {@code null}
+   */
+  public static void endWith(ChangeSetContext context) {
+    if (context == null || changeSet.get() != null) {
+      return;
+    }
+    changeSet.set(context);
+    context.register(new ChangeSetListener() {
+      @Override
+      public void afterClose(boolean completed) {
+        end();
+      }
+    });
+  }
+
+  /**
+   * Ends the request handled by the current thread.
+   */
+  public static void end() {
+    changeSet.remove();
+    RequestTenant.clear();
+    for (Runnable listener : listeners) {
+      listener.run();
+    }
+  }
+
+}
@@ -0,0 +1,40 @@
+package com.sap.cds.feature.console.info;
+
+/**
+ * Tenant of the request handled by the current thread. The tenant is taken from the CAP request
+ * context once per CAP event and kept per thread, so that tagging an info event doesn't need to
+ * look up the request context. It is remembered, once the {@link RequestLifecycle} of its request
+ * began, and cleared, once the request ends, so it is not applied to the next request handled by the
+ * same thread.
+ */
+public final class RequestTenant {
+
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  private RequestTenant() {
+  }
+
+  /**
+   * Remembers the tenant of the request handled by the current thread.
+   *
+   * @param tenant the tenant, or {@code null} for the provider
+   */
+  static void remember(String tenant) {
+    CURRENT.set(tenant);
+  }
+
+  /**
+   * @return the tenant of the request handled by the current thread, or {@code null}
+   */
+  public static String get() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Clears the tenant of the current thread, once its request ended.
+   */
+  public static void clear() {
+    CURRENT.remove();
+  }
+
+}
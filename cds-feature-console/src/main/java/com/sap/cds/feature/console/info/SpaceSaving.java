@@ -0,0 +1,275 @@
+package com.sap.cds.feature.console.info;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted Space-Saving sketch, which keeps the top keys by total weight in constant memory. Once
+ * all counters are taken, a new key replaces the key with the smallest total and inherits its total
+ * as possible overestimation ({@link Entry#getError()}). Every entry additionally keeps the maximum
+ * weight and a sample of the heaviest single observation. The keys with the heaviest single
+ * observations are protected in additional slots, so that a rare but heavy key isn't evicted by
+ * frequent light keys. Both rankings are kept in indexed min-heaps, so an observation costs
+ * {@code O(log n)}.
+ *
+ * @param <K> the type of the keys
+ * @param <S> the type of the samples
+ */
+public class SpaceSaving<K, S> {
+
+  private final Map<K, Entry<K, S>> entries;
+  private final Heap<K, S> byTotal;
+  private final Heap<K, S> byMax;
+
+  /**
+   * @param capacity the number of tracked keys
+   */
+  public SpaceSaving(int capacity) {
+    this(capacity, 0);
+  }
+
+  /**
+   * @param capacity the number of keys tracked by total weight
+   * @param heaviest the number of additional slots for the keys with the heaviest single observation
+   */
+  public SpaceSaving(int capacity, int heaviest) {
+    this.entries = new HashMap<>((capacity + heaviest) * 2);
+    this.byTotal = new Heap<>(capacity, false);
+    this.byMax = new Heap<>(heaviest, true);
+  }
+
+  /**
+   * Records an observation.
+   *
+   * @param key the key
+   * @param weight the weight, e.g. a duration
+   * @param sample the sample, kept if this is the heaviest observation of the key
+   */
+  public synchronized void add(K key, long weight, S sample) {
+    Entry<K, S> entry = entries.get(key);
+    if (entry == null) {
+      long error = 0;
+      if (byTotal.isFull()) {
+        Entry<K, S> min = byTotal.poll();
+        error = min.total;
+        if (min.maxIndex < 0) {
+          entries.remove(min.key);
+        }
+      }
+      entry = new Entry<>(key, error);
+      entries.put(key, entry);
+      byTotal.add(entry);
+    }
+    entry.count++;
+    entry.total += weight;
+    if (weight >= entry.max) {
+      entry.max = weight;
+      entry.sample = sample;
+    }
+    if (entry.totalIndex >= 0) {
+      byTotal.increased(entry);
+    }
+    if (entry.maxIndex >= 0) {
+      byMax.increased(entry);
+    } else if (byMax.capacity > 0 && (!byMax.isFull() || entry.max > byMax.peek().max)) {
+      if (byMax.isFull()) {
+        Entry<K, S> min = byMax.poll();
+        if (min.totalIndex < 0) {
+          entries.remove(min.key);
+        }
+      }
+      byMax.add(entry);
+    }
+  }
+
+  /**
+   * @return copies of the tracked entries, sorted by descending total weight
+   */
+  public synchronized List<Entry<K, S>> getTop() {
+    List<Entry<K, S>> top = new ArrayList<>(entries.size());
+    entries.values().forEach(e -> top.add(e.copy()));
+    top.sort(Comparator.comparingLong((Entry<K, S> e) -> e.total).reversed());
+    return top;
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    byTotal.clear();
+    byMax.clear();
+  }
+
+  /**
+   * Min-heap of entries by total or maximum weight, which keeps the position of each entry in the
+   * entry, so that an entry, whose weight increased, is moved down in {@code O(log n)}.
+   */
+  private static final class Heap<K, S> {
+    private final int capacity;
+    private final boolean byMax;
+    private final Entry<K, S>[] heap;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    private Heap(int capacity, boolean byMax) {
+      this.capacity = capacity;
+      this.byMax = byMax;
+      this.heap = new Entry[capacity];
+    }
+
+    private boolean isFull() {
+      return size >= capacity;
+    }
+
+    private Entry<K, S> peek() {
+      return heap[0];
+    }
+
+    private void add(Entry<K, S> entry) {
+      heap[size] = entry;
+      setIndex(entry, size);
+      siftUp(size++);
+    }
+
+    private Entry<K, S> poll() {
+      Entry<K, S> min = heap[0];
+      setIndex(min, -1);
+      Entry<K, S> last = heap[--size];
+      heap[size] = null;
+      if (size > 0) {
+        heap[0] = last;
+        setIndex(last, 0);
+        siftDown(0);
+      }
+      return min;
+    }
+
+    private void increased(Entry<K, S> entry) {
+      siftDown(byMax ? entry.maxIndex : entry.totalIndex);
+    }
+
+    private void clear() {
+      Arrays.fill(heap, null);
+      size = 0;
+    }
+
+    private long weight(Entry<K, S> entry) {
+      return byMax ? entry.max : entry.total;
+    }
+
+    private void setIndex(Entry<K, S> entry, int index) {
+      if (byMax) {
+        entry.maxIndex = index;
+      } else {
+        entry.totalIndex = index;
+      }
+    }
+
+    private void siftUp(int index) {
+      while (index > 0) {
+        int parent = (index - 1) / 2;
+        if (weight(heap[parent]) <= weight(heap[index])) {
+          return;
+        }
+        swap(parent, index);
+        index = parent;
+      }
+    }
+
+    private void siftDown(int index) {
+      while (true) {
+        int smallest = index;
+        int left = 2 * index + 1;
+        int right = left + 1;
+        if (left < size && weight(heap[left]) < weight(heap[smallest])) {
+          smallest = left;
+        }
+        if (right < size && weight(heap[right]) < weight(heap[smallest])) {
+          smallest = right;
+        }
+        if (smallest == index) {
+          return;
+        }
+        swap(smallest, index);
+        index = smallest;
+      }
+    }
+
+    private void swap(int i, int j) {
+      Entry<K, S> entry = heap[i];
+      heap[i] = heap[j];
+      heap[j] = entry;
+      setIndex(heap[i], i);
+      setIndex(heap[j], j);
+    }
+  }
+
+  /**
+   * Counter of a key.
+   *
+   * @param <K> the type of the key
+   * @param <S> the type of the sample
+   */
+  public static final class Entry<K, S> {
+    private final K key;
+    private final long error;
+    private long count;
+    private long total;
+    private long max;
+    private S sample;
+    // positions in the heaps, -1 if not contained
+    private int totalIndex = -1;
+    private int maxIndex = -1;
+
+    private Entry(K key, long error) {
+      this.key = key;
+      this.error = error;
+      this.total = error;
+    }
+
+    private Entry<K, S> copy() {
+      Entry<K, S> copy = new Entry<>(key, error);
+      copy.count = count;
+      copy.total = total;
+      copy.max = max;
+      copy.sample = sample;
+      return copy;
+    }
+
+    public K getKey() {
+      return key;
+    }
+
+    /**
+     * @return the number of observations since the key is tracked
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * @return the total weight, including the error
+     */
+    public long getTotal() {
+      return total;
+    }
+
+    public long getMax() {
+      return max;
+    }
+
+    /**
+     * @return the maximum overestimation of the total weight
+     */
+    public long getError() {
+      return error;
+    }
+
+    public S getSample() {
+      return sample;
+    }
+  }
+
+}
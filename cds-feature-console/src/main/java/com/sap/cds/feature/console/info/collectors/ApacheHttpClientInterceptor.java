@@ -0,0 +1,207 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.execchain.ClientExecChain;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+
+/**
+ * Apache HttpClient 4 interceptor, which reports each call to the active
+ * {@link OutboundCallCollector}. Create the client with {@link #createHttpClientBuilder()}, which
+ * also reports the calls failing without a response, like refused connections, timeouts and I/O
+ * errors, with status 0. Alternatively, register it as first request and last response interceptor,
+ * which only reports the calls with a response:
+ *
+ * <pre>
+ * ApacheHttpClientInterceptor interceptor = new ApacheHttpClientInterceptor();
+ * HttpClientBuilder.create().addInterceptorFirst((HttpRequestInterceptor) interceptor)
+ *     .addInterceptorLast((HttpResponseInterceptor) interceptor);
+ * </pre>
+ *
+ * The destination is read from the context attribute {@value #DESTINATION}, falling back to the
+ * target host. Of sampled responses, which aren't repeatable, only the first
+ * {@value OutboundCallCollector#MAX_BODY_BYTES} bytes are read ahead, the application still reads the
+ * whole content as stream.
+ */
+public class ApacheHttpClientInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+
+  public static final String DESTINATION = "com.sap.cds.feature.console.destination";
+
+  private static final String START = ApacheHttpClientInterceptor.class.getName() + ".start";
+  private static final String SAMPLED = ApacheHttpClientInterceptor.class.getName() + ".sampled";
+  private static final String REQUEST_BODY = ApacheHttpClientInterceptor.class.getName() + ".requestBody";
+
+  /**
+   * Creates a client builder with a registered interceptor, which additionally wraps the execution
+   * of each attempt, so that attempts failing with an exception are reported with status 0.
+   *
+   * @return the client builder
+   */
+  public static HttpClientBuilder createHttpClientBuilder() {
+    ApacheHttpClientInterceptor interceptor = new ApacheHttpClientInterceptor();
+    HttpClientBuilder builder = new HttpClientBuilder() {
+      @Override
+      protected ClientExecChain decorateProtocolExec(ClientExecChain protocolExec) {
+        return (route, request, context, execAware) -> {
+          try {
+            return protocolExec.execute(route, request, context, execAware);
+          } catch (IOException | HttpException | RuntimeException e) {
+            interceptor.failed(request, context);
+            throw e;
+          }
+        };
+      }
+    };
+    return builder.addInterceptorFirst((HttpRequestInterceptor) interceptor).addInterceptorLast((HttpResponseInterceptor) interceptor);
+  }
+
+  @Override
+  public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
+    OutboundCallCollector collector = OutboundCallCollector.getActive();
+    if (collector == null) {
+      return;
+    }
+    context.setAttribute(START, System.nanoTime());
+    if (collector.sample(getDestination(context))) {
+      context.setAttribute(SAMPLED, Boolean.TRUE);
+      HttpEntity entity = request instanceof HttpEntityEnclosingRequest r ? r.getEntity() : null;
+      // non-repeatable request bodies are streamed and cannot be read twice
+      if (entity != null && entity.isRepeatable()) {
+        context.setAttribute(REQUEST_BODY, readBody(entity));
+      }
+    }
+  }
+
+  @Override
+  public void process(HttpResponse response, HttpContext context) throws HttpException, IOException {
+    OutboundCallCollector collector = OutboundCallCollector.getActive();
+    if (collector == null || !(context.getAttribute(START) instanceof Long start)) {
+      return;
+    }
+    // the call is reported once, even if a later interceptor fails
+    context.removeAttribute(START);
+    long latency = System.nanoTime() - start;
+    HttpRequest request = HttpCoreContext.adapt(context).getRequest();
+    HttpEntity requestEntity = request instanceof HttpEntityEnclosingRequest r ? r.getEntity() : null;
+    HttpEntity responseEntity = response.getEntity();
+
+    String responseBody = null;
+    if (Boolean.TRUE.equals(context.getAttribute(SAMPLED)) && responseEntity != null) {
+      if (responseEntity.isRepeatable()) {
+        responseBody = readBody(responseEntity);
+      } else {
+        PeekedHttpEntity peeked = new PeekedHttpEntity(responseEntity);
+        response.setEntity(peeked);
+        responseBody = new String(peeked.prefix, charset(responseEntity));
+      }
+    }
+    collector.record(new OutboundCall(getDestination(context),
+        request.getRequestLine().getMethod(),
+        request.getRequestLine().getUri(),
+        response.getStatusLine().getStatusCode(),
+        requestEntity != null ? requestEntity.getContentLength() : 0,
+        responseEntity != null ? responseEntity.getContentLength() : 0,
+        latency,
+        (String) context.getAttribute(REQUEST_BODY),
+        responseBody));
+  }
+
+  /**
+   * Reports an attempt, which failed without a response.
+   *
+   * @param request the request of the attempt
+   * @param context the context of the call
+   */
+  void failed(HttpRequest request, HttpContext context) {
+    OutboundCallCollector collector = OutboundCallCollector.getActive();
+    if (collector == null || !(context.getAttribute(START) instanceof Long start)) {
+      return;
+    }
+    context.removeAttribute(START);
+    HttpEntity requestEntity = request instanceof HttpEntityEnclosingRequest r ? r.getEntity() : null;
+    collector.record(new OutboundCall(getDestination(context),
+        request.getRequestLine().getMethod(),
+        request.getRequestLine().getUri(),
+        0,
+        requestEntity != null ? requestEntity.getContentLength() : 0,
+        0,
+        System.nanoTime() - start,
+        (String) context.getAttribute(REQUEST_BODY),
+        null));
+  }
+
+  private static String getDestination(HttpContext context) {
+    if (context.getAttribute(DESTINATION) instanceof String destination) {
+      return destination;
+    }
+    HttpHost host = HttpCoreContext.adapt(context).getTargetHost();
+    return host != null ? host.toHostString() : null;
+  }
+
+  private static String readBody(HttpEntity entity) throws IOException {
+    try (InputStream content = entity.getContent()) {
+      return new String(content.readNBytes(OutboundCallCollector.MAX_BODY_BYTES), charset(entity));
+    }
+  }
+
+  private static Charset charset(HttpEntity entity) {
+    ContentType contentType = ContentType.get(entity);
+    return contentType != null && contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+  }
+
+  /**
+   * Streamed entity, of which the first bytes are read ahead for the sample. Only these bytes are
+   * kept in memory, the content is read from them and then from the remaining stream.
+   */
+  private static final class PeekedHttpEntity extends HttpEntityWrapper {
+    private final byte[] prefix;
+    private final InputStream content;
+
+    private PeekedHttpEntity(HttpEntity entity) throws IOException {
+      super(entity);
+      InputStream remaining = entity.getContent();
+      this.prefix = remaining != null ? remaining.readNBytes(OutboundCallCollector.MAX_BODY_BYTES) : new byte[0];
+      this.content = remaining != null ? new SequenceInputStream(new ByteArrayInputStream(prefix), remaining) : new ByteArrayInputStream(prefix);
+    }
+
+    @Override
+    public InputStream getContent() {
+      return content;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+      try (InputStream in = content) {
+        in.transferTo(out);
+      }
+    }
+
+    @Override
+    public boolean isRepeatable() {
+      return false;
+    }
+
+    @Override
+    public boolean isStreaming() {
+      return true;
+    }
+  }
+
+}
@@ -0,0 +1,17 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import io.opentelemetry.sdk.autoconfigure.spi.AutoConfigurationCustomizer;
+import io.opentelemetry.sdk.autoconfigure.spi.AutoConfigurationCustomizerProvider;
+
+/**
+ * Adds the {@link ConsoleSpanProcessor} to the tracer provider created by the OpenTelemetry SDK
+ * autoconfiguration in the application.
+ */
+public class ConsoleSpanCustomizerProvider implements AutoConfigurationCustomizerProvider {
+
+  @Override
+  public void customize(AutoConfigurationCustomizer autoConfiguration) {
+    autoConfiguration.addTracerProviderCustomizer((builder, config) -> builder.addSpanProcessor(new ConsoleSpanProcessor()));
+  }
+
+}
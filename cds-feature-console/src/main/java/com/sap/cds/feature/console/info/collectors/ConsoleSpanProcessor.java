@@ -0,0 +1,63 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import com.sap.cds.feature.console.info.collectors.TraceBuffer.SpanRecord;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * OpenTelemetry {@link SpanProcessor}, which passes finished spans to the active
+ * {@link SpanCollector}, while it is observed. It is added to the tracer provider of the OpenTelemetry SDK
+ * autoconfiguration by the {@link ConsoleSpanCustomizerProvider}; applications, which build their
+ * tracer provider themselves, can add it with {@code SdkTracerProviderBuilder.addSpanProcessor()}.
+ */
+public class ConsoleSpanProcessor implements SpanProcessor {
+
+  static final int MAX_ATTRIBUTES = 16;
+  static final int MAX_ATTRIBUTE_LENGTH = 256;
+
+  @Override
+  public void onStart(Context parentContext, ReadWriteSpan span) {
+    // only finished spans are recorded
+  }
+
+  @Override
+  public boolean isStartRequired() {
+    return false;
+  }
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    SpanCollector collector = SpanCollector.getActive();
+    // the span data is only copied, if the trace can be sent
+    if (collector != null && collector.isObserved()) {
+      collector.record(toRecord(span.toSpanData()));
+    }
+  }
+
+  @Override
+  public boolean isEndRequired() {
+    return true;
+  }
+
+  static SpanRecord toRecord(SpanData span) {
+    SpanContext parent = span.getParentSpanContext();
+    Map<String, String> attributes = new LinkedHashMap<>();
+    span.getAttributes().forEach((key, value) -> {
+      if (attributes.size() < MAX_ATTRIBUTES) {
+        String text = String.valueOf(value);
+        attributes.put(key.getKey(), text.length() > MAX_ATTRIBUTE_LENGTH ? text.substring(0, MAX_ATTRIBUTE_LENGTH) : text);
+      }
+    });
+    return new SpanRecord(span.getTraceId(), span.getSpanId(), parent.isValid() ? parent.getSpanId() : null,
+        span.getName(), span.getKind().name(), span.getStartEpochNanos(), span.getEndEpochNanos() - span.getStartEpochNanos(),
+        span.getStatus().getStatusCode() == StatusCode.ERROR, !parent.isValid() || parent.isRemote(), attributes);
+  }
+
+}
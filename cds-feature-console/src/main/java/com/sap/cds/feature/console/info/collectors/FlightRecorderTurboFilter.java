@@ -0,0 +1,213 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.spi.FilterReply;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.PressureGovernor.PressureLevel;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteLogData;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Logback {@link TurboFilter}, which records log statements below the effective level of their
+ * logger in a small ring buffer per thread instead of dropping them. The pattern and the arguments
+ * are kept unformatted. Only if an error or an exception is logged by the same request, the recorded
+ * statements are formatted and sent ahead of it; they are discarded, once the request ends, or the
+ * thread handles a request with another correlation id. Statements guarded by
+ * {@code isDebugEnabled()} are not recorded, as enabling the guards would evaluate their arguments
+ * for every request.
+ */
+public class FlightRecorderTurboFilter extends TurboFilter {
+
+  static final int DEFAULT_CAPACITY = 64;
+  static final int REDUCED_CAPACITY = 8;
+
+  private final Consumer<InfoEvent> sink;
+  private final ThreadLocal<Ring> rings = new ThreadLocal<>();
+
+  private volatile Level recordLevel = Level.DEBUG;
+  private volatile int capacity = DEFAULT_CAPACITY;
+  private volatile PressureLevel pressure = PressureLevel.NORMAL;
+
+  /**
+   * @param sink receives the recorded log statements, once they are flushed
+   */
+  public FlightRecorderTurboFilter(Consumer<InfoEvent> sink) {
+    this.sink = sink;
+  }
+
+  /**
+   * @param level the lowest level, which is recorded
+   * @param ringCapacity the number of statements recorded per thread
+   */
+  public void configure(Level level, int ringCapacity) {
+    this.recordLevel = level;
+    this.capacity = Math.max(ringCapacity, 1);
+  }
+
+  /**
+   * Restricts the recorder under heap pressure: from {@link PressureLevel#NO_DEBUG} on only INFO and
+   * WARN statements are recorded, from {@link PressureLevel#REDUCED_BUFFERS} on the rings are
+   * shrunk to {@value #REDUCED_CAPACITY} statements, and from {@link PressureLevel#SUMMARIES_ONLY} on
+   * nothing is recorded and the rings are released.
+   *
+   * @param level the current pressure level
+   */
+  public void setPressure(PressureLevel level) {
+    this.pressure = level;
+  }
+
+  public Level getRecordLevel() {
+    return recordLevel;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Discards the ring of the current thread, once its request ended, so that neither its statements
+   * are flushed with a later request nor their arguments are kept for the lifetime of the thread.
+   */
+  void end() {
+    rings.remove();
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (format == null) {
+      // isXxxEnabled() checks
+      return FilterReply.NEUTRAL;
+    }
+    PressureLevel currentPressure = pressure;
+    if (currentPressure.compareTo(PressureLevel.SUMMARIES_ONLY) >= 0) {
+      rings.remove();
+      return FilterReply.NEUTRAL;
+    }
+    int ringCapacity = currentPressure.compareTo(PressureLevel.REDUCED_BUFFERS) >= 0 ? Math.min(capacity, REDUCED_CAPACITY) : capacity;
+    Ring ring = rings.get();
+    if (ring == null || ring.capacity != ringCapacity) {
+      ring = new Ring(ringCapacity);
+      rings.set(ring);
+    }
+    if (ring.flushing) {
+      return FilterReply.NEUTRAL;
+    }
+    String correlationId = MDC.get(RequestScopeTurboFilter.MDC_CORRELATION_ID);
+    if (ring.correlationId != correlationId) { // NOSONAR the MDC keeps the same instance for a request
+      ring.clear();
+      ring.correlationId = correlationId;
+    }
+    if (level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      if (level.levelInt >= Level.ERROR_INT || t != null || hasThrowable(params)) {
+        flush(ring);
+      }
+      return FilterReply.NEUTRAL;
+    }
+    if (level.isGreaterOrEqual(recordLevel) && (level.isGreaterOrEqual(Level.INFO) || currentPressure == PressureLevel.NORMAL)) {
+      ring.add(level, logger.getName(), format, params, t);
+    }
+    // the statement is dropped by the logger, but later turbo filters might still accept it
+    return FilterReply.NEUTRAL;
+  }
+
+  private static boolean hasThrowable(Object[] params) {
+    return params != null && params.length > 0 && params[params.length - 1] instanceof Throwable;
+  }
+
+  private void flush(Ring ring) {
+    if (ring.size == 0) {
+      return;
+    }
+    ring.flushing = true;
+    try {
+      String thread = Thread.currentThread().getName();
+      int first = ring.next - ring.size;
+      for (int i = 0; i < ring.size; i++) {
+        int slot = Math.floorMod(first + i, ring.capacity);
+        FormattingTuple formatted = MessageFormatter.arrayFormat(ring.formats[slot], ring.params[slot]);
+        Throwable throwable = ring.throwables[slot] != null ? ring.throwables[slot] : formatted.getThrowable();
+        String message = throwable != null
+            ? formatted.getMessage() + CoreConstants.LINE_SEPARATOR + ThrowableProxyUtil.asString(new ThrowableProxy(throwable))
+            : formatted.getMessage();
+        RemoteLogData logData = new RemoteLogData.Builder()
+            .level(ring.levels[slot].toString())
+            .logger(ring.loggers[slot])
+            .thread(thread)
+            .type(throwable != null ? "exception" : "log")
+            .message(message)
+            .ts(ring.timestamps[slot])
+            .traceId(ring.traceIds[slot])
+            .build();
+        sink.accept(InfoEvent.createRemoteLog(Path.TRACES_OUTPUT, logData));
+      }
+    } finally {
+      ring.clear();
+      ring.flushing = false;
+    }
+  }
+
+  /**
+   * Preallocated slots of the recorded statements of one thread.
+   */
+  private static final class Ring {
+    private final int capacity;
+    private final Level[] levels;
+    private final String[] loggers;
+    private final String[] formats;
+    private final Object[][] params;
+    private final Throwable[] throwables;
+    private final long[] timestamps;
+    private final String[] traceIds;
+    private int next;
+    private int size;
+    private String correlationId;
+    private boolean flushing;
+
+    private Ring(int capacity) {
+      this.capacity = capacity;
+      this.levels = new Level[capacity];
+      this.loggers = new String[capacity];
+      this.formats = new String[capacity];
+      this.params = new Object[capacity][];
+      this.throwables = new Throwable[capacity];
+      this.timestamps = new long[capacity];
+      this.traceIds = new String[capacity];
+    }
+
+    private void add(Level level, String logger, String format, Object[] arguments, Throwable t) {
+      levels[next] = level;
+      loggers[next] = logger;
+      formats[next] = format;
+      params[next] = arguments;
+      throwables[next] = t;
+      timestamps[next] = System.currentTimeMillis();
+      // the trace id of the span, which was current when the statement was logged
+      traceIds[next] = MDC.get(SpanCollector.MDC_TRACE_ID);
+      next = (next + 1) % capacity;
+      size = Math.min(size + 1, capacity);
+    }
+
+    private void clear() {
+      if (size > 0) {
+        // release the references to the arguments
+        Arrays.fill(formats, null);
+        Arrays.fill(params, null);
+        Arrays.fill(throwables, null);
+        Arrays.fill(traceIds, null);
+        size = 0;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,41 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Probe of a HikariCP connection pool, which reads the pool MXBean of the data source.
+ */
+final class HikariPoolProbe implements PoolProbe {
+
+  static final String KIND = "datasource";
+
+  private final String name;
+  private final HikariDataSource dataSource;
+
+  HikariPoolProbe(String name, HikariDataSource dataSource) {
+    this.name = name;
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getKind() {
+    return KIND;
+  }
+
+  @Override
+  public Sample sample() {
+    HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+    if (pool == null) {
+      return null;
+    }
+    return new Sample(pool.getActiveConnections(), pool.getIdleConnections(), pool.getThreadsAwaitingConnection(),
+        dataSource.getMaximumPoolSize());
+  }
+
+}
@@ -0,0 +1,75 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static com.sap.cds.feature.console.service.RemoteMonitoringConfiguration.COMMAND_ATTACHED;
+
+import com.sap.cds.feature.console.info.InfoCollector;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.collectors.InboundRoutes.RouteStatistics;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.handler.EventHandler;
+import com.sap.cds.services.handler.annotations.On;
+import com.sap.cds.services.handler.annotations.ServiceName;
+import com.sap.cds.services.runtime.CdsRuntime;
+import java.time.Duration;
+
+/**
+ * Aggregates latency, status and payload size of the inbound HTTP requests per route and streams
+ * the histograms together with the requests in flight. In contrast to the CAP event timings, the
+ * whole request is covered including security filters, OData parsing and serialization. Requests
+ * are reported by the {@link InboundRequestFilter}.
+ */
+@ServiceName(RemoteMonitoringService.DEFAULT_NAME)
+public class InboundRequestCollector extends InfoCollector implements EventHandler {
+
+  static final Duration HISTOGRAM_INTERVAL = Duration.ofSeconds(5);
+
+  private static volatile InboundRequestCollector active;
+
+  private final InboundRoutes routes = new InboundRoutes();
+  // only accessed by the collection scheduler
+  private long publishedActivity;
+
+  public InboundRequestCollector(CdsRuntime runtime, RemoteMonitoringService remoteMonitoringService) {
+    super(runtime, remoteMonitoringService);
+    schedule("inbound-requests", HISTOGRAM_INTERVAL, this::publishHistograms);
+    active = this;
+  }
+
+  /**
+   * @return the collector of the most recently started runtime, or {@code null}
+   */
+  static InboundRequestCollector getActive() {
+    return active;
+  }
+
+  RouteStatistics begin(String method, String uri) {
+    return routes.begin(method, RouteNormalizer.normalize(uri));
+  }
+
+  void end(RouteStatistics route, int status, long requestBytes, long responseBytes, long nanos) {
+    routes.end(route, status, requestBytes, responseBytes, nanos);
+  }
+
+  @On(event = COMMAND_ATTACHED)
+  void capConsoleAttached(CommandEventContext context) {
+    emitInfoEvent(this::getRoutes);
+  }
+
+  private void publishHistograms() {
+    long activity = routes.getActivity();
+    if (activity != publishedActivity) {
+      publishedActivity = activity;
+      emitInfoEvent(this::getRoutes);
+    }
+  }
+
+  InfoEvent getRoutes() {
+    InfoEvent result = InfoEvent.create(Path.HTTP_INBOUND);
+    result.getData().put("inbound_routes", routes.snapshot());
+    result.getData().put("inbound_total", routes.getTotal().toMap());
+    return result;
+  }
+
+}
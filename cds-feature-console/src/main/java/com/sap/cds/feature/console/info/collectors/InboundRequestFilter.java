@@ -0,0 +1,173 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import com.sap.cds.feature.console.info.RequestLifecycle;
+import com.sap.cds.feature.console.info.collectors.InboundRoutes.RouteStatistics;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servlet filter, which reports the inbound HTTP requests to the active
+ * {@link InboundRequestCollector}. It is registered before the security filters by the
+ * {@link InboundRequestFilterConfiguration}. The response size is counted on the output stream, or
+ * taken from the {@code Content-Length} header if the response is written with a writer. Once the
+ * request returns, it is ended on its thread by {@link RequestLifecycle#end()}. Asynchronous
+ * requests are reported on completion, or at once if they completed before the filter returned.
+ */
+public class InboundRequestFilter implements Filter {
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+    try {
+      filter(request, response, chain);
+    } finally {
+      // the thread is returned to the pool, also if the request continues asynchronously
+      RequestLifecycle.end();
+    }
+  }
+
+  private static void filter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+    InboundRequestCollector collector = InboundRequestCollector.getActive();
+    if (collector == null || !(request instanceof HttpServletRequest httpRequest)
+        || !(response instanceof HttpServletResponse httpResponse)) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    RouteStatistics route = collector.begin(httpRequest.getMethod(), httpRequest.getRequestURI().substring(httpRequest.getContextPath().length()));
+    CountingResponse countingResponse = new CountingResponse(httpResponse);
+    long start = System.nanoTime();
+    // the request is ended once, by the listener or by the filter
+    AtomicBoolean ended = new AtomicBoolean();
+    boolean failed = true;
+    try {
+      chain.doFilter(request, countingResponse);
+      failed = false;
+    } finally {
+      if (!failed && request.isAsyncStarted()) {
+        try {
+          request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+              end(collector, route, httpRequest, countingResponse, false, start, ended);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+              // the request is completed afterwards
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+              // the request is completed afterwards
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+              // the listener is kept for the next asynchronous cycle
+            }
+          });
+          // a request, which completed before the listener was added, doesn't notify it
+          if (!request.isAsyncStarted()) {
+            end(collector, route, httpRequest, countingResponse, false, start, ended);
+          }
+        } catch (IllegalStateException e) {
+          // the asynchronous request completed, before the listener could be added
+          end(collector, route, httpRequest, countingResponse, false, start, ended);
+        }
+      } else {
+        end(collector, route, httpRequest, countingResponse, failed, start, ended);
+      }
+    }
+  }
+
+  private static void end(InboundRequestCollector collector, RouteStatistics route, HttpServletRequest request, CountingResponse response,
+      boolean failed, long start, AtomicBoolean ended) {
+    if (ended.getAndSet(true)) {
+      return;
+    }
+    int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+    collector.end(route, status, request.getContentLengthLong(), response.getBytesWritten(), System.nanoTime() - start);
+  }
+
+  private static final class CountingResponse extends HttpServletResponseWrapper {
+    private CountingOutputStream outputStream;
+
+    private CountingResponse(HttpServletResponse response) {
+      super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (outputStream == null) {
+        outputStream = new CountingOutputStream(super.getOutputStream());
+      }
+      return outputStream;
+    }
+
+    private long getBytesWritten() {
+      if (outputStream != null) {
+        return outputStream.count;
+      }
+      String contentLength = getHeader("Content-Length");
+      try {
+        return contentLength != null ? Long.parseLong(contentLength) : 0;
+      } catch (NumberFormatException e) {
+        return 0;
+      }
+    }
+  }
+
+  private static final class CountingOutputStream extends ServletOutputStream {
+    private final ServletOutputStream delegate;
+    private long count;
+
+    private CountingOutputStream(ServletOutputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      delegate.write(b, off, len);
+      count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      delegate.setWriteListener(writeListener);
+    }
+  }
+
+}
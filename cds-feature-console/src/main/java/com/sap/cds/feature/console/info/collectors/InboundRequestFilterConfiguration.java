@@ -0,0 +1,29 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the {@link InboundRequestFilter} in servlet based Spring Boot applications. The filter
+ * is ordered first, so that the time spent in the security filters is measured as well.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnClass(name = "jakarta.servlet.Filter")
+public class InboundRequestFilterConfiguration {
+
+  @Bean
+  public FilterRegistrationBean<InboundRequestFilter> capConsoleInboundRequestFilter() {
+    FilterRegistrationBean<InboundRequestFilter> registration = new FilterRegistrationBean<>(new InboundRequestFilter());
+    registration.setName("capConsoleInboundRequestFilter");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    registration.addUrlPatterns("/*");
+    return registration;
+  }
+
+}
@@ -0,0 +1,126 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import com.sap.cds.feature.console.info.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the inbound HTTP requests per route, a pair of HTTP method and URL template. Each
+ * route has a cumulative {@link LatencyHistogram}, whose bucket counts are part of the snapshot, so
+ * that the histograms of several application instances or of consecutive snapshots can be merged
+ * or subtracted. The number of routes is bounded, requests of further routes are counted as
+ * {@value #OTHER_ROUTES}.
+ */
+final class InboundRoutes {
+
+  static final int MAX_ROUTES = 128;
+  static final String OTHER_ROUTES = "*";
+
+  private final Map<Route, RouteStatistics> routes = new ConcurrentHashMap<>();
+
+  record Route(String method, String path) {
+  }
+
+  /**
+   * Statistics of a single route.
+   */
+  static final class RouteStatistics {
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+  }
+
+  /**
+   * Starts a request.
+   *
+   * @param method the HTTP method
+   * @param path the URL template of the request
+   * @return the statistics of the route, to be passed to {@link #end}
+   */
+  RouteStatistics begin(String method, String path) {
+    Route route = new Route(method, path);
+    RouteStatistics statistics = routes.get(route);
+    if (statistics == null) {
+      statistics = routes.computeIfAbsent(routes.size() < MAX_ROUTES ? route : new Route(OTHER_ROUTES, OTHER_ROUTES),
+          r -> new RouteStatistics());
+    }
+    statistics.inFlight.incrementAndGet();
+    return statistics;
+  }
+
+  /**
+   * Ends a request.
+   *
+   * @param statistics the statistics returned by {@link #begin}
+   * @param status the HTTP status of the response
+   * @param requestBytes the size of the request payload
+   * @param responseBytes the size of the response payload
+   * @param nanos the duration of the request
+   */
+  void end(RouteStatistics statistics, int status, long requestBytes, long responseBytes, long nanos) {
+    statistics.inFlight.decrementAndGet();
+    statistics.latencies.record(nanos);
+    if (status >= 500) {
+      statistics.serverErrors.increment();
+    } else if (status >= 400) {
+      statistics.clientErrors.increment();
+    }
+    statistics.requestBytes.add(Math.max(requestBytes, 0));
+    statistics.responseBytes.add(Math.max(responseBytes, 0));
+  }
+
+  /**
+   * @return the number of finished requests plus the number of requests in flight, changes with
+   *     every started or finished request
+   */
+  long getActivity() {
+    long activity = 0;
+    for (RouteStatistics statistics : routes.values()) {
+      activity += 2 * statistics.latencies.getCount() + statistics.inFlight.get();
+    }
+    return activity;
+  }
+
+  /**
+   * @return the histogram of all routes
+   */
+  LatencyHistogram getTotal() {
+    LatencyHistogram total = new LatencyHistogram();
+    routes.values().forEach(statistics -> total.merge(statistics.latencies));
+    return total;
+  }
+
+  List<Map<String, Object>> snapshot() {
+    List<Map<String, Object>> result = new ArrayList<>();
+    routes.forEach((route, statistics) -> {
+      Map<String, Object> data = statistics.latencies.toMap();
+      data.put("method", route.method());
+      data.put("route", route.path());
+      data.put("in_flight", Math.max(statistics.inFlight.get(), 0));
+      data.put("client_errors", statistics.clientErrors.sum());
+      data.put("server_errors", statistics.serverErrors.sum());
+      data.put("request_bytes", statistics.requestBytes.sum());
+      data.put("response_bytes", statistics.responseBytes.sum());
+      data.put("buckets", trim(statistics.latencies.getBucketCounts()));
+      result.add(data);
+    });
+    return result;
+  }
+
+  private static long[] trim(long[] counts) {
+    int length = counts.length;
+    while (length > 0 && counts[length - 1] == 0) {
+      length--;
+    }
+    return Arrays.copyOf(counts, length);
+  }
+
+}
@@ -0,0 +1,103 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log level set by a {@code logging/update} command. It remembers the previous level of the logger
+ * and is rolled back, once its time to live expires or its logger exceeds the event budget. The
+ * overrides of the loggers of a logger group are rolled back together. All times are ticks of
+ * {@link System#nanoTime()} passed by the caller, so that the checks don't depend on the wall clock.
+ */
+final class LevelOverride {
+
+  private final Logger logger;
+  private final String configName;
+  private final Level previousLevel;
+  private final long expiresAtNanos;
+  private final long budget;
+  private final LongAdder events = new LongAdder();
+  private long lastCheckNanos;
+
+  /**
+   * @param logger the logger, which level is overridden
+   * @param configName the name of the logger or logger group in the configuration
+   * @param ttlSeconds the time to live in seconds, 0 for no expiry
+   * @param budget the maximum number of log events per second, 0 for no budget
+   * @param now the current {@link System#nanoTime()}
+   */
+  LevelOverride(Logger logger, String configName, long ttlSeconds, long budget, long now) {
+    this.logger = logger;
+    this.configName = configName;
+    this.previousLevel = logger.getLevel();
+    this.expiresAtNanos = ttlSeconds > 0 ? now + TimeUnit.SECONDS.toNanos(ttlSeconds) : Long.MAX_VALUE;
+    this.budget = budget;
+    this.lastCheckNanos = now;
+  }
+
+  Logger getLogger() {
+    return logger;
+  }
+
+  String getConfigName() {
+    return configName;
+  }
+
+  long getBudget() {
+    return budget;
+  }
+
+  boolean isExpired(long now) {
+    return now - expiresAtNanos >= 0;
+  }
+
+  /**
+   * Counts a log event, if it was logged by the overridden logger or one of its descendants.
+   */
+  void count(String loggerName) {
+    String name = logger.getName();
+    if (Logger.ROOT_LOGGER_NAME.equals(name)
+        || loggerName.startsWith(name) && (loggerName.length() == name.length() || loggerName.charAt(name.length()) == '.')) {
+      events.increment();
+    }
+  }
+
+  /**
+   * @param now the current {@link System#nanoTime()}
+   * @return the event rate per second since the last call
+   */
+  double takeRate(long now) {
+    long elapsed = Math.max(now - lastCheckNanos, 1);
+    lastCheckNanos = now;
+    return events.sumThenReset() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+  }
+
+  /**
+   * Takes the event rate since the last check and checks, whether the override is to be rolled back.
+   *
+   * @param now the current {@link System#nanoTime()}
+   * @return the reason to roll back the override, or {@code null} to keep it
+   */
+  String check(long now) {
+    double rate = takeRate(now);
+    if (isExpired(now)) {
+      return "its time to live expired";
+    } else if (budget > 0 && rate > budget) {
+      return String.format("%.0f events per second exceeded the budget of %d", rate, budget);
+    }
+    return null;
+  }
+
+  /**
+   * Restores the level of the logger before the override.
+   *
+   * @return the restored level, {@code null} if the level is inherited
+   */
+  Level restore() {
+    logger.setLevel(previousLevel);
+    return previousLevel;
+  }
+
+}
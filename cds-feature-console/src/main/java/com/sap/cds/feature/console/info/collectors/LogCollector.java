@@ -2,35 +2,46 @@ package com.sap.cds.feature.console.info.collectors;
 
 import static com.sap.cds.feature.console.service.RemoteMonitoringConfiguration.COMMAND_ATTACHED;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.ThrowableProxyUtil;
 import ch.qos.logback.core.AppenderBase;
 import ch.qos.logback.core.CoreConstants;
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
 import com.sap.cds.feature.console.info.InfoCollector;
 import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.PressureGovernor;
+import com.sap.cds.feature.console.info.PressureGovernor.PressureLevel;
+import com.sap.cds.feature.console.info.RequestLifecycle;
 import com.sap.cds.feature.console.service.CommandEventContext;
 import com.sap.cds.feature.console.service.InfoEvent;
 import com.sap.cds.feature.console.service.RemoteLogData;
 import com.sap.cds.feature.console.service.RemoteMonitoringService;
 import com.sap.cds.framework.spring.utils.CdsLoggerGroupsPostProcessor;
+import com.sap.cds.services.EventContext;
 import com.sap.cds.services.application.ApplicationLifecycleService;
 import com.sap.cds.services.application.ApplicationStoppedEventContext;
 import com.sap.cds.services.handler.EventHandler;
+import com.sap.cds.services.handler.annotations.Before;
+import com.sap.cds.services.handler.annotations.HandlerOrder;
 import com.sap.cds.services.handler.annotations.On;
 import com.sap.cds.services.handler.annotations.ServiceName;
 import com.sap.cds.services.runtime.CdsRuntime;
 import com.sap.cds.services.utils.StringUtils;
 import java.io.PrintStream;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.LoggerFactory;
-import org.slf4j.event.Level;
 
 @ServiceName(RemoteMonitoringService.DEFAULT_NAME)
 public class LogCollector extends InfoCollector implements EventHandler {
@@ -39,30 +50,55 @@ public class LogCollector extends InfoCollector implements EventHandler {
 
   public static final String TYPE = "logging";
   public static final String COMMAND_UPDATE = TYPE + "/update";
+  public static final String COMMAND_SCOPE = TYPE + "/scope";
+  public static final String COMMAND_LOGGERS = TYPE + "/loggers";
+  public static final String COMMAND_RECORDER = TYPE + "/recorder";
+  public static final String COMMAND_TEMPLATES = TYPE + "/templates";
+
+  static final Duration DEFAULT_OVERRIDE_TTL = Duration.ofMinutes(30);
+  static final Duration OVERRIDE_CHECK_INTERVAL = Duration.ofSeconds(1);
+  static final Duration INVENTORY_INTERVAL = Duration.ofSeconds(2);
+  static final int DEFAULT_PAGE_SIZE = 100;
+  static final int MAX_PAGE_SIZE = 1000;
+  static final Duration TEMPLATE_STATISTICS_INTERVAL = Duration.ofSeconds(5);
+  static final int TEMPLATE_STATISTICS_LIMIT = 50;
+  static final Duration LOG_RATES_INTERVAL = Duration.ofSeconds(5);
 
-  private final List<Logger> activeLoggers = new ArrayList<>();
   private final RemoteMonitoringAppender appender = new RemoteMonitoringAppender();
-
-  private static final Map<String, String> cfgLoggingLevels = new LinkedHashMap<>();
-  private static final Map<String, String[]> cfgLoggerGroups = new LinkedHashMap<>();
+  private final RequestScopeTurboFilter scopeFilter = new RequestScopeTurboFilter();
+  private final LoggerInventory inventory;
+  private final LogRates logRates = new LogRates();
+  // only accessed by the collection scheduler
+  private long lastLogRatesSecond = System.currentTimeMillis() / 1000;
+  private final TemplateMiner templateMiner = new TemplateMiner();
+  private final FlightRecorderTurboFilter flightRecorder = new FlightRecorderTurboFilter(event -> emitInfoEvent(() -> event));
+  private final Runnable requestEnd = this::endRequest;
+
+  // written by the command handlers and the override check, serialized by 'this'
+  private final AtomicReference<LoggingConfiguration> configuration;
 
   public LogCollector(CdsRuntime runtime, RemoteMonitoringService remoteMonitoringService) {
     super(runtime, remoteMonitoringService);
-    // initialize the CAP logger groups
-    try {
-      cfgLoggerGroups.putAll(getCdsLoggers());
-    } catch (Exception e) {
-      logger.error("Could not get CAP logger groups!", e);
-    }
-    // http logger by default
+    // http logger by default, outbound calls are only recorded, if the ApacheHttpClientInterceptor is registered
     Logger log = (Logger) LoggerFactory.getLogger("org.apache.http.wire");
-    cfgLoggingLevels.put(
-        "org.apache.http.wire",
-        log != null && log.getLevel() != null ? log.getLevel().levelStr : Level.INFO.name());
+    Map<String, String> levels = new LinkedHashMap<>();
+    levels.put("org.apache.http.wire", log != null && log.getLevel() != null ? log.getLevel().levelStr : Level.INFO.levelStr);
+    configuration = new AtomicReference<>(new LoggingConfiguration(levels, CdsLoggerGroups.GROUPS));
+
+    LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+    inventory = new LoggerInventory(loggerContext);
+    loggerContext.addListener(inventory);
 
     // system output; set custom print stream to capture output to stdout and stderr to display it in the CAP console
     System.setOut(new RemoteMonitoringFilterPrintStream(System.out, false, this)); // NOSONAR
     System.setErr(new RemoteMonitoringFilterPrintStream(System.err, true, this)); // NOSONAR
+
+    remoteMonitoringService.getPressureGovernor().addListener((previous, next) -> flightRecorder.setPressure(next));
+    RequestLifecycle.addListener(requestEnd);
+    schedule("log-level-overrides", OVERRIDE_CHECK_INTERVAL, this::checkOverrides);
+    schedule("logger-inventory", INVENTORY_INTERVAL, this::publishLoggerChanges);
+    schedule("log-templates", TEMPLATE_STATISTICS_INTERVAL, this::publishTemplateStatistics);
+    schedule("log-rates", LOG_RATES_INTERVAL, this::publishLogRates);
   }
 
   @On(service = ApplicationLifecycleService.DEFAULT_NAME)
@@ -74,11 +110,41 @@ public class LogCollector extends InfoCollector implements EventHandler {
     if (appender.isStarted()) {
       appender.stop();
     }
+    LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+    if (scopeFilter.isStarted()) {
+      scopeFilter.stop();
+      loggerContext.getTurboFilterList().remove(scopeFilter);
+    }
+    if (flightRecorder.isStarted()) {
+      flightRecorder.stop();
+      loggerContext.getTurboFilterList().remove(flightRecorder);
+    }
+    loggerContext.removeListener(inventory);
+    RequestLifecycle.removeListener(requestEnd);
+  }
+
+  @Before(service = "*", event = "*")
+  @HandlerOrder(HandlerOrder.EARLIEST)
+  void matchLogScopes(EventContext context) {
+    // events of the remote monitoring service belong to the request, which emitted them
+    if (!(context.getService() instanceof RemoteMonitoringService)) {
+      // also ends the request of threads, which aren't servlet threads, and tags it with the tenant
+      RequestLifecycle.begin(context.getChangeSetContext(), context.getUserInfo().getTenant());
+      scopeFilter.match(context);
+    }
+  }
+
+  /**
+   * Resets the request state of the current thread, once its request ended.
+   */
+  void endRequest() {
+    scopeFilter.end();
+    flightRecorder.end();
   }
 
   @On(event = COMMAND_ATTACHED)
   void capConsoleAttached(CommandEventContext context) {
-    if (activeLoggers.isEmpty()) {
+    if (configuration.get().getOverrides().isEmpty()) {
       appender.stop();
       Logger root = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
       root.addAppender(appender);
@@ -86,6 +152,53 @@ public class LogCollector extends InfoCollector implements EventHandler {
     }
     emitInfoEvent(this::getLoggers);
     emitInfoEvent(this::getLoggerGroups);
+    emitInfoEvent(this::getLogScopes);
+    emitInfoEvent(() -> getLoggerInventory("", 0, DEFAULT_PAGE_SIZE));
+    emitInfoEvent(this::getFlightRecorder);
+    emitInfoEvent(() -> getLogRates(System.currentTimeMillis() / 1000, LogRates.WINDOW_SECONDS));
+    if (hasTemplateClients()) {
+      emitSharedInfoEvent(() -> getLogTemplates(templateMiner.getTemplates()));
+    }
+  }
+
+  /**
+   * The template mode is a setting of the requesting client, which is applied by the
+   * {@link com.sap.cds.feature.console.connectivity.CommandDispatcher CommandDispatcher}. The
+   * notification only reaches the clients, which receive log messages in the chosen form.
+   */
+  @On(event = COMMAND_TEMPLATES)
+  private void updateLogTemplates(CommandEventContext context) {
+    boolean enabled = Boolean.TRUE.equals(context.getData().get("enabled"));
+    InfoEvent notification = createNotification(NotificationType.info, enabled ? "Sending log messages as templates!" : "Sending log messages as text!");
+    notification.setForm(enabled ? InfoEvent.FORM_TEMPLATE : InfoEvent.FORM_TEXT);
+    getRemoteMonitoringService().emit(notification);
+    if (enabled) {
+      emitSharedInfoEvent(() -> getLogTemplates(templateMiner.getTemplates()));
+    }
+  }
+
+  /**
+   * @return whether a client receives log messages as templates, the templates aren't mined
+   *     otherwise
+   */
+  private boolean hasTemplateClients() {
+    RemoteMonitoringServer server = getRemoteMonitoringService().getRemoteMonitoringServer();
+    return server != null && server.hasClients(RemoteMonitoringServer.PATH_LOGS, InfoEvent.FORM_TEMPLATE);
+  }
+
+  @On(event = COMMAND_LOGGERS)
+  private void browseLoggers(CommandEventContext context) {
+    Map<String, Object> data = context.getData();
+    String parent = (String) data.get("parent");
+    int offset = data.get("offset") instanceof Number n ? Math.max(n.intValue(), 0) : 0;
+    if (context.getRequestId() != null) {
+      // the loggers are replied to the request in chunks, so the page isn't limited
+      int requested = data.get("limit") instanceof Number n ? Math.max(n.intValue(), 1) : Integer.MAX_VALUE - offset;
+      context.setResult(inventory.page(parent != null ? parent : "", offset, Math.min(requested, Integer.MAX_VALUE - offset)).get("loggers"));
+      return;
+    }
+    int limit = data.get("limit") instanceof Number n ? Math.min(Math.max(n.intValue(), 1), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+    emitInfoEvent(() -> getLoggerInventory(parent != null ? parent : "", offset, limit));
   }
 
   @SuppressWarnings("unchecked")
@@ -95,34 +208,77 @@ public class LogCollector extends InfoCollector implements EventHandler {
     activateLoggers((List<Map<String, Object>>) context.getData().get("loggers"));
   }
 
-  private void activateLoggers(List<Map<String, Object>> loggers) {
-    activeLoggers.forEach(l -> {
-      if (l.getName().equals(Logger.ROOT_LOGGER_NAME)) {
-        l.setLevel(ch.qos.logback.classic.Level.INFO);
-      } else {
-        l.setLevel(null);
+  @SuppressWarnings("unchecked")
+  @On(event = COMMAND_SCOPE)
+  private void updateLogScopes(CommandEventContext context) {
+    List<Map<String, Object>> scopes = (List<Map<String, Object>>) context.getData().get("scopes");
+    try {
+      List<LogScope> logScopes = scopes != null ? scopes.stream().map(LogScope::fromMap).toList() : List.of();
+      scopeFilter.setScopes(logScopes);
+      if (!logScopes.isEmpty()) {
+        installScopeFilter();
+      }
+      super.sendInfoNotification("Setting %d request-scoped log levels!", logScopes.size());
+    } catch (IllegalArgumentException e) {
+      sendErrorNotification("Invalid Log Scope", e.getMessage());
+    }
+    emitInfoEvent(this::getLogScopes);
+  }
+
+  @On(event = COMMAND_RECORDER)
+  private synchronized void updateFlightRecorder(CommandEventContext context) {
+    Map<String, Object> data = context.getData();
+    LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+    if (Boolean.TRUE.equals(data.get("enabled"))) {
+      int capacity = data.get("capacity") instanceof Number n ? n.intValue() : FlightRecorderTurboFilter.DEFAULT_CAPACITY;
+      flightRecorder.configure(Level.toLevel((String) data.get("level"), Level.DEBUG), capacity);
+      if (!flightRecorder.isStarted()) {
+        flightRecorder.setContext(loggerContext);
+        flightRecorder.start();
+        loggerContext.addTurboFilter(flightRecorder);
       }
-    });
-    activeLoggers.clear();
-    cfgLoggingLevels.clear();
+      super.sendInfoNotification("Recording %s log statements of requests until an error occurs!", flightRecorder.getRecordLevel());
+    } else if (flightRecorder.isStarted()) {
+      flightRecorder.stop();
+      loggerContext.getTurboFilterList().remove(flightRecorder);
+      super.sendInfoNotification("Stopped recording log statements!");
+    }
+    emitInfoEvent(this::getFlightRecorder);
+  }
+
+  private synchronized void installScopeFilter() {
+    // the filter is only installed on demand, as each turbo filter is called for every log statement
+    if (!scopeFilter.isStarted()) {
+      LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+      scopeFilter.setContext(loggerContext);
+      scopeFilter.start();
+      // ahead of the flight recorder, which would otherwise record the statements of scoped requests
+      loggerContext.getTurboFilterList().add(0, scopeFilter);
+    }
+  }
 
+  private synchronized void activateLoggers(List<Map<String, Object>> loggers) {
+    LoggingConfiguration current = configuration.get();
+    current.getOverrides().values().forEach(LevelOverride::restore);
+
+    Map<String, String> levels = new LinkedHashMap<>();
+    Map<Logger, LevelOverride> overrides = new LinkedHashMap<>();
+    long now = System.nanoTime();
     loggers.forEach(
         loggr -> {
           String loggerName = (String) loggr.get("logger");
           String level = (String) loggr.get("level");
           boolean group = (Boolean) loggr.get("group");
+          long ttl = loggr.get("ttl") instanceof Number n ? n.longValue() : DEFAULT_OVERRIDE_TTL.toSeconds();
+          long budget = loggr.get("budget") instanceof Number n ? n.longValue() : 0;
 
-          cfgLoggingLevels.put(loggerName, level);
+          levels.put(loggerName, level);
 
           if (group) {
-            String[] loggerGroup = cfgLoggerGroups.get(loggerName);
+            List<String> loggerGroup = current.getGroups().get(loggerName);
             if (loggerGroup != null) {
               for (String l : loggerGroup) {
-                Logger log = (Logger) LoggerFactory.getLogger(l);
-                if (!StringUtils.isEmpty(level)) {
-                  log.setLevel(ch.qos.logback.classic.Level.toLevel(level));
-                }
-                activeLoggers.add(log);
+                overrideLevel(overrides, (Logger) LoggerFactory.getLogger(l), loggerName, level, ttl, budget, now);
               }
             } else {
               sendErrorNotification(
@@ -131,21 +287,83 @@ public class LogCollector extends InfoCollector implements EventHandler {
                   loggerName);
             }
           } else {
-            Logger log = (Logger) LoggerFactory.getLogger(loggerName);
-            if (!StringUtils.isEmpty(level)) {
-              log.setLevel(ch.qos.logback.classic.Level.toLevel(level));
-            }
-            activeLoggers.add(log);
+            overrideLevel(overrides, (Logger) LoggerFactory.getLogger(loggerName), loggerName, level, ttl, budget, now);
           }
         });
+    configuration.set(current.next(levels, overrides));
+  }
+
+  private static void overrideLevel(Map<Logger, LevelOverride> overrides, Logger log, String configName, String level, long ttl, long budget, long now) {
+    if (!StringUtils.isEmpty(level)) {
+      // keep the level before the first override, if a logger is part of multiple entries
+      overrides.computeIfAbsent(log, l -> new LevelOverride(l, configName, ttl, budget, now));
+      log.setLevel(Level.toLevel(level));
+    }
+  }
+
+  /**
+   * Rolls back overrides, which expired or exceeded their event budget since the last check.
+   */
+  synchronized void checkOverrides() {
+    LoggingConfiguration current = configuration.get();
+    if (current.getOverrides().isEmpty()) {
+      return;
+    }
+    LoggingConfiguration next = current.rollBackOverrides(System.nanoTime(), (name, reason) ->
+        sendNotification(NotificationType.warning, "Restored the level of '%s', as %s!", name, reason));
+    if (next != current) {
+      configuration.set(next);
+      emitInfoEvent(this::getLoggers);
+      emitInfoEvent(this::getLoggerGroups);
+    }
+  }
+
+  private void publishLoggerChanges() {
+    List<Map<String, Object>> changes = inventory.takeChanges();
+    if (!changes.isEmpty()) {
+      emitInfoEvent(() -> {
+        InfoEvent result = InfoEvent.create(Path.SYSTEM);
+        result.getData().put("logger_changes", changes);
+        return result;
+      });
+    }
+  }
+
+  private void publishLogRates() {
+    long now = System.currentTimeMillis() / 1000;
+    int seconds = (int) (now - lastLogRatesSecond);
+    if (seconds > 0) {
+      lastLogRatesSecond = now;
+      InfoEvent rates = getLogRates(now, seconds);
+      if (!((List<?>) rates.getData().get("log_rates")).isEmpty()) {
+        emitInfoEvent(() -> rates);
+      }
+    }
+  }
+
+  private void publishTemplateStatistics() {
+    if (hasTemplateClients()) {
+      List<Map<String, Object>> statistics = templateMiner.takeStatistics(TEMPLATE_STATISTICS_LIMIT, System.nanoTime());
+      emitSharedInfoEvent(() -> {
+        InfoEvent result = InfoEvent.create(Path.SYSTEM);
+        result.getData().put("log_template_statistics", statistics);
+        result.setForm(InfoEvent.FORM_TEMPLATE);
+        return result;
+      });
+    }
+  }
+
+  LoggingConfiguration getConfiguration() {
+    return configuration.get();
   }
 
   InfoEvent getLoggers() {
+    LoggingConfiguration current = configuration.get();
     InfoEvent result = InfoEvent.create(Path.SYSTEM);
     List<Map<String, Object>> loggers = new ArrayList<>();
-    cfgLoggingLevels.forEach(
+    current.getLevels().forEach(
         (loggerObject, level) -> {
-          if (!cfgLoggerGroups.containsKey(loggerObject)) {
+          if (!current.getGroups().containsKey(loggerObject)) {
             Map<String, Object> data = new HashMap<>();
             data.put("logger", loggerObject);
             data.put("level", level);
@@ -154,17 +372,18 @@ public class LogCollector extends InfoCollector implements EventHandler {
           }
         });
     result.getData().put("loggers", loggers);
+    result.getData().put("loggers_version", current.getVersion());
     return result;
   }
 
   InfoEvent getLoggerGroups() {
     InfoEvent result = InfoEvent.create(Path.SYSTEM);
     List<Map<String, Object>> groups = new ArrayList<>();
-    cfgLoggerGroups.forEach(
+    configuration.get().getGroups().forEach(
         (group, logrs) -> {
           Map<String, Object> data = new HashMap<>();
           data.put("logger", group);
-          data.put("level", getLoggerLevel(group));
+          data.put("level", getLoggerLevel(logrs));
           data.put("group", true);
           groups.add(data);
         });
@@ -172,13 +391,47 @@ public class LogCollector extends InfoCollector implements EventHandler {
     return result;
   }
 
-  private String getLoggerLevel(String group) {
-    String[] loggers = cfgLoggerGroups.get(group);
-    if (loggers == null || loggers.length == 0) {
+  InfoEvent getLoggerInventory(String parent, int offset, int limit) {
+    InfoEvent result = InfoEvent.create(Path.SYSTEM);
+    result.getData().put("logger_inventory", inventory.page(parent, offset, limit));
+    return result;
+  }
+
+  InfoEvent getFlightRecorder() {
+    Map<String, Object> recorder = new HashMap<>();
+    recorder.put("enabled", flightRecorder.isStarted());
+    recorder.put("level", flightRecorder.getRecordLevel().toString());
+    recorder.put("capacity", flightRecorder.getCapacity());
+    InfoEvent result = InfoEvent.create(Path.SYSTEM);
+    result.getData().put("flight_recorder", recorder);
+    return result;
+  }
+
+  InfoEvent getLogRates(long now, int seconds) {
+    InfoEvent result = InfoEvent.create(Path.SYSTEM);
+    result.getData().put("log_rates", logRates.snapshot(now, seconds));
+    return result;
+  }
+
+  InfoEvent getLogTemplates(List<TemplateMiner.LogTemplate> templates) {
+    InfoEvent result = InfoEvent.create(Path.SYSTEM);
+    result.getData().put("log_templates", templates.stream().map(TemplateMiner.LogTemplate::toMap).toList());
+    result.setForm(InfoEvent.FORM_TEMPLATE);
+    return result;
+  }
+
+  InfoEvent getLogScopes() {
+    InfoEvent result = InfoEvent.create(Path.SYSTEM);
+    result.getData().put("log_scopes", scopeFilter.getScopes().stream().map(LogScope::toMap).toList());
+    return result;
+  }
+
+  private static String getLoggerLevel(List<String> loggers) {
+    if (loggers.isEmpty()) {
       return "INFO";
     }
 
-    Logger log = (Logger) LoggerFactory.getLogger(loggers[0]);
+    Logger log = (Logger) LoggerFactory.getLogger(loggers.get(0));
     if (log.getLevel() == null) {
       return ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).getLevel().toString();
     }
@@ -189,23 +442,57 @@ public class LogCollector extends InfoCollector implements EventHandler {
 
     @Override
     protected void append(ILoggingEvent event) {
-      emitInfoEvent(() -> getLogEvent(event));
+      logRates.record(event.getLoggerName(), event.getLevel(), event.getTimeStamp());
+      for (LevelOverride override : configuration.get().getBudgetedOverrides()) {
+        override.count(event.getLoggerName());
+      }
+      PressureGovernor governor = getRemoteMonitoringService().getPressureGovernor();
+      if (governor.isAtLeast(PressureLevel.SUMMARIES_ONLY)
+          || governor.isAtLeast(PressureLevel.NO_DEBUG) && !event.getLevel().isGreaterOrEqual(Level.INFO)) {
+        // still counted by the log rates and the budgets
+        return;
+      }
+      TemplateMiner.Match match = event.getThrowableProxy() == null && hasTemplateClients() ? templateMiner.match(event) : null;
+      if (match == null) {
+        emitInfoEvent(() -> getLogEvent(event, null));
+        return;
+      }
+      if (match.changed()) {
+        // the clients need the template before the first event using it, whichever tenant they subscribed to
+        emitSharedInfoEvent(() -> getLogTemplates(List.of(match.template())));
+      }
+      // both forms are encoded, each client receives the one of its template mode
+      emitInfoEvent(() -> getLogEvent(event, match));
+      emitInfoEvent(() -> {
+        InfoEvent text = getLogEvent(event, null);
+        text.setForm(InfoEvent.FORM_TEXT);
+        return text;
+      });
     }
 
-    InfoEvent getLogEvent(ILoggingEvent event) {
+    InfoEvent getLogEvent(ILoggingEvent event, TemplateMiner.Match match) {
       var exceptionMessage = extractExceptionMessage(event);
 
-      RemoteLogData logData =
+      RemoteLogData.Builder builder =
           new RemoteLogData.Builder()
               .level(event.getLevel().toString())
               .logger(event.getLoggerName())
               .thread(event.getThreadName())
               .type(exceptionMessage.isPresent() ? "exception" : "log")
-              .message(exceptionMessage.orElseGet(event::getFormattedMessage))
               .ts(event.getTimeStamp())
-              .build();
+              .traceId(event.getMDCPropertyMap().get(SpanCollector.MDC_TRACE_ID));
+      if (match != null) {
+        builder.template(match.template().getId(), match.args());
+      } else {
+        builder.message(exceptionMessage.orElseGet(event::getFormattedMessage));
+      }
+      RemoteLogData logData = builder.build();
 
-      return InfoEvent.createRemoteLog(Path.TRACES_OUTPUT, logData);
+      InfoEvent result = InfoEvent.createRemoteLog(Path.TRACES_OUTPUT, logData);
+      if (match != null) {
+        result.setForm(InfoEvent.FORM_TEMPLATE);
+      }
+      return result;
     }
 
     private Optional<String> extractExceptionMessage(ILoggingEvent event) {
@@ -260,8 +547,25 @@ public class LogCollector extends InfoCollector implements EventHandler {
     }
   }
 
-  private static Map<String, String[]> getCdsLoggers() {
-    Map<String, String[]> result = new HashMap<>();
+  /**
+   * The CAP logger groups don't change at runtime, they are read once per JVM.
+   */
+  private static final class CdsLoggerGroups {
+
+    private static final Map<String, List<String>> GROUPS = loadCdsLoggers();
+
+    private static Map<String, List<String>> loadCdsLoggers() {
+      try {
+        return getCdsLoggers();
+      } catch (Exception e) {
+        logger.error("Could not get CAP logger groups!", e);
+        return Map.of();
+      }
+    }
+  }
+
+  private static Map<String, List<String>> getCdsLoggers() {
+    Map<String, List<String>> result = new LinkedHashMap<>();
     for (Class<?> c : CdsLoggerGroupsPostProcessor.class.getDeclaredClasses()) {
       if (c.isEnum() && c.getSimpleName().equals("CdsLoggerGroups")) {
         try {
@@ -277,14 +581,14 @@ public class LogCollector extends InfoCollector implements EventHandler {
         break;
       }
     }
-    return result;
+    return Collections.unmodifiableMap(result);
   }
 
-  private static void addLoggerGroupFromEnumConstant(Object value, Method loggersMethod, Map<String, String[]> result) {
+  private static void addLoggerGroupFromEnumConstant(Object value, Method loggersMethod, Map<String, List<String>> result) {
     try {
       loggersMethod.setAccessible(true);
       Object loggers = loggersMethod.invoke(value);
-      result.put(value.toString(), loggers != null ? (String[]) loggers : new String[0]);
+      result.put(value.toString(), loggers != null ? List.of((String[]) loggers) : List.of());
     } catch (Exception e) {
       logger.error("Cannot access loggers!", e);
     }
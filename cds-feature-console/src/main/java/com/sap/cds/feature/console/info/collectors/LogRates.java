@@ -0,0 +1,117 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import ch.qos.logback.classic.Level;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sliding-window counters of log events per logger and level. Each series is a ring of one-second
+ * buckets, each bucket packs the epoch second in its upper and the count in its lower 32 bits, so
+ * it is updated with a single compare-and-set and a stale bucket is recognized by its second. The
+ * number of series is bounded, events of further loggers are counted as {@value #OTHER_LOGGERS}.
+ */
+final class LogRates {
+
+  static final int WINDOW_SECONDS = 900;
+  static final int MAX_SERIES = 256;
+  static final String OTHER_LOGGERS = "*";
+
+  private static final Level[] LEVELS = {Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG, Level.TRACE};
+  private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+  private final Map<String, AtomicReferenceArray<AtomicLongArray>> series = new ConcurrentHashMap<>();
+  private final AtomicInteger seriesCount = new AtomicInteger();
+
+  /**
+   * Counts a log event.
+   *
+   * @param logger the logger name
+   * @param level the level of the event
+   * @param timestamp the timestamp of the event in milliseconds
+   */
+  void record(String logger, Level level, long timestamp) {
+    AtomicReferenceArray<AtomicLongArray> levels = series.get(logger);
+    if (levels == null) {
+      levels = series.computeIfAbsent(seriesCount.get() < MAX_SERIES ? logger : OTHER_LOGGERS,
+          l -> new AtomicReferenceArray<>(LEVELS.length));
+    }
+    int index = index(level);
+    AtomicLongArray buckets = levels.get(index);
+    if (buckets == null) {
+      if (seriesCount.incrementAndGet() > MAX_SERIES && !OTHER_LOGGERS.equals(logger)) {
+        seriesCount.decrementAndGet();
+        record(OTHER_LOGGERS, level, timestamp);
+        return;
+      }
+      if (!levels.compareAndSet(index, null, new AtomicLongArray(WINDOW_SECONDS))) {
+        seriesCount.decrementAndGet();
+      }
+      buckets = levels.get(index);
+    }
+
+    long second = timestamp / 1000;
+    int slot = (int) (second % WINDOW_SECONDS);
+    while (true) {
+      long bucket = buckets.get(slot);
+      long next = bucket >>> 32 == second ? bucket + 1 : second << 32 | 1;
+      if (buckets.compareAndSet(slot, bucket, next)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the counts per second of all series with events in the given period.
+   *
+   * @param now the current epoch second, which is excluded as it is still incomplete
+   * @param seconds the number of seconds before {@code now}
+   * @return the series with logger, level, the first second and the counts per second
+   */
+  List<Map<String, Object>> snapshot(long now, int seconds) {
+    int length = Math.min(seconds, WINDOW_SECONDS - 1);
+    long from = now - length;
+    List<Map<String, Object>> result = new ArrayList<>();
+    series.forEach((logger, levels) -> {
+      for (int i = 0; i < LEVELS.length; i++) {
+        AtomicLongArray buckets = levels.get(i);
+        if (buckets == null) {
+          continue;
+        }
+        long[] counts = new long[length];
+        long total = 0;
+        for (int s = 0; s < length; s++) {
+          long second = from + s;
+          long bucket = buckets.get((int) (second % WINDOW_SECONDS));
+          counts[s] = bucket >>> 32 == second ? bucket & COUNT_MASK : 0;
+          total += counts[s];
+        }
+        if (total > 0) {
+          Map<String, Object> data = new LinkedHashMap<>();
+          data.put("logger", logger);
+          data.put("level", LEVELS[i].levelStr);
+          data.put("from", from);
+          data.put("counts", counts);
+          result.add(data);
+        }
+      }
+    });
+    return result;
+  }
+
+  private static int index(Level level) {
+    return switch (level.levelInt) {
+      case Level.ERROR_INT -> 0;
+      case Level.WARN_INT -> 1;
+      case Level.INFO_INT -> 2;
+      case Level.DEBUG_INT -> 3;
+      default -> 4;
+    };
+  }
+
+}
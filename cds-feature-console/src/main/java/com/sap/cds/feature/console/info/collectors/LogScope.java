@@ -0,0 +1,77 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import ch.qos.logback.classic.Level;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Predicate of a request-scoped log level. A request matches, if all given criteria match. Log
+ * events of matching requests are logged, if their level is at least {@code level} and their logger
+ * name starts with {@code logger}.
+ *
+ * @param tenant the tenant of the request or {@code null}
+ * @param user the name of the user of the request or {@code null}
+ * @param header the name of a request header or {@code null}
+ * @param headerValue the expected value of the header, {@code null} matches any value
+ * @param correlationId the correlation id of the request or {@code null}
+ * @param level the enabled log level
+ * @param logger the logger name prefix, empty for all loggers
+ */
+public record LogScope(String tenant, String user, String header, String headerValue, String correlationId, Level level, String logger) {
+
+  public LogScope {
+    if (tenant == null && user == null && header == null && correlationId == null) {
+      throw new IllegalArgumentException("A log scope requires a tenant, user, header or correlation id");
+    }
+    level = level != null ? level : Level.DEBUG;
+    logger = logger != null ? logger : "";
+  }
+
+  /**
+   * Creates a log scope from the data of a {@code logging/scope} command.
+   *
+   * @param data the scope definition
+   * @return the log scope
+   */
+  public static LogScope fromMap(Map<String, Object> data) {
+    return new LogScope(
+        (String) data.get("tenant"),
+        (String) data.get("user"),
+        (String) data.get("header"),
+        (String) data.get("value"),
+        (String) data.get("correlation_id"),
+        Level.toLevel((String) data.get("level"), Level.DEBUG),
+        (String) data.get("logger"));
+  }
+
+  boolean matches(String requestTenant, String requestUser, UnaryOperator<String> headers, String requestCorrelationId) {
+    if (tenant != null && !tenant.equals(requestTenant)) {
+      return false;
+    }
+    if (user != null && !user.equals(requestUser)) {
+      return false;
+    }
+    if (correlationId != null && !correlationId.equals(requestCorrelationId)) {
+      return false;
+    }
+    if (header != null) {
+      String value = headers.apply(header);
+      return value != null && (headerValue == null || headerValue.equals(value));
+    }
+    return true;
+  }
+
+  public Map<String, Object> toMap() {
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("tenant", tenant);
+    data.put("user", user);
+    data.put("header", header);
+    data.put("value", headerValue);
+    data.put("correlation_id", correlationId);
+    data.put("level", level.toString());
+    data.put("logger", logger);
+    return data;
+  }
+
+}
@@ -0,0 +1,197 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inventory of all loggers of a Logback {@link LoggerContext}, indexed in a trie of the logger name
+ * segments. Clients browse the inventory page by page, starting with the top level segments, and
+ * receive the loggers, which were created or changed their level since the last delivery, as delta.
+ */
+final class LoggerInventory implements LoggerContextListener {
+
+  private final LoggerContext loggerContext;
+  private final Node root = new Node("", null);
+  private final Set<String> changed = ConcurrentHashMap.newKeySet();
+  private int indexed;
+
+  LoggerInventory(LoggerContext loggerContext) {
+    this.loggerContext = loggerContext;
+  }
+
+  /**
+   * Indexes the loggers created since the last refresh. Logback doesn't notify about new loggers,
+   * but never removes them, so the number of loggers tells whether there are new ones.
+   */
+  synchronized void refresh() {
+    List<Logger> loggers = loggerContext.getLoggerList();
+    if (loggers.size() == indexed) {
+      return;
+    }
+    boolean initial = indexed == 0;
+    for (Logger logger : loggers) {
+      if (!Logger.ROOT_LOGGER_NAME.equals(logger.getName()) && index(logger) && !initial) {
+        changed.add(logger.getName());
+      }
+    }
+    indexed = loggers.size();
+  }
+
+  private boolean index(Logger logger) {
+    Node node = root;
+    int start = 0;
+    String name = logger.getName();
+    while (start <= name.length()) {
+      int end = name.indexOf('.', start);
+      end = end < 0 ? name.length() : end;
+      String segment = name.substring(start, end);
+      Node parent = node;
+      node = parent.children.computeIfAbsent(segment, s -> new Node(s, parent));
+      start = end + 1;
+    }
+    boolean added = node.logger == null;
+    node.logger = logger;
+    return added;
+  }
+
+  /**
+   * Returns a page of the direct children of a logger.
+   *
+   * @param parent the name of the parent logger, empty for the top level
+   * @param offset the index of the first child
+   * @param limit the maximum number of children
+   * @return the page
+   */
+  synchronized Map<String, Object> page(String parent, int offset, int limit) {
+    refresh();
+    Node node = find(parent);
+    List<Map<String, Object>> loggers = new ArrayList<>();
+    int total = 0;
+    if (node != null) {
+      total = node.children.size();
+      Iterator<Node> it = node.children.values().iterator();
+      for (int i = 0; it.hasNext() && i < offset + limit; i++) {
+        Node child = it.next();
+        if (i >= offset) {
+          Map<String, Object> data = child.logger != null ? toMap(child.logger) : toMap(child.getName());
+          data.put("name", child.segment);
+          data.put("children", child.children.size());
+          loggers.add(data);
+        }
+      }
+    }
+    Map<String, Object> page = new LinkedHashMap<>();
+    page.put("parent", parent);
+    page.put("offset", offset);
+    page.put("total", total);
+    page.put("loggers", loggers);
+    return page;
+  }
+
+  private Node find(String name) {
+    Node node = root;
+    if (name == null || name.isEmpty()) {
+      return node;
+    }
+    for (String segment : name.split("\\.", -1)) {
+      node = node.children.get(segment);
+      if (node == null) {
+        return null;
+      }
+    }
+    return node;
+  }
+
+  /**
+   * @return the created loggers and the loggers with a changed level since the last call
+   */
+  List<Map<String, Object>> takeChanges() {
+    refresh();
+    List<Map<String, Object>> changes = new ArrayList<>();
+    for (Iterator<String> it = changed.iterator(); it.hasNext();) {
+      String name = it.next();
+      it.remove();
+      changes.add(toMap(name));
+    }
+    return changes;
+  }
+
+  /**
+   * Looks up the logger without creating it, as browsing the inventory must not add loggers to the
+   * context.
+   */
+  private Map<String, Object> toMap(String name) {
+    Logger logger = loggerContext.exists(name);
+    if (logger != null) {
+      return toMap(logger);
+    }
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("logger", name);
+    data.put("exists", false);
+    data.put("level", null);
+    data.put("effective_level", null);
+    return data;
+  }
+
+  private static Map<String, Object> toMap(Logger logger) {
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("logger", logger.getName());
+    data.put("exists", true);
+    data.put("level", logger.getLevel() != null ? logger.getLevel().levelStr : null);
+    data.put("effective_level", logger.getEffectiveLevel().levelStr);
+    return data;
+  }
+
+  @Override
+  public boolean isResetResistant() {
+    return true;
+  }
+
+  @Override
+  public void onStart(LoggerContext context) {
+    // nothing to do
+  }
+
+  @Override
+  public synchronized void onReset(LoggerContext context) {
+    root.children.clear();
+    indexed = 0;
+  }
+
+  @Override
+  public void onStop(LoggerContext context) {
+    // nothing to do
+  }
+
+  @Override
+  public void onLevelChange(Logger logger, Level level) {
+    changed.add(logger.getName());
+  }
+
+  private static final class Node {
+    private final String segment;
+    private final Node parent;
+    private final Map<String, Node> children = new TreeMap<>();
+    private Logger logger;
+
+    private Node(String segment, Node parent) {
+      this.segment = segment;
+      this.parent = parent;
+    }
+
+    private String getName() {
+      return parent == null || parent.parent == null ? segment : parent.getName() + "." + segment;
+    }
+  }
+
+}
@@ -0,0 +1,113 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable snapshot of the logging configuration of a {@link LogCollector}. Every change creates a
+ * new snapshot with the next version, which is published atomically. Readers therefore always see a
+ * consistent configuration without locking.
+ */
+final class LoggingConfiguration {
+
+  private final long version;
+  private final Map<String, String> levels;
+  private final Map<String, List<String>> groups;
+  private final Map<Logger, LevelOverride> overrides;
+  private final LevelOverride[] budgetedOverrides;
+
+  /**
+   * Creates the initial configuration.
+   *
+   * @param levels the configured levels by logger or logger group name
+   * @param groups the loggers of the CAP logger groups
+   */
+  LoggingConfiguration(Map<String, String> levels, Map<String, List<String>> groups) {
+    this(0, levels, groups, Map.of());
+  }
+
+  private LoggingConfiguration(long version, Map<String, String> levels, Map<String, List<String>> groups, Map<Logger, LevelOverride> overrides) {
+    this.version = version;
+    // levels can be null, if a logger is reset to the inherited level
+    this.levels = Collections.unmodifiableMap(new LinkedHashMap<>(levels));
+    this.groups = groups;
+    this.overrides = Collections.unmodifiableMap(new LinkedHashMap<>(overrides));
+    this.budgetedOverrides = overrides.values().stream().filter(o -> o.getBudget() > 0).toArray(LevelOverride[]::new);
+  }
+
+  /**
+   * @param newLevels the configured levels by logger or logger group name
+   * @param newOverrides the active level overrides
+   * @return the next version of the configuration
+   */
+  LoggingConfiguration next(Map<String, String> newLevels, Map<Logger, LevelOverride> newOverrides) {
+    return new LoggingConfiguration(version + 1, newLevels, groups, newOverrides);
+  }
+
+  /**
+   * Rolls back the overrides, which expired or exceeded their event budget since the last check. If
+   * the override of one logger of a logger group is rolled back, the overrides of all loggers of the
+   * group are rolled back.
+   *
+   * @param now the current {@link System#nanoTime()}
+   * @param rolledBack receives the configured name of each rolled back logger or logger group and
+   *     the reason
+   * @return the next version of the configuration without the rolled back overrides, or this
+   *     configuration, if no override was rolled back
+   */
+  LoggingConfiguration rollBackOverrides(long now, BiConsumer<String, String> rolledBack) {
+    Map<String, String> reasons = new LinkedHashMap<>();
+    for (LevelOverride override : overrides.values()) {
+      // the rates of all overrides are taken, so that the next check measures from now
+      String reason = override.check(now);
+      if (reason != null) {
+        reasons.putIfAbsent(override.getConfigName(), reason);
+      }
+    }
+    if (reasons.isEmpty()) {
+      return this;
+    }
+    Map<String, String> newLevels = new LinkedHashMap<>(levels);
+    Map<Logger, LevelOverride> newOverrides = new LinkedHashMap<>(overrides);
+    for (Iterator<LevelOverride> it = newOverrides.values().iterator(); it.hasNext();) {
+      LevelOverride override = it.next();
+      if (reasons.containsKey(override.getConfigName())) {
+        it.remove();
+        Level restored = override.restore();
+        newLevels.replace(override.getConfigName(), restored != null ? restored.levelStr : null);
+      }
+    }
+    reasons.forEach(rolledBack);
+    return next(newLevels, newOverrides);
+  }
+
+  long getVersion() {
+    return version;
+  }
+
+  Map<String, String> getLevels() {
+    return levels;
+  }
+
+  Map<String, List<String>> getGroups() {
+    return groups;
+  }
+
+  Map<Logger, LevelOverride> getOverrides() {
+    return overrides;
+  }
+
+  /**
+   * @return the overrides with an event budget, the array must not be modified
+   */
+  LevelOverride[] getBudgetedOverrides() {
+    return budgetedOverrides;
+  }
+
+}
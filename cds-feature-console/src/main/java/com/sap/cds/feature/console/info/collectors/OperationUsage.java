@@ -0,0 +1,94 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Lock-free accumulators of the CPU time and the allocated bytes per CAP operation, identified by
+ * service, event and entity. The number of operations is bounded, further operations are
+ * accumulated as {@value #OTHER_OPERATIONS}.
+ */
+final class OperationUsage {
+
+  static final int MAX_OPERATIONS = 512;
+  static final String OTHER_OPERATIONS = "*";
+
+  private static final Operation OTHER = new Operation(OTHER_OPERATIONS, OTHER_OPERATIONS, null);
+
+  private final Map<Operation, Usage> usages = new ConcurrentHashMap<>();
+
+  /**
+   * Operation of a CAP service.
+   *
+   * @param service the service name
+   * @param event the event
+   * @param entity the qualified name of the target entity, or {@code null}
+   */
+  record Operation(String service, String event, String entity) {
+  }
+
+  void record(Operation operation, long cpuNanos, long allocatedBytes) {
+    Usage usage = usages.get(operation);
+    if (usage == null) {
+      usage = usages.computeIfAbsent(usages.size() < MAX_OPERATIONS ? operation : OTHER, o -> new Usage());
+    }
+    usage.count.increment();
+    usage.cpuNanos.add(cpuNanos);
+    usage.allocatedBytes.add(allocatedBytes);
+  }
+
+  /**
+   * Returns the top operations by CPU time and by allocated bytes since the last call.
+   *
+   * @param limit the maximum number of operations per table
+   * @return the tables {@code top_cpu} and {@code top_allocations}
+   */
+  Map<String, Object> takeTop(int limit) {
+    List<Map<String, Object>> deltas = new ArrayList<>();
+    usages.forEach((operation, usage) -> {
+      long count = usage.count.sum();
+      long cpu = usage.cpuNanos.sum();
+      long allocated = usage.allocatedBytes.sum();
+      if (count != usage.lastCount) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("service", operation.service());
+        data.put("event", operation.event());
+        data.put("entity", operation.entity());
+        data.put("count", count - usage.lastCount);
+        data.put("cpu_micros", TimeUnit.NANOSECONDS.toMicros(cpu - usage.lastCpuNanos));
+        data.put("allocated_bytes", allocated - usage.lastAllocatedBytes);
+        deltas.add(data);
+      }
+      usage.lastCount = count;
+      usage.lastCpuNanos = cpu;
+      usage.lastAllocatedBytes = allocated;
+    });
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("top_cpu", top(deltas, "cpu_micros", limit));
+    result.put("top_allocations", top(deltas, "allocated_bytes", limit));
+    return result;
+  }
+
+  private static List<Map<String, Object>> top(List<Map<String, Object>> deltas, String key, int limit) {
+    ToLongFunction<Map<String, Object>> value = data -> (Long) data.get(key);
+    return deltas.stream().sorted(Comparator.comparingLong(value).reversed()).limit(limit).toList();
+  }
+
+  private static final class Usage {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    // only accessed by the collection scheduler
+    private long lastCount;
+    private long lastCpuNanos;
+    private long lastAllocatedBytes;
+  }
+
+}
@@ -0,0 +1,45 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Structured record of an outbound HTTP call.
+ *
+ * @param destination the destination or target host
+ * @param method the HTTP method
+ * @param url the request URI, normalized to a URL template by the {@link OutboundCallCollector}
+ * @param status the response status, or 0 if no response was received
+ * @param requestBytes the size of the request body, or -1 if unknown
+ * @param responseBytes the size of the response body, or -1 if unknown
+ * @param latencyNanos the time until the response was received or the call failed
+ * @param requestBody the sampled request body, or {@code null}
+ * @param responseBody the sampled response body, or {@code null}
+ */
+public record OutboundCall(String destination, String method, String url, int status, long requestBytes, long responseBytes,
+    long latencyNanos, String requestBody, String responseBody) {
+
+  public OutboundCall(String destination, String method, String url, int status, long requestBytes, long responseBytes, long latencyNanos) {
+    this(destination, method, url, status, requestBytes, responseBytes, latencyNanos, null, null);
+  }
+
+  Map<String, Object> toMap() {
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("destination", destination);
+    data.put("method", method);
+    data.put("url", url);
+    data.put("status", status);
+    data.put("request_bytes", requestBytes);
+    data.put("response_bytes", responseBytes);
+    data.put("latency_micros", TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    if (requestBody != null) {
+      data.put("request_body", requestBody);
+    }
+    if (responseBody != null) {
+      data.put("response_body", responseBody);
+    }
+    return data;
+  }
+
+}
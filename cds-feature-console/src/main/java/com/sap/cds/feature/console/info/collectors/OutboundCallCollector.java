@@ -0,0 +1,138 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static com.sap.cds.feature.console.service.RemoteMonitoringConfiguration.COMMAND_ATTACHED;
+
+import com.sap.cds.feature.console.info.InfoCollector;
+import com.sap.cds.feature.console.info.LatencyHistogram;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.PressureGovernor.PressureLevel;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.handler.EventHandler;
+import com.sap.cds.services.handler.annotations.On;
+import com.sap.cds.services.handler.annotations.ServiceName;
+import com.sap.cds.services.runtime.CdsRuntime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records outbound HTTP calls as structured events and aggregates their latency per destination.
+ * Calls are reported by the {@link ApacheHttpClientInterceptor} or any other client through
+ * {@link #record(OutboundCall)}. Bodies are only captured for the calls sampled with the
+ * {@value #COMMAND_SAMPLE} command.
+ */
+@ServiceName(RemoteMonitoringService.DEFAULT_NAME)
+public class OutboundCallCollector extends InfoCollector implements EventHandler {
+
+  public static final String TYPE = "http";
+  public static final String COMMAND_SAMPLE = TYPE + "/sample";
+
+  static final int MAX_DESTINATIONS = 64;
+  static final String OTHER_DESTINATIONS = "*";
+  static final int MAX_BODY_BYTES = 4096;
+  static final Duration HISTOGRAM_INTERVAL = Duration.ofSeconds(10);
+
+  private static volatile OutboundCallCollector active;
+
+  private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+  private final AtomicInteger samples = new AtomicInteger();
+  private volatile String sampledDestination;
+  // only accessed by the collection scheduler
+  private long publishedCalls;
+
+  public OutboundCallCollector(CdsRuntime runtime, RemoteMonitoringService remoteMonitoringService) {
+    super(runtime, remoteMonitoringService);
+    schedule("outbound-calls", HISTOGRAM_INTERVAL, this::publishHistograms);
+    active = this;
+  }
+
+  /**
+   * @return the collector of the most recently started runtime, or {@code null}
+   */
+  public static OutboundCallCollector getActive() {
+    return active;
+  }
+
+  /**
+   * Records a finished outbound call.
+   *
+   * @param call the call with its raw request URI
+   */
+  public void record(OutboundCall call) {
+    String destination = call.destination() != null ? call.destination() : OTHER_DESTINATIONS;
+    LatencyHistogram histogram = histograms.get(destination);
+    if (histogram == null) {
+      histogram = histograms.computeIfAbsent(histograms.size() < MAX_DESTINATIONS ? destination : OTHER_DESTINATIONS,
+          d -> new LatencyHistogram());
+    }
+    histogram.record(call.latencyNanos());
+    if (getRemoteMonitoringService().getPressureGovernor().isAtLeast(PressureLevel.SUMMARIES_ONLY)) {
+      return;
+    }
+
+    OutboundCall normalized = new OutboundCall(destination, call.method(), RouteNormalizer.normalize(call.url()), call.status(),
+        call.requestBytes(), call.responseBytes(), call.latencyNanos(), call.requestBody(), call.responseBody());
+    emitInfoEvent(() -> {
+      InfoEvent result = InfoEvent.create(Path.HTTP_OUTBOUND);
+      result.getData().put("outbound_call", normalized.toMap());
+      return result;
+    });
+  }
+
+  /**
+   * Decides whether the bodies of a call are captured. Each sampled call consumes one sample.
+   *
+   * @param destination the destination of the call
+   * @return {@code true}, if the bodies of the call are captured
+   */
+  public boolean sample(String destination) {
+    if (samples.get() <= 0) {
+      return false;
+    }
+    String sampled = sampledDestination;
+    if (sampled != null && !sampled.equals(destination)) {
+      return false;
+    }
+    return samples.getAndUpdate(s -> Math.max(s - 1, 0)) > 0;
+  }
+
+  @On(event = COMMAND_ATTACHED)
+  void capConsoleAttached(CommandEventContext context) {
+    emitInfoEvent(this::getLatencies);
+  }
+
+  @On(event = COMMAND_SAMPLE)
+  private void sampleBodies(CommandEventContext context) {
+    Map<String, Object> data = context.getData();
+    int count = data.get("count") instanceof Number n ? Math.max(n.intValue(), 0) : 1;
+    sampledDestination = (String) data.get("destination");
+    samples.set(count);
+    super.sendInfoNotification("Capturing the bodies of the next %d outbound calls!", count);
+  }
+
+  private void publishHistograms() {
+    long calls = histograms.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+    if (calls != publishedCalls) {
+      publishedCalls = calls;
+      emitInfoEvent(this::getLatencies);
+    }
+  }
+
+  InfoEvent getLatencies() {
+    List<Map<String, Object>> latencies = new ArrayList<>();
+    histograms.forEach((destination, histogram) -> {
+      Map<String, Object> data = histogram.toMap();
+      data.put("destination", destination);
+      latencies.add(data);
+    });
+    InfoEvent result = InfoEvent.create(Path.HTTP_OUTBOUND);
+    result.getData().put("outbound_latencies", latencies);
+    return result;
+  }
+
+}
@@ -0,0 +1,139 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Registers the pools of a Spring Boot application with the {@link PoolSaturationCollector}, once
+ * the application is ready: HikariCP data sources, thread pool executor beans and the thread pool
+ * of the embedded Tomcat.
+ */
+@AutoConfiguration
+public class PoolDiscoveryConfiguration {
+
+  private static final Logger logger = LoggerFactory.getLogger(PoolDiscoveryConfiguration.class);
+
+  static final String KIND_EXECUTOR = "executor";
+  static final String KIND_SERVLET = "servlet-threads";
+
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> capConsolePoolDiscovery() {
+    return event -> discover(event.getApplicationContext());
+  }
+
+  static void discover(ApplicationContext context) {
+    ClassLoader classLoader = PoolDiscoveryConfiguration.class.getClassLoader();
+    if (ClassUtils.isPresent("com.zaxxer.hikari.HikariDataSource", classLoader)) {
+      context.getBeansOfType(DataSource.class, false, false).forEach(PoolDiscoveryConfiguration::registerDataSource);
+    }
+    // neither prototypes nor lazy beans are created, their executors wouldn't be shut down
+    context.getBeansOfType(ThreadPoolTaskExecutor.class, false, false).forEach((name, executor) -> {
+      try {
+        PoolSaturationCollector.register(PoolProbe.of(name, KIND_EXECUTOR, executor.getThreadPoolExecutor()));
+      } catch (IllegalStateException e) {
+        // not initialized
+      }
+    });
+    context.getBeansOfType(ExecutorService.class, false, false).forEach((name, executor) -> {
+      if (executor instanceof ThreadPoolExecutor pool) {
+        PoolSaturationCollector.register(PoolProbe.of(name, KIND_EXECUTOR, pool));
+      }
+    });
+    if (context instanceof WebServerApplicationContext webContext && webContext.getWebServer() != null) {
+      registerTomcat(webContext.getWebServer());
+    }
+  }
+
+  private static void registerDataSource(String name, DataSource dataSource) {
+    try {
+      if (dataSource.isWrapperFor(HikariDataSource.class)) {
+        PoolSaturationCollector.register(new HikariPoolProbe(name, dataSource.unwrap(HikariDataSource.class)));
+      }
+    } catch (SQLException e) {
+      logger.debug("Failed to unwrap data source '{}'", name, e);
+    }
+  }
+
+  /**
+   * Registers the executor of the Tomcat connector. The Tomcat classes are accessed reflectively, so
+   * that the module doesn't depend on the servlet container.
+   */
+  private static void registerTomcat(Object webServer) {
+    try {
+      Object tomcat = invoke(webServer, "getTomcat");
+      Object connector = invoke(tomcat, "getConnector");
+      Object executor = invoke(invoke(connector, "getProtocolHandler"), "getExecutor");
+      if (executor instanceof ThreadPoolExecutor pool) {
+        PoolSaturationCollector.register(PoolProbe.of("tomcat", KIND_SERVLET, pool));
+      } else if (executor instanceof Executor) {
+        PoolSaturationCollector.register(new TomcatPoolProbe(executor));
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      logger.debug("No Tomcat thread pool found", e);
+    }
+  }
+
+  private static Object invoke(Object target, String method) throws ReflectiveOperationException {
+    return target.getClass().getMethod(method).invoke(target);
+  }
+
+  /**
+   * Probe of the Tomcat thread pool executor, which mirrors the methods of the JDK thread pool
+   * executor. The methods are resolved once.
+   */
+  private static final class TomcatPoolProbe implements PoolProbe {
+    private final Object executor;
+    private final Method activeCount;
+    private final Method poolSize;
+    private final Method maximumPoolSize;
+    private final Method queue;
+
+    private TomcatPoolProbe(Object executor) throws ReflectiveOperationException {
+      this.executor = executor;
+      Class<?> type = executor.getClass();
+      this.activeCount = type.getMethod("getActiveCount");
+      this.poolSize = type.getMethod("getPoolSize");
+      this.maximumPoolSize = type.getMethod("getMaximumPoolSize");
+      this.queue = type.getMethod("getQueue");
+    }
+
+    @Override
+    public String getName() {
+      return "tomcat";
+    }
+
+    @Override
+    public String getKind() {
+      return KIND_SERVLET;
+    }
+
+    @Override
+    public Sample sample() {
+      try {
+        int active = (int) activeCount.invoke(executor);
+        int size = (int) poolSize.invoke(executor);
+        int waiting = ((Collection<?>) queue.invoke(executor)).size();
+        return new Sample(active, Math.max(size - active, 0), waiting, (int) maximumPoolSize.invoke(executor));
+      } catch (ReflectiveOperationException e) {
+        return null;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,72 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Probe of a pool of connections or threads, which is sampled by the
+ * {@link PoolSaturationCollector}. Sampling must be cheap and must not block.
+ */
+public interface PoolProbe {
+
+  /**
+   * @return the name of the pool, e.g. the bean name
+   */
+  String getName();
+
+  /**
+   * @return the kind of the pool, e.g. {@code datasource} or {@code executor}
+   */
+  String getKind();
+
+  /**
+   * @return the current state of the pool, or {@code null} if the pool isn't started yet
+   */
+  Sample sample();
+
+  /**
+   * State of a pool.
+   *
+   * @param active the number of busy connections or threads
+   * @param idle the number of idle connections or threads
+   * @param waiting the number of threads waiting for a connection or tasks waiting for a thread
+   * @param max the maximum size of the pool
+   */
+  record Sample(int active, int idle, int waiting, int max) {
+  }
+
+  /**
+   * @param name the name of the pool
+   * @param kind the kind of the pool
+   * @param executor the executor
+   * @return a probe of the executor, which counts queued tasks as waiting. The maximum size is the
+   *     core size, if the queue is unbounded, as the executor doesn't start more threads then.
+   */
+  static PoolProbe of(String name, String kind, ThreadPoolExecutor executor) {
+    return new PoolProbe() {
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      public String getKind() {
+        return kind;
+      }
+
+      @Override
+      public Sample sample() {
+        int active = executor.getActiveCount();
+        return new Sample(active, Math.max(executor.getPoolSize() - active, 0), executor.getQueue().size(), capacity(executor));
+      }
+    };
+  }
+
+  private static int capacity(ThreadPoolExecutor executor) {
+    if (executor.getQueue().remainingCapacity() == Integer.MAX_VALUE) {
+      // a queued task starts a thread, if the core size is 0
+      return Math.max(executor.getCorePoolSize(), 1);
+    }
+    return executor.getMaximumPoolSize();
+  }
+
+}
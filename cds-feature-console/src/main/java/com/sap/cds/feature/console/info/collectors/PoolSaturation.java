@@ -0,0 +1,138 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import com.sap.cds.feature.console.info.collectors.PoolProbe.Sample;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time series of pool samples between two publications and the saturation state per pool. A pool
+ * is saturated, if it is used above the threshold or if threads wait for it in
+ * {@value #ALERT_SAMPLES} consecutive samples, and recovers after as many samples below
+ * {@value #RECOVERY_RATIO} of the threshold without waiting threads. The time spent waiting is
+ * estimated from the sampled number of waiting threads and the time between the samples.
+ */
+final class PoolSaturation {
+
+  static final int MAX_POOLS = 32;
+  static final int MAX_SAMPLES = 120;
+  static final int ALERT_SAMPLES = 3;
+  static final double RECOVERY_RATIO = 0.7;
+
+  enum Transition {
+    SATURATED, RECOVERED
+  }
+
+  private final Map<String, Series> series = new LinkedHashMap<>();
+
+  /**
+   * Records a sample of a pool.
+   *
+   * @param name the name of the pool
+   * @param kind the kind of the pool
+   * @param sample the sample
+   * @param elapsedMillis the time since the previous sample
+   * @param threshold the utilization between 0 and 1, from which on the pool is saturated
+   * @return the change of the saturation state, or {@code null}
+   */
+  synchronized Transition record(String name, String kind, Sample sample, long elapsedMillis, double threshold) {
+    Series s = series.get(name);
+    if (s == null) {
+      if (series.size() >= MAX_POOLS) {
+        return null;
+      }
+      s = new Series(kind);
+      series.put(name, s);
+    }
+    s.add(sample, elapsedMillis);
+
+    double utilization = utilization(sample);
+    boolean hot = utilization >= threshold || sample.waiting() > 0;
+    boolean cold = utilization < threshold * RECOVERY_RATIO && sample.waiting() == 0;
+    s.hotSamples = hot ? s.hotSamples + 1 : 0;
+    s.coldSamples = cold ? s.coldSamples + 1 : 0;
+    if (!s.saturated && s.hotSamples >= ALERT_SAMPLES) {
+      s.saturated = true;
+      return Transition.SATURATED;
+    }
+    if (s.saturated && s.coldSamples >= ALERT_SAMPLES) {
+      s.saturated = false;
+      return Transition.RECOVERED;
+    }
+    return null;
+  }
+
+  /**
+   * @return the time series of all pools with samples since the previous call
+   */
+  synchronized List<Map<String, Object>> drain() {
+    return collect(true);
+  }
+
+  /**
+   * @return the time series of all pools with samples since the previous drain, which are kept for
+   *     the next drain
+   */
+  synchronized List<Map<String, Object>> snapshot() {
+    return collect(false);
+  }
+
+  private List<Map<String, Object>> collect(boolean reset) {
+    List<Map<String, Object>> result = new ArrayList<>();
+    series.forEach((name, s) -> {
+      if (s.size == 0) {
+        return;
+      }
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("name", name);
+      data.put("kind", s.kind);
+      data.put("max", s.max);
+      data.put("saturated", s.saturated);
+      data.put("active", Arrays.copyOf(s.active, s.size));
+      data.put("idle", Arrays.copyOf(s.idle, s.size));
+      data.put("waiting", Arrays.copyOf(s.waiting, s.size));
+      data.put("wait_millis", s.waitMillis);
+      result.add(data);
+      if (reset) {
+        s.size = 0;
+        s.waitMillis = 0;
+      }
+    });
+    return result;
+  }
+
+  static double utilization(Sample sample) {
+    return sample.max() > 0 ? (double) sample.active() / sample.max() : 0;
+  }
+
+  private static final class Series {
+    private final String kind;
+    private final int[] active = new int[MAX_SAMPLES];
+    private final int[] idle = new int[MAX_SAMPLES];
+    private final int[] waiting = new int[MAX_SAMPLES];
+    private int size;
+    private int max;
+    private long waitMillis;
+    private int hotSamples;
+    private int coldSamples;
+    private boolean saturated;
+
+    private Series(String kind) {
+      this.kind = kind;
+    }
+
+    private void add(Sample sample, long elapsedMillis) {
+      if (size < MAX_SAMPLES) {
+        active[size] = sample.active();
+        idle[size] = sample.idle();
+        waiting[size] = sample.waiting();
+        size++;
+      }
+      max = sample.max();
+      waitMillis += sample.waiting() * elapsedMillis;
+    }
+  }
+
+}
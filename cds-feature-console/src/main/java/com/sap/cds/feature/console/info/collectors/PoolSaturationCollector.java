@@ -0,0 +1,133 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static com.sap.cds.feature.console.service.RemoteMonitoringConfiguration.COMMAND_ATTACHED;
+
+import com.sap.cds.feature.console.info.InfoCollector;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.collectors.PoolProbe.Sample;
+import com.sap.cds.feature.console.info.collectors.PoolSaturation.Transition;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.handler.EventHandler;
+import com.sap.cds.services.handler.annotations.On;
+import com.sap.cds.services.handler.annotations.ServiceName;
+import com.sap.cds.services.runtime.CdsRuntime;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Samples the registered connection and thread pools at a high frequency and streams their
+ * saturation time series. Sends a warning, once a pool is saturated, and a notification, once it
+ * recovered. Pools are discovered in Spring Boot applications by the
+ * {@link PoolDiscoveryConfiguration}, further pools can be added with {@link #register(PoolProbe)}.
+ */
+@ServiceName(RemoteMonitoringService.DEFAULT_NAME)
+public class PoolSaturationCollector extends InfoCollector implements EventHandler {
+
+  private static final Logger logger = LoggerFactory.getLogger(PoolSaturationCollector.class);
+
+  public static final String TYPE = "pools";
+  public static final String COMMAND_THRESHOLD = TYPE + "/threshold";
+
+  static final Duration SAMPLE_INTERVAL = Duration.ofMillis(500);
+  static final Duration PUBLISH_INTERVAL = Duration.ofSeconds(5);
+  static final double DEFAULT_THRESHOLD = 0.9;
+
+  private static final Map<String, PoolProbe> probes = new ConcurrentHashMap<>();
+
+  private final PoolSaturation saturation = new PoolSaturation();
+  private volatile double threshold = DEFAULT_THRESHOLD;
+  // only accessed by the collection scheduler
+  private long lastSample = System.nanoTime();
+
+  public PoolSaturationCollector(CdsRuntime runtime, RemoteMonitoringService remoteMonitoringService) {
+    super(runtime, remoteMonitoringService);
+    schedule("pool-samples", SAMPLE_INTERVAL, this::sample);
+    schedule("pool-saturation", PUBLISH_INTERVAL, this::publish);
+  }
+
+  /**
+   * Registers a pool, replacing a pool of the same name.
+   *
+   * @param probe the probe of the pool
+   */
+  public static void register(PoolProbe probe) {
+    probes.put(probe.getName(), probe);
+  }
+
+  public static void unregister(String name) {
+    probes.remove(name);
+  }
+
+  static Map<String, PoolProbe> getProbes() {
+    return probes;
+  }
+
+  @On(event = COMMAND_ATTACHED)
+  void capConsoleAttached(CommandEventContext context) {
+    emitInfoEvent(this::getPools);
+  }
+
+  @On(event = COMMAND_THRESHOLD)
+  private void updateThreshold(CommandEventContext context) {
+    Object utilization = context.getData().get("utilization");
+    threshold = utilization instanceof Number n ? Math.min(Math.max(n.doubleValue() / 100, 0.01), 1) : DEFAULT_THRESHOLD;
+    super.sendInfoNotification("Pools are reported as saturated from %d%% utilization on!", Math.round(threshold * 100));
+  }
+
+  private void sample() {
+    long now = System.nanoTime();
+    long elapsedMillis = Duration.ofNanos(now - lastSample).toMillis();
+    lastSample = now;
+    probes.values().forEach(probe -> {
+      Sample sample;
+      try {
+        sample = probe.sample();
+      } catch (RuntimeException e) {
+        logger.debug("Failed to sample pool '{}'", probe.getName(), e);
+        return;
+      }
+      if (sample != null) {
+        Transition transition = saturation.record(probe.getName(), probe.getKind(), sample, elapsedMillis, threshold);
+        if (transition != null) {
+          announce(probe, sample, transition);
+        }
+      }
+    });
+  }
+
+  private void announce(PoolProbe probe, Sample sample, Transition transition) {
+    if (transition == Transition.SATURATED) {
+      sendNotification(NotificationType.warning, "The %s '%s' is saturated: %d of %d in use, %d waiting.", probe.getKind(),
+          probe.getName(), sample.active(), sample.max(), sample.waiting());
+    } else {
+      sendNotification(NotificationType.info, "The %s '%s' recovered: %d of %d in use.", probe.getKind(), probe.getName(),
+          sample.active(), sample.max());
+    }
+  }
+
+  private void publish() {
+    List<Map<String, Object>> pools = saturation.drain();
+    if (!pools.isEmpty()) {
+      emitInfoEvent(() -> getPools(pools));
+    }
+  }
+
+  InfoEvent getPools() {
+    // the samples remain for the periodic publication
+    return getPools(saturation.snapshot());
+  }
+
+  private InfoEvent getPools(List<Map<String, Object>> pools) {
+    InfoEvent result = InfoEvent.create(Path.SYSTEM_POOLS);
+    result.getData().put("interval_millis", SAMPLE_INTERVAL.toMillis());
+    result.getData().put("pools", pools);
+    return result;
+  }
+
+}
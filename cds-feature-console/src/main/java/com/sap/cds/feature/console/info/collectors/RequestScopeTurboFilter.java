@@ -0,0 +1,111 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.sap.cds.services.EventContext;
+import com.sap.cds.services.request.ParameterInfo;
+import com.sap.cds.services.request.UserInfo;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Logback {@link TurboFilter}, which enables log levels only for requests matching one of the
+ * configured {@link LogScope}s. The scopes are evaluated once per CAP event by {@link
+ * #match(EventContext)} and the result is kept per thread. The decision for a log call therefore
+ * neither allocates nor depends on the number of scopes. A match is reset by {@link #end()}, once
+ * the request ends, and is additionally bound to the correlation id in the MDC, if the request has
+ * one, so it is not applied to the next request handled by the same thread.
+ */
+public class RequestScopeTurboFilter extends TurboFilter {
+
+  static final String MDC_CORRELATION_ID = "correlation_id";
+
+  private static final LogScope[] NO_SCOPES = new LogScope[0];
+
+  private final ThreadLocal<ScopeMatch> currentMatch = ThreadLocal.withInitial(ScopeMatch::new);
+
+  private volatile LogScope[] scopes = NO_SCOPES;
+  private volatile int version;
+
+  /**
+   * Replaces the active scopes. An empty list disables request-scoped logging.
+   *
+   * @param logScopes the new scopes
+   */
+  public synchronized void setScopes(List<LogScope> logScopes) {
+    scopes = logScopes.toArray(NO_SCOPES);
+    version++;
+  }
+
+  public List<LogScope> getScopes() {
+    return List.of(scopes);
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (scopes.length == 0) {
+      return FilterReply.NEUTRAL;
+    }
+    ScopeMatch match = currentMatch.get();
+    LogScope scope = match.scope;
+    if (scope == null || match.version != version) {
+      return FilterReply.NEUTRAL;
+    }
+    // the MDC keeps the same instance for the lifetime of a request
+    if (match.correlationId != null && match.correlationId != MDC.get(MDC_CORRELATION_ID)) { // NOSONAR
+      return FilterReply.NEUTRAL;
+    }
+    if (level.isGreaterOrEqual(scope.level()) && logger.getName().startsWith(scope.logger())) {
+      return FilterReply.ACCEPT;
+    }
+    return FilterReply.NEUTRAL;
+  }
+
+  /**
+   * Resets the match of the current thread, once its request ended.
+   */
+  void end() {
+    currentMatch.remove();
+  }
+
+  /**
+   * Evaluates the scopes for the request of the given event and remembers the result for the
+   * current thread.
+   *
+   * @param context the event context of the request
+   */
+  void match(EventContext context) {
+    if (scopes.length == 0) {
+      return;
+    }
+    UserInfo user = context.getUserInfo();
+    ParameterInfo parameters = context.getParameterInfo();
+    match(user.getTenant(), user.getName(), parameters::getHeader, parameters.getCorrelationId());
+  }
+
+  void match(String tenant, String user, UnaryOperator<String> headers, String correlationId) {
+    int currentVersion = version;
+    LogScope matching = null;
+    for (LogScope scope : scopes) {
+      if (scope.matches(tenant, user, headers, correlationId)) {
+        matching = scope;
+        break;
+      }
+    }
+    ScopeMatch match = currentMatch.get();
+    match.scope = matching;
+    match.version = currentVersion;
+    match.correlationId = MDC.get(MDC_CORRELATION_ID);
+  }
+
+  private static class ScopeMatch {
+    private LogScope scope;
+    private int version;
+    private String correlationId;
+  }
+
+}
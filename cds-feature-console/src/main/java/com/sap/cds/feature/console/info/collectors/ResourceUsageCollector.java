@@ -0,0 +1,122 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static com.sap.cds.feature.console.service.RemoteMonitoringConfiguration.COMMAND_ATTACHED;
+
+import com.sap.cds.feature.console.info.InfoCollector;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.EventContext;
+import com.sap.cds.services.handler.EventHandler;
+import com.sap.cds.services.handler.annotations.After;
+import com.sap.cds.services.handler.annotations.Before;
+import com.sap.cds.services.handler.annotations.HandlerOrder;
+import com.sap.cds.services.handler.annotations.On;
+import com.sap.cds.services.handler.annotations.ServiceName;
+import com.sap.cds.services.runtime.CdsRuntime;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Attributes the CPU time and the allocated bytes of the current thread to the CAP operations
+ * (service, event, entity). The measurement is taken between the earliest before and the latest
+ * after handler, so nested events are included in the usage of the outer event. Only one in
+ * {@link #DEFAULT_SAMPLING} events is measured by default, which is configurable with the
+ * {@value #COMMAND_SAMPLING} command.
+ */
+@ServiceName(RemoteMonitoringService.DEFAULT_NAME)
+public class ResourceUsageCollector extends InfoCollector implements EventHandler {
+
+  public static final String TYPE = "resources";
+  public static final String COMMAND_SAMPLING = TYPE + "/sampling";
+
+  static final int DEFAULT_SAMPLING = 16;
+  static final int TOP_LIMIT = 20;
+  static final Duration INTERVAL = Duration.ofSeconds(10);
+
+  private static final String START = ResourceUsageCollector.class.getName() + ".start";
+
+  private final com.sun.management.ThreadMXBean threads;
+  private final boolean cpuTimeSupported;
+  private final boolean allocationSupported;
+  private final OperationUsage usage = new OperationUsage();
+  private volatile int sampling = DEFAULT_SAMPLING;
+
+  public ResourceUsageCollector(CdsRuntime runtime, RemoteMonitoringService remoteMonitoringService) {
+    super(runtime, remoteMonitoringService);
+    threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean ? bean : null;
+    cpuTimeSupported = threads != null && threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+    allocationSupported = threads != null && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+    schedule("resource-usage", INTERVAL, this::publish);
+  }
+
+  @Before(service = "*", event = "*")
+  @HandlerOrder(HandlerOrder.EARLIEST)
+  void startOperation(EventContext context) {
+    int rate = sampling;
+    if (rate <= 0 || !(cpuTimeSupported || allocationSupported) || context.getService() instanceof RemoteMonitoringService) {
+      return;
+    }
+    if (rate == 1 || ThreadLocalRandom.current().nextInt(rate) == 0) {
+      context.put(START, new long[] {cpuTime(), allocatedBytes()});
+    }
+  }
+
+  @After(service = "*", event = "*")
+  @HandlerOrder(HandlerOrder.LATEST)
+  void endOperation(EventContext context) {
+    if (context.get(START) instanceof long[] start) {
+      long cpu = cpuTime() - start[0];
+      long allocated = allocatedBytes() - start[1];
+      String entity = context.getTarget() != null ? context.getTarget().getQualifiedName() : null;
+      usage.record(new OperationUsage.Operation(context.getService().getName(), context.getEvent(), entity), cpu, allocated);
+    }
+  }
+
+  private long cpuTime() {
+    return cpuTimeSupported ? threads.getCurrentThreadCpuTime() : 0;
+  }
+
+  private long allocatedBytes() {
+    return allocationSupported ? threads.getCurrentThreadAllocatedBytes() : 0;
+  }
+
+  @On(event = COMMAND_ATTACHED)
+  void capConsoleAttached(CommandEventContext context) {
+    if (!cpuTimeSupported) {
+      sendNotification(NotificationType.warning, "The JVM doesn't measure the CPU time of threads!");
+    }
+    if (!allocationSupported) {
+      sendNotification(NotificationType.warning, "The JVM doesn't measure the allocated bytes of threads!");
+    }
+  }
+
+  @On(event = COMMAND_SAMPLING)
+  private void updateSampling(CommandEventContext context) {
+    sampling = context.getData().get("rate") instanceof Number n ? Math.max(n.intValue(), 0) : DEFAULT_SAMPLING;
+    if (sampling == 0) {
+      super.sendInfoNotification("Stopped measuring the resource usage of CAP events!");
+    } else {
+      super.sendInfoNotification("Measuring the resource usage of one in %d CAP events!", sampling);
+    }
+  }
+
+  private void publish() {
+    Map<String, Object> top = usage.takeTop(TOP_LIMIT);
+    if (!((List<?>) top.get("top_cpu")).isEmpty()) {
+      emitInfoEvent(() -> getResourceUsage(top));
+    }
+  }
+
+  InfoEvent getResourceUsage(Map<String, Object> top) {
+    InfoEvent result = InfoEvent.create(Path.CDS_RESOURCES);
+    result.getData().put("resource_usage", top);
+    result.getData().put("sampling", sampling);
+    return result;
+  }
+
+}
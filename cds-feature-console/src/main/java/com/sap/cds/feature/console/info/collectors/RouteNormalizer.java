@@ -0,0 +1,59 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces request URIs to URL templates, so that calls to the same endpoint are aggregated. Scheme,
+ * host, query and fragment are removed, path segments that look like identifiers and the keys of
+ * OData entities are replaced by {@value #PLACEHOLDER}.
+ */
+final class RouteNormalizer {
+
+  static final String PLACEHOLDER = "{}";
+  static final int MAX_LENGTH = 256;
+
+  private static final Pattern IDENTIFIER = Pattern.compile(
+      "-?\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{16,}");
+  private static final Pattern ODATA_KEY = Pattern.compile("\\(.*\\)");
+
+  private RouteNormalizer() {
+  }
+
+  static String normalize(String uri) {
+    if (uri == null || uri.isEmpty()) {
+      return "/";
+    }
+    String path = uri;
+    int scheme = path.indexOf("://");
+    if (scheme >= 0) {
+      int slash = path.indexOf('/', scheme + 3);
+      path = slash >= 0 ? path.substring(slash) : "/";
+    }
+    int end = indexOfAny(path, '?', '#');
+    if (end >= 0) {
+      path = path.substring(0, end);
+    }
+
+    String[] segments = path.split("/", -1);
+    for (int i = 0; i < segments.length; i++) {
+      if (IDENTIFIER.matcher(segments[i]).matches()) {
+        segments[i] = PLACEHOLDER;
+      } else {
+        segments[i] = ODATA_KEY.matcher(segments[i]).replaceFirst("(" + PLACEHOLDER + ")");
+      }
+    }
+    String template = String.join("/", segments);
+    return template.length() > MAX_LENGTH ? template.substring(0, MAX_LENGTH) : template;
+  }
+
+  private static int indexOfAny(String value, char first, char second) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == first || c == second) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+}
@@ -0,0 +1,71 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.info.InfoCollector;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.PressureGovernor;
+import com.sap.cds.feature.console.info.PressureGovernor.PressureLevel;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.handler.EventHandler;
+import com.sap.cds.services.handler.annotations.ServiceName;
+import com.sap.cds.services.runtime.CdsRuntime;
+import java.time.Duration;
+
+/**
+ * Publishes the self-metrics of the remote monitoring pipeline to the clients of the {@link
+ * RemoteMonitoringServer#PATH_SELF} topic. Announces the transitions of the {@link
+ * PressureGovernor}. Spring Boot applications publish the metrics through Micrometer as well, see
+ * {@link com.sap.cds.feature.console.info.MicrometerMetricsConfiguration}.
+ */
+@ServiceName(RemoteMonitoringService.DEFAULT_NAME)
+public class SelfMetricsCollector extends InfoCollector implements EventHandler {
+
+  static final Duration INTERVAL = Duration.ofSeconds(5);
+
+  public SelfMetricsCollector(CdsRuntime runtime, RemoteMonitoringService remoteMonitoringService) {
+    super(runtime, remoteMonitoringService);
+    schedule("self-metrics", INTERVAL, this::publish);
+    PressureGovernor governor = remoteMonitoringService.getPressureGovernor();
+    governor.addListener(this::announcePressure);
+    governor.start(remoteMonitoringService.getCollectionScheduler());
+  }
+
+  private void announcePressure(PressureLevel previous, PressureLevel next) {
+    long pressure = Math.round(getRemoteMonitoringService().getPressureGovernor().getPressure() * 100);
+    if (next.compareTo(previous) > 0) {
+      sendNotification(NotificationType.warning, "Heap usage after GC at %d%%: %s", pressure, describe(next));
+    } else {
+      sendNotification(NotificationType.info, "Heap usage after GC at %d%%: %s", pressure, describe(next));
+    }
+  }
+
+  private static String describe(PressureLevel level) {
+    return switch (level) {
+      case NORMAL -> "monitoring resumed without restrictions.";
+      case NO_DEBUG -> "DEBUG and TRACE events are no longer captured.";
+      case REDUCED_BUFFERS -> "DEBUG and TRACE events are no longer captured, buffers are reduced.";
+      case SUMMARIES_ONLY -> "only summaries are sent, no individual events.";
+      case PAUSED -> "the stream is paused until the memory pressure clears.";
+    };
+  }
+
+  private void publish() {
+    RemoteMonitoringServer server = getRemoteMonitoringService().getRemoteMonitoringServer();
+    if (server != null && server.hasClients(RemoteMonitoringServer.PATH_SELF)) {
+      emitInfoEvent(this::getSelfMetrics);
+    }
+  }
+
+  InfoEvent getSelfMetrics() {
+    RemoteMonitoringService service = getRemoteMonitoringService();
+    InfoEvent result = InfoEvent.create(Path.SELF);
+    result.getData().put("pipeline", service.getPipelineMetrics().toMap());
+    result.getData().put("scheduler", service.getCollectionScheduler().getStatistics());
+    result.getData().put("clients", service.getRemoteMonitoringServer().getClientStatistics());
+    result.getData().put("tenants", service.getRemoteMonitoringServer().getTenantStatistics());
+    result.getData().put("pressure", service.getPressureGovernor().getLevel().name());
+    return result;
+  }
+
+}
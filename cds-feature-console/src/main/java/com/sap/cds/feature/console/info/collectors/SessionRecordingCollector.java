@@ -0,0 +1,122 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.info.InfoCollector;
+import com.sap.cds.feature.console.recording.RecordingWriter;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.environment.CdsEnvironment;
+import com.sap.cds.services.handler.EventHandler;
+import com.sap.cds.services.handler.annotations.On;
+import com.sap.cds.services.handler.annotations.ServiceName;
+import com.sap.cds.services.runtime.CdsRuntime;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Records the encoded event stream of the console to a file with the {@value #COMMAND_START} and
+ * {@value #COMMAND_STOP} commands. Recordings are written to the directory configured with
+ * {@code cds.console.recording.directory}, the temporary directory by default, and can be replayed
+ * with the {@link com.sap.cds.feature.console.recording.SessionReplay}. As the commands aren't
+ * authenticated, the size of a recording is limited by {@code cds.console.recording.max-mb} and the
+ * total size of the recordings in the directory by {@code cds.console.recording.directory-max-mb}.
+ */
+@ServiceName(RemoteMonitoringService.DEFAULT_NAME)
+public class SessionRecordingCollector extends InfoCollector implements EventHandler {
+
+  public static final String TYPE = "recording";
+  public static final String COMMAND_START = TYPE + "/start";
+  public static final String COMMAND_STOP = TYPE + "/stop";
+
+  static final String DIRECTORY_PROPERTY = "cds.console.recording.directory";
+  static final String MAX_MB_PROPERTY = "cds.console.recording.max-mb";
+  static final String DIRECTORY_MAX_MB_PROPERTY = "cds.console.recording.directory-max-mb";
+  static final long DEFAULT_MAX_MB = 256;
+  static final long DEFAULT_DIRECTORY_MAX_MB = 1024;
+  private static final long MB = 1024 * 1024;
+  static final String EXTENSION = ".caprec";
+
+  private static final Pattern FILE_NAME = Pattern.compile("[\\w.-]{1,128}");
+  private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  public SessionRecordingCollector(CdsRuntime runtime, RemoteMonitoringService remoteMonitoringService) {
+    super(runtime, remoteMonitoringService);
+  }
+
+  @On(event = COMMAND_START)
+  private synchronized void startRecording(CommandEventContext context) {
+    RemoteMonitoringServer server = getRemoteMonitoringService().getRemoteMonitoringServer();
+    if (server.isRecording()) {
+      sendNotification(NotificationType.warning, "Already recording to %s!", server.getRecording().getFile());
+      return;
+    }
+    Map<String, Object> data = context.getData();
+    String name = data.get("file") instanceof String file ? file : "cap-console-" + LocalDateTime.now().format(TIMESTAMP);
+    if (!FILE_NAME.matcher(name).matches()) {
+      sendErrorNotification("Recording", "Invalid file name '%s', only a file name without directory is allowed.", name);
+      return;
+    }
+    CdsEnvironment environment = getRuntime().getEnvironment();
+    long limit = Math.max(environment.getProperty(MAX_MB_PROPERTY, Long.class, DEFAULT_MAX_MB), 1);
+    long maxMegabytes = data.get("max_mb") instanceof Number n ? Math.min(Math.max(n.longValue(), 1), limit) : limit;
+    Path directory = Path.of(environment.getProperty(DIRECTORY_PROPERTY, String.class, System.getProperty("java.io.tmpdir")));
+    Path file = directory.resolve(name.endsWith(EXTENSION) ? name : name + EXTENSION);
+    try {
+      Files.createDirectories(directory);
+      long directoryMax = environment.getProperty(DIRECTORY_MAX_MB_PROPERTY, Long.class, DEFAULT_DIRECTORY_MAX_MB) * MB;
+      long available = directoryMax - getRecordingsSize(directory, file);
+      if (available < MB) {
+        sendErrorNotification("Recording", "The recordings in %s take their maximum size of %d MB, delete older recordings first.",
+            directory, directoryMax / MB);
+        return;
+      }
+      maxMegabytes = Math.min(maxMegabytes, available / MB);
+      server.setRecording(RecordingWriter.start(file, maxMegabytes * MB));
+      sendSuccessNotification("Recording", "Recording to %s, at most %d MB.", file, maxMegabytes);
+    } catch (IOException e) {
+      sendErrorNotification("Recording", "Failed to start recording to %s: %s", file, e.getMessage());
+    }
+  }
+
+  /**
+   * @param directory the directory of the recordings
+   * @param replaced the file of the new recording, which replaces an existing file
+   * @return the total size of the other recordings in the directory
+   */
+  static long getRecordingsSize(Path directory, Path replaced) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      long size = 0;
+      for (Path file : (Iterable<Path>) files::iterator) {
+        if (file.getFileName().toString().endsWith(EXTENSION) && !file.equals(replaced) && Files.isRegularFile(file)) {
+          size += Files.size(file);
+        }
+      }
+      return size;
+    }
+  }
+
+  @On(event = COMMAND_STOP)
+  private synchronized void stopRecording(CommandEventContext context) {
+    RemoteMonitoringServer server = getRemoteMonitoringService().getRemoteMonitoringServer();
+    RecordingWriter recording = server.getRecording();
+    if (recording == null) {
+      sendNotification(NotificationType.warning, "No recording is active!");
+      return;
+    }
+    server.setRecording(null);
+    try {
+      recording.close();
+      sendSuccessNotification("Recording", "Recorded %d events (%d dropped%s) with %d bytes to %s.", recording.getRecorded(),
+          recording.getDropped(), recording.isLimitReached() ? ", maximum size reached" : "", recording.getBytesWritten(), recording.getFile());
+    } catch (IOException e) {
+      sendErrorNotification("Recording", "Failed to write recording %s: %s", recording.getFile(), e.getMessage());
+    }
+  }
+
+}
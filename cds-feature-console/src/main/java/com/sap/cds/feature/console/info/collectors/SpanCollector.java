@@ -0,0 +1,102 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.info.InfoCollector;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.PressureGovernor.PressureLevel;
+import com.sap.cds.feature.console.info.collectors.TraceBuffer.SpanRecord;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.application.ApplicationLifecycleService;
+import com.sap.cds.services.application.ApplicationStoppedEventContext;
+import com.sap.cds.services.handler.EventHandler;
+import com.sap.cds.services.handler.annotations.On;
+import com.sap.cds.services.handler.annotations.ServiceName;
+import com.sap.cds.services.runtime.CdsRuntime;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the OpenTelemetry spans of the application as trace events, which are linked to the log
+ * events by the trace id in their MDC ({@value #MDC_TRACE_ID}). The spans are reported by the
+ * {@link ConsoleSpanProcessor} and tail sampled per trace by a {@link TraceBuffer}: only traces
+ * with a span slower than the latency threshold or with an error are sent. The threshold is set
+ * with the {@value #COMMAND_SAMPLING} command. The spans are only converted and buffered while a
+ * console is connected or the session is recorded.
+ *
+ * <p>The processor is only added automatically, if the OpenTelemetry SDK autoconfiguration is on
+ * the classpath of the application. With the OpenTelemetry Java agent, which uses its own copy of
+ * the SDK, no spans are captured. As the processor is created by OpenTelemetry, it reports to the
+ * collector of the most recently started runtime of the JVM.
+ */
+@ServiceName(RemoteMonitoringService.DEFAULT_NAME)
+public class SpanCollector extends InfoCollector implements EventHandler {
+
+  public static final String TYPE = "traces";
+  public static final String COMMAND_SAMPLING = TYPE + "/sampling";
+  /** MDC key of the trace id, as set by the OpenTelemetry logback instrumentation. */
+  public static final String MDC_TRACE_ID = "trace_id";
+
+  static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofMillis(500);
+
+  private static volatile SpanCollector active;
+
+  private final TraceBuffer buffer = new TraceBuffer();
+  private volatile long latencyThresholdNanos = DEFAULT_LATENCY_THRESHOLD.toNanos();
+  private volatile boolean sampleErrors = true;
+
+  public SpanCollector(CdsRuntime runtime, RemoteMonitoringService remoteMonitoringService) {
+    super(runtime, remoteMonitoringService);
+    active = this;
+  }
+
+  /**
+   * @return the collector of the most recently started runtime, or {@code null}
+   */
+  static SpanCollector getActive() {
+    return active;
+  }
+
+  /**
+   * @return whether the traces are sent, the spans aren't converted otherwise
+   */
+  boolean isObserved() {
+    RemoteMonitoringServer server = getRemoteMonitoringService().getRemoteMonitoringServer();
+    return server != null && (server.hasClients(RemoteMonitoringServer.PATH_LOGS) || server.isRecording())
+        && !getRemoteMonitoringService().getPressureGovernor().isAtLeast(PressureLevel.SUMMARIES_ONLY);
+  }
+
+  void record(SpanRecord span) {
+    List<SpanRecord> trace = buffer.add(span, latencyThresholdNanos, sampleErrors);
+    if (trace != null) {
+      emitInfoEvent(() -> getTrace(trace));
+    }
+  }
+
+  @On(service = ApplicationLifecycleService.DEFAULT_NAME)
+  private void applicationStopped(ApplicationStoppedEventContext context) {
+    if (active == this) {
+      active = null;
+    }
+  }
+
+  @On(event = COMMAND_SAMPLING)
+  private void updateSampling(CommandEventContext context) {
+    Map<String, Object> data = context.getData();
+    latencyThresholdNanos = data.get("latency_ms") instanceof Number n
+        ? Duration.ofMillis(Math.max(n.longValue(), 0)).toNanos() : DEFAULT_LATENCY_THRESHOLD.toNanos();
+    sampleErrors = !Boolean.FALSE.equals(data.get("errors"));
+    super.sendInfoNotification("Sending traces slower than %d ms%s!", Duration.ofNanos(latencyThresholdNanos).toMillis(),
+        sampleErrors ? " or with errors" : "");
+  }
+
+  InfoEvent getTrace(List<SpanRecord> trace) {
+    InfoEvent result = InfoEvent.create(Path.TRACES_EVENTS);
+    result.getData().put("trace_id", trace.get(0).traceId());
+    result.getData().put("spans", trace.stream().map(SpanRecord::toMap).toList());
+    return result;
+  }
+
+}
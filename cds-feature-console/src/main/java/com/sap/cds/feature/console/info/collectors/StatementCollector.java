@@ -0,0 +1,189 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.info.InfoCollector;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.SpaceSaving;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.ql.cqn.CqnStatement;
+import com.sap.cds.services.EventContext;
+import com.sap.cds.services.handler.EventHandler;
+import com.sap.cds.services.handler.annotations.After;
+import com.sap.cds.services.handler.annotations.Before;
+import com.sap.cds.services.handler.annotations.HandlerOrder;
+import com.sap.cds.services.handler.annotations.ServiceName;
+import com.sap.cds.services.persistence.PersistenceService;
+import com.sap.cds.services.runtime.CdsRuntime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the execution time of the CQN statements of all persistence services. Statements are
+ * grouped by their shape, the CQN with all literal values stripped, and ranked by their total time
+ * in a bounded {@link SpaceSaving} sketch, which additionally protects the shapes with the slowest
+ * single executions. The literal values of the slowest execution per shape are kept as sample. The
+ * statements are only ranked while a console is connected or the session is recorded.
+ */
+@ServiceName(value = "*", type = PersistenceService.class)
+public class StatementCollector extends InfoCollector implements EventHandler {
+
+  static final int TOP_K = 64;
+  static final int SLOWEST = 16;
+  static final int MAX_SHAPE_LENGTH = 4000;
+  static final int MAX_SAMPLE_VALUES = 16;
+  static final int MAX_SAMPLE_VALUE_LENGTH = 100;
+  static final Duration INTERVAL = Duration.ofSeconds(10);
+
+  private static final String START = StatementCollector.class.getName() + ".start";
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final TextNode MASK = TextNode.valueOf("?");
+
+  private final SpaceSaving<String, StatementSample> ranking = new SpaceSaving<>(TOP_K, SLOWEST);
+  private final LongAdder statements = new LongAdder();
+  // only accessed by the collection scheduler
+  private long publishedStatements;
+
+  public StatementCollector(CdsRuntime runtime, RemoteMonitoringService remoteMonitoringService) {
+    super(runtime, remoteMonitoringService);
+    schedule("statements", INTERVAL, this::publish);
+  }
+
+  @Before(event = "*")
+  @HandlerOrder(HandlerOrder.EARLIEST)
+  void startStatement(EventContext context) {
+    context.put(START, System.nanoTime());
+  }
+
+  @After(event = "*")
+  @HandlerOrder(HandlerOrder.LATEST)
+  void endStatement(EventContext context) {
+    if (context.get(START) instanceof Long start && context.get("cqn") instanceof CqnStatement cqn && isObserved()) {
+      long duration = System.nanoTime() - start;
+      StatementShape shape = StatementShape.of(cqn.toJson());
+      if (shape == null) {
+        return;
+      }
+      String entity = context.getTarget() != null ? context.getTarget().getQualifiedName() : null;
+      ranking.add(shape.shape(), duration, new StatementSample(entity, context.getEvent(), shape.values()));
+      statements.increment();
+    }
+  }
+
+  /**
+   * @return whether the ranking is sent, the statements aren't serialized otherwise
+   */
+  private boolean isObserved() {
+    RemoteMonitoringServer server = getRemoteMonitoringService().getRemoteMonitoringServer();
+    return server != null && (server.hasClients(RemoteMonitoringServer.PATH_LOGS) || server.isRecording());
+  }
+
+  private void publish() {
+    long count = statements.sum();
+    if (count != publishedStatements) {
+      publishedStatements = count;
+      emitInfoEvent(this::getStatements);
+    }
+  }
+
+  InfoEvent getStatements() {
+    List<Map<String, Object>> top = new ArrayList<>();
+    for (SpaceSaving.Entry<String, StatementSample> entry : ranking.getTop()) {
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("statement", entry.getKey());
+      data.put("entity", entry.getSample().entity());
+      data.put("event", entry.getSample().event());
+      data.put("count", entry.getCount());
+      data.put("total_micros", TimeUnit.NANOSECONDS.toMicros(entry.getTotal()));
+      data.put("max_micros", TimeUnit.NANOSECONDS.toMicros(entry.getMax()));
+      data.put("error_micros", TimeUnit.NANOSECONDS.toMicros(entry.getError()));
+      data.put("slowest_values", entry.getSample().values());
+      top.add(data);
+    }
+    InfoEvent result = InfoEvent.create(Path.CDS_STATEMENTS);
+    result.getData().put("statements", top);
+    return result;
+  }
+
+  /**
+   * Sample of the slowest execution of a statement shape.
+   */
+  record StatementSample(String entity, String event, List<String> values) {
+  }
+
+  /**
+   * Shape of a CQN statement and its stripped literal values. Literals are the {@code val} values
+   * and all values of the {@code entries} of an INSERT and the {@code data} of an UPDATE. Runs of
+   * equal literals, like those of an IN list or the rows of a bulk INSERT, are collapsed, so that
+   * they have the same shape regardless of their length.
+   */
+  record StatementShape(String shape, List<String> values) {
+
+    /**
+     * @param cqnJson the CQN statement as JSON
+     * @return the shape, or {@code null} if the statement isn't valid JSON
+     */
+    static StatementShape of(String cqnJson) {
+      JsonNode cqn;
+      try {
+        cqn = objectMapper.readTree(cqnJson);
+      } catch (JsonProcessingException e) {
+        return null;
+      }
+      List<String> values = new ArrayList<>();
+      JsonNode masked = mask(cqn, false, values);
+      String shape = masked.toString();
+      if (shape.length() > MAX_SHAPE_LENGTH) {
+        shape = shape.substring(0, MAX_SHAPE_LENGTH);
+      }
+      return new StatementShape(shape, List.copyOf(values));
+    }
+
+    private static JsonNode mask(JsonNode node, boolean data, List<String> values) {
+      if (node instanceof ObjectNode object) {
+        List<String> names = new ArrayList<>();
+        object.fieldNames().forEachRemaining(names::add);
+        for (String name : names) {
+          JsonNode value = object.get(name);
+          if ("val".equals(name) && !data) {
+            object.set(name, literal(value, values));
+          } else {
+            object.set(name, mask(value, data || "entries".equals(name) || "data".equals(name), values));
+          }
+        }
+        return object;
+      } else if (node instanceof ArrayNode array) {
+        ArrayNode result = array.arrayNode();
+        for (JsonNode element : array) {
+          JsonNode masked = mask(element, data, values);
+          boolean literal = data || masked.size() == 1 && MASK.equals(masked.get("val"));
+          if (!literal || result.isEmpty() || !masked.equals(result.get(result.size() - 1))) {
+            result.add(masked);
+          }
+        }
+        return result;
+      }
+      return data ? literal(node, values) : node;
+    }
+
+    private static JsonNode literal(JsonNode value, List<String> values) {
+      if (values.size() < MAX_SAMPLE_VALUES) {
+        String text = value.toString();
+        values.add(text.length() > MAX_SAMPLE_VALUE_LENGTH ? text.substring(0, MAX_SAMPLE_VALUE_LENGTH) : text);
+      }
+      return MASK;
+    }
+  }
+
+}
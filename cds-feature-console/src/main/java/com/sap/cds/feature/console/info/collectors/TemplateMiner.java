@@ -0,0 +1,265 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Learns message templates from log events, so that a log event can be sent as template id and
+ * arguments. Events logged with a pattern and arguments use their pattern as template. Preformatted
+ * messages are clustered Drain-style: messages with the same number of tokens are merged into a
+ * template, if enough tokens are equal, and the differing tokens become arguments. The number of
+ * templates is bounded, further messages are sent unchanged. Known templates are looked up without
+ * lock, the clusters of a group are matched under the lock of the group, and only the creation of a
+ * template is serialized.
+ */
+final class TemplateMiner {
+
+  static final String WILDCARD = "{}";
+  static final int MAX_TEMPLATES = 1024;
+  static final int MAX_CLUSTERS_PER_GROUP = 64;
+  static final int MAX_TOKENS = 64;
+  static final double SIMILARITY = 0.5;
+
+  private final Map<String, LogTemplate> patterns = new ConcurrentHashMap<>();
+  // groups are only added below the bound of the templates, each group is its own lock
+  private final Map<String, List<LogTemplate>> clusters = new ConcurrentHashMap<>();
+  // guarded by itself for additions
+  private final List<LogTemplate> templates = new CopyOnWriteArrayList<>();
+
+  /**
+   * Match of a log event with a template.
+   *
+   * @param template the template
+   * @param changed whether the template is new or was changed by this event
+   * @param args the arguments of the event
+   */
+  record Match(LogTemplate template, boolean changed, List<String> args) {
+  }
+
+  /**
+   * @param event the log event
+   * @return the match or {@code null}, if the event doesn't fit into the bounded templates
+   */
+  Match match(ILoggingEvent event) {
+    Object[] arguments = event.getArgumentArray();
+    String pattern = event.getMessage();
+    if (pattern == null) {
+      return null;
+    }
+    if (arguments != null && arguments.length > 0) {
+      return matchPattern(pattern, arguments);
+    }
+    return matchCluster(pattern);
+  }
+
+  private Match matchPattern(String pattern, Object[] arguments) {
+    LogTemplate template = patterns.get(pattern);
+    boolean created = false;
+    if (template == null) {
+      synchronized (templates) {
+        template = patterns.get(pattern);
+        if (template == null) {
+          template = newTemplate(pattern);
+          if (template == null) {
+            return null;
+          }
+          patterns.put(pattern, template);
+          created = true;
+        }
+      }
+    }
+    List<String> args = new ArrayList<>(arguments.length);
+    for (Object argument : arguments) {
+      args.add(String.valueOf(argument));
+    }
+    template.count.increment();
+    return new Match(template, created, args);
+  }
+
+  private Match matchCluster(String message) {
+    String[] tokens = message.split(" ");
+    if (tokens.length > MAX_TOKENS) {
+      return null;
+    }
+    for (int i = 0; i < tokens.length; i++) {
+      // tokens with digits are most likely variable, like ids, counts or durations
+      if (hasDigit(tokens[i])) {
+        tokens[i] = WILDCARD;
+      }
+    }
+    String group = tokens.length + " " + tokens[0];
+    List<LogTemplate> candidates = clusters.get(group);
+    if (candidates == null) {
+      // a full miner doesn't learn new groups
+      if (templates.size() >= MAX_TEMPLATES) {
+        return null;
+      }
+      candidates = clusters.computeIfAbsent(group, g -> new ArrayList<>());
+    }
+    synchronized (candidates) {
+      return matchGroup(candidates, tokens, message);
+    }
+  }
+
+  private Match matchGroup(List<LogTemplate> candidates, String[] tokens, String message) {
+    LogTemplate best = null;
+    double bestSimilarity = SIMILARITY;
+    for (LogTemplate candidate : candidates) {
+      double similarity = similarity(candidate.tokens, tokens);
+      if (similarity >= bestSimilarity) {
+        best = candidate;
+        bestSimilarity = similarity;
+      }
+    }
+
+    boolean changed = false;
+    if (best == null) {
+      if (candidates.size() >= MAX_CLUSTERS_PER_GROUP) {
+        return null;
+      }
+      synchronized (templates) {
+        best = newTemplate(String.join(" ", tokens));
+      }
+      if (best == null) {
+        return null;
+      }
+      best.tokens = tokens.clone();
+      candidates.add(best);
+      changed = true;
+    } else {
+      String[] merged = best.tokens.clone();
+      for (int i = 0; i < merged.length; i++) {
+        if (!merged[i].equals(WILDCARD) && !merged[i].equals(tokens[i])) {
+          merged[i] = WILDCARD;
+          changed = true;
+        }
+      }
+      if (changed) {
+        best.tokens = merged;
+        best.pattern = String.join(" ", merged);
+      }
+    }
+
+    String[] original = message.split(" ");
+    List<String> args = new ArrayList<>();
+    for (int i = 0; i < best.tokens.length; i++) {
+      if (best.tokens[i].equals(WILDCARD)) {
+        args.add(original[i]);
+      }
+    }
+    best.count.increment();
+    return new Match(best, changed, args);
+  }
+
+  private static double similarity(String[] template, String[] tokens) {
+    int equal = 0;
+    for (int i = 0; i < template.length; i++) {
+      if (template[i].equals(tokens[i])) {
+        equal++;
+      }
+    }
+    return (double) equal / template.length;
+  }
+
+  private static boolean hasDigit(String token) {
+    for (int i = 0; i < token.length(); i++) {
+      if (Character.isDigit(token.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the new template or {@code null}, if the templates are full; called under the lock of
+   *     the templates
+   */
+  private LogTemplate newTemplate(String pattern) {
+    if (templates.size() >= MAX_TEMPLATES) {
+      return null;
+    }
+    LogTemplate template = new LogTemplate(templates.size(), pattern);
+    templates.add(template);
+    return template;
+  }
+
+  List<LogTemplate> getTemplates() {
+    return templates;
+  }
+
+  int getGroupCount() {
+    return clusters.size();
+  }
+
+  /**
+   * Returns the templates with the highest event rate since the last call.
+   *
+   * @param limit the maximum number of templates
+   * @param now the current {@link System#nanoTime()}
+   * @return the count and rate per template
+   */
+  List<Map<String, Object>> takeStatistics(int limit, long now) {
+    List<Map<String, Object>> statistics = new ArrayList<>();
+    for (LogTemplate template : templates) {
+      long count = template.count.sum();
+      long elapsed = Math.max(now - template.lastStatisticsNanos, 1);
+      double rate = (count - template.lastCount) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+      template.lastCount = count;
+      template.lastStatisticsNanos = now;
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("template", template.id);
+      data.put("count", count);
+      data.put("rate", rate);
+      statistics.add(data);
+    }
+    statistics.sort(Comparator.comparingDouble((Map<String, Object> data) -> (Double) data.get("rate")).reversed());
+    return List.copyOf(statistics.subList(0, Math.min(limit, statistics.size())));
+  }
+
+  /**
+   * Message template, identified by its id. Its pattern uses {@value TemplateMiner#WILDCARD} for arguments.
+   */
+  static final class LogTemplate {
+    private final int id;
+    private final LongAdder count = new LongAdder();
+    private volatile String pattern;
+    // only accessed under the lock of the group of the cluster
+    private String[] tokens;
+    // only accessed by the statistics task
+    private long lastCount;
+    private long lastStatisticsNanos = System.nanoTime();
+
+    private LogTemplate(int id, String pattern) {
+      this.id = id;
+      this.pattern = pattern;
+    }
+
+    int getId() {
+      return id;
+    }
+
+    String getPattern() {
+      return pattern;
+    }
+
+    long getCount() {
+      return count.sum();
+    }
+
+    Map<String, Object> toMap() {
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("template", id);
+      data.put("pattern", pattern);
+      return data;
+    }
+  }
+
+}
@@ -0,0 +1,96 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded buffer of the finished spans of open traces for tail sampling. The spans of a trace are
+ * kept until its local root span ends. Then the whole trace is sampled, if one of its spans was
+ * slower than the latency threshold or failed, and discarded otherwise. If more than
+ * {@link #MAX_BUFFERED_SPANS} spans are buffered, the oldest traces are evicted.
+ */
+final class TraceBuffer {
+
+  static final int MAX_BUFFERED_SPANS = 4096;
+
+  private final Map<String, Trace> traces = new LinkedHashMap<>();
+  private int bufferedSpans;
+  private long evictedTraces;
+
+  /**
+   * Compact record of a finished span.
+   *
+   * @param traceId the trace id
+   * @param spanId the span id
+   * @param parentId the parent span id, or {@code null}
+   * @param name the span name
+   * @param kind the span kind
+   * @param startEpochNanos the start time
+   * @param durationNanos the duration
+   * @param error whether the span status is error
+   * @param localRoot whether the span is the root of the trace in this process
+   * @param attributes the bounded attributes
+   */
+  record SpanRecord(String traceId, String spanId, String parentId, String name, String kind, long startEpochNanos,
+      long durationNanos, boolean error, boolean localRoot, Map<String, String> attributes) {
+
+    Map<String, Object> toMap() {
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("trace_id", traceId);
+      data.put("span_id", spanId);
+      data.put("parent_id", parentId);
+      data.put("name", name);
+      data.put("kind", kind);
+      data.put("start_micros", startEpochNanos / 1000);
+      data.put("duration_micros", durationNanos / 1000);
+      data.put("error", error);
+      data.put("attributes", attributes);
+      return data;
+    }
+  }
+
+  /**
+   * Adds a finished span.
+   *
+   * @param span the span
+   * @param latencyThresholdNanos the latency from which on a trace is sampled
+   * @param sampleErrors whether traces with failed spans are sampled
+   * @return the spans of the trace, if its local root ended and it is sampled, otherwise {@code null}
+   */
+  synchronized List<SpanRecord> add(SpanRecord span, long latencyThresholdNanos, boolean sampleErrors) {
+    Trace trace = traces.computeIfAbsent(span.traceId(), t -> new Trace());
+    trace.spans.add(span);
+    trace.sampled |= span.durationNanos() >= latencyThresholdNanos || sampleErrors && span.error();
+    bufferedSpans++;
+
+    if (span.localRoot()) {
+      traces.remove(span.traceId());
+      bufferedSpans -= trace.spans.size();
+      return trace.sampled ? trace.spans : null;
+    }
+    Iterator<Trace> eldest = traces.values().iterator();
+    while (bufferedSpans > MAX_BUFFERED_SPANS && eldest.hasNext()) {
+      bufferedSpans -= eldest.next().spans.size();
+      eldest.remove();
+      evictedTraces++;
+    }
+    return null;
+  }
+
+  synchronized int getBufferedSpans() {
+    return bufferedSpans;
+  }
+
+  synchronized long getEvictedTraces() {
+    return evictedTraces;
+  }
+
+  private static final class Trace {
+    private final List<SpanRecord> spans = new ArrayList<>();
+    private boolean sampled;
+  }
+
+}
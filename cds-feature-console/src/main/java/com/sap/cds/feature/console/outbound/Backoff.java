@@ -0,0 +1,47 @@
+package com.sap.cds.feature.console.outbound;
+
+import java.util.Random;
+
+/**
+ * Exponential backoff with jitter between reconnects. The ceiling doubles with every attempt from
+ * the minimum to the maximum delay, the delay is drawn from the upper half of the ceiling, so that
+ * many instances, which lost the connection to the same relay, don't reconnect at the same time.
+ */
+final class Backoff {
+
+  private final long minMillis;
+  private final long maxMillis;
+  private final Random random;
+  private int attempts;
+
+  Backoff(long minMillis, long maxMillis, Random random) {
+    this.minMillis = Math.max(minMillis, 1);
+    this.maxMillis = Math.max(maxMillis, this.minMillis);
+    this.random = random;
+  }
+
+  /**
+   * @return the delay of the next attempt in milliseconds
+   */
+  synchronized long next() {
+    long ceiling = maxMillis;
+    // the shift must not overflow
+    if (attempts < Long.numberOfLeadingZeros(minMillis) - 1) {
+      ceiling = Math.min(minMillis << attempts, maxMillis);
+    }
+    attempts++;
+    long half = Math.max(ceiling / 2, 1);
+    return half + (long) (random.nextDouble() * (ceiling - half + 1));
+  }
+
+  synchronized int getAttempts() {
+    return attempts;
+  }
+
+  /**
+   * Starts again with the minimum delay, after a connection was established.
+   */
+  synchronized void reset() {
+    attempts = 0;
+  }
+}
@@ -0,0 +1,295 @@
+package com.sap.cds.feature.console.outbound;
+
+import static com.sap.cds.feature.console.service.RemoteMonitoringConfiguration.COMMAND_ATTACHED;
+
+import com.sap.cds.feature.console.connectivity.CommandDispatcher;
+import com.sap.cds.feature.console.connectivity.EventTransport;
+import com.sap.cds.feature.console.connectivity.OutboundSettings;
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.handshake.ServerHandshake;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the encoded events to a console or relay, to which the plugin connects as WebSocket client,
+ * for instances, which can't be reached through a port. Commands received on the connection are
+ * emitted like the commands of a console connected to the server. Only the events of the
+ * {@link RemoteMonitoringServer#PATH_LOGS} path are sent, restricted to the tenant of the URL like
+ * for a console connected to the server. A lost connection is reopened with exponential backoff
+ * and jitter. In between, the events are buffered in a bounded queue, which drops the oldest events,
+ * and after a reconnect the buffered events are sent at {@link OutboundSettings#resumeRate()}, so
+ * that neither the connection nor the relay is flooded. Events, which are held back while the
+ * connection has a send backlog, are sent as soon as it clears, without the limit of the resume rate.
+ */
+public class OutboundTransport implements EventTransport {
+
+  private static final Logger logger = LoggerFactory.getLogger(OutboundTransport.class);
+  static final int FLUSHES_PER_SECOND = 10;
+  // number of queued frames, from which on events are buffered instead of sent
+  static final int CONGESTED_QUEUE_SIZE = 64;
+  private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+
+  private final OutboundSettings settings;
+  private final RemoteMonitoringService remoteMonitoringService;
+  private final Backoff backoff;
+  private final CommandDispatcher commandDispatcher;
+  private final ScheduledExecutorService scheduler;
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder reconnects = new LongAdder();
+  // events buffered while disconnected, guarded by this
+  private final ArrayDeque<String> backlog = new ArrayDeque<>();
+  // events held back while connected, as the connection has a send backlog, guarded by this
+  private final ArrayDeque<String> pending = new ArrayDeque<>();
+
+  private volatile Client client;
+  private volatile boolean connected;
+  private volatile boolean closed;
+
+  public OutboundTransport(OutboundSettings settings, RemoteMonitoringService remoteMonitoringService) {
+    this.settings = settings;
+    this.remoteMonitoringService = remoteMonitoringService;
+    this.commandDispatcher = new CommandDispatcher(remoteMonitoringService);
+    this.backoff = new Backoff(settings.minBackoff().toMillis(), settings.maxBackoff().toMillis(), new Random());
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "cds-console-outbound");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Opens the connection and starts sending the buffered events.
+   */
+  public void start() {
+    long interval = 1000 / FLUSHES_PER_SECOND;
+    scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    scheduler.execute(this::connect);
+  }
+
+  private void connect() {
+    if (closed) {
+      return;
+    }
+    Map<String, String> headers = new LinkedHashMap<>();
+    if (settings.instance() != null) {
+      headers.put(OutboundSettings.INSTANCE_HEADER, settings.instance());
+    }
+    Client next = new Client(settings.url(), headers);
+    client = next;
+    next.connect();
+  }
+
+  private void reconnect() {
+    if (closed) {
+      return;
+    }
+    long delay = backoff.next();
+    reconnects.increment();
+    logger.debug("Reconnecting to {} in {} ms", settings.url(), delay);
+    scheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Events are buffered while disconnected, so the transport always has a reader of the logs.
+   */
+  @Override
+  public boolean hasClients(String path) {
+    return !closed && RemoteMonitoringServer.PATH_LOGS.equals(path);
+  }
+
+  @Override
+  public boolean accepts(String path, String tenant) {
+    String scope = settings.tenant();
+    return hasClients(path) && (scope == null || tenant == null || scope.equals(tenant));
+  }
+
+  @Override
+  public boolean send(String message, String path, String tenant) {
+    if (!accepts(path, tenant)) {
+      return false;
+    }
+    synchronized (this) {
+      if (!connected) {
+        buffer(backlog, message);
+        return true;
+      }
+      // held back events are sent first, the order of the live events is kept
+      Client c = client;
+      if (sendPending(c) && trySend(c, message)) {
+        return true;
+      }
+      buffer(pending, message);
+    }
+    return true;
+  }
+
+  /**
+   * Sends the held back events as long as the connection has no send backlog, and the events
+   * buffered while disconnected up to the share of the resume rate.
+   */
+  void flush() {
+    if (!connected) {
+      return;
+    }
+    int budget = Math.max(settings.resumeRate() / FLUSHES_PER_SECOND, 1);
+    synchronized (this) {
+      Client c = client;
+      if (!sendPending(c)) {
+        return;
+      }
+      while (budget-- > 0 && !backlog.isEmpty() && trySend(c, backlog.peek())) {
+        backlog.poll();
+      }
+    }
+  }
+
+  // guarded by this, returns true, if all held back events were sent
+  private boolean sendPending(Client c) {
+    while (!pending.isEmpty()) {
+      if (!trySend(c, pending.peek())) {
+        return false;
+      }
+      pending.poll();
+    }
+    return true;
+  }
+
+  private boolean trySend(Client c, String message) {
+    if (queuedFrames(c) >= CONGESTED_QUEUE_SIZE) {
+      return false;
+    }
+    try {
+      c.send(message);
+    } catch (WebsocketNotConnectedException e) {
+      // the connection was just lost, the event is buffered
+      return false;
+    }
+    sent.increment();
+    return true;
+  }
+
+  // guarded by this, the capacity is shared by both queues, the oldest event is dropped
+  private void buffer(ArrayDeque<String> queue, String message) {
+    if (backlog.size() + pending.size() >= settings.queueCapacity()) {
+      (backlog.isEmpty() ? pending : backlog).poll();
+      dropped.increment();
+    }
+    queue.add(message);
+  }
+
+  // the held back events are newer than the buffered ones and are resumed after them
+  private synchronized void disconnected() {
+    connected = false;
+    backlog.addAll(pending);
+    pending.clear();
+  }
+
+  private static int queuedFrames(Client c) {
+    return c != null && c.getConnection() instanceof WebSocketImpl impl ? impl.outQueue.size() : 0;
+  }
+
+  public boolean isConnected() {
+    return connected;
+  }
+
+  /**
+   * @return the number of buffered and held back events
+   */
+  public synchronized int getBacklog() {
+    return backlog.size() + pending.size();
+  }
+
+  @Override
+  public Map<String, Object> getStatistics() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("transport", "outbound");
+    result.put("url", String.valueOf(settings.url()));
+    result.put("connected", connected);
+    result.put("frames_sent", sent.sum());
+    result.put("buffered", getBacklog());
+    result.put("dropped", dropped.sum());
+    result.put("reconnects", reconnects.sum());
+    return result;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    scheduler.shutdownNow();
+    commandDispatcher.close();
+    Client c = client;
+    if (c != null) {
+      c.close();
+    }
+  }
+
+  private final class Client extends WebSocketClient {
+
+    // whether the connection was established, for the log of its close
+    private boolean opened;
+
+    Client(URI url, Map<String, String> headers) {
+      super(url, new Draft_6455(), headers, CONNECT_TIMEOUT_MILLIS);
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshake) {
+      logger.info("Connected to CAP console relay {} with {} buffered events", settings.url(), getBacklog());
+      backoff.reset();
+      opened = true;
+      connected = true;
+      // the console behind the relay may be new, so the collectors send their current state again
+      remoteMonitoringService.emit(CommandEventContext.create(COMMAND_ATTACHED));
+    }
+
+    @Override
+    public void onMessage(String message) {
+      logger.debug("received message from {}: {}", settings.url(), message);
+      try {
+        commandDispatcher.dispatch(this, message);
+      } catch (Exception e) {
+        logger.warn("Failed to parse or emit CommandEvent: {}", e.getMessage(), e);
+      }
+    }
+
+    @Override
+    public void onMessage(ByteBuffer bytes) {
+      logger.debug("received ByteBuffer from {}", settings.url());
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+      if (client == this) {
+        disconnected();
+      }
+      if (opened) {
+        logger.info("Connection to CAP console relay {} closed with {} {}", settings.url(), code, reason);
+      } else {
+        logger.debug("Failed to connect to CAP console relay {}: {} {}", settings.url(), code, reason);
+      }
+      reconnect();
+    }
+
+    @Override
+    public void onError(Exception ex) {
+      logger.debug("Error on the connection to CAP console relay {}: {}", settings.url(), ex.getMessage());
+    }
+  }
+}
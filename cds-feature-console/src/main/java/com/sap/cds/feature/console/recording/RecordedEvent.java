@@ -0,0 +1,12 @@
+package com.sap.cds.feature.console.recording;
+
+/**
+ * Encoded event of a recording.
+ *
+ * @param timestamp the time the event was sent, in epoch milliseconds
+ * @param path the server path the event was sent to
+ * @param tenant the tenant of the event, or {@code null}
+ * @param message the encoded event
+ */
+public record RecordedEvent(long timestamp, String path, String tenant, String message) {
+}
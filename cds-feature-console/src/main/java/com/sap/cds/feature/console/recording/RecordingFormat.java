@@ -0,0 +1,30 @@
+package com.sap.cds.feature.console.recording;
+
+/**
+ * Layout of a recording file. After the header, the events are written in deflate-compressed
+ * blocks, each preceded by its lengths, its number of events and its first and last timestamp:
+ *
+ * <pre>
+ * header  := MAGIC:int VERSION:int
+ * block   := uncompressed:int compressed:int events:int first:long last:long data:byte[compressed]
+ * event   := timestamp:long path:utf tenant:utf length:int message:byte[length]
+ * index   := (offset:long events:int first:long last:long)*
+ * trailer := indexOffset:long blocks:int MAGIC:int
+ * </pre>
+ *
+ * <p>The index of all blocks and the trailer are written when the recording is closed. Files
+ * without trailer, e.g. after a crash, are read by scanning the blocks.
+ */
+final class RecordingFormat {
+
+  static final int MAGIC = 0x43415052;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 8;
+  static final int BLOCK_HEADER_SIZE = 28;
+  static final int INDEX_ENTRY_SIZE = 28;
+  static final int TRAILER_SIZE = 16;
+
+  private RecordingFormat() {
+  }
+
+}
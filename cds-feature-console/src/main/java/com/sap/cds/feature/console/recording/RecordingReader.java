@@ -0,0 +1,179 @@
+package com.sap.cds.feature.console.recording;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a recording file written by the {@link RecordingWriter}. The blocks are located with the
+ * index at the end of the file or, if the recording wasn't closed, by scanning the file. Blocks
+ * are decompressed one at a time, so recordings of any size can be read.
+ */
+public class RecordingReader implements AutoCloseable {
+
+  private final FileChannel channel;
+  private final List<Block> blocks;
+
+  /**
+   * Compressed block of events.
+   *
+   * @param offset the position of the block in the file
+   * @param events the number of events
+   * @param first the timestamp of the first event
+   * @param last the timestamp of the last event
+   */
+  public record Block(long offset, int events, long first, long last) {
+  }
+
+  private RecordingReader(FileChannel channel) throws IOException {
+    this.channel = channel;
+    ByteBuffer header = read(0, RecordingFormat.HEADER_SIZE);
+    if (header.getInt() != RecordingFormat.MAGIC || header.getInt() != RecordingFormat.VERSION) {
+      throw new IOException("Not a recording of a supported version");
+    }
+    List<Block> indexed = readIndex();
+    this.blocks = Collections.unmodifiableList(indexed != null ? indexed : scan());
+  }
+
+  public static RecordingReader open(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      return new RecordingReader(channel);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  public List<Block> getBlocks() {
+    return blocks;
+  }
+
+  /**
+   * @param timestamp the timestamp in epoch milliseconds
+   * @return the index of the first block with events at or after the timestamp, or the number of
+   *     blocks if there is none
+   */
+  public int findBlock(long timestamp) {
+    int low = 0;
+    int high = blocks.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (blocks.get(middle).last() < timestamp) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * @param block the block
+   * @return the events of the block
+   * @throws IOException if the block can't be read or is corrupted
+   */
+  public List<RecordedEvent> read(Block block) throws IOException {
+    ByteBuffer header = read(block.offset(), RecordingFormat.BLOCK_HEADER_SIZE);
+    int uncompressed = header.getInt();
+    int compressed = header.getInt();
+    ByteBuffer data = read(block.offset() + RecordingFormat.BLOCK_HEADER_SIZE, compressed);
+
+    byte[] events = new byte[uncompressed];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(data);
+      int length = 0;
+      while (length < uncompressed && !inflater.finished()) {
+        int inflated = inflater.inflate(events, length, uncompressed - length);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("Truncated block at " + block.offset());
+        }
+        length += inflated;
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupted block at " + block.offset(), e);
+    } finally {
+      inflater.end();
+    }
+
+    List<RecordedEvent> result = new ArrayList<>(block.events());
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(events));
+    for (int i = 0; i < block.events(); i++) {
+      long timestamp = in.readLong();
+      String path = in.readUTF();
+      String tenant = in.readUTF();
+      byte[] message = new byte[in.readInt()];
+      in.readFully(message);
+      result.add(new RecordedEvent(timestamp, path, tenant.isEmpty() ? null : tenant, new String(message, StandardCharsets.UTF_8)));
+    }
+    return result;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private List<Block> readIndex() throws IOException {
+    long size = channel.size();
+    if (size < RecordingFormat.HEADER_SIZE + RecordingFormat.TRAILER_SIZE) {
+      return null;
+    }
+    ByteBuffer trailer = read(size - RecordingFormat.TRAILER_SIZE, RecordingFormat.TRAILER_SIZE);
+    long indexOffset = trailer.getLong();
+    int count = trailer.getInt();
+    if (trailer.getInt() != RecordingFormat.MAGIC || count < 0
+        || indexOffset + (long) count * RecordingFormat.INDEX_ENTRY_SIZE + RecordingFormat.TRAILER_SIZE != size) {
+      return null;
+    }
+    ByteBuffer index = read(indexOffset, count * RecordingFormat.INDEX_ENTRY_SIZE);
+    List<Block> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(new Block(index.getLong(), index.getInt(), index.getLong(), index.getLong()));
+    }
+    return result;
+  }
+
+  private List<Block> scan() throws IOException {
+    List<Block> result = new ArrayList<>();
+    long size = channel.size();
+    long position = RecordingFormat.HEADER_SIZE;
+    while (position + RecordingFormat.BLOCK_HEADER_SIZE <= size) {
+      ByteBuffer header = read(position, RecordingFormat.BLOCK_HEADER_SIZE);
+      header.getInt();
+      int compressed = header.getInt();
+      int events = header.getInt();
+      long next = position + RecordingFormat.BLOCK_HEADER_SIZE + compressed;
+      if (compressed < 0 || events < 0 || next > size) {
+        // the last block was written incompletely
+        break;
+      }
+      result.add(new Block(position, events, header.getLong(), header.getLong()));
+      position = next;
+    }
+    return result;
+  }
+
+  private ByteBuffer read(long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("Unexpected end of recording at " + (position + buffer.position()));
+      }
+    }
+    return buffer.flip();
+  }
+
+}
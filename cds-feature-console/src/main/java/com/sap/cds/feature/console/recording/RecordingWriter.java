@@ -0,0 +1,249 @@
+package com.sap.cds.feature.console.recording;
+
+import com.sap.cds.feature.console.recording.RecordingReader.Block;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes encoded events to a recording file in the {@link RecordingFormat}. Events are only queued
+ * by the sending threads and written by a background thread, which compresses them in blocks of up
+ * to {@value #BLOCK_SIZE} bytes or {@link #FLUSH_INTERVAL}. Events are dropped, if the queue is
+ * full, and the recording ends, once the file reaches its maximum size.
+ */
+public class RecordingWriter implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(RecordingWriter.class);
+
+  static final int QUEUE_CAPACITY = 16_384;
+  static final int BLOCK_SIZE = 256 * 1024;
+  static final Duration FLUSH_INTERVAL = Duration.ofSeconds(1);
+  private static final long POLL_MILLIS = 100;
+
+  private final Path file;
+  private final long maxBytes;
+  private final BlockingQueue<RecordedEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final LongAdder dropped = new LongAdder();
+  private final Thread thread;
+  private volatile boolean stopping;
+  private volatile boolean limitReached;
+  private volatile long recorded;
+  private volatile long bytesWritten;
+  private volatile IOException failure;
+
+  // only accessed by the writer thread
+  private final DataOutputStream output;
+  private final List<Block> index = new ArrayList<>();
+  private final ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_SIZE + BLOCK_SIZE / 4);
+  private final DataOutputStream blockOutput = new DataOutputStream(block);
+  private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+  private byte[] compressed = new byte[BLOCK_SIZE];
+  private long position;
+  private int blockEvents;
+  private long blockFirst;
+  private long blockLast;
+  private long blockStarted;
+
+  private RecordingWriter(Path file, long maxBytes, DataOutputStream output) {
+    this.file = file;
+    this.maxBytes = maxBytes;
+    this.output = output;
+    this.thread = new Thread(this::run, "cap-console-recording");
+    this.thread.setDaemon(true);
+  }
+
+  /**
+   * Creates the recording file and starts the background writer.
+   *
+   * @param file the file, which must not exist
+   * @param maxBytes the maximum size of the file
+   * @return the writer
+   * @throws IOException if the file can't be created
+   */
+  public static RecordingWriter start(Path file, long maxBytes) throws IOException {
+    DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE_NEW)));
+    RecordingWriter writer = new RecordingWriter(file, maxBytes, output);
+    writer.thread.start();
+    return writer;
+  }
+
+  /**
+   * Queues an event. Never blocks.
+   *
+   * @param path the server path of the event
+   * @param tenant the tenant of the event, or {@code null}
+   * @param message the encoded event
+   * @return {@code true}, if the event is queued
+   */
+  public boolean record(String path, String tenant, String message) {
+    if (!isActive()) {
+      return false;
+    }
+    if (!queue.offer(new RecordedEvent(System.currentTimeMillis(), path, tenant, message))) {
+      dropped.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Writes the queued events, the index and the trailer and closes the file.
+   *
+   * @throws IOException if writing failed
+   */
+  @Override
+  public void close() throws IOException {
+    stopping = true;
+    try {
+      thread.join(TimeUnit.SECONDS.toMillis(30));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * @return {@code true}, if events are recorded, i.e. the recording is neither closed, nor at its
+   *     maximum size, nor failed
+   */
+  public boolean isActive() {
+    return !stopping && !limitReached && failure == null;
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  public long getRecorded() {
+    return recorded;
+  }
+
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  /**
+   * @return {@code true}, if the recording ended as the file reached its maximum size
+   */
+  public boolean isLimitReached() {
+    return limitReached;
+  }
+
+  private void run() {
+    try (DataOutputStream out = output) {
+      out.writeInt(RecordingFormat.MAGIC);
+      out.writeInt(RecordingFormat.VERSION);
+      position = RecordingFormat.HEADER_SIZE;
+      while (!limitReached) {
+        RecordedEvent event = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (event != null) {
+          append(event);
+        } else if (stopping) {
+          break;
+        }
+        if (block.size() >= BLOCK_SIZE
+            || blockEvents > 0 && System.nanoTime() - blockStarted >= FLUSH_INTERVAL.toNanos()) {
+          writeBlock(out);
+        }
+        if (position >= maxBytes) {
+          limitReached = true;
+          logger.info("Recording {} reached its maximum size", file);
+        }
+      }
+      writeBlock(out);
+      writeIndex(out);
+    } catch (IOException e) {
+      failure = e;
+      logger.warn("Failed to write recording {}: {}", file, e.getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      deflater.end();
+      queue.clear();
+    }
+  }
+
+  private void append(RecordedEvent event) throws IOException {
+    if (blockEvents == 0) {
+      blockFirst = event.timestamp();
+      blockStarted = System.nanoTime();
+    }
+    byte[] message = event.message().getBytes(StandardCharsets.UTF_8);
+    blockOutput.writeLong(event.timestamp());
+    blockOutput.writeUTF(event.path());
+    blockOutput.writeUTF(event.tenant() != null ? event.tenant() : "");
+    blockOutput.writeInt(message.length);
+    blockOutput.write(message);
+    blockLast = event.timestamp();
+    blockEvents++;
+    recorded++;
+  }
+
+  private void writeBlock(DataOutputStream out) throws IOException {
+    if (blockEvents == 0) {
+      return;
+    }
+    byte[] data = block.toByteArray();
+    deflater.reset();
+    deflater.setInput(data);
+    deflater.finish();
+    int length = 0;
+    while (!deflater.finished()) {
+      if (length == compressed.length) {
+        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+      }
+      length += deflater.deflate(compressed, length, compressed.length - length);
+    }
+
+    index.add(new Block(position, blockEvents, blockFirst, blockLast));
+    out.writeInt(data.length);
+    out.writeInt(length);
+    out.writeInt(blockEvents);
+    out.writeLong(blockFirst);
+    out.writeLong(blockLast);
+    out.write(compressed, 0, length);
+    out.flush();
+    position += RecordingFormat.BLOCK_HEADER_SIZE + length;
+    bytesWritten = position;
+    block.reset();
+    blockEvents = 0;
+  }
+
+  private void writeIndex(DataOutputStream out) throws IOException {
+    long indexOffset = position;
+    for (Block entry : index) {
+      out.writeLong(entry.offset());
+      out.writeInt(entry.events());
+      out.writeLong(entry.first());
+      out.writeLong(entry.last());
+    }
+    out.writeLong(indexOffset);
+    out.writeInt(index.size());
+    out.writeInt(RecordingFormat.MAGIC);
+    position += (long) index.size() * RecordingFormat.INDEX_ENTRY_SIZE + RecordingFormat.TRAILER_SIZE;
+    bytesWritten = position;
+  }
+
+}
@@ -0,0 +1,109 @@
+package com.sap.cds.feature.console.recording;
+
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringHandler;
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.recording.RecordingReader.Block;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.runtime.CdsRuntimeConfigurer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Replays a recording into a local {@link RemoteMonitoringServer}, e.g. to analyze a production
+ * session offline or to generate a realistic load for performance tests. The events are sent in
+ * their recorded order, at their original pace multiplied by the speed factor, or as fast as
+ * possible with speed 0.
+ *
+ * <pre>
+ * java -cp ... com.sap.cds.feature.console.recording.SessionReplay &lt;file&gt; [--speed=&lt;factor&gt;] [--loop] [--wait-for-client]
+ * </pre>
+ */
+public final class SessionReplay {
+
+  private static final String USAGE = "Usage: SessionReplay <file> [--speed=<factor>] [--loop] [--wait-for-client]";
+
+  private SessionReplay() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length == 0) {
+      System.err.println(USAGE);
+      return;
+    }
+    Path file = Path.of(args[0]);
+    double speed = 1;
+    boolean loop = false;
+    boolean waitForClient = false;
+    for (int i = 1; i < args.length; i++) {
+      if (args[i].startsWith("--speed=")) {
+        speed = Math.max(Double.parseDouble(args[i].substring("--speed=".length())), 0);
+      } else if ("--loop".equals(args[i])) {
+        loop = true;
+      } else if ("--wait-for-client".equals(args[i])) {
+        waitForClient = true;
+      } else {
+        System.err.println(USAGE);
+        return;
+      }
+    }
+
+    CdsRuntimeConfigurer configurer = CdsRuntimeConfigurer.create().serviceConfigurations();
+    RemoteMonitoringService service = configurer.getCdsRuntime().getServiceCatalog()
+        .getService(RemoteMonitoringService.class, RemoteMonitoringService.DEFAULT_NAME);
+    RemoteMonitoringServer server = service.getRemoteMonitoringServer();
+    // only the handler of the server, no collectors, so that the recorded events are sent unchanged
+    configurer.eventHandler(new RemoteMonitoringHandler(server));
+    configurer.complete();
+    System.out.printf("Replaying %s on ws://localhost:%d%s%n", file, server.getPort(), RemoteMonitoringServer.PATH_LOGS);
+
+    while (waitForClient && !server.hasClients(RemoteMonitoringServer.PATH_LOGS)) {
+      TimeUnit.MILLISECONDS.sleep(100);
+    }
+    try (RecordingReader reader = RecordingReader.open(file)) {
+      do {
+        long start = System.nanoTime();
+        long events = replay(reader, speed, event -> server.broadcastToPath(event.message(), event.path(), event.tenant()));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Replayed %d events in %.1f s (%.0f events/s)%n", events, seconds, events / Math.max(seconds, 1e-9));
+      } while (loop);
+    }
+    server.stop();
+    System.exit(0);
+  }
+
+  /**
+   * Sends the events of a recording in their recorded order and pace.
+   *
+   * @param reader the recording
+   * @param speed the factor applied to the original pace, or 0 to send as fast as possible
+   * @param sink the receiver of the events
+   * @return the number of sent events
+   * @throws IOException if the recording can't be read
+   * @throws InterruptedException if the thread was interrupted while waiting for the next event
+   */
+  static long replay(RecordingReader reader, double speed, Consumer<RecordedEvent> sink) throws IOException, InterruptedException {
+    long events = 0;
+    long first = Long.MIN_VALUE;
+    long start = System.nanoTime();
+    for (Block block : reader.getBlocks()) {
+      for (RecordedEvent event : reader.read(block)) {
+        if (first == Long.MIN_VALUE) {
+          first = event.timestamp();
+        }
+        if (speed > 0) {
+          long wait = start + (long) (TimeUnit.MILLISECONDS.toNanos(event.timestamp() - first) / speed) - System.nanoTime();
+          if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+          }
+        }
+        sink.accept(event);
+        events++;
+      }
+    }
+    return events;
+  }
+
+}
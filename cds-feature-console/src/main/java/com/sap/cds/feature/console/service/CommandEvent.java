@@ -6,6 +6,8 @@ import java.util.Map;
 public class CommandEvent {
 
   private String command;
+  // the request id, only set by clients, which expect a reply
+  private String id;
   private Map<String, Object> data;
 
   public CommandEvent() {
@@ -22,6 +24,14 @@ public class CommandEvent {
     return command;
   }
 
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
   @JsonAnySetter
   public void setData(Map<String, Object> data) {
     this.data = data;
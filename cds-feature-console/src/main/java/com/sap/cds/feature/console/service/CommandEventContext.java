@@ -21,4 +21,24 @@ public interface CommandEventContext extends EventContext {
 
   Map<String, Object> getData();
 
+  /**
+   * @return the id of the request, which is echoed in the replies, or {@code null} for a command
+   *     without reply
+   */
+  String getRequestId();
+
+  void setRequestId(String requestId);
+
+  /**
+   * @return the result of the command, which is replied to the requesting client
+   */
+  Object getResult();
+
+  /**
+   * Sets the result of a request. List results are replied in chunks.
+   *
+   * @param result the result
+   */
+  void setResult(Object result);
+
 }
@@ -0,0 +1,85 @@
+package com.sap.cds.feature.console.service;
+
+import com.sap.cds.services.handler.annotations.On;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The console commands, computed once from the {@link On} annotations of the command handlers of
+ * the plugin. Commands with a request id are still emitted on the service, so that all handlers of
+ * the plugin and of the application receive them, but unknown commands in the namespaces of the
+ * plugin, like {@code logging/}, are rejected with an error reply to the requesting client before
+ * they are emitted. Commands in other namespaces are left to the handlers of the application.
+ */
+public final class CommandRegistry {
+
+  private final Set<String> commands;
+  private final Set<String> namespaces;
+
+  private CommandRegistry(Set<String> commands) {
+    this.commands = commands;
+    this.namespaces = commands.stream().map(CommandRegistry::namespace).collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * Collects the commands of the command handlers of the given objects, the methods annotated with
+   * {@link On}, which handle a {@link CommandEventContext}.
+   *
+   * @param handlers the handler objects
+   * @return the registry
+   */
+  public static CommandRegistry of(List<?> handlers) {
+    Set<String> commands = new LinkedHashSet<>();
+    for (Object handler : handlers) {
+      for (Class<?> type = handler.getClass(); type != Object.class; type = type.getSuperclass()) {
+        for (Method method : type.getDeclaredMethods()) {
+          On on = method.getAnnotation(On.class);
+          if (on == null || !isCommandHandler(method)) {
+            continue;
+          }
+          for (String command : on.event()) {
+            if (!command.isEmpty() && !"*".equals(command)) {
+              commands.add(command);
+            }
+          }
+        }
+      }
+    }
+    return new CommandRegistry(Collections.unmodifiableSet(commands));
+  }
+
+  private static boolean isCommandHandler(Method method) {
+    Class<?>[] parameters = method.getParameterTypes();
+    return parameters.length == 0 || parameters.length == 1 && parameters[0] == CommandEventContext.class;
+  }
+
+  /**
+   * @return the registered commands
+   */
+  public Set<String> getCommands() {
+    return commands;
+  }
+
+  public boolean isRegistered(String command) {
+    return commands.contains(command);
+  }
+
+  /**
+   * @param command the command
+   * @return {@code true}, if the command is missing or in a namespace of the plugin, but not handled
+   *     by it
+   */
+  public boolean isUnknown(String command) {
+    return command == null || !commands.contains(command) && namespaces.contains(namespace(command));
+  }
+
+  private static String namespace(String command) {
+    int slash = command.indexOf('/');
+    return slash >= 0 ? command.substring(0, slash) : "";
+  }
+
+}
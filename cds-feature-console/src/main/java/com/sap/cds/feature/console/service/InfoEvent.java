@@ -9,6 +9,17 @@ import java.util.Map;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public interface InfoEvent extends CdsData {
 
+  /**
+   * Form of a log event, which carries the formatted message.
+   */
+  String FORM_TEXT = "text";
+
+  /**
+   * Form of a log event, which carries a template id and its arguments, and of the template
+   * definitions and statistics.
+   */
+  String FORM_TEMPLATE = "template";
+
   String getPath();
 
   void setPath(String path);
@@ -17,6 +28,22 @@ public interface InfoEvent extends CdsData {
 
   void setData(Map<String, Object> data);
 
+  /**
+   * @return the tenant of the request, which produced the event, or {@code null} if the event is not tenant-specific
+   */
+  String getTenant();
+
+  void setTenant(String tenant);
+
+  /**
+   * @return the form of the event, {@link #FORM_TEXT} or {@link #FORM_TEMPLATE}, which restricts
+   *     the event to the clients receiving log messages in this form, or {@code null} if the event
+   *     is sent to all clients
+   */
+  String getForm();
+
+  void setForm(String form);
+
   static InfoEvent create() {
     InfoEvent event = Struct.create(InfoEvent.class);
     event.put("path", "unknown");
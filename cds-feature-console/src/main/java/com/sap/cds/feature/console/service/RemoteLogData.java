@@ -1,5 +1,7 @@
 package com.sap.cds.feature.console.service;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -16,6 +18,11 @@ public final class RemoteLogData {
   private final Object message;
   // timestamp in milliseconds
   private final long ts;
+  // id of the message template, the message is then sent as template arguments
+  private final Integer template;
+  private final List<String> args;
+  // OpenTelemetry trace id of the log event, links it to the spans of the trace
+  private final String traceId;
 
   private RemoteLogData(Builder builder) {
     this.level = builder.level;
@@ -24,6 +31,9 @@ public final class RemoteLogData {
     this.type = builder.type;
     this.message = builder.message;
     this.ts = builder.ts;
+    this.template = builder.template;
+    this.args = builder.args;
+    this.traceId = builder.traceId;
   }
 
   public static class Builder {
@@ -33,6 +43,9 @@ public final class RemoteLogData {
     private String type;
     private Object message;
     private long ts;
+    private Integer template;
+    private List<String> args;
+    private String traceId;
 
     public Builder level(String level) {
       this.level = level;
@@ -69,12 +82,26 @@ public final class RemoteLogData {
       return this;
     }
 
+    public Builder template(Integer template, List<String> args) {
+      this.template = template;
+      this.args = args;
+
+      return this;
+    }
+
+    public Builder traceId(String traceId) {
+      this.traceId = traceId;
+
+      return this;
+    }
+
     public RemoteLogData build() {
       // sensible defaults for null or empty fields.
       level = isNullOrEmpty(level) ? "INFO" : level.toUpperCase();
       logger = isNullOrEmpty(logger) ? "unknown" : logger;
       thread = isNullOrEmpty(thread) ? "main" : thread;
       type = isNullOrEmpty(type) ? "log" : type;
+      traceId = isNullOrEmpty(traceId) ? null : traceId;
       message = (message == null) ? "" : message;
       ts = ts == 0 ? System.currentTimeMillis() : ts;
 
@@ -87,6 +114,23 @@ public final class RemoteLogData {
   }
 
   public Map<String, Object> toMap() {
+    if (template != null || traceId != null) {
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("level", level);
+      data.put("logger", logger);
+      data.put("thread", thread);
+      data.put("type", type);
+      data.put("message", message);
+      data.put("ts", ts);
+      if (template != null) {
+        data.put("template", template);
+        data.put("args", args);
+      }
+      if (traceId != null) {
+        data.put("trace_id", traceId);
+      }
+      return data;
+    }
     return Map.of(
         "level", level,
         "logger", logger,
@@ -1,9 +1,24 @@
 package com.sap.cds.feature.console.service;
 
+import com.sap.cds.feature.console.connectivity.CompressionSettings;
+import com.sap.cds.feature.console.connectivity.OutboundSettings;
 import com.sap.cds.feature.console.connectivity.RemoteMonitoringHandler;
+import com.sap.cds.feature.console.connectivity.SharedMemorySettings;
+import com.sap.cds.feature.console.info.collectors.InboundRequestCollector;
 import com.sap.cds.feature.console.info.collectors.LogCollector;
+import com.sap.cds.feature.console.info.collectors.OutboundCallCollector;
+import com.sap.cds.feature.console.info.collectors.PoolSaturationCollector;
+import com.sap.cds.feature.console.info.collectors.ResourceUsageCollector;
+import com.sap.cds.feature.console.info.collectors.SelfMetricsCollector;
+import com.sap.cds.feature.console.info.collectors.SessionRecordingCollector;
+import com.sap.cds.feature.console.info.collectors.SpanCollector;
+import com.sap.cds.feature.console.info.collectors.StatementCollector;
+import com.sap.cds.services.environment.CdsEnvironment;
+import com.sap.cds.services.handler.EventHandler;
 import com.sap.cds.services.runtime.CdsRuntimeConfiguration;
 import com.sap.cds.services.runtime.CdsRuntimeConfigurer;
+import java.util.ArrayList;
+import java.util.List;
 
 public class RemoteMonitoringConfiguration implements CdsRuntimeConfiguration {
 
@@ -19,15 +34,47 @@ public class RemoteMonitoringConfiguration implements CdsRuntimeConfiguration {
   @Override
   public void services(CdsRuntimeConfigurer configurer) {
     remoteMonitoringService = new RemoteMonitoringServiceImpl();
-    remoteMonitoringService.startRemoteMonitoringServer();
+    CdsEnvironment environment = configurer.getCdsRuntime().getEnvironment();
+    SharedMemorySettings sharedMemory = SharedMemorySettings.fromEnvironment(environment);
+    OutboundSettings outbound = OutboundSettings.fromEnvironment(environment);
+    if (sharedMemory.enabled()) {
+      remoteMonitoringService.startSharedMemoryTransport(sharedMemory);
+    } else if (outbound.enabled()) {
+      remoteMonitoringService.startOutboundTransport(outbound);
+    } else {
+      remoteMonitoringService.startRemoteMonitoringServer(CompressionSettings.fromEnvironment(environment));
+    }
     configurer.service(remoteMonitoringService);
   }
 
   @Override
   public void eventHandlers(CdsRuntimeConfigurer configurer) {
     if (remoteMonitoringService != null) {
-      configurer.eventHandler(new RemoteMonitoringHandler(remoteMonitoringService.getRemoteMonitoringServer()));
-      configurer.eventHandler(new LogCollector(configurer.getCdsRuntime(), remoteMonitoringService));
+      List<EventHandler> handlers = new ArrayList<>();
+      handlers.add(new RemoteMonitoringHandler(remoteMonitoringService.getRemoteMonitoringServer()));
+      handlers.add(new LogCollector(configurer.getCdsRuntime(), remoteMonitoringService));
+      handlers.add(new StatementCollector(configurer.getCdsRuntime(), remoteMonitoringService));
+      handlers.add(new InboundRequestCollector(configurer.getCdsRuntime(), remoteMonitoringService));
+      handlers.add(new OutboundCallCollector(configurer.getCdsRuntime(), remoteMonitoringService));
+      handlers.add(new ResourceUsageCollector(configurer.getCdsRuntime(), remoteMonitoringService));
+      handlers.add(new PoolSaturationCollector(configurer.getCdsRuntime(), remoteMonitoringService));
+      handlers.add(new SessionRecordingCollector(configurer.getCdsRuntime(), remoteMonitoringService));
+      handlers.add(new SelfMetricsCollector(configurer.getCdsRuntime(), remoteMonitoringService));
+      if (isOpenTelemetryPresent()) {
+        handlers.add(new SpanCollector(configurer.getCdsRuntime(), remoteMonitoringService));
+      }
+      handlers.forEach(configurer::eventHandler);
+      // the commands of the plugin, to reject unknown commands with request id in its namespaces, are collected once
+      remoteMonitoringService.setCommandRegistry(CommandRegistry.of(handlers));
+    }
+  }
+
+  private static boolean isOpenTelemetryPresent() {
+    try {
+      Class.forName("io.opentelemetry.sdk.trace.SpanProcessor", false, RemoteMonitoringConfiguration.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
     }
   }
 
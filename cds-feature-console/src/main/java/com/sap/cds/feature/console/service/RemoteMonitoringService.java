@@ -1,6 +1,12 @@
 package com.sap.cds.feature.console.service;
 
+import com.sap.cds.feature.console.connectivity.CompressionSettings;
+import com.sap.cds.feature.console.connectivity.OutboundSettings;
 import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.connectivity.SharedMemorySettings;
+import com.sap.cds.feature.console.info.CollectionScheduler;
+import com.sap.cds.feature.console.info.PipelineMetrics;
+import com.sap.cds.feature.console.info.PressureGovernor;
 import com.sap.cds.services.Service;
 
 public interface RemoteMonitoringService extends Service {
@@ -14,6 +20,42 @@ public interface RemoteMonitoringService extends Service {
 
   RemoteMonitoringServer getRemoteMonitoringServer();
 
-  void startRemoteMonitoringServer();
+  default void startRemoteMonitoringServer() {
+    startRemoteMonitoringServer(CompressionSettings.DEFAULT);
+  }
+
+  void startRemoteMonitoringServer(CompressionSettings compression);
+
+  /**
+   * Writes the events to a shared memory ring buffer instead of starting the WebSocket server, so
+   * that no port is opened. The {@link #getRemoteMonitoringServer() server} is created, but not
+   * started.
+   *
+   * @param settings the settings of the ring buffer
+   */
+  void startSharedMemoryTransport(SharedMemorySettings settings);
+
+  /**
+   * Connects to a console or relay as WebSocket client instead of starting the WebSocket server, for
+   * instances, which can't be reached through a port. The {@link #getRemoteMonitoringServer()
+   * server} is created, but not started.
+   *
+   * @param settings the settings of the outbound connection
+   */
+  void startOutboundTransport(OutboundSettings settings);
+
+  /**
+   * @return the commands of the plugin, to reject unknown commands with request id in its
+   *     namespaces, or {@code null}, before the event handlers are registered
+   */
+  CommandRegistry getCommandRegistry();
+
+  void setCommandRegistry(CommandRegistry commandRegistry);
+
+  CollectionScheduler getCollectionScheduler();
+
+  PipelineMetrics getPipelineMetrics();
+
+  PressureGovernor getPressureGovernor();
 
 }
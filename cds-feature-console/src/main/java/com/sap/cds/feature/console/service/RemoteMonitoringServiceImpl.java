@@ -1,8 +1,18 @@
 package com.sap.cds.feature.console.service;
 
+import com.sap.cds.feature.console.connectivity.CompressionSettings;
+import com.sap.cds.feature.console.connectivity.OutboundSettings;
 import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.connectivity.SharedMemorySettings;
+import com.sap.cds.feature.console.info.CollectionScheduler;
+import com.sap.cds.feature.console.info.PipelineMetrics;
+import com.sap.cds.feature.console.info.PressureGovernor;
+import com.sap.cds.feature.console.outbound.OutboundTransport;
+import com.sap.cds.feature.console.sharedmemory.SharedMemoryTransport;
 import com.sap.cds.services.ServiceDelegator;
 import com.sap.cds.services.application.ApplicationLifecycleService;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -17,9 +27,16 @@ public class RemoteMonitoringServiceImpl extends ServiceDelegator
   private static final int PREFERRED_PORT = 54953;
   private static final int MAX_RANDOM_RETRIES = 10;
   private RemoteMonitoringServer remoteMonitoringServer;
+  private final CollectionScheduler collectionScheduler;
+  private final PipelineMetrics pipelineMetrics = new PipelineMetrics();
+  private final PressureGovernor pressureGovernor = new PressureGovernor();
+  private CompressionSettings compression = CompressionSettings.DEFAULT;
+  private volatile CommandRegistry commandRegistry;
 
   protected RemoteMonitoringServiceImpl() {
     super(RemoteMonitoringService.DEFAULT_NAME);
+    this.collectionScheduler = new CollectionScheduler(
+        () -> remoteMonitoringServer != null && remoteMonitoringServer.isCongested());
   }
 
   @Override
@@ -40,12 +57,38 @@ public class RemoteMonitoringServiceImpl extends ServiceDelegator
     return remoteMonitoringServer;
   }
 
+  @Override
+  public CommandRegistry getCommandRegistry() {
+    return commandRegistry;
+  }
+
+  @Override
+  public void setCommandRegistry(CommandRegistry commandRegistry) {
+    this.commandRegistry = commandRegistry;
+  }
+
+  @Override
+  public CollectionScheduler getCollectionScheduler() {
+    return collectionScheduler;
+  }
+
+  @Override
+  public PipelineMetrics getPipelineMetrics() {
+    return pipelineMetrics;
+  }
+
+  @Override
+  public PressureGovernor getPressureGovernor() {
+    return pressureGovernor;
+  }
+
   /**
    * Attempts to start the remote monitoring server on a specific port. If unsuccessful, will retry
    * on random ports. Adds a shutdown hook to stop the server.
    */
   @Override
-  public void startRemoteMonitoringServer() {
+  public void startRemoteMonitoringServer(CompressionSettings compression) {
+    this.compression = compression;
     if (remoteMonitoringServer != null) {
       logger.warn("RemoteMonitoringServer already started");
       return;
@@ -69,6 +112,44 @@ public class RemoteMonitoringServiceImpl extends ServiceDelegator
     addShutdownHook();
   }
 
+  @Override
+  public void startSharedMemoryTransport(SharedMemorySettings settings) {
+    if (remoteMonitoringServer != null) {
+      logger.warn("RemoteMonitoringServer already started");
+      return;
+    }
+    SharedMemoryTransport transport;
+    try {
+      transport = SharedMemoryTransport.create(settings.file(), settings.capacity());
+    } catch (IOException e) {
+      logger.error("Failed to create shared memory transport {}: {}", settings.file(), e.getMessage(), e);
+      return;
+    }
+    // the server isn't started, no port is opened, it only routes the events to the transport
+    remoteMonitoringServer = new RemoteMonitoringServer(0, this, null, null, compression);
+    remoteMonitoringServer.addTransport(transport);
+    collectionScheduler.schedule("transport-readers", Duration.ofSeconds(1), remoteMonitoringServer::checkTransports);
+    addShutdownHook();
+  }
+
+  @Override
+  public void startOutboundTransport(OutboundSettings settings) {
+    if (remoteMonitoringServer != null) {
+      logger.warn("RemoteMonitoringServer already started");
+      return;
+    }
+    if (settings.url() == null) {
+      logger.error("Outbound connection enabled without {}url", OutboundSettings.PREFIX);
+      return;
+    }
+    OutboundTransport transport = new OutboundTransport(settings, this);
+    // the server isn't started, no port is opened, it only routes the events to the transport
+    remoteMonitoringServer = new RemoteMonitoringServer(0, this, null, null, compression);
+    remoteMonitoringServer.addTransport(transport);
+    transport.start();
+    addShutdownHook();
+  }
+
   private StartupResult startWithPreferredPort(int preferredPort) {
     return tryStartRemoteMonitoringServer(preferredPort);
   }
@@ -99,6 +180,9 @@ public class RemoteMonitoringServiceImpl extends ServiceDelegator
             new Thread(
                 () -> {
                   logger.debug("RemoteMonitoringServer is stopping...");
+                  collectionScheduler.shutdown();
+                  pressureGovernor.stop();
+                  remoteMonitoringServer.closeTransports();
                   try {
                     remoteMonitoringServer.stop();
                     logger.info("RemoteMonitoringServer stopped");
@@ -129,7 +213,7 @@ public class RemoteMonitoringServiceImpl extends ServiceDelegator
   private StartupResult tryStartRemoteMonitoringServer(int port) {
     AtomicReference<Exception> startupError = new AtomicReference<>();
     CountDownLatch latch = new CountDownLatch(1);
-    RemoteMonitoringServer server = new RemoteMonitoringServer(port, this, latch, startupError);
+    RemoteMonitoringServer server = new RemoteMonitoringServer(port, this, latch, startupError, compression);
     server.start();
     try {
       boolean awaited = latch.await(3, TimeUnit.SECONDS);
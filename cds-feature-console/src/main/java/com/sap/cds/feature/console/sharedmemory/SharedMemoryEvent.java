@@ -0,0 +1,12 @@
+package com.sap.cds.feature.console.sharedmemory;
+
+/**
+ * Event read from the shared memory ring buffer.
+ *
+ * @param sequence the sequence number, which increases by one with each event
+ * @param path the server path of the event
+ * @param tenant the tenant of the event, or {@code null}
+ * @param message the encoded event
+ */
+public record SharedMemoryEvent(long sequence, String path, String tenant, String message) {
+}
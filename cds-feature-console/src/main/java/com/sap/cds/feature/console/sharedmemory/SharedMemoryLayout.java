@@ -0,0 +1,52 @@
+package com.sap.cds.feature.console.sharedmemory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the memory-mapped ring buffer shared by the {@link SharedMemoryTransport} and the
+ * {@link SharedMemoryReader}s. All values are little endian. The header is followed by the data
+ * region, whose capacity is a power of two:
+ *
+ * <pre>
+ * header  := MAGIC:int VERSION:int capacity:long claimed:long published:long sequence:long heartbeat:long reserved:byte[16]
+ * record  := sequence:long length:int pathLength:short tenantLength:short path tenant message padding
+ * </pre>
+ *
+ * <p>Positions are the total number of bytes written since the ring was created, the offset in the
+ * data region is the position modulo the capacity. Records are aligned to {@value #ALIGNMENT}
+ * bytes and never wrap around the end of the data region, the rest of the region is skipped with a
+ * padding record of length {@value #PADDING}. The producer first claims the range of a record,
+ * then writes it and then publishes it. A reader detects that a record was overwritten while it
+ * read it, if the claimed position got more than the capacity ahead of the record.
+ */
+final class SharedMemoryLayout {
+
+  static final int MAGIC = 0x43415053;
+  static final int VERSION = 1;
+
+  static final int MAGIC_OFFSET = 0;
+  static final int VERSION_OFFSET = 4;
+  static final int CAPACITY_OFFSET = 8;
+  static final int CLAIMED_OFFSET = 16;
+  static final int PUBLISHED_OFFSET = 24;
+  static final int SEQUENCE_OFFSET = 32;
+  static final int HEARTBEAT_OFFSET = 40;
+  static final int HEADER_SIZE = 64;
+
+  static final int RECORD_HEADER_SIZE = 16;
+  static final int ALIGNMENT = 16;
+  static final int PADDING = -1;
+
+  static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+  static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ORDER);
+
+  private SharedMemoryLayout() {
+  }
+
+  static int align(int length) {
+    return (length + ALIGNMENT - 1) & -ALIGNMENT;
+  }
+
+}
@@ -0,0 +1,167 @@
+package com.sap.cds.feature.console.sharedmemory;
+
+import static com.sap.cds.feature.console.sharedmemory.SharedMemoryLayout.LONG;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Reads the events written by a {@link SharedMemoryTransport}, e.g. in a sidecar. Only depends on
+ * the JDK. Any number of readers can read the same ring independently, each starts with the
+ * events published after it opened the ring. A reader that falls more than the capacity behind
+ * skips to the newest event and counts the lost events. Readers signal their presence with a
+ * heartbeat on each poll, without readers the application doesn't encode events.
+ *
+ * <pre>
+ * try (SharedMemoryReader reader = SharedMemoryReader.open(Path.of("/dev/shm/cap-console"))) {
+ *   while (running) {
+ *     if (reader.poll(event -&gt; forward(event.path(), event.message()), 1000) == 0) {
+ *       Thread.sleep(10);
+ *     }
+ *   }
+ * }
+ * </pre>
+ */
+public class SharedMemoryReader implements AutoCloseable {
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int capacity;
+  private long position;
+  private long lastSequence;
+  private long lost;
+
+  private SharedMemoryReader(FileChannel channel) throws IOException {
+    this.channel = channel;
+    if (channel.size() < SharedMemoryLayout.HEADER_SIZE) {
+      throw new IOException("Not a CAP console ring buffer");
+    }
+    MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SharedMemoryLayout.HEADER_SIZE);
+    header.order(SharedMemoryLayout.ORDER);
+    if (header.getInt(SharedMemoryLayout.MAGIC_OFFSET) != SharedMemoryLayout.MAGIC
+        || header.getInt(SharedMemoryLayout.VERSION_OFFSET) != SharedMemoryLayout.VERSION) {
+      throw new IOException("Not a CAP console ring buffer of a supported version");
+    }
+    this.capacity = (int) header.getLong(SharedMemoryLayout.CAPACITY_OFFSET);
+    this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) SharedMemoryLayout.HEADER_SIZE + capacity);
+    this.buffer.order(SharedMemoryLayout.ORDER);
+    this.lastSequence = (long) LONG.getAcquire(buffer, SharedMemoryLayout.SEQUENCE_OFFSET);
+    this.position = (long) LONG.getAcquire(buffer, SharedMemoryLayout.PUBLISHED_OFFSET);
+    heartbeat();
+  }
+
+  /**
+   * Opens a ring buffer, which must have been created by a {@link SharedMemoryTransport}.
+   *
+   * @param file the file of the ring buffer
+   * @return the reader
+   * @throws IOException if the file can't be mapped or isn't a ring buffer
+   */
+  public static SharedMemoryReader open(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      return new SharedMemoryReader(channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Reads the published events. Never blocks.
+   *
+   * @param consumer the consumer of the events
+   * @param maxEvents the maximum number of events to read
+   * @return the number of events read
+   */
+  public int poll(Consumer<SharedMemoryEvent> consumer, int maxEvents) {
+    heartbeat();
+    int events = 0;
+    while (events < maxEvents) {
+      long published = (long) LONG.getAcquire(buffer, SharedMemoryLayout.PUBLISHED_OFFSET);
+      if (position >= published) {
+        break;
+      }
+      if (published - position > capacity) {
+        // overtaken by the producer
+        position = published;
+        continue;
+      }
+
+      int offset = (int) (position & (capacity - 1));
+      int base = SharedMemoryLayout.HEADER_SIZE + offset;
+      long sequence = buffer.getLong(base);
+      int length = buffer.getInt(base + 8);
+      SharedMemoryEvent event = null;
+      long next;
+      if (length == SharedMemoryLayout.PADDING) {
+        next = position + capacity - offset;
+      } else {
+        int pathLength = buffer.getShort(base + 12);
+        int tenantLength = buffer.getShort(base + 14);
+        int messageLength = length - pathLength - tenantLength;
+        next = position + SharedMemoryLayout.align(SharedMemoryLayout.RECORD_HEADER_SIZE + length);
+        if (length < 0 || pathLength < 0 || tenantLength < 0 || messageLength < 0 || offset + SharedMemoryLayout.RECORD_HEADER_SIZE + length > capacity) {
+          // torn record, the claim check below skips it
+          next = published;
+        } else {
+          int data = base + SharedMemoryLayout.RECORD_HEADER_SIZE;
+          String path = string(data, pathLength);
+          String tenant = tenantLength > 0 ? string(data + pathLength, tenantLength) : null;
+          event = new SharedMemoryEvent(sequence, path, tenant, string(data + pathLength + tenantLength, messageLength));
+        }
+      }
+
+      VarHandle.loadLoadFence();
+      long claimed = (long) LONG.getVolatile(buffer, SharedMemoryLayout.CLAIMED_OFFSET);
+      if (claimed - position > capacity) {
+        // the record was overwritten while it was read
+        position = (long) LONG.getAcquire(buffer, SharedMemoryLayout.PUBLISHED_OFFSET);
+        continue;
+      }
+      position = next;
+      if (event != null) {
+        if (sequence > lastSequence + 1) {
+          lost += sequence - lastSequence - 1;
+        }
+        lastSequence = sequence;
+        consumer.accept(event);
+        events++;
+      }
+    }
+    return events;
+  }
+
+  /**
+   * @return the number of events lost since the reader was opened, as it fell behind
+   */
+  public long getLost() {
+    return lost;
+  }
+
+  public long getLastSequence() {
+    return lastSequence;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void heartbeat() {
+    LONG.setOpaque(buffer, SharedMemoryLayout.HEARTBEAT_OFFSET, System.currentTimeMillis());
+  }
+
+  private String string(int index, int length) {
+    byte[] bytes = new byte[length];
+    buffer.get(index, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,166 @@
+package com.sap.cds.feature.console.sharedmemory;
+
+import static com.sap.cds.feature.console.sharedmemory.SharedMemoryLayout.LONG;
+
+import com.sap.cds.feature.console.connectivity.EventTransport;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes encoded events into a memory-mapped file used as ring buffer, from which local processes,
+ * e.g. a sidecar, read them with a {@link SharedMemoryReader}. The transport never waits for its
+ * readers: readers that fall more than the capacity behind lose events, which they detect by the
+ * sequence numbers. Concurrent senders are serialized, so the ring has a single producer.
+ */
+public class SharedMemoryTransport implements EventTransport {
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedMemoryTransport.class);
+
+  public static final int DEFAULT_CAPACITY = 16 * 1024 * 1024;
+  static final int MIN_CAPACITY = 64 * 1024;
+  static final Duration READER_TIMEOUT = Duration.ofSeconds(5);
+
+  private final Path file;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int capacity;
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  // guarded by this
+  private long position;
+  private long sequence;
+
+  private SharedMemoryTransport(Path file, FileChannel channel, int capacity) throws IOException {
+    this.file = file;
+    this.channel = channel;
+    this.capacity = capacity;
+    this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) SharedMemoryLayout.HEADER_SIZE + capacity);
+    this.buffer.order(SharedMemoryLayout.ORDER);
+    buffer.putInt(SharedMemoryLayout.VERSION_OFFSET, SharedMemoryLayout.VERSION);
+    buffer.putLong(SharedMemoryLayout.CAPACITY_OFFSET, capacity);
+    LONG.setVolatile(buffer, SharedMemoryLayout.CLAIMED_OFFSET, 0L);
+    LONG.setVolatile(buffer, SharedMemoryLayout.PUBLISHED_OFFSET, 0L);
+    LONG.setVolatile(buffer, SharedMemoryLayout.SEQUENCE_OFFSET, 0L);
+    // the magic number is written last, so readers only open complete rings
+    buffer.putInt(SharedMemoryLayout.MAGIC_OFFSET, SharedMemoryLayout.MAGIC);
+    buffer.force();
+  }
+
+  /**
+   * Creates the ring buffer file, replacing an existing file, so that readers of a previous ring
+   * keep their mapping.
+   *
+   * @param file the file, preferably on a memory file system like {@code /dev/shm}
+   * @param capacity the capacity of the data region, rounded up to a power of two
+   * @return the transport
+   * @throws IOException if the file can't be created or mapped
+   */
+  public static SharedMemoryTransport create(Path file, int capacity) throws IOException {
+    int size = Math.max(Integer.highestOneBit(Math.max(capacity, MIN_CAPACITY) - 1) << 1, MIN_CAPACITY);
+    if (size <= 0) {
+      throw new IllegalArgumentException("Capacity too large: " + capacity);
+    }
+    Files.deleteIfExists(file);
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      SharedMemoryTransport transport = new SharedMemoryTransport(file, channel, size);
+      logger.info("Writing CAP console events to shared memory {} ({} bytes)", file, size);
+      return transport;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  @Override
+  public boolean hasClients(String path) {
+    long heartbeat = (long) LONG.getOpaque(buffer, SharedMemoryLayout.HEARTBEAT_OFFSET);
+    return System.currentTimeMillis() - heartbeat < READER_TIMEOUT.toMillis();
+  }
+
+  @Override
+  public boolean send(String message, String path, String tenant) {
+    byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+    byte[] tenantBytes = tenant != null ? tenant.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
+    int length = pathBytes.length + tenantBytes.length + messageBytes.length;
+    int size = SharedMemoryLayout.align(SharedMemoryLayout.RECORD_HEADER_SIZE + length);
+    if (size > capacity / 4 || pathBytes.length > Short.MAX_VALUE || tenantBytes.length > Short.MAX_VALUE) {
+      dropped.increment();
+      return false;
+    }
+
+    synchronized (this) {
+      int offset = (int) (position & (capacity - 1));
+      if (offset + size > capacity) {
+        // skip the rest of the data region, records never wrap around
+        long wrapped = position + capacity - offset;
+        LONG.setVolatile(buffer, SharedMemoryLayout.CLAIMED_OFFSET, wrapped + size);
+        buffer.putLong(SharedMemoryLayout.HEADER_SIZE + offset, sequence);
+        buffer.putInt(SharedMemoryLayout.HEADER_SIZE + offset + 8, SharedMemoryLayout.PADDING);
+        position = wrapped;
+        offset = 0;
+      } else {
+        LONG.setVolatile(buffer, SharedMemoryLayout.CLAIMED_OFFSET, position + size);
+      }
+
+      int base = SharedMemoryLayout.HEADER_SIZE + offset;
+      buffer.putLong(base, ++sequence);
+      buffer.putInt(base + 8, length);
+      buffer.putShort(base + 12, (short) pathBytes.length);
+      buffer.putShort(base + 14, (short) tenantBytes.length);
+      int data = base + SharedMemoryLayout.RECORD_HEADER_SIZE;
+      buffer.put(data, pathBytes);
+      buffer.put(data + pathBytes.length, tenantBytes);
+      buffer.put(data + pathBytes.length + tenantBytes.length, messageBytes);
+      position += size;
+      LONG.setRelease(buffer, SharedMemoryLayout.SEQUENCE_OFFSET, sequence);
+      LONG.setRelease(buffer, SharedMemoryLayout.PUBLISHED_OFFSET, position);
+    }
+    sent.increment();
+    bytes.add(length);
+    return true;
+  }
+
+  @Override
+  public Map<String, Object> getStatistics() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("transport", "shared-memory");
+    result.put("file", file.toString());
+    result.put("readers", hasClients(null));
+    result.put("frames_sent", sent.sum());
+    result.put("bytes_sent", bytes.sum());
+    result.put("dropped", dropped.sum());
+    return result;
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.debug("Failed to close shared memory {}", file, e);
+    }
+  }
+
+}
@@ -0,0 +1,276 @@
+package com.sap.cds.feature.console.connectivity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.service.CommandEvent;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.CommandRegistry;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.EventContext;
+import com.sap.cds.services.handler.annotations.On;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.handshake.ServerHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CommandDispatcherTest {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final int ITEMS = 2 * CommandDispatcher.CHUNK_SIZE + 50;
+
+  private final RemoteMonitoringService service = mock(RemoteMonitoringService.class);
+  private final CommandDispatcher dispatcher = new CommandDispatcher(service);
+  private StandInServer server;
+  private Console console;
+
+  @BeforeEach
+  void setup() throws Exception {
+    when(service.getCommandRegistry()).thenReturn(CommandRegistry.of(List.of(new Commands())));
+    doAnswer(invocation -> {
+      CommandEventContext context = invocation.getArgument(0);
+      switch (context.getEvent()) {
+        case "test/items" -> context.setResult(IntStream.range(0, ITEMS).boxed().toList());
+        case "test/echo" -> context.setResult(context.getData().get("text"));
+        case "test/fail" -> throw new IllegalStateException("vetoed");
+        default -> { }
+      }
+      return null;
+    }).when(service).emit(any(EventContext.class));
+
+    server = new StandInServer(dispatcher);
+    server.start();
+    assertTrue(server.started.await(5, TimeUnit.SECONDS));
+    console = new Console(URI.create("ws://localhost:" + server.getPort() + RemoteMonitoringServer.PATH_LOGS));
+    assertTrue(console.connectBlocking(5, TimeUnit.SECONDS));
+    assertTrue(server.opened.await(5, TimeUnit.SECONDS));
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    dispatcher.close();
+    console.closeBlocking();
+    server.stop();
+  }
+
+  @Test
+  void testResultIsReplied() throws Exception {
+    console.send("{\"command\":\"test/echo\",\"id\":\"1\",\"data\":{\"text\":\"hello\"}}");
+
+    JsonNode reply = console.awaitReply();
+    assertEquals("1", reply.path("id").asText());
+    assertEquals("test/echo", reply.path("command").asText());
+    assertEquals("success", reply.path("status").asText());
+    assertTrue(reply.path("last").asBoolean());
+    assertEquals("hello", reply.path("result").asText());
+    verify(service).emit(any(EventContext.class));
+  }
+
+  @Test
+  void testListResultIsRepliedInOrderedChunks() throws Exception {
+    console.send("{\"command\":\"test/items\",\"id\":\"2\"}");
+
+    int expected = 0;
+    for (int chunk = 0; chunk < 3; chunk++) {
+      JsonNode reply = console.awaitReply();
+      assertEquals("2", reply.path("id").asText());
+      assertEquals(chunk, reply.path("chunk").asInt());
+      assertEquals(chunk == 2, reply.path("last").asBoolean());
+      for (JsonNode item : reply.path("result")) {
+        assertEquals(expected++, item.asInt());
+      }
+    }
+    assertEquals(ITEMS, expected);
+    assertNull(console.replies.poll(100, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void testChunksArePausedWhileTheConnectionHasQueuedFrames() throws Exception {
+    // empty frames hold the queue of the connection, as nothing else is written while they're queued
+    WebSocketImpl connection = (WebSocketImpl) server.connection;
+    for (int i = 0; i < CommandDispatcher.MAX_QUEUED_FRAMES; i++) {
+      connection.outQueue.add(ByteBuffer.allocate(0));
+    }
+    console.send("{\"command\":\"test/items\",\"id\":\"3\"}");
+    verify(service, timeout(2_000)).emit(any(EventContext.class));
+    assertNull(console.replies.poll(200, TimeUnit.MILLISECONDS));
+
+    connection.outQueue.clear();
+    for (int chunk = 0; chunk < 3; chunk++) {
+      assertEquals(chunk, console.awaitReply().path("chunk").asInt());
+    }
+  }
+
+  @Test
+  void testFailedCommandIsRepliedWithError() throws Exception {
+    console.send("{\"command\":\"test/fail\",\"id\":\"4\"}");
+
+    JsonNode reply = console.awaitReply();
+    assertEquals("4", reply.path("id").asText());
+    assertEquals("error", reply.path("status").asText());
+    assertTrue(reply.path("last").asBoolean());
+    assertEquals("vetoed", reply.path("error").asText());
+  }
+
+  @Test
+  void testUnknownCommandIsRejectedWithoutEmit() throws Exception {
+    console.send("{\"command\":\"test/other\",\"id\":\"5\"}");
+
+    JsonNode reply = console.awaitReply();
+    assertEquals("error", reply.path("status").asText());
+    assertEquals("Unknown command 'test/other'", reply.path("error").asText());
+    verify(service, never()).emit(any(EventContext.class));
+  }
+
+  @Test
+  void testCommandOfTheApplicationIsEmittedAndReplied() throws Exception {
+    console.send("{\"command\":\"app/custom\",\"id\":\"7\"}");
+
+    JsonNode reply = console.awaitReply();
+    assertEquals("7", reply.path("id").asText());
+    assertEquals("success", reply.path("status").asText());
+    verify(service).emit(any(EventContext.class));
+  }
+
+  @Test
+  void testCommandWithoutIdIsEmittedWithoutReply() throws Exception {
+    console.send("{\"command\":\"test/echo\",\"data\":{\"text\":\"hello\"}}");
+
+    verify(service, timeout(2_000)).emit(any(CommandEvent.class));
+    assertNull(console.replies.poll(200, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void testClosedDispatcherStopsChunkedReplies() throws Exception {
+    dispatcher.close();
+    console.send("{\"command\":\"test/items\",\"id\":\"6\"}");
+
+    verify(service, timeout(2_000)).emit(any(EventContext.class));
+    assertNull(console.replies.poll(200, TimeUnit.MILLISECONDS));
+  }
+
+  private static class Commands {
+
+    @On(event = {"test/echo", "test/items", "test/fail"})
+    void handle(CommandEventContext context) {
+    }
+  }
+
+  /**
+   * Stand-in for the server, which dispatches the received commands.
+   */
+  private static final class StandInServer extends WebSocketServer {
+
+    private final CommandDispatcher dispatcher;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch opened = new CountDownLatch(1);
+    private volatile WebSocket connection;
+
+    StandInServer(CommandDispatcher dispatcher) {
+      super(new InetSocketAddress(0));
+      this.dispatcher = dispatcher;
+      setReuseAddr(true);
+    }
+
+    @Override
+    public void onOpen(WebSocket conn, ClientHandshake handshake) {
+      connection = conn;
+      opened.countDown();
+    }
+
+    @Override
+    public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, String message) {
+      try {
+        dispatcher.dispatch(conn, message);
+      } catch (Exception e) {
+        // the command isn't replied
+      }
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, ByteBuffer message) {
+    }
+
+    @Override
+    public void onError(WebSocket conn, Exception ex) {
+    }
+
+    @Override
+    public void onStart() {
+      started.countDown();
+    }
+  }
+
+  /**
+   * Console, which records the received replies.
+   */
+  private static final class Console extends WebSocketClient {
+
+    private final BlockingQueue<JsonNode> replies = new LinkedBlockingQueue<>();
+
+    Console(URI uri) {
+      super(uri);
+    }
+
+    JsonNode awaitReply() throws InterruptedException {
+      JsonNode reply = replies.poll(5, TimeUnit.SECONDS);
+      assertNotNull(reply, "No reply received in time");
+      return reply;
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshake) {
+    }
+
+    @Override
+    public void onMessage(String message) {
+      try {
+        JsonNode event = objectMapper.readTree(message);
+        if (Path.CONSOLE_REPLY.equals(event.path("path").asText())) {
+          replies.add(event.path("data"));
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+    }
+
+    @Override
+    public void onError(Exception ex) {
+    }
+  }
+
+}
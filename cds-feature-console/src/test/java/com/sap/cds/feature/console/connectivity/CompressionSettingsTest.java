@@ -0,0 +1,33 @@
+package com.sap.cds.feature.console.connectivity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class CompressionSettingsTest {
+
+  @Test
+  void testLevelRisesWithBacklog() {
+    CompressionSettings settings = new CompressionSettings(true, 1, true, 256);
+    assertEquals(1, settings.levelFor(0, 64));
+    assertEquals(1, settings.levelFor(7, 64));
+    assertEquals(6, settings.levelFor(8, 64));
+    assertEquals(9, settings.levelFor(64, 64));
+  }
+
+  @Test
+  void testConfiguredLevelIsKeptWithoutBacklog() {
+    CompressionSettings settings = new CompressionSettings(true, 8, true, 256);
+    assertEquals(8, settings.levelFor(0, 64));
+    assertEquals(8, settings.levelFor(10, 64));
+  }
+
+  @Test
+  void testSettingsAreClamped() {
+    CompressionSettings settings = new CompressionSettings(true, 42, false, -1);
+    assertEquals(9, settings.level());
+    assertEquals(0, settings.threshold());
+    assertEquals(1, new CompressionSettings(true, -1, false, 0).level());
+  }
+
+}
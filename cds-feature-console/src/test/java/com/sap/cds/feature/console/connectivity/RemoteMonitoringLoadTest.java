@@ -0,0 +1,285 @@
+package com.sap.cds.feature.console.connectivity;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import com.sap.cds.services.runtime.CdsRuntime;
+import com.sap.cds.services.runtime.CdsRuntimeConfigurer;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load test of the remote monitoring pipeline. Excluded from the default build, run it with {@code
+ * mvn test -P load-test}. The load can be configured with the system properties {@code
+ * loadtest.clients}, {@code loadtest.slowClients}, {@code loadtest.threads} and {@code
+ * loadtest.events}. The results are written as JSON to {@code target/load-test/remote-monitoring.json}.
+ * If {@code loadtest.maxSlowdown} is set, the test fails if application logging is slowed down by
+ * more than this factor compared with logging without the plugin.
+ */
+@Tag("load")
+class RemoteMonitoringLoadTest {
+
+  private static final String LOAD_LOGGER = "loadtest.application";
+  private static final Pattern LOAD_MESSAGE = Pattern.compile("load (\\d+) (\\d+)");
+  private static final int LATENCY_SAMPLES = 100_000;
+
+  private final int clients = Integer.getInteger("loadtest.clients", 8);
+  private final int slowClients = Integer.getInteger("loadtest.slowClients", 2);
+  private final int threads = Integer.getInteger("loadtest.threads", 8);
+  private final int eventsPerThread = Integer.getInteger("loadtest.events", 20_000);
+  private final String maxSlowdown = System.getProperty("loadtest.maxSlowdown");
+
+  private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+  @Test
+  void testLoggingThroughputLatencyAndHeap() throws Exception {
+    Logger root = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+    ((Logger) LoggerFactory.getLogger(LOAD_LOGGER)).setLevel(ch.qos.logback.classic.Level.INFO);
+    // measure the plugin only, not the console output of the test setup
+    List<Appender<ILoggingEvent>> detached = detachAppenders(root);
+    try {
+      // warm up, then measure without the plugin
+      driveLogTraffic(threads, eventsPerThread / 10);
+      double baseline = driveLogTraffic(threads, eventsPerThread);
+
+      long heapBefore = usedHeapAfterGc();
+      CdsRuntime runtime = CdsRuntimeConfigurer.create()
+          .serviceConfigurations()
+          .eventHandlerConfigurations()
+          .complete();
+      RemoteMonitoringService service = runtime
+          .getServiceCatalog()
+          .getService(RemoteMonitoringService.class, RemoteMonitoringService.DEFAULT_NAME);
+      String uri = "ws://localhost:" + service.getRemoteMonitoringServer().getPort() + RemoteMonitoringServer.PATH_LOGS;
+
+      List<LoadClient> loadClients = new ArrayList<>();
+      try {
+        for (int i = 0; i < clients; i++) {
+          LoadClient client = new LoadClient(uri, i < slowClients);
+          assertTrue(client.connectBlocking(5, TimeUnit.SECONDS), "Load client should connect");
+          loadClients.add(client);
+        }
+
+        HeapSampler heapSampler = new HeapSampler();
+        heapSampler.start();
+        driveLogTraffic(threads, eventsPerThread / 10);
+        double withPlugin = driveLogTraffic(threads, eventsPerThread);
+        long expected = (long) threads * eventsPerThread * 11 / 10;
+        boolean delivered = awaitDelivery(loadClients, expected, 60);
+        heapSampler.interrupt();
+        heapSampler.join();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("clients", clients);
+        result.put("slow_clients", slowClients);
+        result.put("threads", threads);
+        result.put("events", (long) threads * eventsPerThread);
+        result.put("baseline_events_per_second", baseline);
+        result.put("plugin_events_per_second", withPlugin);
+        result.put("slowdown", baseline / withPlugin);
+        result.put("latency_micros", latencyPercentiles(loadClients));
+        result.put("delivered_to_fast_clients", delivered);
+        result.put("heap_before_bytes", heapBefore);
+        result.put("heap_peak_bytes", heapSampler.peak);
+        result.put("heap_growth_bytes", usedHeapAfterGc() - heapBefore);
+        writeResult(result);
+
+        assertTrue(delivered, "All events should be delivered to the fast clients");
+        if (maxSlowdown != null) {
+          assertTrue(baseline / withPlugin <= Double.parseDouble(maxSlowdown),
+              "Logging slowdown exceeds " + maxSlowdown + ": " + result);
+        }
+      } finally {
+        // slow clients might still have a backlog, don't wait for the close handshake
+        loadClients.forEach(WebSocketClient::close);
+        service.getRemoteMonitoringServer().stop();
+      }
+    } finally {
+      detached.forEach(root::addAppender);
+    }
+  }
+
+  /**
+   * Logs from many application threads in parallel.
+   *
+   * @return the logging throughput in events per second
+   */
+  private double driveLogTraffic(int threadCount, int events) throws InterruptedException {
+    org.slf4j.Logger log = LoggerFactory.getLogger(LOAD_LOGGER);
+    AtomicLong sequence = new AtomicLong();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    for (int t = 0; t < threadCount; t++) {
+      executor.execute(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for (int i = 0; i < events; i++) {
+          log.info("load {} {}", sequence.incrementAndGet(), System.nanoTime());
+        }
+      });
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES), "Log traffic should complete");
+    long elapsed = System.nanoTime() - begin;
+    return (double) threadCount * events / elapsed * TimeUnit.SECONDS.toNanos(1);
+  }
+
+  private static boolean awaitDelivery(List<LoadClient> loadClients, long expected, int timeoutSeconds) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+    while (System.nanoTime() < deadline) {
+      if (loadClients.stream().filter(c -> !c.slow).allMatch(c -> c.loadMessages.get() >= expected)) {
+        return true;
+      }
+      Thread.sleep(50);
+    }
+    return false;
+  }
+
+  private static Map<String, Object> latencyPercentiles(List<LoadClient> loadClients) {
+    long[] all = loadClients.stream()
+        .filter(c -> !c.slow)
+        .flatMapToLong(c -> Arrays.stream(c.latencies, 0, (int) Math.min(c.samples.get(), LATENCY_SAMPLES)))
+        .sorted()
+        .toArray();
+    Map<String, Object> percentiles = new LinkedHashMap<>();
+    percentiles.put("samples", all.length);
+    if (all.length > 0) {
+      percentiles.put("p50", percentile(all, 50));
+      percentiles.put("p90", percentile(all, 90));
+      percentiles.put("p99", percentile(all, 99));
+      percentiles.put("p999", percentile(all, 99.9));
+      percentiles.put("max", TimeUnit.NANOSECONDS.toMicros(all[all.length - 1]));
+    }
+    return percentiles;
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    int index = (int) Math.min(sorted.length - 1, sorted.length * percentile / 100);
+    return TimeUnit.NANOSECONDS.toMicros(sorted[index]);
+  }
+
+  private long usedHeapAfterGc() {
+    System.gc(); // NOSONAR
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+
+  private static void writeResult(Map<String, Object> result) throws Exception {
+    File file = new File("target/load-test/remote-monitoring.json");
+    file.getParentFile().mkdirs();
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+  }
+
+  private static List<Appender<ILoggingEvent>> detachAppenders(Logger root) {
+    List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+    Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders();
+    while (it.hasNext()) {
+      appenders.add(it.next());
+    }
+    appenders.forEach(root::detachAppender);
+    return appenders;
+  }
+
+  private class HeapSampler extends Thread {
+
+    private volatile long peak;
+
+    HeapSampler() {
+      super("load-test-heap-sampler");
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      while (!isInterrupted()) {
+        peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed());
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }
+  }
+
+  private static class LoadClient extends WebSocketClient {
+
+    private final boolean slow;
+    private final AtomicLong loadMessages = new AtomicLong();
+    private final AtomicLong samples = new AtomicLong();
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+
+    LoadClient(String uri, boolean slow) {
+      super(URI.create(uri));
+      this.slow = slow;
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshake) {
+      // nothing to do
+    }
+
+    @Override
+    public void onMessage(String message) {
+      long received = System.nanoTime();
+      Matcher matcher = LOAD_MESSAGE.matcher(message);
+      if (!matcher.find()) {
+        return;
+      }
+      loadMessages.incrementAndGet();
+      if (slow) {
+        try {
+          Thread.sleep(1);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return;
+      }
+      int index = (int) samples.getAndIncrement();
+      if (index < LATENCY_SAMPLES) {
+        latencies[index] = received - Long.parseLong(matcher.group(2));
+      }
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+      // nothing to do
+    }
+
+    @Override
+    public void onError(Exception ex) {
+      // nothing to do
+    }
+  }
+
+}
@@ -13,11 +13,23 @@ import com.sap.cds.services.EventContext;
 import com.sap.cds.services.runtime.CdsRuntime;
 import com.sap.cds.services.runtime.CdsRuntimeConfigurer;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import org.java_websocket.WebSocket;
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
 import org.java_websocket.handshake.ServerHandshake;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -145,7 +157,167 @@ class RemoteMonitoringTest {
     assertEquals(Boolean.FALSE, loggerEntry.get("group"));
   }
 
+  @Test
+  void testCompressedConnectionReceivesEvents() throws Exception {
+    TestWebSocketClient compressed = new TestWebSocketClient("ws://localhost:" + PORT + "/cap-console/logs",
+        new Draft_6455(new PerMessageDeflateExtension()));
+    try {
+      compressed.connectBlocking();
+      assertNotNull(compressed.awaitMessage(2, TimeUnit.SECONDS), "Client should receive the welcome message");
+      assertTrue(((Draft_6455) compressed.getDraft()).getExtension() instanceof PerMessageDeflateExtension,
+          "permessage-deflate should be negotiated");
+      compressed.resetLatch();
+
+      // above the compression threshold
+      String text = "Compressed log message ".repeat(100);
+      RemoteLogData logData = new RemoteLogData.Builder()
+          .level("INFO")
+          .logger("test.logger")
+          .thread("test-thread")
+          .type("log")
+          .message(text)
+          .ts(System.currentTimeMillis())
+          .build();
+      remoteMonitoringService.emit(InfoEvent.createRemoteLog("test.path", logData));
+
+      String received = compressed.awaitMessage(2, TimeUnit.SECONDS);
+      assertNotNull(received, "Client should receive the compressed message");
+      assertEquals(text, new ObjectMapper().readTree(received).path("data").path("message").asText());
+    } finally {
+      compressed.closeBlocking();
+    }
+  }
+
+  @Test
+  void testConcurrentBroadcastsToCompressedConnection() throws Exception {
+    TestWebSocketClient compressed = new TestWebSocketClient("ws://localhost:" + PORT + "/cap-console/logs",
+        new Draft_6455(new PerMessageDeflateExtension()));
+    RemoteMonitoringServer server = remoteMonitoringService.getRemoteMonitoringServer();
+    try {
+      compressed.connectBlocking();
+      assertNotNull(compressed.awaitMessage(2, TimeUnit.SECONDS), "Client should receive the welcome message");
+      compressed.received.clear();
+
+      int threads = 8;
+      int messages = 200;
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      for (int t = 0; t < threads; t++) {
+        int thread = t;
+        executor.execute(() -> {
+          for (int i = 0; i < messages; i++) {
+            // above the compression threshold
+            server.broadcastToPath("{\"message\":\"" + thread + "-" + i + " " + "compressed ".repeat(50) + "\"}",
+                RemoteMonitoringServer.PATH_LOGS);
+          }
+        });
+      }
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+      Set<String> decoded = new HashSet<>();
+      while (decoded.size() < threads * messages) {
+        String received = compressed.received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(received, "Client should decode every message, got " + decoded.size());
+        JsonNode root = new ObjectMapper().readTree(received);
+        // other events of the runtime are sent to the path as well
+        if (root.has("message")) {
+          decoded.add(root.path("message").asText().split(" ")[0]);
+        }
+      }
+      assertTrue(compressed.isOpen(), "Corrupted frames close the connection");
+    } finally {
+      compressed.closeBlocking();
+    }
+  }
+
+  @Test
+  void testBroadcastDoesNotWaitForTheCompression() throws Exception {
+    TestWebSocketClient compressed = new TestWebSocketClient("ws://localhost:" + PORT + "/cap-console/logs",
+        new Draft_6455(new PerMessageDeflateExtension()));
+    RemoteMonitoringServer server = remoteMonitoringService.getRemoteMonitoringServer();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      compressed.connectBlocking();
+      assertNotNull(compressed.awaitMessage(2, TimeUnit.SECONDS), "Client should receive the welcome message");
+      compressed.received.clear();
+      WebSocket connection = server.getConnections().stream()
+          .filter(conn -> compressed.getLocalSocketAddress().equals(conn.getRemoteSocketAddress()))
+          .findFirst().orElseThrow();
+
+      // the connection is busy with another send, which holds its deflater
+      CountDownLatch locked = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      executor.execute(() -> {
+        synchronized (connection) {
+          locked.countDown();
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      });
+      assertTrue(locked.await(2, TimeUnit.SECONDS));
+      long start = System.nanoTime();
+      server.broadcastToPath("{\"message\":\"" + "not blocked ".repeat(50) + "\"}", RemoteMonitoringServer.PATH_LOGS);
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000, "The broadcast waited for the busy connection");
+      release.countDown();
+
+      String received;
+      do {
+        received = compressed.received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(received, "Client should receive the compressed message");
+      } while (!received.contains("not blocked"));
+    } finally {
+      executor.shutdownNow();
+      compressed.closeBlocking();
+    }
+  }
+
+  @Test
+  void testTemplateModeIsPerClient() throws Exception {
+    TestWebSocketClient templates = new TestWebSocketClient("ws://localhost:" + PORT + "/cap-console/logs");
+    RemoteMonitoringServer server = remoteMonitoringService.getRemoteMonitoringServer();
+    try {
+      templates.connectBlocking();
+      assertNotNull(templates.awaitMessage(2, TimeUnit.SECONDS), "Client should receive the welcome message");
+      templates.send("{\"command\":\"logging/templates\",\"data\":{\"enabled\":true}}");
+      long deadline = System.currentTimeMillis() + 2_000;
+      while (!server.hasClients(RemoteMonitoringServer.PATH_LOGS, InfoEvent.FORM_TEMPLATE) && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertTrue(server.hasClients(RemoteMonitoringServer.PATH_LOGS, InfoEvent.FORM_TEXT));
+      templates.received.clear();
+      client.received.clear();
+
+      for (String form : new String[] {InfoEvent.FORM_TEMPLATE, InfoEvent.FORM_TEXT}) {
+        InfoEvent event = InfoEvent.create("test.path", Map.of("message", form + "-form"));
+        event.setForm(form);
+        remoteMonitoringService.emit(event);
+      }
+
+      assertEquals(List.of("template-form"), awaitForms(templates));
+      assertEquals(List.of("text-form"), awaitForms(client));
+    } finally {
+      templates.closeBlocking();
+    }
+  }
+
+  private static List<String> awaitForms(TestWebSocketClient client) throws Exception {
+    List<String> messages = new ArrayList<>();
+    String received;
+    while ((received = client.received.poll(500, TimeUnit.MILLISECONDS)) != null) {
+      JsonNode root = new ObjectMapper().readTree(received);
+      // other events of the runtime are sent to the path as well
+      if ("test.path".equals(root.path("path").asText())) {
+        messages.add(root.path("data").path("message").asText());
+      }
+    }
+    return messages;
+  }
+
   static class TestWebSocketClient extends WebSocketClient {
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
     private CountDownLatch latch = new CountDownLatch(1);
     private String message;
 
@@ -153,6 +325,10 @@ class RemoteMonitoringTest {
       super(new URI(uri));
     }
 
+    TestWebSocketClient(String uri, Draft draft) throws Exception {
+      super(new URI(uri), draft);
+    }
+
     @Override
     public void onOpen(ServerHandshake handshakedata) {
 
@@ -160,6 +336,7 @@ class RemoteMonitoringTest {
 
     @Override
     public void onMessage(String message) {
+      received.add(message);
       this.message = message;
       latch.countDown();
     }
@@ -0,0 +1,71 @@
+package com.sap.cds.feature.console.connectivity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TenantQuotasTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  void testSingleTenantUsesWholeBudget() {
+    TenantQuotas quotas = new TenantQuotas(100, 0);
+    assertEquals(100, acquire(quotas, "a", 1000, 1));
+    assertFalse(quotas.tryAcquire("a", 1));
+
+    // refilled after one second
+    assertEquals(100, acquire(quotas, "a", 1000, SECOND + 1));
+  }
+
+  @Test
+  void testNoisyTenantDoesNotCrowdOutOthers() {
+    TenantQuotas quotas = new TenantQuotas(100, 0);
+    acquire(quotas, "noisy", 1000, 1);
+    assertTrue(quotas.tryAcquire("quiet", 2));
+
+    // both tenants are active, so each gets half of the budget
+    long now = SECOND + 1;
+    assertEquals(50, acquire(quotas, "noisy", 1000, now));
+    assertEquals(2, quotas.getActiveTenants());
+    assertEquals(10, acquire(quotas, "quiet", 10, now));
+  }
+
+  @Test
+  void testStatisticsPerTenant() {
+    TenantQuotas quotas = new TenantQuotas(10, 0);
+    acquire(quotas, "a", 15, 1);
+
+    List<Map<String, Object>> statistics = quotas.getStatistics();
+    assertEquals(1, statistics.size());
+    assertEquals("a", statistics.get(0).get("tenant"));
+    assertEquals(10L, statistics.get(0).get("accepted"));
+    assertEquals(5L, statistics.get(0).get("dropped"));
+  }
+
+  @Test
+  void testNumberOfTenantsIsBounded() {
+    TenantQuotas quotas = new TenantQuotas(10, 0);
+    for (int i = 0; i <= TenantQuotas.MAX_TENANTS; i++) {
+      quotas.tryAcquire("t" + i, 1);
+    }
+    assertEquals(TenantQuotas.MAX_TENANTS + 1, quotas.getStatistics().size());
+    assertTrue(quotas.getStatistics().stream().anyMatch(s -> TenantQuotas.OTHER_TENANTS.equals(s.get("tenant"))));
+  }
+
+  private static int acquire(TenantQuotas quotas, String tenant, int events, long now) {
+    int acquired = 0;
+    for (int i = 0; i < events; i++) {
+      if (quotas.tryAcquire(tenant, now)) {
+        acquired++;
+      }
+    }
+    return acquired;
+  }
+
+}
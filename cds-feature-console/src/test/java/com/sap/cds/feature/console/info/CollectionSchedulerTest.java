@@ -0,0 +1,94 @@
+package com.sap.cds.feature.console.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sap.cds.feature.console.info.CollectionScheduler.ScheduledCollection;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class CollectionSchedulerTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  void testTasksRunPeriodically() throws Exception {
+    CollectionScheduler scheduler = new CollectionScheduler(() -> false, () -> 0.0);
+    try {
+      CountDownLatch latch = new CountDownLatch(3);
+      ScheduledCollection collection = scheduler.schedule("test", Duration.ofMillis(10), latch::countDown);
+
+      assertTrue(latch.await(2, TimeUnit.SECONDS));
+      collection.cancel();
+      assertTrue(collection.isCancelled());
+      assertEquals(0, scheduler.getStatistics().get("tasks"));
+      assertTrue((Long) scheduler.getStatistics().get("runs") >= 2);
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  @Test
+  void testFailingTaskIsRescheduled() throws Exception {
+    CollectionScheduler scheduler = new CollectionScheduler(() -> false, () -> 0.0);
+    try {
+      CountDownLatch latch = new CountDownLatch(3);
+      scheduler.schedule("failing", Duration.ofMillis(10), () -> {
+        latch.countDown();
+        throw new IllegalStateException("failure");
+      });
+
+      // the third run implies that the first two failures have been counted
+      assertTrue(latch.await(2, TimeUnit.SECONDS));
+      assertTrue((Long) scheduler.getStatistics().get("failures") >= 2);
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  @Test
+  void testIntervalsStretchUnderPressureAndShrinkWhenIdle() {
+    AtomicBoolean congested = new AtomicBoolean(true);
+    AtomicReference<Double> cpu = new AtomicReference<>(0.2);
+    CollectionScheduler scheduler = new CollectionScheduler(congested::get, cpu::get);
+    try {
+      long now = System.nanoTime();
+      for (int i = 1; i <= 5; i++) {
+        scheduler.updatePressure(now + i * SECOND);
+      }
+      assertEquals(CollectionScheduler.MAX_STRETCH, scheduler.getStretch());
+
+      // checks within one second are ignored
+      congested.set(false);
+      scheduler.updatePressure(now + 5 * SECOND + 1);
+      assertEquals(CollectionScheduler.MAX_STRETCH, scheduler.getStretch());
+
+      scheduler.updatePressure(now + 6 * SECOND);
+      assertEquals(CollectionScheduler.MAX_STRETCH / 2, scheduler.getStretch());
+
+      // neither saturated nor idle keeps the current stretch
+      cpu.set(0.7);
+      scheduler.updatePressure(now + 7 * SECOND);
+      assertEquals(CollectionScheduler.MAX_STRETCH / 2, scheduler.getStretch());
+
+      cpu.set(0.9);
+      scheduler.updatePressure(now + 8 * SECOND);
+      assertEquals(CollectionScheduler.MAX_STRETCH, scheduler.getStretch());
+
+      cpu.set(0.1);
+      for (int i = 9; i <= 20; i++) {
+        scheduler.updatePressure(now + i * SECOND);
+      }
+      assertEquals(1, scheduler.getStretch());
+      assertFalse(scheduler.getStatistics().isEmpty());
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,42 @@
+package com.sap.cds.feature.console.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+    assertEquals(100, histogram.getCount());
+    assertEquals(5050, histogram.getSum());
+    assertEquals(63, histogram.getPercentile(50));
+    assertEquals(100, histogram.getPercentile(99));
+  }
+
+  @Test
+  void testMerge() {
+    LatencyHistogram first = new LatencyHistogram();
+    first.record(1);
+    first.record(1000);
+    LatencyHistogram second = new LatencyHistogram();
+    second.record(2);
+    second.record(5000);
+
+    first.merge(second);
+    assertEquals(4, first.getCount());
+    assertEquals(6003, first.getSum());
+    assertEquals(5000, first.getMax());
+    long[] counts = first.getBucketCounts();
+    assertEquals(1, counts[0]);
+    assertEquals(1, counts[1]);
+    assertEquals(1, counts[9]);
+    assertEquals(1, counts[12]);
+    assertEquals(2, second.getCount());
+  }
+
+}
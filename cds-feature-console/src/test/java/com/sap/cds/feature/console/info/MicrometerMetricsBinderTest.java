@@ -0,0 +1,64 @@
+package com.sap.cds.feature.console.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MicrometerMetricsBinderTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final CollectionScheduler scheduler = new CollectionScheduler(() -> false, () -> 0.0);
+
+  @AfterEach
+  void tearDown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  void testMetricsOfTwoRuntimesAreKeptApartAndRemovedOnClose() {
+    PipelineMetrics first = new PipelineMetrics();
+    PipelineMetrics second = new PipelineMetrics();
+    first.recordSent(10);
+    second.recordSent(10);
+    second.recordSent(10);
+
+    MicrometerMetricsBinder firstBinding = MicrometerMetricsBinder.bind(registry, service(first));
+    MicrometerMetricsBinder secondBinding = MicrometerMetricsBinder.bind(registry, service(second));
+    assertEquals(2, registry.find(MicrometerMetricsBinder.PREFIX + "events.sent").functionCounters().size());
+    assertEquals(1.0, sent(firstBinding));
+    assertEquals(2.0, sent(secondBinding));
+
+    // the first runtime stops, its meters don't keep its metrics
+    firstBinding.close();
+    assertEquals(1, registry.find(MicrometerMetricsBinder.PREFIX + "events.sent").functionCounters().size());
+    first.producedCounter("LogCollector");
+    assertTrue(registry.find(MicrometerMetricsBinder.PREFIX + "events.produced").functionCounters().isEmpty());
+
+    second.producedCounter("LogCollector").increment();
+    assertEquals(1.0, registry.get(MicrometerMetricsBinder.PREFIX + "events.produced").functionCounter().count());
+    secondBinding.close();
+    assertTrue(registry.getMeters().isEmpty());
+  }
+
+  private RemoteMonitoringService service(PipelineMetrics metrics) {
+    RemoteMonitoringService service = mock(RemoteMonitoringService.class);
+    when(service.getPipelineMetrics()).thenReturn(metrics);
+    when(service.getCollectionScheduler()).thenReturn(scheduler);
+    return service;
+  }
+
+  private double sent(MicrometerMetricsBinder binding) {
+    return binding.getMeters().stream()
+        .filter(meter -> meter.getId().getName().equals(MicrometerMetricsBinder.PREFIX + "events.sent"))
+        .map(FunctionCounter.class::cast)
+        .findFirst().orElseThrow().count();
+  }
+
+}
@@ -0,0 +1,77 @@
+package com.sap.cds.feature.console.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Test;
+
+class PipelineMetricsTest {
+
+  @Test
+  void testHistogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentile(99));
+
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i * 1000L);
+    }
+    histogram.record(-5);
+
+    assertEquals(101, histogram.getCount());
+    assertEquals(100_000, histogram.getMax());
+    assertEquals(5050 * 1000L, histogram.getSum());
+    // bucket upper bounds are powers of two minus one
+    assertEquals(65_535, histogram.getPercentile(50));
+    assertEquals(100_000, histogram.getPercentile(99));
+    assertTrue(histogram.getPercentile(10) >= 8_191);
+  }
+
+  @Test
+  void testHistogramBuckets() {
+    assertEquals(0, LatencyHistogram.bucket(0));
+    assertEquals(0, LatencyHistogram.bucket(1));
+    assertEquals(1, LatencyHistogram.bucket(2));
+    assertEquals(1, LatencyHistogram.bucket(3));
+    assertEquals(10, LatencyHistogram.bucket(1024));
+    assertEquals(62, LatencyHistogram.bucket(Long.MAX_VALUE));
+    assertEquals(1023, LatencyHistogram.upperBound(9));
+  }
+
+  @Test
+  void testProducedCountersAreSharedAndAnnounced() {
+    PipelineMetrics metrics = new PipelineMetrics();
+    LongAdder log = metrics.producedCounter("LogCollector");
+    log.increment();
+
+    Map<String, LongAdder> announced = new HashMap<>();
+    metrics.onProducedCounter(announced::put);
+    assertSame(log, announced.get("LogCollector"));
+
+    LongAdder self = metrics.producedCounter("SelfMetricsCollector");
+    assertSame(self, announced.get("SelfMetricsCollector"));
+    assertSame(log, metrics.producedCounter("LogCollector"));
+
+    metrics.recordSent(10);
+    metrics.recordSent(5);
+    metrics.recordFiltered();
+    metrics.registerQueue("test", () -> 3);
+    Map<String, Object> map = metrics.toMap();
+    assertEquals(2L, map.get("sent"));
+    assertEquals(15L, map.get("bytes_sent"));
+    assertEquals(1L, map.get("filtered"));
+    assertEquals(Map.of("test", 3L), map.get("queues"));
+  }
+
+  @Test
+  void testUtf8Length() {
+    for (String value : new String[] {"", "ascii", "grüße", "€ 10", "emoji 😀 end"}) {
+      assertEquals(value.getBytes(StandardCharsets.UTF_8).length, PipelineMetrics.utf8Length(value));
+    }
+  }
+
+}
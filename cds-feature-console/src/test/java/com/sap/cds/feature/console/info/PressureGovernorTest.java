@@ -0,0 +1,76 @@
+package com.sap.cds.feature.console.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sap.cds.feature.console.info.PressureGovernor.PressureLevel;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class PressureGovernorTest {
+
+  @Test
+  void testPressureRisesImmediately() {
+    assertEquals(PressureLevel.NORMAL, PressureGovernor.nextLevel(PressureLevel.NORMAL, 0.5));
+    assertEquals(PressureLevel.NO_DEBUG, PressureGovernor.nextLevel(PressureLevel.NORMAL, 0.75));
+    assertEquals(PressureLevel.SUMMARIES_ONLY, PressureGovernor.nextLevel(PressureLevel.NORMAL, 0.92));
+    assertEquals(PressureLevel.PAUSED, PressureGovernor.nextLevel(PressureLevel.NO_DEBUG, 0.99));
+  }
+
+  @Test
+  void testPressureFallsStepwiseWithHysteresis() {
+    // within the hysteresis
+    assertEquals(PressureLevel.PAUSED, PressureGovernor.nextLevel(PressureLevel.PAUSED, 0.93));
+    assertEquals(PressureLevel.SUMMARIES_ONLY, PressureGovernor.nextLevel(PressureLevel.PAUSED, 0.5));
+    assertEquals(PressureLevel.REDUCED_BUFFERS, PressureGovernor.nextLevel(PressureLevel.SUMMARIES_ONLY, 0.5));
+    assertEquals(PressureLevel.NORMAL, PressureGovernor.nextLevel(PressureLevel.NO_DEBUG, 0.69));
+    assertEquals(PressureLevel.NO_DEBUG, PressureGovernor.nextLevel(PressureLevel.NO_DEBUG, 0.71));
+  }
+
+  @Test
+  void testListenersAreNotifiedOfTransitions() {
+    AtomicReference<Double> pressure = new AtomicReference<>(0.5);
+    PressureGovernor governor = new PressureGovernor(pressure::get);
+    List<String> transitions = new ArrayList<>();
+    governor.addListener((previous, next) -> transitions.add(previous + "->" + next));
+
+    governor.update();
+    pressure.set(0.96);
+    governor.update();
+    assertTrue(governor.isAtLeast(PressureLevel.SUMMARIES_ONLY));
+    pressure.set(0.2);
+    governor.update();
+    governor.update();
+
+    assertEquals(List.of("NORMAL->PAUSED", "PAUSED->SUMMARIES_ONLY", "SUMMARIES_ONLY->REDUCED_BUFFERS"), transitions);
+    assertFalse(governor.isAtLeast(PressureLevel.SUMMARIES_ONLY));
+    assertEquals(0.2, governor.getPressure());
+  }
+
+  @Test
+  void testOnlyTenuredPoolsAreConsidered() {
+    MemoryPoolMXBean survivor = pool(MemoryType.HEAP, false, 95);
+    MemoryPoolMXBean tenured = pool(MemoryType.HEAP, true, 40);
+    MemoryPoolMXBean metaspace = pool(MemoryType.NON_HEAP, true, 99);
+
+    assertEquals(0.4, PressureGovernor.getHeapPressure(List.of(survivor, tenured, metaspace)), 0.001);
+    assertEquals(0.0, PressureGovernor.getHeapPressure(List.of(survivor)));
+  }
+
+  private static MemoryPoolMXBean pool(MemoryType type, boolean thresholdSupported, long usedPercent) {
+    MemoryPoolMXBean pool = mock(MemoryPoolMXBean.class);
+    when(pool.getType()).thenReturn(type);
+    when(pool.isUsageThresholdSupported()).thenReturn(thresholdSupported);
+    when(pool.getCollectionUsage()).thenReturn(new MemoryUsage(0, usedPercent, 100, 100));
+    return pool;
+  }
+
+}
@@ -0,0 +1,41 @@
+package com.sap.cds.feature.console.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sap.cds.services.runtime.CdsRuntime;
+import com.sap.cds.services.runtime.CdsRuntimeConfigurer;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RequestLifecycleTest {
+
+  private final CdsRuntime runtime = CdsRuntimeConfigurer.create().complete();
+  private final AtomicInteger ended = new AtomicInteger();
+  private final Runnable listener = ended::incrementAndGet;
+
+  @AfterEach
+  void tearDown() {
+    RequestLifecycle.removeListener(listener);
+  }
+
+  @Test
+  void testRequestEndsWithTheOutermostChangeSet() {
+    RequestLifecycle.addListener(listener);
+    runtime.changeSetContext().run(outer -> {
+      RequestLifecycle.endWith(outer);
+      runtime.changeSetContext().run(inner -> {
+        RequestLifecycle.endWith(inner);
+      });
+      assertEquals(0, ended.get());
+    });
+    assertEquals(1, ended.get());
+
+    // the next event on the same thread ends again
+    runtime.changeSetContext().run(next -> {
+      RequestLifecycle.endWith(next);
+    });
+    assertEquals(2, ended.get());
+  }
+
+}
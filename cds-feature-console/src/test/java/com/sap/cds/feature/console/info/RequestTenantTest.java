@@ -0,0 +1,51 @@
+package com.sap.cds.feature.console.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.sap.cds.services.runtime.CdsRuntime;
+import com.sap.cds.services.runtime.CdsRuntimeConfigurer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RequestTenantTest {
+
+  private final CdsRuntime runtime = CdsRuntimeConfigurer.create().complete();
+
+  @AfterEach
+  void tearDown() {
+    RequestTenant.clear();
+  }
+
+  @Test
+  void testTenantAppliesToItsRequest() {
+    runtime.changeSetContext().run(changeSet -> {
+      RequestLifecycle.begin(changeSet, "t1");
+      assertEquals("t1", RequestTenant.get());
+    });
+
+    // the next request on the same thread
+    assertNull(RequestTenant.get());
+    runtime.changeSetContext().run(changeSet -> {
+      RequestLifecycle.begin(changeSet, "t2");
+      assertEquals("t2", RequestTenant.get());
+    });
+  }
+
+  @Test
+  void testTenantWithoutRequestEndIsNotApplied() {
+    RequestLifecycle.begin(null, "t1");
+    assertNull(RequestTenant.get());
+  }
+
+  @Test
+  void testTenantIsClearedWhenRequestEnds() {
+    runtime.changeSetContext().run(changeSet -> {
+      RequestLifecycle.begin(changeSet, "t1");
+
+      RequestLifecycle.end();
+      assertNull(RequestTenant.get());
+    });
+  }
+
+}
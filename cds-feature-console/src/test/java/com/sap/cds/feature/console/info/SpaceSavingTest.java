@@ -0,0 +1,94 @@
+package com.sap.cds.feature.console.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SpaceSavingTest {
+
+  @Test
+  void testTopByTotalWithSlowestSample() {
+    SpaceSaving<String, String> sketch = new SpaceSaving<>(4);
+    sketch.add("a", 10, "a1");
+    sketch.add("b", 50, "b1");
+    sketch.add("a", 30, "a2");
+    sketch.add("a", 20, "a3");
+
+    List<SpaceSaving.Entry<String, String>> top = sketch.getTop();
+    assertEquals(2, top.size());
+    assertEquals("a", top.get(0).getKey());
+    assertEquals(3, top.get(0).getCount());
+    assertEquals(60, top.get(0).getTotal());
+    assertEquals(30, top.get(0).getMax());
+    assertEquals("a2", top.get(0).getSample());
+    assertEquals(0, top.get(0).getError());
+    assertEquals("b", top.get(1).getKey());
+  }
+
+  @Test
+  void testEvictsSmallestTotal() {
+    SpaceSaving<String, String> sketch = new SpaceSaving<>(2);
+    sketch.add("a", 100, null);
+    sketch.add("b", 5, null);
+    sketch.add("c", 1, null);
+
+    List<SpaceSaving.Entry<String, String>> top = sketch.getTop();
+    assertEquals(2, top.size());
+    assertEquals("a", top.get(0).getKey());
+    assertEquals("c", top.get(1).getKey());
+    // c inherits the total of b as possible overestimation
+    assertEquals(6, top.get(1).getTotal());
+    assertEquals(5, top.get(1).getError());
+    assertEquals(1, top.get(1).getCount());
+  }
+
+  @Test
+  void testHeavyKeysSurviveManyLightKeys() {
+    SpaceSaving<String, Void> sketch = new SpaceSaving<>(8);
+    for (int i = 0; i < 1000; i++) {
+      sketch.add("heavy", 100, null);
+      sketch.add("light" + i, 1, null);
+    }
+    assertEquals("heavy", sketch.getTop().get(0).getKey());
+    assertEquals(100_000, sketch.getTop().get(0).getTotal());
+  }
+
+  @Test
+  void testRareHeavyObservationIsProtected() {
+    SpaceSaving<String, String> sketch = new SpaceSaving<>(4, 1);
+    sketch.add("slow", 5_000, "slowest");
+    for (int i = 0; i < 1000; i++) {
+      sketch.add("fast" + i % 10, 100, null);
+    }
+
+    List<SpaceSaving.Entry<String, String>> top = sketch.getTop();
+    assertEquals(5, top.size());
+    SpaceSaving.Entry<String, String> slow = top.stream().filter(e -> e.getKey().equals("slow")).findFirst().orElseThrow();
+    assertEquals(5_000, slow.getMax());
+    assertEquals("slowest", slow.getSample());
+
+    // a heavier observation takes the protected slot
+    sketch.add("slower", 6_000, null);
+    sketch.add("fast-next", 1, null);
+    assertEquals(0, sketch.getTop().stream().filter(e -> e.getKey().equals("slow")).count());
+  }
+
+  @Test
+  void testEvictionFollowsIncreasedTotals() {
+    SpaceSaving<Integer, Void> sketch = new SpaceSaving<>(16);
+    for (int i = 0; i < 16; i++) {
+      sketch.add(i, i, null);
+    }
+    // 0 becomes the heaviest key, so 1 is the smallest
+    sketch.add(0, 100, null);
+    sketch.add(16, 1, null);
+
+    List<SpaceSaving.Entry<Integer, Void>> top = sketch.getTop();
+    assertEquals(16, top.size());
+    assertEquals(Integer.valueOf(0), top.get(0).getKey());
+    assertEquals(0, top.stream().filter(e -> e.getKey() == 1).count());
+    assertEquals(1, top.stream().filter(e -> e.getKey() == 16).findFirst().orElseThrow().getError());
+  }
+
+}
@@ -0,0 +1,73 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.service.InfoEvent;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Map;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ApacheHttpClientInterceptorTest extends InfoCollectorTestBase {
+
+  @AfterEach
+  void resetInfoEventsStore() {
+    remoteMonitoringTestHandler.resetInfoEventsStore();
+  }
+
+  @Test
+  void testCallWithResponseIsRecorded() throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/books", exchange -> {
+      exchange.sendResponseHeaders(201, 2);
+      exchange.getResponseBody().write("ok".getBytes());
+      exchange.close();
+    });
+    server.start();
+    try (CloseableHttpClient client = ApacheHttpClientInterceptor.createHttpClientBuilder().build()) {
+      String url = "http://localhost:" + server.getAddress().getPort() + "/books";
+      client.execute(new HttpGet(url), response -> EntityUtils.toString(response.getEntity()));
+    } finally {
+      server.stop(0);
+    }
+
+    Map<String, Object> call = getOutboundCall();
+    assertEquals(201, call.get("status"));
+    assertEquals("GET", call.get("method"));
+  }
+
+  @Test
+  void testRefusedConnectionIsRecordedWithStatusZero() throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    try (CloseableHttpClient client = ApacheHttpClientInterceptor.createHttpClientBuilder().disableAutomaticRetries().build()) {
+      assertThrows(IOException.class, () -> client.execute(new HttpGet("http://localhost:" + port + "/books")));
+    }
+
+    Map<String, Object> call = getOutboundCall();
+    assertEquals(0, call.get("status"));
+    assertEquals("localhost:" + port, call.get("destination"));
+    assertEquals(0L, call.get("response_bytes"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getOutboundCall() {
+    List<InfoEvent> events = remoteMonitoringTestHandler.getEvents(Path.HTTP_OUTBOUND).stream()
+        .filter(event -> event.getData().containsKey("outbound_call"))
+        .toList();
+    assertEquals(1, events.size());
+    return (Map<String, Object>) events.get(0).getData().get("outbound_call");
+  }
+
+}
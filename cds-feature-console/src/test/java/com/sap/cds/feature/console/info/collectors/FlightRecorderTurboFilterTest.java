@@ -0,0 +1,142 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.sap.cds.feature.console.info.PressureGovernor.PressureLevel;
+import com.sap.cds.feature.console.service.InfoEvent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class FlightRecorderTurboFilterTest {
+
+  private final List<InfoEvent> flushed = new ArrayList<>();
+  private final FlightRecorderTurboFilter recorder = new FlightRecorderTurboFilter(flushed::add);
+  private Logger log;
+
+  @BeforeEach
+  void setup() {
+    LoggerContext context = new LoggerContext();
+    context.addTurboFilter(recorder);
+    log = context.getLogger("com.example.Recorded");
+    log.setLevel(Level.INFO);
+  }
+
+  @AfterEach
+  void clearMdc() {
+    MDC.remove(RequestScopeTurboFilter.MDC_CORRELATION_ID);
+  }
+
+  @Test
+  void testRecordedStatementsAreFlushedOnError() {
+    log.debug("first {}", 1);
+    log.trace("not recorded");
+    log.info("logged");
+    log.debug("second {}", 2);
+    assertTrue(flushed.isEmpty());
+
+    log.error("failure");
+    assertEquals(List.of("first 1", "second 2"), messages());
+
+    // the recorded statements are flushed only once
+    log.error("failure");
+    assertEquals(2, flushed.size());
+  }
+
+  @Test
+  void testRecordedStatementsAreFlushedOnException() {
+    log.debug("before exception");
+    log.warn("warning", new IllegalStateException("failure"));
+    assertEquals(List.of("before exception"), messages());
+  }
+
+  @Test
+  void testRecordingIsDiscardedForNextRequest() {
+    MDC.put(RequestScopeTurboFilter.MDC_CORRELATION_ID, "request-1");
+    log.debug("request 1");
+    MDC.put(RequestScopeTurboFilter.MDC_CORRELATION_ID, "request-2");
+    log.debug("request 2");
+    log.error("failure");
+    assertEquals(List.of("request 2"), messages());
+  }
+
+  @Test
+  void testRecordingWithoutCorrelationIdIsDiscardedWhenRequestEnds() {
+    log.debug("request 1");
+    recorder.end();
+    log.debug("request 2");
+    log.error("failure");
+    assertEquals(List.of("request 2"), messages());
+  }
+
+  @Test
+  void testRecordedExceptionIsFlushedWithStackTrace() {
+    log.debug("recorded", new IllegalStateException("cause"));
+    log.debug("recorded {}", "argument", new IllegalArgumentException("last argument"));
+    log.error("failure");
+
+    List<Object> messages = messages();
+    assertTrue(((String) messages.get(0)).startsWith("recorded"));
+    assertTrue(((String) messages.get(0)).contains("java.lang.IllegalStateException: cause"));
+    assertTrue(((String) messages.get(1)).startsWith("recorded argument"));
+    assertEquals("exception", flushed.get(0).getData().get("type"));
+  }
+
+  @Test
+  void testRecordedStatementsKeepTheirTraceId() {
+    try {
+      MDC.put(SpanCollector.MDC_TRACE_ID, "trace-1");
+      log.debug("in span 1");
+      MDC.put(SpanCollector.MDC_TRACE_ID, "trace-2");
+      log.debug("in span 2");
+      MDC.remove(SpanCollector.MDC_TRACE_ID);
+      log.error("failure");
+
+      assertEquals(List.of("trace-1", "trace-2"), flushed.stream().map(e -> e.getData().get("trace_id")).toList());
+    } finally {
+      MDC.remove(SpanCollector.MDC_TRACE_ID);
+    }
+  }
+
+  @Test
+  void testRingKeepsLatestStatements() {
+    recorder.configure(Level.TRACE, 2);
+    log.trace("one");
+    log.debug("two");
+    log.debug("three");
+    log.error("failure");
+    assertEquals(List.of("two", "three"), messages());
+  }
+
+  @Test
+  void testRecordingIsRestrictedUnderHeapPressure() {
+    log.setLevel(Level.WARN);
+    recorder.configure(Level.DEBUG, 64);
+    recorder.setPressure(PressureLevel.REDUCED_BUFFERS);
+    log.debug("not recorded");
+    for (int i = 0; i < 10; i++) {
+      log.info("info {}", i);
+    }
+    log.error("failure");
+    assertEquals(FlightRecorderTurboFilter.REDUCED_CAPACITY, flushed.size());
+    assertEquals("info 2", messages().get(0));
+
+    flushed.clear();
+    recorder.setPressure(PressureLevel.SUMMARIES_ONLY);
+    log.info("not recorded");
+    log.error("failure");
+    assertTrue(flushed.isEmpty());
+  }
+
+  private List<Object> messages() {
+    return flushed.stream().map(e -> e.getData().get("message")).toList();
+  }
+
+}
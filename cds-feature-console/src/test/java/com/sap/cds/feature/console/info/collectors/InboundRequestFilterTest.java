@@ -0,0 +1,88 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class InboundRequestFilterTest extends InfoCollectorTestBase {
+
+  private final InboundRequestFilter filter = new InboundRequestFilter();
+
+  @Test
+  void testAsyncRequestIsEndedOnCompletion() throws Exception {
+    AsyncContext asyncContext = mock(AsyncContext.class);
+    HttpServletRequest request = request("/async/listened");
+    when(request.isAsyncStarted()).thenReturn(true);
+    when(request.getAsyncContext()).thenReturn(asyncContext);
+
+    filter.doFilter(request, mock(HttpServletResponse.class), mock(FilterChain.class));
+    assertEquals(1, route("/async/listened").get("in_flight"));
+
+    ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+    verify(asyncContext).addListener(listener.capture());
+    listener.getValue().onComplete(mock(AsyncEvent.class));
+    listener.getValue().onComplete(mock(AsyncEvent.class));
+
+    Map<String, Object> route = route("/async/listened");
+    assertEquals(0, route.get("in_flight"));
+    assertEquals(1L, route.get("count"));
+  }
+
+  @Test
+  void testAsyncRequestCompletedBeforeTheListenerIsEnded() throws Exception {
+    HttpServletRequest request = request("/async/completed");
+    // the request completes on another thread, while the filter adds the listener
+    when(request.isAsyncStarted()).thenReturn(true, false);
+    when(request.getAsyncContext()).thenReturn(mock(AsyncContext.class));
+
+    filter.doFilter(request, mock(HttpServletResponse.class), mock(FilterChain.class));
+
+    Map<String, Object> route = route("/async/completed");
+    assertEquals(0, route.get("in_flight"));
+    assertEquals(1L, route.get("count"));
+  }
+
+  @Test
+  void testAsyncRequestRejectingTheListenerIsEnded() throws Exception {
+    AsyncContext asyncContext = mock(AsyncContext.class);
+    doThrow(new IllegalStateException("completed")).when(asyncContext).addListener(any());
+    HttpServletRequest request = request("/async/rejected");
+    when(request.isAsyncStarted()).thenReturn(true);
+    when(request.getAsyncContext()).thenReturn(asyncContext);
+
+    filter.doFilter(request, mock(HttpServletResponse.class), mock(FilterChain.class));
+
+    Map<String, Object> route = route("/async/rejected");
+    assertEquals(0, route.get("in_flight"));
+    assertEquals(1L, route.get("count"));
+  }
+
+  private static HttpServletRequest request(String uri) {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getMethod()).thenReturn("GET");
+    when(request.getRequestURI()).thenReturn(uri);
+    when(request.getContextPath()).thenReturn("");
+    return request;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> route(String uri) {
+    List<Map<String, Object>> routes = (List<Map<String, Object>>) InboundRequestCollector.getActive().getRoutes().getData().get("inbound_routes");
+    return routes.stream().filter(route -> uri.equals(route.get("route"))).findFirst().orElseThrow();
+  }
+
+}
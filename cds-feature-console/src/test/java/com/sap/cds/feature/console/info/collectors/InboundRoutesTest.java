@@ -0,0 +1,65 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.sap.cds.feature.console.info.collectors.InboundRoutes.RouteStatistics;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class InboundRoutesTest {
+
+  @Test
+  void testRequestsAreAggregatedPerRoute() {
+    InboundRoutes routes = new InboundRoutes();
+    routes.end(routes.begin("GET", "/odata/v4/Books({})"), 200, 0, 100, 1000);
+    routes.end(routes.begin("GET", "/odata/v4/Books({})"), 404, 0, 50, 3000);
+    routes.end(routes.begin("POST", "/odata/v4/Books"), 500, 20, 0, 2000);
+
+    List<Map<String, Object>> snapshot = routes.snapshot();
+    assertEquals(2, snapshot.size());
+    Map<String, Object> books = snapshot.stream().filter(r -> "GET".equals(r.get("method"))).findFirst().orElseThrow();
+    assertEquals("/odata/v4/Books({})", books.get("route"));
+    assertEquals(2L, books.get("count"));
+    assertEquals(1L, books.get("client_errors"));
+    assertEquals(0L, books.get("server_errors"));
+    assertEquals(150L, books.get("response_bytes"));
+    assertEquals(3L, routes.getTotal().getCount());
+    assertEquals(3000L, routes.getTotal().getMax());
+  }
+
+  @Test
+  void testInFlightRequests() {
+    InboundRoutes routes = new InboundRoutes();
+    long idle = routes.getActivity();
+    RouteStatistics route = routes.begin("GET", "/books");
+    assertNotEquals(idle, routes.getActivity());
+    assertEquals(1, routes.snapshot().get(0).get("in_flight"));
+    long busy = routes.getActivity();
+    routes.end(route, 200, 0, 0, 10);
+    assertEquals(0, routes.snapshot().get(0).get("in_flight"));
+    assertNotEquals(busy, routes.getActivity());
+  }
+
+  @Test
+  void testBucketsAreTrimmed() {
+    InboundRoutes routes = new InboundRoutes();
+    routes.end(routes.begin("GET", "/books"), 200, 0, 0, 5);
+    assertArrayEquals(new long[] {0, 0, 1}, (long[]) routes.snapshot().get(0).get("buckets"));
+  }
+
+  @Test
+  void testRoutesAreBounded() {
+    InboundRoutes routes = new InboundRoutes();
+    for (int i = 0; i < InboundRoutes.MAX_ROUTES + 10; i++) {
+      routes.end(routes.begin("GET", "/route" + i), 200, 0, 0, 10);
+    }
+    List<Map<String, Object>> snapshot = routes.snapshot();
+    assertEquals(InboundRoutes.MAX_ROUTES + 1, snapshot.size());
+    Map<String, Object> other = snapshot.stream().filter(r -> InboundRoutes.OTHER_ROUTES.equals(r.get("route"))).findFirst().orElseThrow();
+    assertEquals(10L, other.get("count"));
+  }
+
+}
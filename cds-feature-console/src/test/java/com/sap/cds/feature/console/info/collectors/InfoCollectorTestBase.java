@@ -18,6 +18,7 @@ import com.sap.cds.services.handler.annotations.ServiceName;
 import com.sap.cds.services.runtime.CdsRuntime;
 import com.sap.cds.services.runtime.CdsRuntimeConfigurer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -67,8 +68,9 @@ class InfoCollectorTestBase {
     private final Map<String, Object> systemData;
 
     public RemoteMonitoringTestHandler() {
-      this.infoEvents = new ArrayList<>();
-      this.systemData = new HashMap<>();
+      // info events might be emitted by parallel command threads
+      this.infoEvents = Collections.synchronizedList(new ArrayList<>());
+      this.systemData = Collections.synchronizedMap(new HashMap<>());
     }
 
     @On
@@ -87,9 +89,11 @@ class InfoCollectorTestBase {
     }
 
     public List<InfoEvent> getEvents(String path) {
-      return infoEvents.stream()
-          .filter(ev -> ev.getPath().equals(path))
-          .toList();
+      synchronized (infoEvents) {
+        return infoEvents.stream()
+            .filter(ev -> ev.getPath().equals(path))
+            .toList();
+      }
     }
 
     public List<InfoEvent> getLogEvents() {
@@ -0,0 +1,103 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static com.sap.cds.feature.console.service.RemoteMonitoringConfiguration.COMMAND_ATTACHED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Logger;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.service.CommandEvent;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.InfoEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs many {@code logging/update} commands and console attachments in parallel. Every published
+ * logger configuration must be one of the configurations sent by the commands.
+ */
+class LogCollectorConcurrencyTest extends InfoCollectorTestBase {
+
+  private static final String[] LEVELS = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR"};
+  private static final int THREADS = 8;
+  private static final int ITERATIONS = 200;
+
+  @Test
+  void testParallelUpdatesAndAttachmentsSeeConsistentSnapshots() throws InterruptedException {
+    Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    for (int t = 0; t < THREADS; t++) {
+      int thread = t;
+      executor.execute(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < ITERATIONS; i++) {
+            if ((thread + i) % 2 == 0) {
+              remoteMonitoringService.emit(update(LEVELS[(thread + i) % LEVELS.length]));
+            } else {
+              remoteMonitoringService.emit(CommandEventContext.create(COMMAND_ATTACHED));
+            }
+          }
+        } catch (Throwable e) { // NOSONAR
+          failures.add(e);
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    assertTrue(failures.isEmpty(), () -> "Parallel commands failed: " + failures);
+
+    List<InfoEvent> snapshots = remoteMonitoringTestHandler.getEvents(Path.SYSTEM).stream()
+        .filter(ev -> ev.getData().containsKey("loggers"))
+        .toList();
+    assertFalse(snapshots.isEmpty());
+    for (InfoEvent snapshot : snapshots) {
+      assertConsistent(snapshot);
+    }
+
+    // all overrides are rolled back to the initial levels
+    remoteMonitoringService.emit(update(null));
+    assertNull(((Logger) LoggerFactory.getLogger("stress.a")).getLevel());
+    assertNull(((Logger) LoggerFactory.getLogger("stress.b")).getLevel());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void assertConsistent(InfoEvent snapshot) {
+    List<Map<String, Object>> loggers = (List<Map<String, Object>>) snapshot.getData().get("loggers");
+    Map<String, Object> levels = new HashMap<>();
+    loggers.forEach(l -> levels.put((String) l.get("logger"), l.get("level")));
+    if (levels.containsKey("stress.a") || levels.containsKey("stress.b")) {
+      assertEquals(2, levels.size(), () -> "Partial configuration: " + levels);
+      assertEquals(levels.get("stress.a"), levels.get("stress.b"), () -> "Mixed configuration: " + levels);
+    }
+  }
+
+  private static CommandEvent update(String level) {
+    List<Map<String, Object>> loggers = new ArrayList<>();
+    for (String name : new String[] {"stress.a", "stress.b"}) {
+      Map<String, Object> logger = new HashMap<>();
+      logger.put("logger", name);
+      logger.put("level", level);
+      logger.put("group", Boolean.FALSE);
+      loggers.add(logger);
+    }
+    Map<String, Object> data = new HashMap<>();
+    data.put("loggers", loggers);
+    return new CommandEvent(LogCollector.COMMAND_UPDATE, data);
+  }
+
+}
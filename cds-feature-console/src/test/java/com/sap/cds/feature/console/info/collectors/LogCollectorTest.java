@@ -1,13 +1,22 @@
 package com.sap.cds.feature.console.info.collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.sap.cds.feature.console.connectivity.RemoteMonitoringServer;
+import com.sap.cds.feature.console.info.Path;
+import com.sap.cds.feature.console.info.RequestLifecycle;
 import com.sap.cds.feature.console.service.CommandEvent;
 import com.sap.cds.feature.console.service.InfoEvent;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -138,7 +147,57 @@ class LogCollectorTest extends InfoCollectorTestBase {
     assertEquals(0, remoteMonitoringTestHandler.getLogEventsByLevel(Level.DEBUG).size());
   }
 
-  @SuppressWarnings("unchecked")
+  @Test
+  void testTemplatesSharedByTenantsAreNotTenantSpecific() throws Exception {
+    RemoteMonitoringServer server = remoteMonitoringService.getRemoteMonitoringServer();
+    WebSocketClient console = new WebSocketClient(URI.create("ws://localhost:" + server.getPort() + RemoteMonitoringServer.PATH_LOGS)) {
+      @Override
+      public void onOpen(ServerHandshake handshake) {
+      }
+
+      @Override
+      public void onMessage(String message) {
+      }
+
+      @Override
+      public void onClose(int code, String reason, boolean remote) {
+      }
+
+      @Override
+      public void onError(Exception ex) {
+      }
+    };
+    try {
+      assertTrue(console.connectBlocking(5, TimeUnit.SECONDS));
+      console.send("{\"command\":\"" + LogCollector.COMMAND_TEMPLATES + "\",\"data\":{\"enabled\":true}}");
+      long deadline = System.currentTimeMillis() + 5_000;
+      while (!server.hasClients(RemoteMonitoringServer.PATH_LOGS, InfoEvent.FORM_TEMPLATE) && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      remoteMonitoringTestHandler.resetInfoEventsStore();
+
+      for (String tenant : List.of("t1", "t2")) {
+        runtime.changeSetContext().run(changeSet -> {
+          RequestLifecycle.begin(changeSet, tenant);
+          LOG.info("Order {} shared by tenants", tenant);
+        });
+      }
+
+      List<InfoEvent> definitions = remoteMonitoringTestHandler.getEvents(Path.SYSTEM).stream()
+          .filter(event -> event.getData().containsKey("log_templates"))
+          .toList();
+      assertEquals(1, definitions.size());
+      assertNull(definitions.get(0).getTenant());
+      List<InfoEvent> templated = remoteMonitoringTestHandler.getLogEvents().stream()
+          .filter(event -> InfoEvent.FORM_TEMPLATE.equals(event.getForm()))
+          .toList();
+      assertEquals(List.of("t1", "t2"), templated.stream().map(InfoEvent::getTenant).toList());
+      assertEquals(templated.get(0).getData().get("template"), templated.get(1).getData().get("template"));
+    } finally {
+      console.closeBlocking();
+    }
+  }
+
   private void updateLogLevel(Level level, String loggerName) {
     Map<String, Object> logger = new HashMap<>();
     logger.put("logger", loggerName);
@@ -0,0 +1,61 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Level;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class LogRatesTest {
+
+  private static final long NOW = 1_700_000_000L;
+
+  private final LogRates rates = new LogRates();
+
+  @Test
+  void testCountsPerSecondAndLevel() {
+    rates.record("a", Level.ERROR, (NOW - 3) * 1000);
+    rates.record("a", Level.ERROR, (NOW - 3) * 1000 + 999);
+    rates.record("a", Level.ERROR, (NOW - 1) * 1000);
+    rates.record("a", Level.INFO, (NOW - 2) * 1000);
+    // the current second is incomplete
+    rates.record("a", Level.ERROR, NOW * 1000);
+
+    List<Map<String, Object>> snapshot = rates.snapshot(NOW, 3);
+    assertEquals(2, snapshot.size());
+    Map<String, Object> errors = series(snapshot, "a", "ERROR");
+    assertEquals(NOW - 3, errors.get("from"));
+    assertArrayEquals(new long[] {2, 0, 1}, (long[]) errors.get("counts"));
+    assertArrayEquals(new long[] {0, 1, 0}, (long[]) series(snapshot, "a", "INFO").get("counts"));
+  }
+
+  @Test
+  void testStaleBucketsAreReset() {
+    rates.record("a", Level.WARN, (NOW - 1) * 1000);
+    rates.record("a", Level.WARN, (NOW - 1 + LogRates.WINDOW_SECONDS) * 1000);
+
+    assertTrue(rates.snapshot(NOW, 1).isEmpty());
+    assertArrayEquals(new long[] {1}, (long[]) rates.snapshot(NOW + LogRates.WINDOW_SECONDS, 1).get(0).get("counts"));
+  }
+
+  @Test
+  void testNumberOfSeriesIsBounded() {
+    for (int i = 0; i < LogRates.MAX_SERIES + 10; i++) {
+      rates.record("logger" + i, Level.INFO, (NOW - 1) * 1000);
+    }
+    List<Map<String, Object>> snapshot = rates.snapshot(NOW, 1);
+    assertEquals(LogRates.MAX_SERIES + 1, snapshot.size());
+    assertArrayEquals(new long[] {10}, (long[]) series(snapshot, LogRates.OTHER_LOGGERS, "INFO").get("counts"));
+  }
+
+  private static Map<String, Object> series(List<Map<String, Object>> snapshot, String logger, String level) {
+    return snapshot.stream()
+        .filter(s -> s.get("logger").equals(logger) && s.get("level").equals(level))
+        .findFirst()
+        .orElseThrow();
+  }
+
+}
@@ -0,0 +1,81 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class LoggerInventoryTest {
+
+  @Test
+  void testPagesOfChildren() {
+    LoggerContext context = new LoggerContext();
+    context.getLogger("com.example.a.One");
+    context.getLogger("com.example.a.Two");
+    context.getLogger("com.example.b");
+    LoggerInventory inventory = new LoggerInventory(context);
+
+    Map<String, Object> top = inventory.page("", 0, 10);
+    assertEquals(1, top.get("total"));
+    assertEquals(List.of("com"), names(top));
+
+    Map<String, Object> example = inventory.page("com.example", 0, 10);
+    assertEquals(List.of("a", "b"), names(example));
+    assertEquals(2, loggers(example).get(0).get("children"));
+
+    Map<String, Object> second = inventory.page("com.example.a", 1, 1);
+    assertEquals(2, second.get("total"));
+    assertEquals(List.of("Two"), names(second));
+    assertEquals("com.example.a.Two", loggers(second).get(0).get("logger"));
+
+    assertEquals(0, inventory.page("com.missing", 0, 10).get("total"));
+  }
+
+  @Test
+  void testChangesContainNewLoggersAndLevelChanges() {
+    LoggerContext context = new LoggerContext();
+    context.getLogger("com.example.a");
+    LoggerInventory inventory = new LoggerInventory(context);
+    context.addListener(inventory);
+    assertTrue(inventory.takeChanges().isEmpty());
+
+    context.getLogger("com.example.a").setLevel(Level.DEBUG);
+    context.getLogger("com.example.c");
+    List<Map<String, Object>> changes = inventory.takeChanges();
+    assertEquals(2, changes.size());
+    Map<String, Object> changed = changes.stream().filter(c -> c.get("logger").equals("com.example.a")).findFirst().orElseThrow();
+    assertEquals("DEBUG", changed.get("level"));
+    assertEquals("DEBUG", changed.get("effective_level"));
+
+    assertTrue(inventory.takeChanges().isEmpty());
+  }
+
+  @Test
+  void testMissingLoggersAreNotCreated() {
+    LoggerContext context = new LoggerContext();
+    LoggerInventory inventory = new LoggerInventory(context);
+    // a level change of a logger, which isn't part of the inventory's context
+    inventory.onLevelChange(new LoggerContext().getLogger("com.example.Other"), Level.DEBUG);
+
+    List<Map<String, Object>> changes = inventory.takeChanges();
+    assertEquals(1, changes.size());
+    assertEquals(Boolean.FALSE, changes.get(0).get("exists"));
+    assertNull(changes.get(0).get("effective_level"));
+    assertNull(context.exists("com.example.Other"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> loggers(Map<String, Object> page) {
+    return (List<Map<String, Object>>) page.get("loggers");
+  }
+
+  private static List<Object> names(Map<String, Object> page) {
+    return loggers(page).stream().map(l -> l.get("name")).toList();
+  }
+
+}
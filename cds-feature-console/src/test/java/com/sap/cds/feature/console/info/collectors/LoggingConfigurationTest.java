@@ -0,0 +1,83 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LoggingConfigurationTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final LoggerContext context = new LoggerContext();
+  private final Map<String, String> rolledBack = new LinkedHashMap<>();
+  // the ticker of the override checks, advanced by the tests
+  private long now = 1_000 * SECOND;
+
+  @Test
+  void testOverrideIsRolledBackAfterTtl() {
+    Logger log = context.getLogger("com.example.Ttl");
+    LoggingConfiguration configuration = override(Map.of(log.getName(), List.of(log)), 10, 0);
+    assertEquals(Level.DEBUG, log.getLevel());
+
+    now += 9 * SECOND;
+    assertSame(configuration, configuration.rollBackOverrides(now, rolledBack::put));
+
+    now += SECOND;
+    LoggingConfiguration next = configuration.rollBackOverrides(now, rolledBack::put);
+    assertNull(log.getLevel());
+    assertTrue(next.getOverrides().isEmpty());
+    assertEquals(Map.of(log.getName(), "its time to live expired"), rolledBack);
+  }
+
+  @Test
+  void testBudgetBreachRollsBackTheWholeGroup() {
+    Logger first = context.getLogger("com.example.First");
+    Logger second = context.getLogger("com.example.Second");
+    Logger other = context.getLogger("com.example.Other");
+    first.setLevel(Level.WARN);
+    Map<String, List<Logger>> entries = new LinkedHashMap<>();
+    entries.put("group", List.of(first, second));
+    entries.put(other.getName(), List.of(other));
+    LoggingConfiguration configuration = override(entries, 0, 10);
+
+    now += SECOND;
+    for (int i = 0; i < 100; i++) {
+      for (LevelOverride override : configuration.getBudgetedOverrides()) {
+        override.count("com.example.First.Nested");
+      }
+    }
+    LoggingConfiguration next = configuration.rollBackOverrides(now, rolledBack::put);
+
+    // only the first logger exceeded the budget, but both loggers of its group are restored
+    assertEquals(Level.WARN, first.getLevel());
+    assertNull(second.getLevel());
+    assertEquals(Level.DEBUG, other.getLevel());
+    assertEquals(List.of(other), List.copyOf(next.getOverrides().keySet()));
+    assertEquals(List.of("group"), List.copyOf(rolledBack.keySet()));
+    assertTrue(rolledBack.get("group").contains("exceeded the budget of 10"));
+  }
+
+  private LoggingConfiguration override(Map<String, List<Logger>> entries, long ttlSeconds, long budget) {
+    Map<String, String> levels = new LinkedHashMap<>();
+    Map<Logger, LevelOverride> overrides = new LinkedHashMap<>();
+    entries.forEach((configName, loggers) -> {
+      levels.put(configName, Level.DEBUG.levelStr);
+      for (Logger log : loggers) {
+        overrides.put(log, new LevelOverride(log, configName, ttlSeconds, budget, now));
+        log.setLevel(Level.DEBUG);
+      }
+    });
+    return new LoggingConfiguration(Map.of(), Map.of()).next(levels, overrides);
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sap.cds.feature.console.info.collectors.OperationUsage.Operation;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OperationUsageTest {
+
+  private static final Operation READ_BOOKS = new Operation("CatalogService", "READ", "CatalogService.Books");
+  private static final Operation CREATE_ORDERS = new Operation("CatalogService", "CREATE", "CatalogService.Orders");
+
+  private final OperationUsage usage = new OperationUsage();
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testTopByCpuAndAllocations() {
+    usage.record(READ_BOOKS, 5_000_000, 100);
+    usage.record(READ_BOOKS, 5_000_000, 100);
+    usage.record(CREATE_ORDERS, 1_000_000, 1_000_000);
+
+    Map<String, Object> top = usage.takeTop(10);
+    List<Map<String, Object>> cpu = (List<Map<String, Object>>) top.get("top_cpu");
+    List<Map<String, Object>> allocations = (List<Map<String, Object>>) top.get("top_allocations");
+    assertEquals("READ", cpu.get(0).get("event"));
+    assertEquals(2L, cpu.get(0).get("count"));
+    assertEquals(10_000L, cpu.get(0).get("cpu_micros"));
+    assertEquals(200L, cpu.get(0).get("allocated_bytes"));
+    assertEquals("CREATE", allocations.get(0).get("event"));
+    assertEquals("CatalogService.Orders", allocations.get(0).get("entity"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testDeltasSinceLastCall() {
+    usage.record(READ_BOOKS, 1000, 10);
+    usage.takeTop(10);
+    assertTrue(((List<?>) usage.takeTop(10).get("top_cpu")).isEmpty());
+
+    usage.record(READ_BOOKS, 3000, 30);
+    List<Map<String, Object>> cpu = (List<Map<String, Object>>) usage.takeTop(10).get("top_cpu");
+    assertEquals(1L, cpu.get(0).get("count"));
+    assertEquals(3L, cpu.get(0).get("cpu_micros"));
+    assertEquals(30L, cpu.get(0).get("allocated_bytes"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testNumberOfOperationsIsBounded() {
+    for (int i = 0; i < OperationUsage.MAX_OPERATIONS + 10; i++) {
+      usage.record(new Operation("S", "E" + i, null), 1000, 1);
+    }
+    List<Map<String, Object>> cpu = (List<Map<String, Object>>) usage.takeTop(Integer.MAX_VALUE).get("top_cpu");
+    assertEquals(OperationUsage.MAX_OPERATIONS + 1, cpu.size());
+    assertEquals(10L, cpu.stream().filter(d -> OperationUsage.OTHER_OPERATIONS.equals(d.get("event"))).findFirst().orElseThrow().get("count"));
+  }
+
+}
@@ -0,0 +1,123 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sap.cds.feature.console.info.collectors.PoolProbe.Sample;
+import com.sap.cds.feature.console.info.collectors.PoolSaturation.Transition;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PoolSaturationTest {
+
+  private static final double THRESHOLD = 0.9;
+
+  @Test
+  void testSaturationNeedsConsecutiveSamples() {
+    PoolSaturation saturation = new PoolSaturation();
+    Sample full = new Sample(10, 0, 0, 10);
+    Sample low = new Sample(2, 8, 0, 10);
+    assertNull(saturation.record("db", "datasource", full, 500, THRESHOLD));
+    assertNull(saturation.record("db", "datasource", full, 500, THRESHOLD));
+    assertNull(saturation.record("db", "datasource", low, 500, THRESHOLD));
+    assertNull(saturation.record("db", "datasource", full, 500, THRESHOLD));
+    assertNull(saturation.record("db", "datasource", full, 500, THRESHOLD));
+    assertEquals(Transition.SATURATED, saturation.record("db", "datasource", full, 500, THRESHOLD));
+    assertNull(saturation.record("db", "datasource", full, 500, THRESHOLD));
+  }
+
+  @Test
+  void testWaitingThreadsSaturateAndRecoveryNeedsHeadroom() {
+    PoolSaturation saturation = new PoolSaturation();
+    Sample waiting = new Sample(5, 0, 3, 10);
+    for (int i = 0; i < PoolSaturation.ALERT_SAMPLES - 1; i++) {
+      saturation.record("db", "datasource", waiting, 500, THRESHOLD);
+    }
+    assertEquals(Transition.SATURATED, saturation.record("db", "datasource", waiting, 500, THRESHOLD));
+
+    Sample busy = new Sample(8, 2, 0, 10);
+    for (int i = 0; i < 5; i++) {
+      assertNull(saturation.record("db", "datasource", busy, 500, THRESHOLD));
+    }
+    Sample idle = new Sample(1, 9, 0, 10);
+    assertNull(saturation.record("db", "datasource", idle, 500, THRESHOLD));
+    assertNull(saturation.record("db", "datasource", idle, 500, THRESHOLD));
+    assertEquals(Transition.RECOVERED, saturation.record("db", "datasource", idle, 500, THRESHOLD));
+  }
+
+  @Test
+  void testDrainReturnsSeriesAndWaitTime() {
+    PoolSaturation saturation = new PoolSaturation();
+    saturation.record("db", "datasource", new Sample(4, 6, 0, 10), 500, THRESHOLD);
+    saturation.record("db", "datasource", new Sample(10, 0, 2, 10), 500, THRESHOLD);
+
+    List<Map<String, Object>> pools = saturation.drain();
+    assertEquals(1, pools.size());
+    Map<String, Object> db = pools.get(0);
+    assertEquals("datasource", db.get("kind"));
+    assertEquals(10, db.get("max"));
+    assertArrayEquals(new int[] {4, 10}, (int[]) db.get("active"));
+    assertArrayEquals(new int[] {0, 2}, (int[]) db.get("waiting"));
+    assertEquals(1000L, db.get("wait_millis"));
+    assertTrue(saturation.drain().isEmpty());
+  }
+
+  @Test
+  void testSnapshotKeepsSamplesForDrain() {
+    PoolSaturation saturation = new PoolSaturation();
+    saturation.record("db", "datasource", new Sample(4, 6, 1, 10), 500, THRESHOLD);
+
+    assertEquals(1, saturation.snapshot().size());
+    List<Map<String, Object>> pools = saturation.drain();
+    assertEquals(1, pools.size());
+    assertArrayEquals(new int[] {4}, (int[]) pools.get(0).get("active"));
+    assertEquals(500L, pools.get(0).get("wait_millis"));
+  }
+
+  @Test
+  void testExecutorProbe() throws Exception {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    try {
+      Object lock = new Object();
+      synchronized (lock) {
+        executor.execute(() -> {
+          synchronized (lock) {
+            // blocks until the sample is taken
+          }
+        });
+        executor.execute(() -> {});
+        Sample sample = PoolProbe.of("worker", "executor", executor).sample();
+        assertEquals(1, sample.active());
+        assertEquals(0, sample.idle());
+        assertEquals(1, sample.waiting());
+        assertEquals(1, sample.max());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testExecutorWithUnboundedQueueIsLimitedByCoreSize() {
+    // like the default application task executor of Spring Boot
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(8, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    try {
+      assertEquals(8, PoolProbe.of("applicationTaskExecutor", "executor", executor).sample().max());
+    } finally {
+      executor.shutdown();
+    }
+    ThreadPoolExecutor bounded = new ThreadPoolExecutor(2, 4, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(10));
+    try {
+      assertEquals(4, PoolProbe.of("bounded", "executor", bounded).sample().max());
+    } finally {
+      bounded.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+class RequestScopeTurboFilterTest {
+
+  private static final UnaryOperator<String> NO_HEADERS = h -> null;
+
+  private final RequestScopeTurboFilter filter = new RequestScopeTurboFilter();
+  private final Logger scoped = (Logger) LoggerFactory.getLogger("com.sap.cds.scoped.Test");
+  private final Logger other = (Logger) LoggerFactory.getLogger("org.other.Test");
+
+  @AfterEach
+  void clearMdc() {
+    MDC.remove(RequestScopeTurboFilter.MDC_CORRELATION_ID);
+  }
+
+  @Test
+  void testNoScopesIsNeutral() {
+    filter.match("t1", "alice", NO_HEADERS, null);
+    assertEquals(FilterReply.NEUTRAL, decide(scoped, Level.DEBUG));
+  }
+
+  @Test
+  void testMatchingTenantAcceptsLevelAndLoggerPrefix() {
+    filter.setScopes(List.of(new LogScope("t1", null, null, null, null, Level.DEBUG, "com.sap.cds")));
+
+    filter.match("t1", "alice", NO_HEADERS, null);
+    assertEquals(FilterReply.ACCEPT, decide(scoped, Level.DEBUG));
+    assertEquals(FilterReply.NEUTRAL, decide(scoped, Level.TRACE));
+    assertEquals(FilterReply.NEUTRAL, decide(other, Level.DEBUG));
+
+    filter.match("t2", "alice", NO_HEADERS, null);
+    assertEquals(FilterReply.NEUTRAL, decide(scoped, Level.DEBUG));
+  }
+
+  @Test
+  void testUserAndHeaderPredicates() {
+    filter.setScopes(List.of(LogScope.fromMap(Map.of("user", "alice", "header", "x-debug", "value", "on", "level", "TRACE"))));
+
+    filter.match("t1", "alice", h -> "x-debug".equals(h) ? "on" : null, null);
+    assertEquals(FilterReply.ACCEPT, decide(other, Level.TRACE));
+
+    filter.match("t1", "alice", h -> "off", null);
+    assertEquals(FilterReply.NEUTRAL, decide(other, Level.TRACE));
+
+    filter.match("t1", "bob", h -> "on", null);
+    assertEquals(FilterReply.NEUTRAL, decide(other, Level.TRACE));
+  }
+
+  @Test
+  void testMatchEndsWithCorrelationIdOfRequest() {
+    filter.setScopes(List.of(new LogScope(null, null, null, null, "c1", Level.DEBUG, null)));
+
+    MDC.put(RequestScopeTurboFilter.MDC_CORRELATION_ID, new String("c1"));
+    filter.match(null, null, NO_HEADERS, "c1");
+    assertEquals(FilterReply.ACCEPT, decide(scoped, Level.DEBUG));
+
+    // next request on the same thread
+    MDC.put(RequestScopeTurboFilter.MDC_CORRELATION_ID, new String("c1"));
+    assertEquals(FilterReply.NEUTRAL, decide(scoped, Level.DEBUG));
+  }
+
+  @Test
+  void testMatchWithoutCorrelationIdEndsWithRequest() {
+    filter.setScopes(List.of(new LogScope("t1", null, null, null, null, Level.DEBUG, null)));
+
+    filter.match("t1", null, NO_HEADERS, null);
+    assertEquals(FilterReply.ACCEPT, decide(scoped, Level.DEBUG));
+
+    filter.end();
+    // next request on the same pooled thread, which doesn't emit a CAP event
+    assertEquals(FilterReply.NEUTRAL, decide(scoped, Level.DEBUG));
+  }
+
+  @Test
+  void testChangedScopesInvalidateMatches() {
+    LogScope scope = new LogScope("t1", null, null, null, null, Level.DEBUG, null);
+    filter.setScopes(List.of(scope));
+    filter.match("t1", null, NO_HEADERS, null);
+    assertEquals(FilterReply.ACCEPT, decide(scoped, Level.DEBUG));
+
+    filter.setScopes(List.of(scope));
+    assertEquals(FilterReply.NEUTRAL, decide(scoped, Level.DEBUG));
+
+    filter.setScopes(List.of());
+    assertEquals(FilterReply.NEUTRAL, decide(scoped, Level.DEBUG));
+  }
+
+  @Test
+  void testScopeRequiresPredicate() {
+    assertThrows(IllegalArgumentException.class, () -> LogScope.fromMap(Map.of("level", "DEBUG")));
+  }
+
+  private FilterReply decide(Logger logger, Level level) {
+    return filter.decide(null, logger, level, "message", null, null);
+  }
+
+}
@@ -0,0 +1,35 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class RouteNormalizerTest {
+
+  @Test
+  void testHostAndQueryAreRemoved() {
+    assertEquals("/api/books", RouteNormalizer.normalize("https://example.com:8443/api/books?$top=10#top"));
+    assertEquals("/", RouteNormalizer.normalize("https://example.com"));
+    assertEquals("/", RouteNormalizer.normalize(""));
+  }
+
+  @Test
+  void testIdentifiersAreReplaced() {
+    assertEquals("/orders/{}/items/{}", RouteNormalizer.normalize("/orders/4711/items/-1"));
+    assertEquals("/users/{}", RouteNormalizer.normalize("/users/0f8fad5b-d9cb-469f-a165-70867728950e"));
+    assertEquals("/blobs/{}", RouteNormalizer.normalize("/blobs/a3f5c09e1b2d4e6f7a8b"));
+    assertEquals("/v2/books", RouteNormalizer.normalize("/v2/books"));
+  }
+
+  @Test
+  void testODataKeysAreReplaced() {
+    assertEquals("/odata/v4/Books({})/author", RouteNormalizer.normalize("/odata/v4/Books(201)/author"));
+    assertEquals("/odata/v4/Books({})", RouteNormalizer.normalize("/odata/v4/Books(ID=1,IsActiveEntity=true)"));
+  }
+
+  @Test
+  void testLengthIsBounded() {
+    assertEquals(RouteNormalizer.MAX_LENGTH, RouteNormalizer.normalize("/" + "x".repeat(1000)).length());
+  }
+
+}
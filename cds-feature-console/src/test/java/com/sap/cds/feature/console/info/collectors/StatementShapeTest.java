@@ -0,0 +1,81 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sap.cds.feature.console.info.collectors.StatementCollector.StatementShape;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StatementShapeTest {
+
+  @Test
+  void testLiteralsAreStripped() {
+    StatementShape first = StatementShape.of(
+        "{\"SELECT\":{\"from\":{\"ref\":[\"Books\"]},\"where\":[{\"ref\":[\"ID\"]},\"=\",{\"val\":42}]}}");
+    StatementShape second = StatementShape.of(
+        "{\"SELECT\":{\"from\":{\"ref\":[\"Books\"]},\"where\":[{\"ref\":[\"ID\"]},\"=\",{\"val\":7}]}}");
+
+    assertEquals(first.shape(), second.shape());
+    assertEquals("{\"SELECT\":{\"from\":{\"ref\":[\"Books\"]},\"where\":[{\"ref\":[\"ID\"]},\"=\",{\"val\":\"?\"}]}}", first.shape());
+    assertEquals(List.of("42"), first.values());
+  }
+
+  @Test
+  void testStringLiteralsWithEscapes() {
+    StatementShape shape = StatementShape.of("{\"where\":[{\"ref\":[\"title\"]},\"=\",{\"val\":\"a \\\"b\\\", c}\"}]}");
+
+    assertEquals("{\"where\":[{\"ref\":[\"title\"]},\"=\",{\"val\":\"?\"}]}", shape.shape());
+    assertEquals(List.of("\"a \\\"b\\\", c}\""), shape.values());
+  }
+
+  @Test
+  void testInListsOfAnyLengthHaveTheSameShape() {
+    StatementShape two = StatementShape.of("{\"where\":[{\"ref\":[\"ID\"]},\"in\",{\"list\":[{\"val\":1},{\"val\":2}]}]}");
+    StatementShape three = StatementShape.of("{\"where\":[{\"ref\":[\"ID\"]},\"in\",{\"list\":[{\"val\":1},{\"val\":2},{\"val\":3}]}]}");
+    StatementShape one = StatementShape.of("{\"where\":[{\"ref\":[\"ID\"]},\"in\",{\"list\":[{\"val\":1}]}]}");
+
+    assertEquals(two.shape(), three.shape());
+    assertEquals(one.shape(), three.shape());
+    assertEquals(List.of("1", "2", "3"), three.values());
+  }
+
+  @Test
+  void testInsertEntriesAreStripped() {
+    StatementShape one = StatementShape.of(
+        "{\"INSERT\":{\"into\":{\"ref\":[\"Books\"]},\"entries\":[{\"ID\":1,\"title\":\"Emma\",\"author\":{\"ID\":7}}]}}");
+    StatementShape two = StatementShape.of(
+        "{\"INSERT\":{\"into\":{\"ref\":[\"Books\"]},\"entries\":[{\"ID\":2,\"title\":\"Persuasion\",\"author\":{\"ID\":7}},"
+            + "{\"ID\":3,\"title\":\"Sanditon\",\"author\":{\"ID\":null}}]}}");
+
+    assertEquals("{\"INSERT\":{\"into\":{\"ref\":[\"Books\"]},\"entries\":[{\"ID\":\"?\",\"title\":\"?\",\"author\":{\"ID\":\"?\"}}]}}", one.shape());
+    // bulk inserts of any size have the same shape
+    assertEquals(one.shape(), two.shape());
+    assertEquals(List.of("1", "\"Emma\"", "7"), one.values());
+    assertEquals(List.of("2", "\"Persuasion\"", "7", "3", "\"Sanditon\"", "null"), two.values());
+  }
+
+  @Test
+  void testUpdateDataIsStripped() {
+    StatementShape shape = StatementShape.of(
+        "{\"UPDATE\":{\"entity\":{\"ref\":[\"Books\"]},\"data\":{\"title\":\"Emma\",\"stock\":5},"
+            + "\"where\":[{\"ref\":[\"ID\"]},\"=\",{\"val\":1}]}}");
+
+    assertEquals("{\"UPDATE\":{\"entity\":{\"ref\":[\"Books\"]},\"data\":{\"title\":\"?\",\"stock\":\"?\"},"
+        + "\"where\":[{\"ref\":[\"ID\"]},\"=\",{\"val\":\"?\"}]}}", shape.shape());
+    assertEquals(List.of("\"Emma\"", "5", "1"), shape.values());
+  }
+
+  @Test
+  void testSampleValuesAreBounded() {
+    StringBuilder json = new StringBuilder("{\"list\":[");
+    for (int i = 0; i < 20; i++) {
+      json.append(i == 0 ? "" : ",").append("{\"val\":\"").append("x".repeat(200)).append("\"}");
+    }
+    StatementShape shape = StatementShape.of(json.append("]}").toString());
+
+    assertEquals(StatementCollector.MAX_SAMPLE_VALUES, shape.values().size());
+    assertEquals(StatementCollector.MAX_SAMPLE_VALUE_LENGTH, shape.values().get(0).length());
+    assertEquals("{\"list\":[{\"val\":\"?\"}]}", shape.shape());
+  }
+
+}
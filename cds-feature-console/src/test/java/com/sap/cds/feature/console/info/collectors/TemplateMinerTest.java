@@ -0,0 +1,120 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.sap.cds.feature.console.info.collectors.TemplateMiner.Match;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TemplateMinerTest {
+
+  private final TemplateMiner miner = new TemplateMiner();
+
+  @Test
+  void testPatternIsTemplate() {
+    Match first = miner.match(event("Order {} created by {}", 1, "alice"));
+    Match second = miner.match(event("Order {} created by {}", 2, "bob"));
+
+    assertTrue(first.changed());
+    assertFalse(second.changed());
+    assertEquals(first.template(), second.template());
+    assertEquals("Order {} created by {}", second.template().getPattern());
+    assertEquals(List.of("2", "bob"), second.args());
+  }
+
+  @Test
+  void testPreformattedMessagesAreClustered() {
+    Match first = miner.match(event("Connection to host-a established"));
+    Match second = miner.match(event("Connection to host-b established"));
+    Match third = miner.match(event("Connection to host-c established"));
+
+    assertTrue(first.changed());
+    assertTrue(second.changed());
+    assertFalse(third.changed());
+    assertEquals(first.template(), third.template());
+    assertEquals("Connection to {} established", third.template().getPattern());
+    assertEquals(List.of("host-c"), third.args());
+
+    // numbers are arguments right away
+    Match timed = miner.match(event("Request took 15 ms"));
+    assertEquals("Request took {} ms", timed.template().getPattern());
+    assertEquals(List.of("15"), timed.args());
+
+    Match different = miner.match(event("Shutting down the server now"));
+    assertNotEquals(first.template(), different.template());
+  }
+
+  @Test
+  void testTemplatesAreBounded() {
+    for (int i = 0; i < TemplateMiner.MAX_TEMPLATES; i++) {
+      miner.match(event("pattern " + i + " {}", i));
+    }
+    assertNull(miner.match(event("one pattern too many {}", 0)));
+    assertEquals(TemplateMiner.MAX_TEMPLATES, miner.getTemplates().size());
+  }
+
+  @Test
+  void testFullMinerDoesNotLearnGroups() {
+    for (int i = 0; i < TemplateMiner.MAX_TEMPLATES; i++) {
+      miner.match(event("pattern " + i + " {}", i));
+    }
+    int groups = miner.getGroupCount();
+    for (int i = 0; i < 1000; i++) {
+      assertNull(miner.match(event("first-token-" + (char) ('a' + i % 26) + i % 7 + " message")));
+      assertNull(miner.match(event("message of word count " + "x ".repeat(i % 50))));
+    }
+    assertEquals(groups, miner.getGroupCount());
+  }
+
+  @Test
+  void testConcurrentMatchesShareTemplates() throws Exception {
+    int threads = 4;
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      workers[t] = new Thread(() -> {
+        for (int i = 0; i < 1000; i++) {
+          miner.match(event("Order " + i + " shipped to host-" + i % 3));
+          miner.match(event("Order {} created", i));
+        }
+      });
+      workers[t].start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long count = miner.getTemplates().stream().mapToLong(TemplateMiner.LogTemplate::getCount).sum();
+    assertEquals(2L * threads * 1000, count);
+    assertTrue(miner.getTemplates().size() <= 3, "templates " + miner.getTemplates().size());
+    for (int i = 0; i < miner.getTemplates().size(); i++) {
+      assertEquals(i, miner.getTemplates().get(i).getId());
+    }
+  }
+
+  @Test
+  void testStatisticsAreSortedByRate() {
+    long start = System.nanoTime();
+    miner.takeStatistics(10, start);
+    miner.match(event("rare {}", 1));
+    for (int i = 0; i < 10; i++) {
+      miner.match(event("noisy {}", i));
+    }
+    List<Map<String, Object>> statistics = miner.takeStatistics(1, start + 1_000_000_000L);
+    assertEquals(1, statistics.size());
+    assertEquals(1, statistics.get(0).get("template"));
+    assertEquals(10L, statistics.get(0).get("count"));
+  }
+
+  private static LoggingEvent event(String message, Object... arguments) {
+    LoggingEvent event = new LoggingEvent();
+    event.setMessage(message);
+    event.setArgumentArray(arguments.length > 0 ? arguments : null);
+    return event;
+  }
+
+}
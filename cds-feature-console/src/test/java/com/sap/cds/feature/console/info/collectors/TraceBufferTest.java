@@ -0,0 +1,59 @@
+package com.sap.cds.feature.console.info.collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.sap.cds.feature.console.info.collectors.TraceBuffer.SpanRecord;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TraceBufferTest {
+
+  private static final long THRESHOLD = 500;
+
+  private static SpanRecord span(String traceId, String spanId, long duration, boolean error, boolean localRoot) {
+    return new SpanRecord(traceId, spanId, localRoot ? null : "root", "span", "INTERNAL", 0, duration, error, localRoot, Map.of());
+  }
+
+  @Test
+  void testFastTraceIsDiscarded() {
+    TraceBuffer buffer = new TraceBuffer();
+    assertNull(buffer.add(span("t1", "a", 10, false, false), THRESHOLD, true));
+    assertNull(buffer.add(span("t1", "root", 20, false, true), THRESHOLD, true));
+    assertEquals(0, buffer.getBufferedSpans());
+  }
+
+  @Test
+  void testSlowTraceIsSampledWhenRootEnds() {
+    TraceBuffer buffer = new TraceBuffer();
+    assertNull(buffer.add(span("t1", "a", 600, false, false), THRESHOLD, true));
+    assertNull(buffer.add(span("t2", "b", 10, false, false), THRESHOLD, true));
+    List<SpanRecord> trace = buffer.add(span("t1", "root", 700, false, true), THRESHOLD, true);
+    assertEquals(List.of("a", "root"), trace.stream().map(SpanRecord::spanId).toList());
+    assertEquals(1, buffer.getBufferedSpans());
+  }
+
+  @Test
+  void testErrorTraceIsSampledIfEnabled() {
+    TraceBuffer buffer = new TraceBuffer();
+    buffer.add(span("t1", "a", 10, true, false), THRESHOLD, true);
+    assertEquals(2, buffer.add(span("t1", "root", 20, false, true), THRESHOLD, true).size());
+
+    buffer.add(span("t2", "a", 10, true, false), THRESHOLD, false);
+    assertNull(buffer.add(span("t2", "root", 20, false, true), THRESHOLD, false));
+  }
+
+  @Test
+  void testOldestTracesAreEvicted() {
+    TraceBuffer buffer = new TraceBuffer();
+    buffer.add(span("old", "a", 600, false, false), THRESHOLD, true);
+    for (int i = 0; i < TraceBuffer.MAX_BUFFERED_SPANS; i++) {
+      buffer.add(span("new", "s" + i, 10, false, false), THRESHOLD, true);
+    }
+    assertEquals(TraceBuffer.MAX_BUFFERED_SPANS, buffer.getBufferedSpans());
+    assertEquals(1, buffer.getEvictedTraces());
+    assertNull(buffer.add(span("old", "root", 10, false, true), THRESHOLD, true));
+  }
+
+}
@@ -0,0 +1,51 @@
+package com.sap.cds.feature.console.outbound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class BackoffTest {
+
+  @Test
+  void testDelayDoublesUpToTheMaximumWithJitter() {
+    Backoff backoff = new Backoff(100, 1_000, new Random(42));
+    long[] ceilings = {100, 200, 400, 800, 1_000, 1_000};
+    for (long ceiling : ceilings) {
+      long delay = backoff.next();
+      assertTrue(delay >= ceiling / 2 && delay <= ceiling, delay + " not within " + ceiling);
+    }
+    assertEquals(6, backoff.getAttempts());
+  }
+
+  @Test
+  void testResetStartsWithTheMinimumDelay() {
+    Backoff backoff = new Backoff(100, 1_000, new Random(42));
+    for (int i = 0; i < 10; i++) {
+      backoff.next();
+    }
+    backoff.reset();
+    assertTrue(backoff.next() <= 100);
+  }
+
+  @Test
+  void testManyAttemptsDontOverflow() {
+    Backoff backoff = new Backoff(1, Long.MAX_VALUE / 4, new Random(42));
+    for (int i = 0; i < 100; i++) {
+      assertTrue(backoff.next() > 0);
+    }
+  }
+
+  @Test
+  void testJitterSpreadsTheDelays() {
+    Backoff backoff = new Backoff(1_000, 1_000, new Random(42));
+    Set<Long> delays = new HashSet<>();
+    for (int i = 0; i < 10; i++) {
+      delays.add(backoff.next());
+    }
+    assertTrue(delays.size() > 1);
+  }
+}
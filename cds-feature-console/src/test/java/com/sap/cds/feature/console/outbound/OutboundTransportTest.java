@@ -0,0 +1,232 @@
+package com.sap.cds.feature.console.outbound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.sap.cds.feature.console.connectivity.OutboundSettings;
+import com.sap.cds.feature.console.service.CommandEvent;
+import com.sap.cds.feature.console.service.CommandEventContext;
+import com.sap.cds.feature.console.service.RemoteMonitoringService;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class OutboundTransportTest {
+
+  private static final String LOGS = "/cap-console/logs";
+
+  private final RemoteMonitoringService service = mock(RemoteMonitoringService.class);
+  private StandInRelay relay;
+  private OutboundTransport transport;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (transport != null) {
+      transport.close();
+    }
+    if (relay != null) {
+      relay.stop();
+    }
+  }
+
+  @Test
+  void testEventsAreSentAndCommandsReceived() throws Exception {
+    relay = StandInRelay.start(0);
+    transport = new OutboundTransport(settings(relay.getPort(), 100), service);
+    transport.start();
+
+    assertTrue(relay.opened.await(5, TimeUnit.SECONDS));
+    assertEquals("app-0", relay.instance);
+    await(transport::isConnected);
+    verify(service, timeout(2_000)).emit(any(CommandEventContext.class));
+
+    assertTrue(transport.send("{\"n\":1}", LOGS, null));
+    assertEquals("{\"n\":1}", relay.messages.poll(5, TimeUnit.SECONDS));
+
+    relay.broadcast("{\"command\":\"logging/update\",\"data\":{\"loggers\":[{\"logger\":\"root\",\"level\":\"DEBUG\"}]}}");
+    verify(service, timeout(2_000)).emit(any(CommandEvent.class));
+  }
+
+  @Test
+  void testEventsAreBufferedWhileDisconnectedAndResumedInOrder() throws Exception {
+    int port = freePort();
+    transport = new OutboundTransport(settings(port, 3), service);
+    transport.start();
+
+    for (int i = 1; i <= 5; i++) {
+      assertTrue(transport.send("{\"n\":" + i + "}", LOGS, null));
+    }
+    assertFalse(transport.isConnected());
+    assertEquals(3, transport.getBacklog());
+    assertEquals(2L, transport.getStatistics().get("dropped"));
+
+    relay = StandInRelay.start(port);
+    for (int i = 3; i <= 5; i++) {
+      assertEquals("{\"n\":" + i + "}", relay.messages.poll(5, TimeUnit.SECONDS));
+    }
+    await(() -> transport.getBacklog() == 0);
+
+    // the connection is lost and reopened
+    relay.stop();
+    await(() -> !transport.isConnected());
+    transport.send("{\"n\":6}", LOGS, null);
+    relay = StandInRelay.start(port);
+    assertEquals("{\"n\":6}", relay.messages.poll(5, TimeUnit.SECONDS));
+    assertTrue((Long) transport.getStatistics().get("reconnects") > 0);
+  }
+
+  @Test
+  void testResumeIsLimitedByTheResumeRate() throws Exception {
+    int port = freePort();
+    OutboundSettings settings = new OutboundSettings(true, URI.create("ws://localhost:" + port + LOGS), null, 1_000,
+        Duration.ofMillis(20), Duration.ofMillis(200), 100);
+    transport = new OutboundTransport(settings, service);
+    transport.start();
+    for (int i = 0; i < 50; i++) {
+      transport.send("{\"n\":" + i + "}", LOGS, null);
+    }
+
+    relay = StandInRelay.start(port);
+    await(transport::isConnected);
+    // 100 events per second are sent in shares of 10 per flush
+    Thread.sleep(150);
+    assertTrue(transport.getBacklog() >= 10, "backlog " + transport.getBacklog());
+    await(() -> relay.messages.size() == 50);
+    assertEquals(0, transport.getBacklog());
+  }
+
+  @Test
+  void testLiveEventsAreNotLimitedByTheResumeRate() throws Exception {
+    int port = freePort();
+    OutboundSettings settings = new OutboundSettings(true, URI.create("ws://localhost:" + port + LOGS), null, 1_000,
+        Duration.ofMillis(20), Duration.ofMillis(200), 10);
+    transport = new OutboundTransport(settings, service);
+    transport.start();
+    for (int i = 0; i < 50; i++) {
+      transport.send("{\"n\":" + i + "}", LOGS, null);
+    }
+
+    relay = StandInRelay.start(port);
+    await(transport::isConnected);
+    for (int i = 0; i < 100; i++) {
+      transport.send("{\"live\":" + i + "}", LOGS, null);
+    }
+    // the live events are sent right away, while the buffered events are resumed at 10 per second
+    await(() -> relay.messages.stream().filter(m -> m.startsWith("{\"live\"")).count() == 100);
+    assertTrue(transport.getBacklog() > 0, "backlog " + transport.getBacklog());
+    assertEquals(0L, transport.getStatistics().get("dropped"));
+  }
+
+  @Test
+  void testOnlyLogsOfTheTenantAreForwarded() {
+    OutboundSettings settings = new OutboundSettings(true, URI.create("ws://localhost:1" + LOGS + "?tenant=t1"), null, 10,
+        Duration.ofMillis(20), Duration.ofMillis(200), 10);
+    transport = new OutboundTransport(settings, service);
+
+    assertTrue(transport.hasClients(LOGS));
+    assertFalse(transport.hasClients("/cap-console/self"));
+    assertTrue(transport.accepts(LOGS, "t1"));
+    assertTrue(transport.accepts(LOGS, null));
+    assertFalse(transport.accepts(LOGS, "t2"));
+    assertFalse(transport.send("{}", "/cap-console/self", null));
+    assertFalse(transport.send("{}", LOGS, "t2"));
+    assertTrue(transport.send("{}", LOGS, "t1"));
+    assertEquals(1, transport.getBacklog());
+  }
+
+  @Test
+  void testClosedTransportRejectsEvents() {
+    transport = new OutboundTransport(settings(1, 10), service);
+    transport.close();
+
+    assertFalse(transport.hasClients(LOGS));
+    assertFalse(transport.send("{}", LOGS, null));
+  }
+
+  private static OutboundSettings settings(int port, int queueCapacity) {
+    return new OutboundSettings(true, URI.create("ws://localhost:" + port + LOGS), "app-0", queueCapacity,
+        Duration.ofMillis(20), Duration.ofMillis(200), 10_000);
+  }
+
+  private static int freePort() throws Exception {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Stand-in for the console relay, which records the received events.
+   */
+  private static final class StandInRelay extends WebSocketServer {
+
+    private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch opened = new CountDownLatch(1);
+    private volatile String instance;
+
+    private StandInRelay(int port) {
+      super(new InetSocketAddress(port));
+      setReuseAddr(true);
+    }
+
+    static StandInRelay start(int port) throws InterruptedException {
+      StandInRelay relay = new StandInRelay(port);
+      relay.start();
+      assertTrue(relay.started.await(5, TimeUnit.SECONDS));
+      return relay;
+    }
+
+    @Override
+    public void onOpen(WebSocket conn, ClientHandshake handshake) {
+      instance = handshake.getFieldValue(OutboundSettings.INSTANCE_HEADER);
+      opened.countDown();
+    }
+
+    @Override
+    public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, String message) {
+      messages.add(message);
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, ByteBuffer message) {
+    }
+
+    @Override
+    public void onError(WebSocket conn, Exception ex) {
+    }
+
+    @Override
+    public void onStart() {
+      started.countDown();
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.sap.cds.feature.console.recording;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sap.cds.feature.console.recording.RecordingReader.Block;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RecordingTest {
+
+  @TempDir
+  Path directory;
+
+  private static List<RecordedEvent> readAll(RecordingReader reader) throws IOException {
+    List<RecordedEvent> events = new ArrayList<>();
+    for (Block block : reader.getBlocks()) {
+      events.addAll(reader.read(block));
+    }
+    return events;
+  }
+
+  @Test
+  void testEventsAreReadInOrder() throws Exception {
+    Path file = directory.resolve("session.caprec");
+    try (RecordingWriter writer = RecordingWriter.start(file, Long.MAX_VALUE)) {
+      for (int i = 0; i < 1000; i++) {
+        assertTrue(writer.record("/cap-console/logs", i % 2 == 0 ? "t1" : null, "{\"n\":" + i + ",\"text\":\"äöü\"}"));
+      }
+    }
+
+    try (RecordingReader reader = RecordingReader.open(file)) {
+      List<RecordedEvent> events = readAll(reader);
+      assertEquals(1000, events.size());
+      assertEquals("{\"n\":0,\"text\":\"äöü\"}", events.get(0).message());
+      assertEquals("t1", events.get(0).tenant());
+      assertNull(events.get(1).tenant());
+      assertEquals("{\"n\":999,\"text\":\"äöü\"}", events.get(999).message());
+      for (int i = 1; i < events.size(); i++) {
+        assertTrue(events.get(i).timestamp() >= events.get(i - 1).timestamp());
+      }
+      assertEquals(0, reader.findBlock(0));
+      assertEquals(reader.getBlocks().size(), reader.findBlock(Long.MAX_VALUE));
+    }
+  }
+
+  @Test
+  void testLargeRecordingIsSplitIntoCompressedBlocks() throws Exception {
+    Path file = directory.resolve("large.caprec");
+    String message = "{\"level\":\"INFO\",\"logger\":\"my.app\",\"message\":\"" + "x".repeat(1000) + "\"}";
+    int count = 2000;
+    try (RecordingWriter writer = RecordingWriter.start(file, Long.MAX_VALUE)) {
+      for (int i = 0; i < count; i++) {
+        while (!writer.record("/cap-console/logs", null, message)) {
+          Thread.sleep(1);
+        }
+      }
+    }
+    assertTrue(Files.size(file) < (long) count * message.length() / 10);
+    try (RecordingReader reader = RecordingReader.open(file)) {
+      assertTrue(reader.getBlocks().size() > 1);
+      assertEquals(count, reader.getBlocks().stream().mapToInt(Block::events).sum());
+      assertEquals(count, readAll(reader).size());
+    }
+  }
+
+  @Test
+  void testRecordingWithoutIndexIsScanned() throws Exception {
+    Path file = directory.resolve("crashed.caprec");
+    try (RecordingWriter writer = RecordingWriter.start(file, Long.MAX_VALUE)) {
+      writer.record("/cap-console/logs", null, "first");
+      writer.record("/cap-console/logs", null, "second");
+    }
+    // cut the index and trailer off and leave a partial block, as if the process ended while writing
+    long blocksEnd = Files.size(file) - RecordingFormat.INDEX_ENTRY_SIZE - RecordingFormat.TRAILER_SIZE;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(blocksEnd);
+      channel.write(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 0}), blocksEnd);
+    }
+    try (RecordingReader reader = RecordingReader.open(file)) {
+      assertEquals(List.of("first", "second"), readAll(reader).stream().map(RecordedEvent::message).toList());
+    }
+  }
+
+  @Test
+  void testMaximumSizeEndsRecording() throws Exception {
+    Path file = directory.resolve("limited.caprec");
+    RecordingWriter writer = RecordingWriter.start(file, 1);
+    writer.record("/cap-console/logs", null, "first");
+    for (int i = 0; i < 50 && writer.isActive(); i++) {
+      Thread.sleep(100);
+    }
+    assertTrue(writer.isLimitReached());
+    assertFalse(writer.record("/cap-console/logs", null, "second"));
+    writer.close();
+    try (RecordingReader reader = RecordingReader.open(file)) {
+      assertEquals(1, readAll(reader).size());
+    }
+  }
+
+  @Test
+  void testReplayKeepsOrder() throws Exception {
+    Path file = directory.resolve("replay.caprec");
+    try (RecordingWriter writer = RecordingWriter.start(file, Long.MAX_VALUE)) {
+      for (int i = 0; i < 100; i++) {
+        writer.record("/cap-console/logs", null, Integer.toString(i));
+      }
+    }
+    List<String> replayed = new ArrayList<>();
+    try (RecordingReader reader = RecordingReader.open(file)) {
+      assertEquals(100, SessionReplay.replay(reader, 0, event -> replayed.add(event.message())));
+      assertEquals(100, SessionReplay.replay(reader, 1000, event -> {}));
+    }
+    for (int i = 0; i < 100; i++) {
+      assertEquals(Integer.toString(i), replayed.get(i));
+    }
+  }
+
+  @Test
+  void testOtherFilesAreRejected() throws Exception {
+    Path file = directory.resolve("other.txt");
+    Files.writeString(file, "no recording");
+    assertThrows(IOException.class, () -> RecordingReader.open(file));
+  }
+
+}
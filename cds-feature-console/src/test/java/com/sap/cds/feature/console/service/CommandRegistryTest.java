@@ -0,0 +1,79 @@
+package com.sap.cds.feature.console.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sap.cds.services.handler.annotations.On;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class CommandRegistryTest {
+
+  @Test
+  void testCommandsAreRegisteredFromTheOnAnnotations() {
+    CommandRegistry registry = CommandRegistry.of(List.of(new EchoHandler()));
+
+    assertEquals(Set.of("echo", "ping"), registry.getCommands());
+    assertTrue(registry.isRegistered("echo"));
+    assertFalse(registry.isRegistered("*"));
+    assertFalse(registry.isRegistered("ignored"));
+    assertFalse(registry.isRegistered("other"));
+  }
+
+  @Test
+  void testCommandsOfAllHandlersAreRegistered() {
+    CommandRegistry registry = CommandRegistry.of(List.of(new EchoHandler(), new StatusHandler()));
+
+    assertEquals(Set.of("echo", "ping", "status"), registry.getCommands());
+  }
+
+  @Test
+  void testOnlyCommandsInTheNamespacesOfThePluginAreUnknown() {
+    CommandRegistry registry = CommandRegistry.of(List.of(new LoggingHandler()));
+
+    assertFalse(registry.isUnknown("logging/update"));
+    assertTrue(registry.isUnknown("logging/other"));
+    assertTrue(registry.isUnknown(null));
+    // custom commands of the application are left to its handlers
+    assertFalse(registry.isUnknown("app/custom"));
+    assertFalse(registry.isUnknown("custom"));
+  }
+
+  private static class EchoHandler {
+
+    @On(event = "echo")
+    private void echo(CommandEventContext context) {
+      context.setResult(context.getData().get("text"));
+    }
+
+    @On(event = "ping")
+    void ping() {
+    }
+
+    @On(event = "*")
+    void any(CommandEventContext context) {
+    }
+
+    @On(event = "ignored")
+    void ignored(String notAContext) {
+    }
+  }
+
+  private static class LoggingHandler {
+
+    @On(event = "logging/update")
+    void update(CommandEventContext context) {
+    }
+  }
+
+  private static class StatusHandler extends EchoHandler {
+
+    @On(event = {"status", "ping"})
+    void status(CommandEventContext context) {
+      context.setResult("up");
+    }
+  }
+
+}
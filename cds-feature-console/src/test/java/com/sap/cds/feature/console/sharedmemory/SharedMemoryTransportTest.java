@@ -0,0 +1,123 @@
+package com.sap.cds.feature.console.sharedmemory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SharedMemoryTransportTest {
+
+  private static final String LOGS = "/cap-console/logs";
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testEventsAreReadInOrder() throws Exception {
+    Path file = directory.resolve("ring");
+    try (SharedMemoryTransport transport = SharedMemoryTransport.create(file, SharedMemoryTransport.MIN_CAPACITY);
+        SharedMemoryReader reader = SharedMemoryReader.open(file)) {
+      assertTrue(transport.send("{\"n\":1,\"text\":\"äöü\"}", LOGS, "t1"));
+      assertTrue(transport.send("{\"n\":2}", LOGS, null));
+
+      List<SharedMemoryEvent> events = new ArrayList<>();
+      assertEquals(2, reader.poll(events::add, 100));
+      assertEquals(new SharedMemoryEvent(1, LOGS, "t1", "{\"n\":1,\"text\":\"äöü\"}"), events.get(0));
+      assertNull(events.get(1).tenant());
+      assertEquals(0, reader.poll(events::add, 100));
+      assertEquals(0, reader.getLost());
+    }
+  }
+
+  @Test
+  void testReaderStartsWithNewEvents() throws Exception {
+    Path file = directory.resolve("ring");
+    try (SharedMemoryTransport transport = SharedMemoryTransport.create(file, SharedMemoryTransport.MIN_CAPACITY)) {
+      transport.send("old", LOGS, null);
+      try (SharedMemoryReader reader = SharedMemoryReader.open(file)) {
+        transport.send("new", LOGS, null);
+        List<String> messages = new ArrayList<>();
+        reader.poll(event -> messages.add(event.message()), 100);
+        assertEquals(List.of("new"), messages);
+      }
+    }
+  }
+
+  @Test
+  void testReaderFollowsWrapAround() throws Exception {
+    Path file = directory.resolve("ring");
+    try (SharedMemoryTransport transport = SharedMemoryTransport.create(file, SharedMemoryTransport.MIN_CAPACITY);
+        SharedMemoryReader reader = SharedMemoryReader.open(file)) {
+      String message = "x".repeat(1000);
+      List<SharedMemoryEvent> events = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        transport.send(message + i, LOGS, null);
+        reader.poll(events::add, 10);
+      }
+      assertEquals(1000, events.size());
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(i + 1, events.get(i).sequence());
+        assertEquals(message + i, events.get(i).message());
+      }
+      assertEquals(0, reader.getLost());
+    }
+  }
+
+  @Test
+  void testSlowReaderDetectsLostEvents() throws Exception {
+    Path file = directory.resolve("ring");
+    try (SharedMemoryTransport transport = SharedMemoryTransport.create(file, SharedMemoryTransport.MIN_CAPACITY);
+        SharedMemoryReader reader = SharedMemoryReader.open(file)) {
+      String message = "x".repeat(1000);
+      for (int i = 0; i < 200; i++) {
+        transport.send(message, LOGS, null);
+      }
+      List<SharedMemoryEvent> events = new ArrayList<>();
+      reader.poll(events::add, 1000);
+      transport.send("latest", LOGS, null);
+      reader.poll(events::add, 1000);
+
+      assertTrue(reader.getLost() > 0);
+      assertEquals(201, reader.getLost() + events.size());
+      assertEquals("latest", events.get(events.size() - 1).message());
+      assertEquals(201, reader.getLastSequence());
+    }
+  }
+
+  @Test
+  void testReadersAreDetectedByHeartbeat() throws Exception {
+    Path file = directory.resolve("ring");
+    try (SharedMemoryTransport transport = SharedMemoryTransport.create(file, SharedMemoryTransport.MIN_CAPACITY)) {
+      assertFalse(transport.hasClients(LOGS));
+      try (SharedMemoryReader reader = SharedMemoryReader.open(file)) {
+        assertTrue(transport.hasClients(LOGS));
+      }
+    }
+  }
+
+  @Test
+  void testOversizedEventsAreDropped() throws Exception {
+    Path file = directory.resolve("ring");
+    try (SharedMemoryTransport transport = SharedMemoryTransport.create(file, SharedMemoryTransport.MIN_CAPACITY)) {
+      assertFalse(transport.send("x".repeat(SharedMemoryTransport.MIN_CAPACITY), LOGS, null));
+      assertEquals(1L, transport.getStatistics().get("dropped"));
+    }
+  }
+
+  @Test
+  void testOtherFilesAreRejected() throws Exception {
+    Path file = directory.resolve("other");
+    Files.writeString(file, "x".repeat(100));
+    assertThrows(IOException.class, () -> SharedMemoryReader.open(file));
+  }
+
+}